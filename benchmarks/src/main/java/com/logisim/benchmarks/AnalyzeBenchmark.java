@@ -0,0 +1,71 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures truth table generation for random combinational circuits with
+ * 8 to 20 switches, both as the boolean table shown in the UI and in the
+ * bit-packed form, on the calling thread and on the common pool, and as a
+ * stream of rows that is consumed without materializing the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AnalyzeBenchmark {
+
+    @Param({ "8", "12", "16", "20" })
+    public int inputs;
+
+    private Circuit circuit;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.randomLogic(inputs, 42);
+    }
+
+    @Benchmark
+    public boolean[][] analyze() {
+        return circuit.analyze();
+    }
+
+    @Benchmark
+    public boolean[][] analyzeParallel() {
+        return circuit.analyze(ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public long[][] analyzePacked() {
+        return circuit.analyzePacked();
+    }
+
+    @Benchmark
+    public long[][] analyzePackedParallel() {
+        return circuit.analyzePacked(ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public long streamTruthTable() {
+        return circuit.streamTruthTable().filter(row -> row.getOutput(0)).count();
+    }
+
+    @Benchmark
+    public long streamTruthTableParallel() {
+        return circuit.streamTruthTable().parallel().filter(row -> row.getOutput(0)).count();
+    }
+}
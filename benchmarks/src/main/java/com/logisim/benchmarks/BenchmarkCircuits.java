@@ -0,0 +1,253 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the circuits the benchmarks run on.
+ * <p>
+ * Every builder is deterministic, so numbers from different runs and
+ * different engines are measured on the same circuits.
+ * </p>
+ */
+final class BenchmarkCircuits {
+
+    /**
+     * The shapes of And/Or/Not circuits measured by {@link SimulateBenchmark}.
+     */
+    enum Shape {
+        /**
+         * One long path: every gate reads the previous one.
+         */
+        CHAIN,
+        /**
+         * A balanced reduction tree over a bank of switches.
+         */
+        TREE,
+        /**
+         * A square grid where every gate reads its upper and left neighbours.
+         */
+        MESH,
+    }
+
+    /**
+     * The number of switches feeding a tree.
+     */
+    private static final int TREE_SWITCHES = 16;
+
+    private BenchmarkCircuits() {}
+
+    /**
+     * Builds a circuit of the given shape with roughly {@code gates} gates.
+     * Its first switch feeds the first gates, so toggling it makes every
+     * engine re-evaluate the circuit.
+     *
+     * @param shape The shape.
+     * @param gates The approximate number of And, Or and Not gates.
+     * @return The circuit.
+     */
+    static Circuit build(Shape shape, int gates) {
+        return switch (shape) {
+            case CHAIN -> chain(gates);
+            case TREE -> tree(gates);
+            case MESH -> mesh(gates);
+        };
+    }
+
+    /**
+     * Builds a chain cycling through Not, And and Or. Both pins of the And
+     * and Or gates read the previous gate, so a change at the switch always
+     * travels the whole chain.
+     */
+    static Circuit chain(int gates) {
+        Circuit circuit = new Circuit();
+        Switch a = add(circuit, new Switch());
+        Component previous = a;
+        for (int i = 0; i < gates; i++) {
+            Component gate = switch (i % 3) {
+                case 0 -> add(circuit, new Not());
+                case 1 -> add(circuit, new And());
+                default -> add(circuit, new Or());
+            };
+            circuit.addConnection(0, previous, 0, gate);
+            if (!(gate instanceof Not)) {
+                circuit.addConnection(0, previous, 1, gate);
+            }
+            previous = gate;
+        }
+        circuit.addConnection(0, previous, 0, add(circuit, new Bulb()));
+        return circuit;
+    }
+
+    /**
+     * Builds a reduction tree of alternating And and Or levels whose leaves
+     * read a bank of switches.
+     */
+    static Circuit tree(int gates) {
+        Circuit circuit = new Circuit();
+        List<Switch> switches = new ArrayList<>();
+        for (int i = 0; i < TREE_SWITCHES; i++) {
+            switches.add(add(circuit, new Switch()));
+        }
+        List<Component> level = new ArrayList<>();
+        int leaves = Math.max(1, (gates + 1) / 2);
+        for (int i = 0; i < leaves; i++) {
+            Component gate = add(circuit, new Or());
+            circuit.addConnection(0, switches.get(i % TREE_SWITCHES), 0, gate);
+            circuit.addConnection(0, switches.get((i + 1) % TREE_SWITCHES), 1, gate);
+            level.add(gate);
+        }
+        boolean and = true;
+        while (level.size() > 1) {
+            List<Component> next = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                Component gate = add(circuit, and ? new And() : new Or());
+                circuit.addConnection(0, level.get(i), 0, gate);
+                circuit.addConnection(0, level.get(i + 1), 1, gate);
+                next.add(gate);
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.get(level.size() - 1));
+            }
+            level = next;
+            and = !and;
+        }
+        circuit.addConnection(0, level.get(0), 0, add(circuit, new Bulb()));
+        return circuit;
+    }
+
+    /**
+     * Builds a square grid of And and Or gates with a Not on every third
+     * diagonal; the top row and left column read switches.
+     */
+    static Circuit mesh(int gates) {
+        int side = Math.max(2, (int) Math.round(Math.sqrt(gates)));
+        Circuit circuit = new Circuit();
+        Switch a = add(circuit, new Switch());
+        Switch b = add(circuit, new Switch());
+        Component[][] grid = new Component[side][side];
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                Component up = r == 0 ? a : grid[r - 1][c];
+                Component left = c == 0 ? b : grid[r][c - 1];
+                Component gate;
+                if ((r + c) % 3 == 2) {
+                    gate = add(circuit, new Not());
+                    circuit.addConnection(0, (r + c) % 2 == 0 ? up : left, 0, gate);
+                } else {
+                    gate = add(circuit, (r + c) % 3 == 0 ? new And() : new Or());
+                    circuit.addConnection(0, up, 0, gate);
+                    circuit.addConnection(0, left, 1, gate);
+                }
+                grid[r][c] = gate;
+            }
+        }
+        for (int i = 0; i < side; i++) {
+            circuit.addConnection(0, grid[side - 1][i], 0, add(circuit, new Bulb()));
+        }
+        return circuit;
+    }
+
+    /**
+     * Builds a random combinational circuit over {@code inputs} switches:
+     * four gates per input, each reading switches or earlier gates, and two
+     * bulbs on the last gates.
+     *
+     * @param inputs The number of switches.
+     * @param seed   The random seed.
+     * @return The circuit.
+     */
+    static Circuit randomLogic(int inputs, long seed) {
+        Random random = new Random(seed);
+        Circuit circuit = new Circuit();
+        List<Component> signals = new ArrayList<>();
+        for (int i = 0; i < inputs; i++) {
+            signals.add(add(circuit, new Switch()));
+        }
+        for (int i = 0; i < 4 * inputs; i++) {
+            // Read the newest signals more often, so the circuit gets deep.
+            Component x = signals.get(pick(random, signals.size()));
+            Component y = signals.get(pick(random, signals.size()));
+            Component gate;
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    gate = add(circuit, new Not());
+                    circuit.addConnection(0, x, 0, gate);
+                }
+                case 1, 2 -> {
+                    gate = add(circuit, new And());
+                    circuit.addConnection(0, x, 0, gate);
+                    circuit.addConnection(0, y, 1, gate);
+                }
+                default -> {
+                    gate = add(circuit, new Or());
+                    circuit.addConnection(0, x, 0, gate);
+                    circuit.addConnection(0, y, 1, gate);
+                }
+            }
+            signals.add(gate);
+        }
+        for (int i = 1; i <= 2; i++) {
+            Component last = signals.get(signals.size() - i);
+            circuit.addConnection(0, last, 0, add(circuit, new Bulb()));
+        }
+        return circuit;
+    }
+
+    private static int pick(Random random, int size) {
+        int window = Math.min(size, 8);
+        return random.nextBoolean()
+            ? size - 1 - random.nextInt(window)
+            : random.nextInt(size);
+    }
+
+    /**
+     * Builds sub-circuits nested {@code depth} levels deep. The innermost
+     * circuit is a chain of {@code gates} gates; every other level places
+     * two instances of the level below in series.
+     *
+     * @param depth The nesting depth; 0 builds the plain chain.
+     * @param gates The number of gates in the innermost chain.
+     * @return The outermost circuit, with one switch and one bulb.
+     */
+    static Circuit nested(int depth, int gates) {
+        Circuit inner = chain(gates);
+        for (int level = 0; level < depth; level++) {
+            Circuit outer = new Circuit();
+            Switch in = add(outer, new Switch());
+            SubCircuitComponent first = add(outer, new SubCircuitComponent(inner));
+            // Each instance owns its inner circuit, so the second needs a copy.
+            SubCircuitComponent second = add(
+                outer,
+                new SubCircuitComponent(nested(level, gates))
+            );
+            Bulb out = add(outer, new Bulb());
+            outer.addConnection(0, in, 0, first);
+            outer.addConnection(0, first, 0, second);
+            outer.addConnection(0, second, 0, out);
+            inner = outer;
+        }
+        return inner;
+    }
+
+    /**
+     * Adds a component at a position derived from its index, so persisted
+     * circuits have distinct coordinates.
+     */
+    private static <T extends Component> T add(Circuit circuit, T component) {
+        int index = circuit.getComponents().size();
+        component.setPositionX(120.0 * (index % 100));
+        component.setPositionY(120.0 * (index / 100));
+        circuit.addComponent(component);
+        return component;
+    }
+}
@@ -0,0 +1,74 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.minimization.ExpressionForm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Circuit#generateBooleanExpression(boolean[][], List)} and
+ * the minimization of every packed output column on the truth tables of
+ * random combinational circuits, excluding the time to build the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BooleanExpressionBenchmark {
+
+    @Param({ "4", "8", "12", "16", "20" })
+    public int inputs;
+
+    private Circuit circuit;
+    private boolean[][] truthTable;
+    private long[][] columns;
+    private List<String> inputNames;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.randomLogic(inputs, 42);
+        truthTable = circuit.analyze();
+        columns = circuit.analyzePacked();
+        inputNames = new ArrayList<>();
+        for (int i = 0; i < inputs; i++) {
+            inputNames.add("X" + i);
+        }
+    }
+
+    @Benchmark
+    public String generateBooleanExpression() {
+        return circuit.generateBooleanExpression(truthTable, inputNames);
+    }
+
+    @Benchmark
+    public List<String> sumOfProductsPacked() {
+        return circuit.generateBooleanExpressions(
+            columns,
+            inputNames,
+            ExpressionForm.SUM_OF_PRODUCTS
+        );
+    }
+
+    @Benchmark
+    public List<String> productOfSumsPacked() {
+        return circuit.generateBooleanExpressions(
+            columns,
+            inputNames,
+            ExpressionForm.PRODUCT_OF_SUMS
+        );
+    }
+}
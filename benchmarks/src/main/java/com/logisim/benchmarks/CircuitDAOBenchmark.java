@@ -0,0 +1,89 @@
+package com.logisim.benchmarks;
+
+import com.logisim.data.CircuitDAO;
+import com.logisim.data.DatabaseManager;
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving, updating and loading a circuit through {@link CircuitDAO}
+ * against a scratch SQLite file.
+ * <p>
+ * Every benchmark method runs in its own fork with a fresh database, so the
+ * rows added by {@link #saveCircuit()} do not slow down the other methods.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CircuitDAOBenchmark {
+
+    /**
+     * The project every saved circuit belongs to.
+     */
+    private static final long PROJECT_ID = 1;
+
+    @Param({ "100", "1000", "10000" })
+    public int gates;
+
+    private final CircuitDAO circuitDAO = new CircuitDAO();
+    private Path database;
+    private Circuit circuit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = Files.createTempFile("logisim-bench", ".db");
+        DatabaseManager.setDatabasePath(database.toString());
+        DatabaseManager.getInstance();
+
+        circuit = BenchmarkCircuits.mesh(gates);
+        circuit.setName("Mesh " + gates);
+        circuitDAO.saveCircuit(circuit, PROJECT_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(database);
+    }
+
+    @Benchmark
+    public void saveCircuit() {
+        circuitDAO.saveCircuit(circuit, PROJECT_ID);
+    }
+
+    @Benchmark
+    public void updateCircuit() {
+        circuitDAO.updateCircuit(circuit);
+    }
+
+    @Benchmark
+    public List<Component> loadComponents() {
+        return circuitDAO.loadComponents(circuit.getId());
+    }
+
+    @Benchmark
+    public Circuit loadCircuit() {
+        return circuitDAO.loadCircuit(circuit.getId());
+    }
+}
@@ -0,0 +1,71 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one {@link Circuit#settle()} after a switch changes, for every
+ * engine except {@link SimulationMode#SWEEP} on chains, trees and meshes of
+ * And, Or and Not gates. The sweep engine, the baseline the others are held
+ * against, is measured by {@link SweepSimulateBenchmark}, which stops at sizes
+ * it can settle in reasonable time.
+ * <p>
+ * The first call of each trial builds the engine's cached structures, so the
+ * measured iterations show the steady state seen by the UI while a user
+ * toggles switches.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulateBenchmark {
+
+    @Param({ "CHAIN", "TREE", "MESH" })
+    public BenchmarkCircuits.Shape shape;
+
+    @Param({ "100", "1000", "10000" })
+    public int gates;
+
+    @Param({ "EVENT_DRIVEN", "LEVELIZED", "NETLIST", "COMPILED", "TIMED", "PARALLEL" })
+    public SimulationMode mode;
+
+    private Circuit circuit;
+    private Switch input;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.build(shape, gates);
+        circuit.setSimulationMode(mode);
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch sw) {
+                input = sw;
+                break;
+            }
+        }
+        circuit.settle();
+    }
+
+    @Benchmark
+    public SimulationResult toggleAndSettle() {
+        input.setState(!input.isOn());
+        return circuit.settle();
+    }
+}
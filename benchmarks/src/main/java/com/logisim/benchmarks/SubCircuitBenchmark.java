@@ -0,0 +1,69 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures settling a circuit whose logic sits {@code depth} sub-circuit
+ * levels down, with two instances per level, so the leaf chains are placed
+ * {@code 2^depth} times.
+ * <p>
+ * After the first two toggles the sub-circuit result caches are warm, which
+ * is what a user sees when clicking through a design.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SubCircuitBenchmark {
+
+    @Param({ "0", "1", "2", "4", "6", "8" })
+    public int depth;
+
+    @Param({ "LEVELIZED", "NETLIST" })
+    public SimulationMode mode;
+
+    /**
+     * The number of gates in each innermost chain.
+     */
+    private static final int LEAF_GATES = 30;
+
+    private Circuit circuit;
+    private Switch input;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.nested(depth, LEAF_GATES);
+        circuit.setSimulationMode(mode);
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch sw) {
+                input = sw;
+            }
+        }
+        circuit.settle();
+    }
+
+    @Benchmark
+    public SimulationResult toggleAndSettle() {
+        input.setState(!input.isOn());
+        return circuit.settle();
+    }
+}
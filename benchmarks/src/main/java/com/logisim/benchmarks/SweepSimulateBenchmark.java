@@ -0,0 +1,66 @@
+package com.logisim.benchmarks;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one {@link Circuit#settle()} after a switch changes with the
+ * original {@link SimulationMode#SWEEP} engine, on the same circuits as
+ * {@link SimulateBenchmark}.
+ * <p>
+ * A sweep pass scans every connector for every component, so 10000-gate
+ * circuits are left out; the 100 and 1000 gate results are the baseline for
+ * the other engines.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SweepSimulateBenchmark {
+
+    @Param({ "CHAIN", "TREE", "MESH" })
+    public BenchmarkCircuits.Shape shape;
+
+    @Param({ "100", "1000" })
+    public int gates;
+
+    private Circuit circuit;
+    private Switch input;
+
+    @Setup
+    public void setUp() {
+        circuit = BenchmarkCircuits.build(shape, gates);
+        circuit.setSimulationMode(SimulationMode.SWEEP);
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch sw) {
+                input = sw;
+                break;
+            }
+        }
+        circuit.settle();
+    }
+
+    @Benchmark
+    public SimulationResult toggleAndSettle() {
+        input.setState(!input.isOn());
+        return circuit.settle();
+    }
+}
@@ -0,0 +1,470 @@
+package com.logisim;
+
+import com.logisim.data.CircuitDAO;
+import com.logisim.data.DatabaseManager;
+import com.logisim.data.ProjectDAO;
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Project;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.minimization.ExpressionForm;
+import com.logisim.domain.minimization.LogicMinimizer;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.TruthTable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Command-line entry point that runs without JavaFX or a display.
+ * <p>
+ * Circuits are loaded from the SQLite database by project and circuit ID and
+ * then simulated, analyzed or exported, or generated and saved, so the
+ * application can be used from scripts and CI containers. Only the domain
+ * and data packages are loaded, which keeps startup well under a second.
+ * </p>
+ * <pre>
+ * list [projectId]
+ * simulate projectId circuitId [--inputs BITS] [--mode MODE]
+ * analyze projectId circuitId [--expression]
+ * export projectId circuitId
+ * stimulus projectId circuitId inputFile outputFile
+ * generate projectId kind size [--seed N]
+ * </pre>
+ * <p>
+ * Every command accepts {@code --db PATH} to use another database file.
+ * </p>
+ */
+public class HeadlessApp {
+
+    /**
+     * Exit status of a command that completed.
+     */
+    public static final int EXIT_OK = 0;
+
+    /**
+     * Exit status of a command that failed, for example on an unknown ID.
+     */
+    public static final int EXIT_ERROR = 1;
+
+    /**
+     * Exit status of a malformed command line.
+     */
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = """
+        Usage: HeadlessApp [--db PATH] <command> [arguments]
+          list [projectId]                              List projects, or the circuits of a project
+          simulate <projectId> <circuitId> [--inputs BITS] [--mode MODE]
+                                                        Set the switches and print the bulbs
+          analyze <projectId> <circuitId> [--expression]
+                                                        Print the truth table and, with
+                                                        --expression, minimized SOP and POS
+                                                        expressions for every output
+          export <projectId> <circuitId>                Write the circuit to a JPG file
+          stimulus <projectId> <circuitId> <in> <out>   Run an input vector file
+          generate <projectId> <kind> <size> [--seed N] Save a synthetic circuit; kind is one of
+                                                        ripple-adder, lookahead-adder, multiplier,
+                                                        decoder, mux, random-dag or latches
+        """;
+
+    /**
+     * Runs a command and exits with its status.
+     *
+     * @param args The command line.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param args The command line.
+     * @param out  The stream for results.
+     * @param err  The stream for errors and usage.
+     * @return {@link #EXIT_OK}, {@link #EXIT_ERROR} or {@link #EXIT_USAGE}.
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        List<String> positional = new ArrayList<>();
+        String db = null;
+        String inputs = null;
+        String mode = null;
+        boolean expression = false;
+        String seed = null;
+        String command;
+        SimulationMode simulationMode;
+        long projectId;
+        long circuitId;
+        Supplier<Circuit> generator = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--db" -> db = value(args, ++i, "--db");
+                    case "--inputs" -> inputs = value(args, ++i, "--inputs");
+                    case "--mode" -> mode = value(args, ++i, "--mode");
+                    case "--expression" -> expression = true;
+                    case "--seed" -> seed = value(args, ++i, "--seed");
+                    case "-h", "--help" -> {
+                        out.print(USAGE);
+                        return EXIT_OK;
+                    }
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException(
+                                "Unknown option " + args[i]
+                            );
+                        }
+                        positional.add(args[i]);
+                    }
+                }
+            }
+            if (positional.isEmpty()) {
+                throw new IllegalArgumentException("Expected a command");
+            }
+
+            command = positional.get(0);
+            int expected = switch (command) {
+                case "list" -> Math.min(positional.size(), 2);
+                case "simulate", "analyze", "export" -> 3;
+                case "stimulus" -> 5;
+                case "generate" -> 4;
+                default -> throw new IllegalArgumentException(
+                    "Unknown command " + command
+                );
+            };
+            if (positional.size() != expected) {
+                throw new IllegalArgumentException(
+                    "Wrong number of arguments for " + command
+                );
+            }
+            if (inputs != null && !inputs.matches("[01]*")) {
+                throw new IllegalArgumentException(
+                    "Expected --inputs to be a string of 0 and 1"
+                );
+            }
+            simulationMode = mode == null
+                ? null
+                : parseMode(mode);
+            if (!command.equals("simulate") && (inputs != null || mode != null)) {
+                throw new IllegalArgumentException(
+                    "--inputs and --mode only apply to simulate"
+                );
+            }
+            if (!command.equals("analyze") && expression) {
+                throw new IllegalArgumentException(
+                    "--expression only applies to analyze"
+                );
+            }
+            if (!command.equals("generate") && seed != null) {
+                throw new IllegalArgumentException(
+                    "--seed only applies to generate"
+                );
+            }
+            projectId = positional.size() > 1 ? parseId(positional.get(1)) : 0;
+            if (command.equals("generate")) {
+                circuitId = 0;
+                generator = parseGenerator(
+                    positional.get(2),
+                    positional.get(3),
+                    seed == null ? 0 : parseId(seed)
+                );
+            } else {
+                circuitId = positional.size() > 2 ? parseId(positional.get(2)) : 0;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (db != null) {
+            DatabaseManager.setDatabasePath(db);
+        }
+        if (command.equals("generate")) {
+            return generate(projectId, generator, out, err);
+        }
+        if (command.equals("list")) {
+            return positional.size() == 1
+                ? listProjects(out)
+                : listCircuits(projectId, out, err);
+        }
+
+        Circuit circuit = loadCircuit(projectId, circuitId, err);
+        if (circuit == null) {
+            return EXIT_ERROR;
+        }
+        return switch (command) {
+            case "simulate" -> simulate(circuit, inputs, simulationMode, out, err);
+            case "analyze" -> analyze(circuit, expression, out, err);
+            case "export" -> export(projectId, circuit);
+            default -> stimulus(
+                circuit,
+                Path.of(positional.get(3)),
+                Path.of(positional.get(4)),
+                out,
+                err
+            );
+        };
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Expected a value after " + option);
+        }
+        return args[index];
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected an ID but got " + id);
+        }
+    }
+
+    private static SimulationMode parseMode(String mode) {
+        try {
+            return SimulationMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown simulation mode " + mode);
+        }
+    }
+
+    /**
+     * Resolves a generator kind and size to a {@link CircuitGenerator} call.
+     * Random DAGs get 64 inputs, a depth of one level per hundred gates (at
+     * most 1000) and a fan-out of four.
+     */
+    private static Supplier<Circuit> parseGenerator(String kind, String size, long seed) {
+        int n;
+        try {
+            n = Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a size but got " + size);
+        }
+        if (n < 1) {
+            throw new IllegalArgumentException("Expected a positive size but got " + size);
+        }
+        return switch (kind) {
+            case "ripple-adder" -> () -> CircuitGenerator.rippleCarryAdder(n);
+            case "lookahead-adder" -> () -> CircuitGenerator.carryLookaheadAdder(n);
+            case "multiplier" -> () -> CircuitGenerator.arrayMultiplier(n);
+            case "decoder" -> () -> CircuitGenerator.decoder(n);
+            case "mux" -> () -> CircuitGenerator.muxTree(n);
+            case "random-dag" -> () -> CircuitGenerator.randomDag(
+                64,
+                n,
+                Math.max(1, Math.min(1000, n / 100)),
+                4,
+                seed
+            );
+            case "latches" -> () -> CircuitGenerator.srLatchArray(n);
+            default -> throw new IllegalArgumentException(
+                "Unknown circuit kind " + kind
+            );
+        };
+    }
+
+    private static int generate(
+        long projectId,
+        Supplier<Circuit> generator,
+        PrintStream out,
+        PrintStream err
+    ) {
+        Circuit circuit;
+        try {
+            circuit = generator.get();
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_ERROR;
+        }
+        long id = CircuitGenerator.persist(circuit, projectId);
+        if (id == 0) {
+            err.println("Could not save " + circuit.getName());
+            return EXIT_ERROR;
+        }
+        out.println(
+            id + "\t" + circuit.getName() + "\t" +
+            circuit.getComponents().size() + " components"
+        );
+        return EXIT_OK;
+    }
+
+    private static int listProjects(PrintStream out) {
+        for (Project project : new ProjectDAO().getAllProjects()) {
+            out.println(project.getId() + "\t" + project.getName());
+        }
+        return EXIT_OK;
+    }
+
+    private static int listCircuits(long projectId, PrintStream out, PrintStream err) {
+        List<Circuit> circuits = new CircuitDAO().getCircuitsByProjectId(projectId);
+        if (circuits.isEmpty()) {
+            err.println("No circuits found for project " + projectId);
+            return EXIT_ERROR;
+        }
+        for (Circuit circuit : circuits) {
+            out.println(circuit.getId() + "\t" + circuit.getName());
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Loads a circuit after checking that it belongs to the project.
+     *
+     * @return The circuit, or {@code null} if the project has no such circuit.
+     */
+    private static Circuit loadCircuit(long projectId, long circuitId, PrintStream err) {
+        CircuitDAO circuitDAO = new CircuitDAO();
+        boolean found = circuitDAO
+            .getCircuitsByProjectId(projectId)
+            .stream()
+            .anyMatch(c -> c.getId() == circuitId);
+        if (!found) {
+            err.println(
+                "Circuit " + circuitId + " not found in project " + projectId
+            );
+            return null;
+        }
+        return circuitDAO.loadCircuit(circuitId);
+    }
+
+    private static int simulate(
+        Circuit circuit,
+        String inputs,
+        SimulationMode mode,
+        PrintStream out,
+        PrintStream err
+    ) {
+        List<Switch> switches = new ArrayList<>();
+        List<Bulb> bulbs = new ArrayList<>();
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch sw) switches.add(sw);
+            if (comp instanceof Bulb bulb) bulbs.add(bulb);
+        }
+        if (inputs != null) {
+            if (inputs.length() != switches.size()) {
+                err.println(
+                    "Expected " + switches.size() + " input bits but got " +
+                    inputs.length()
+                );
+                return EXIT_ERROR;
+            }
+            for (int i = 0; i < switches.size(); i++) {
+                switches.get(i).setState(inputs.charAt(i) == '1');
+            }
+        }
+        if (mode != null) {
+            circuit.setSimulationMode(mode);
+        }
+        SimulationResult result = circuit.settle();
+        circuit.syncComponents();
+        for (int i = 0; i < bulbs.size(); i++) {
+            out.println("Y" + (i + 1) + "=" + (bulbs.get(i).isOn() ? 1 : 0));
+        }
+        out.println(result);
+        return result.isConverged() ? EXIT_OK : EXIT_ERROR;
+    }
+
+    private static int analyze(
+        Circuit circuit,
+        boolean expression,
+        PrintStream out,
+        PrintStream err
+    ) {
+        int nInputs = 0;
+        int nOutputs = 0;
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch) nInputs++;
+            if (comp instanceof Bulb) nOutputs++;
+        }
+        if (nInputs == 0 || nOutputs == 0) {
+            err.println("Analysis needs at least one switch and one bulb");
+            return EXIT_ERROR;
+        }
+        List<String> inputNames = new ArrayList<>();
+        for (int i = 0; i < nInputs; i++) {
+            inputNames.add(String.valueOf((char) ('A' + i)));
+        }
+
+        StringBuilder line = new StringBuilder(String.join(" ", inputNames));
+        line.append(" |");
+        for (int i = 0; i < nOutputs; i++) {
+            line.append(" Y").append(i + 1);
+        }
+        out.println(line);
+        // Rows are printed as they are produced, so the table is never held in memory.
+        circuit.streamTruthTable().forEachOrdered(row -> {
+            line.setLength(0);
+            for (int col = 0; col < row.getInputCount(); col++) {
+                line.append(row.getInput(col) ? '1' : '0').append(' ');
+            }
+            line.append('|');
+            for (int col = 0; col < row.getOutputCount(); col++) {
+                line.append(' ').append(row.getOutput(col) ? '1' : '0');
+            }
+            out.println(line);
+        });
+
+        if (expression && nInputs > LogicMinimizer.MAX_INPUTS) {
+            err.println(
+                "Expression not available: minimization supports at most " +
+                LogicMinimizer.MAX_INPUTS + " inputs"
+            );
+        } else if (expression) {
+            TruthTable table = circuit.analyzeTable(ForkJoinPool.commonPool());
+            for (ExpressionForm form : ExpressionForm.values()) {
+                List<String> expressions = circuit.generateBooleanExpressions(
+                    table,
+                    inputNames,
+                    form
+                );
+                String label = form == ExpressionForm.SUM_OF_PRODUCTS
+                    ? " (SOP) = "
+                    : " (POS) = ";
+                for (int i = 0; i < expressions.size(); i++) {
+                    out.println("Y" + (i + 1) + label + expressions.get(i));
+                }
+            }
+        }
+        return EXIT_OK;
+    }
+
+    private static int export(long projectId, Circuit circuit) {
+        Project project = new ProjectDAO()
+            .getAllProjects()
+            .stream()
+            .filter(p -> p.getId() == projectId)
+            .findFirst()
+            .orElseGet(() -> new Project(projectId, "Project"));
+        project.setCircuits(List.of(circuit));
+        project.export();
+        return EXIT_OK;
+    }
+
+    private static int stimulus(
+        Circuit circuit,
+        Path input,
+        Path output,
+        PrintStream out,
+        PrintStream err
+    ) {
+        try {
+            out.println(circuit.runStimulus(input, output) + " vectors");
+            return EXIT_OK;
+        } catch (IOException | IllegalArgumentException e) {
+            err.println("Stimulus failed: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+}
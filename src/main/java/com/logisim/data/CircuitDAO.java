@@ -9,14 +9,18 @@ import com.logisim.domain.components.Not;
 import com.logisim.domain.components.Or;
 import com.logisim.domain.components.SubCircuitComponent;
 import com.logisim.domain.components.Switch;
-import com.logisim.ui.controllers.MainViewController;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import com.logisim.jfr.DatabaseEvent;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) responsible for handling database operations
@@ -28,39 +32,67 @@ import java.util.List;
  */
 public class CircuitDAO {
 
+    /**
+     * The number of rows sent to the database per batch when saving
+     * components and connectors, which bounds the driver's buffer for
+     * generated circuits with millions of rows.
+     */
+    private static final int BATCH_SIZE = 10_000;
+
     /**
      * Saves a new circuit and its associated contents to the database.
      * <p>
      * This method first inserts the circuit record. If successful, it retrieves the
      * generated circuit ID and proceeds to save the circuit's components and connectors.
+     * Everything is written in one transaction, and the generated ID is assigned
+     * to the circuit once it has been committed.
      * </p>
      *
      * @param circuit   The {@link Circuit} object containing the data to be saved.
      * @param projectId The unique identifier of the project to which this circuit belongs.
      */
     public void saveCircuit(Circuit circuit, long projectId) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "saveCircuit");
         String sql = "INSERT INTO circuits(project_id, name) VALUES (?, ?)";
-        try (
-            Connection conn = DatabaseManager.getInstance().getConnection();
-            PreparedStatement stmt = conn.prepareStatement(
-                sql,
-                Statement.RETURN_GENERATED_KEYS
-            )
-        ) {
-            stmt.setLong(1, projectId);
-            stmt.setString(2, circuit.getName());
-            stmt.executeUpdate();
-
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    long circuitId = generatedKeys.getLong(1);
-                    saveComponents(circuit, circuitId, conn);
-                    saveConnectors(circuit, circuitId, conn);
+        long circuitId = 0;
+        boolean succeeded = false;
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (
+                PreparedStatement stmt = conn.prepareStatement(
+                    sql,
+                    Statement.RETURN_GENERATED_KEYS
+                )
+            ) {
+                stmt.setLong(1, projectId);
+                stmt.setString(2, circuit.getName());
+                stmt.executeUpdate();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        circuitId = generatedKeys.getLong(1);
+                        saveComponents(circuit, circuitId, conn);
+                        saveConnectors(circuit, circuitId, conn);
+                    }
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            if (circuitId != 0) {
+                circuit.setId(circuitId);
             }
+            succeeded = true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         }
+        event.finish(
+            projectId,
+            circuitId,
+            1 + circuit.getComponents().size() + circuit.getConnectors().size(),
+            succeeded
+        );
     }
 
     /**
@@ -77,16 +109,29 @@ public class CircuitDAO {
         Connection conn
     ) throws SQLException {
         String sql =
-            "INSERT INTO components(circuit_id, type, x_coord, y_coord, uuid) VALUES (?,?,?,?,?)";
+            "INSERT INTO components(circuit_id, type, x_coord, y_coord, uuid, ref_circuit_id) VALUES (?,?,?,?,?,?)";
 
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int rows = 0;
             for (Component comp : circuit.getComponents()) {
                 pstmt.setLong(1, circuitId);
-                pstmt.setString(2, comp.getName());
                 pstmt.setDouble(3, comp.getPositionX());
                 pstmt.setDouble(4, comp.getPositionY());
                 pstmt.setString(5, comp.getUuid());
+                if (comp instanceof SubCircuitComponent) {
+                    pstmt.setString(2, "subcircuitcomponent");
+                    pstmt.setLong(
+                        6,
+                        ((SubCircuitComponent) comp).getSourceCircuitId()
+                    );
+                } else {
+                    pstmt.setString(2, comp.getName());
+                    pstmt.setNull(6, Types.INTEGER);
+                }
                 pstmt.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
             }
             pstmt.executeBatch();
         }
@@ -109,6 +154,7 @@ public class CircuitDAO {
             "INSERT INTO connectors(circuit_id, source_comp_uuid, source_pin, sink_comp_uuid, sink_pin) VALUES(?, ?, ?, ?, ?)";
 
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int rows = 0;
             for (Connector connObj : circuit.getConnectors()) {
                 pstmt.setLong(1, circuitId);
                 pstmt.setString(2, connObj.getSourceComp().getUuid());
@@ -116,6 +162,9 @@ public class CircuitDAO {
                 pstmt.setString(4, connObj.getSinkComp().getUuid());
                 pstmt.setInt(5, connObj.getSink());
                 pstmt.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
             }
             pstmt.executeBatch();
         }
@@ -132,6 +181,11 @@ public class CircuitDAO {
      * @return A {@link List} of {@link Circuit} objects containing IDs and names.
      */
     public List<Circuit> getCircuitsByProjectId(long projectId) {
+        DatabaseEvent event = DatabaseEvent.start(
+            "CircuitDAO",
+            "getCircuitsByProjectId"
+        );
+        boolean succeeded = false;
         List<Circuit> circuits = new ArrayList<>();
         String sql = "SELECT id, name FROM circuits WHERE project_id = ?";
 
@@ -148,9 +202,11 @@ public class CircuitDAO {
                 c.setName(rs.getString("name"));
                 circuits.add(c);
             }
+            succeeded = true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        event.finish(projectId, 0, circuits.size(), succeeded);
         return circuits;
     }
 
@@ -161,6 +217,9 @@ public class CircuitDAO {
      * @param name      The name to be assigned to the new circuit.
      */
     public void createCircuit(long projectId, String name) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "createCircuit");
+        int rows = 0;
+        boolean succeeded = false;
         String sql = "INSERT INTO circuits(project_id, name) VALUES(?, ?)";
         try (
             Connection conn = DatabaseManager.getInstance().getConnection();
@@ -168,10 +227,12 @@ public class CircuitDAO {
         ) {
             pstmt.setLong(1, projectId);
             pstmt.setString(2, name);
-            pstmt.executeUpdate();
+            rows = pstmt.executeUpdate();
+            succeeded = true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         }
+        event.finish(projectId, 0, rows, succeeded);
     }
 
     /**
@@ -179,19 +240,20 @@ public class CircuitDAO {
      * <p>
      * This method instantiates specific component classes (e.g., {@link And}, {@link Or},
      * {@link Switch}) based on the 'type' column stored in the database.
-     * It also handles recursive loading for sub-circuits.
+     * Sub-circuits are placed from the {@link SubCircuitDefinition} shared by
+     * every instance of their source circuit, which is loaded (recursively) only
+     * the first time it is needed.
      * </p>
      *
      * @param circuitId The unique identifier of the circuit to load components from.
      * @return A {@link List} of fully constructed {@link Component} objects.
      */
     public List<Component> loadComponents(long circuitId) {
-        System.out.println(
-            "Attempting to load components for the id: " + circuitId
-        );
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "loadComponents");
+        boolean succeeded = false;
         List<Component> components = new ArrayList<>();
         String sql =
-            "SELECT type, x_coord, y_coord, uuid FROM components WHERE circuit_id = ?";
+            "SELECT type, x_coord, y_coord, uuid, ref_circuit_id FROM components WHERE circuit_id = ?";
 
         try (
             Connection conn = DatabaseManager.getInstance().getConnection();
@@ -211,14 +273,9 @@ public class CircuitDAO {
                     case "not" -> new Not();
                     case "switch" -> new Switch();
                     case "bulb" -> new Bulb();
-                    case "subcircuitcomponent" -> {
-                        long refid = rs.getLong("ref_circuit_id");
-                        Circuit inner =
-                            new MainViewController().loadFullCircuitFromDB(
-                                refid
-                            );
-                        yield new SubCircuitComponent(inner);
-                    }
+                    case "subcircuitcomponent" -> new SubCircuitComponent(
+                        loadDefinition(rs.getLong("ref_circuit_id"))
+                    );
                     default -> null;
                 };
 
@@ -229,12 +286,87 @@ public class CircuitDAO {
                     components.add(comp);
                 }
             }
+            succeeded = true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        event.finish(0, circuitId, components.size(), succeeded);
         return components;
     }
 
+    /**
+     * Loads a complete circuit: its name, components and connections.
+     *
+     * @param circuitId The unique identifier of the circuit to load.
+     * @return A fully constructed {@link Circuit}; empty, and named
+     *         "SubCircuit", if no such circuit exists.
+     */
+    public Circuit loadCircuit(long circuitId) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "loadCircuit");
+        boolean succeeded = false;
+        Circuit circuit = new Circuit();
+        circuit.setId(circuitId);
+        circuit.setName("SubCircuit");
+        String sql = "SELECT name FROM circuits WHERE id = ?";
+        try (
+            Connection conn = DatabaseManager.getInstance().getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)
+        ) {
+            pstmt.setLong(1, circuitId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    circuit.setName(rs.getString("name"));
+                }
+            }
+            succeeded = true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        Map<String, Component> byUuid = new HashMap<>();
+        for (Component comp : loadComponents(circuitId)) {
+            byUuid.put(comp.getUuid(), comp);
+            circuit.addComponent(comp);
+        }
+        for (ConnectionRecord record : loadConnections(circuitId)) {
+            Component src = byUuid.get(record.sourceUuid());
+            Component sink = byUuid.get(record.sinkUuid());
+            if (src != null && sink != null) {
+                circuit.addConnection(
+                    record.sourcePin(),
+                    src,
+                    record.sinkPin(),
+                    sink
+                );
+            }
+        }
+        event.finish(
+            0,
+            circuitId,
+            1 + circuit.getComponents().size() + circuit.getConnectors().size(),
+            succeeded
+        );
+        return circuit;
+    }
+
+    /**
+     * Retrieves the shared definition of a circuit for placing it as a
+     * sub-circuit, loading the circuit only if no instance of it exists yet.
+     *
+     * @param circuitId The unique identifier of the source circuit.
+     * @return The shared {@link SubCircuitDefinition}.
+     */
+    public SubCircuitDefinition loadDefinition(long circuitId) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "loadDefinition");
+        SubCircuitDefinition definition = SubCircuitDefinition.forSource(
+            circuitId,
+            () -> loadCircuit(circuitId)
+        );
+        // The rows are counted by the nested loadCircuit event, if any.
+        event.finish(0, circuitId, 0, true);
+        return definition;
+    }
+
     /**
      * A record representing the raw data of a connection between two components.
      *
@@ -257,6 +389,8 @@ public class CircuitDAO {
      * @return A {@link List} of {@link ConnectionRecord} objects representing the connections.
      */
     public List<ConnectionRecord> loadConnections(long circuitId) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "loadConnections");
+        boolean succeeded = false;
         List<ConnectionRecord> connections = new ArrayList<>();
         String sql =
             "SELECT source_comp_uuid, source_pin, sink_comp_uuid, sink_pin FROM connectors WHERE circuit_id = ?";
@@ -278,9 +412,11 @@ public class CircuitDAO {
                     )
                 );
             }
+            succeeded = true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        event.finish(0, circuitId, connections.size(), succeeded);
         return connections;
     }
 
@@ -298,6 +434,8 @@ public class CircuitDAO {
      * @param circuit The {@link Circuit} object containing the updated data and ID.
      */
     public void updateCircuit(Circuit circuit) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "updateCircuit");
+        boolean succeeded = false;
         String sqlUpdateName = "UPDATE circuits SET name = ? WHERE id = ?";
         String sqlDeleteComps = "DELETE FROM components WHERE circuit_id = ?";
         String sqlDeleteConns = "DELETE FROM connectors WHERE circuit_id = ?";
@@ -331,6 +469,8 @@ public class CircuitDAO {
             saveConnectors(circuit, circuit.getId(), conn);
 
             conn.commit();
+            SubCircuitDefinition.invalidate(circuit.getId());
+            succeeded = true;
             System.out.println(
                 "Circuit Updated Successfully: " + circuit.getName()
             );
@@ -353,6 +493,12 @@ public class CircuitDAO {
                 }
             }
         }
+        event.finish(
+            0,
+            circuit.getId(),
+            1 + circuit.getComponents().size() + circuit.getConnectors().size(),
+            succeeded
+        );
     }
 
     /**
@@ -365,6 +511,9 @@ public class CircuitDAO {
      * @param id The unique identifier of the circuit to be deleted.
      */
     public void deleteCircuit(long id) {
+        DatabaseEvent event = DatabaseEvent.start("CircuitDAO", "deleteCircuit");
+        int rows = 0;
+        boolean succeeded = false;
         String sql = "DELETE FROM circuits WHERE id = ?";
         try (
             java.sql.Connection conn =
@@ -372,10 +521,13 @@ public class CircuitDAO {
             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)
         ) {
             pstmt.setLong(1, id);
-            pstmt.executeUpdate();
+            rows = pstmt.executeUpdate();
+            SubCircuitDefinition.invalidate(id);
+            succeeded = true;
             System.out.println("Circuit deleted: " + id);
         } catch (java.sql.SQLException e) {
             e.printStackTrace();
         }
+        event.finish(0, id, rows, succeeded);
     }
 }
@@ -1,7 +1,9 @@
 package com.logisim.data;
 
+import com.logisim.domain.simulation.SubCircuitDefinition;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -19,11 +21,16 @@ import java.sql.Statement;
 public class DatabaseManager {
 
     /**
-     * The JDBC connection URL string pointing to the SQLite database file
-     * located in the user's home directory.
+     * The path of the SQLite database file used unless another file is chosen
+     * with {@link #setDatabasePath(String)}, in the user's home directory.
      */
-    private static final String url =
-        "jdbc:sqlite:" + System.getProperty("user.home") + "/logisim_data.db";
+    public static final String DEFAULT_DATABASE_PATH =
+        System.getProperty("user.home") + "/logisim_data.db";
+
+    /**
+     * The JDBC connection URL string pointing to the SQLite database file.
+     */
+    private static String url = "jdbc:sqlite:" + DEFAULT_DATABASE_PATH;
 
     /**
      * The single instance of the DatabaseManager class.
@@ -56,6 +63,24 @@ public class DatabaseManager {
         return instance;
     }
 
+    /**
+     * Switches to another database file, for example a scratch database for
+     * tests or one passed on the command line.
+     * <p>
+     * The next call to {@link #getInstance()} creates a new instance, which
+     * creates the tables in the new file if they do not exist. Shared
+     * sub-circuit definitions are discarded, since their database IDs refer to
+     * the previous file.
+     * </p>
+     *
+     * @param path The path of the SQLite database file.
+     */
+    public static void setDatabasePath(String path) {
+        url = "jdbc:sqlite:" + path;
+        instance = null;
+        SubCircuitDefinition.invalidateAll();
+    }
+
     /**
      * Establishes and returns a new connection to the SQLite database.
      *
@@ -73,9 +98,12 @@ public class DatabaseManager {
      * <ul>
      *   <li><b>projects</b>: Stores project metadata.</li>
      *   <li><b>circuits</b>: Stores circuits linked to projects.</li>
-     *   <li><b>components</b>: Stores individual components within circuits.</li>
+     *   <li><b>components</b>: Stores individual components within circuits, and
+     *       the circuit a sub-circuit component was placed from.</li>
      *   <li><b>connectors</b>: Stores wiring connections between components.</li>
      * </ul>
+     * Components and connectors are indexed by circuit, so loading one circuit
+     * does not scan the rows of every other circuit.
      * </p>
      */
     private void createTables() {
@@ -104,6 +132,7 @@ public class DatabaseManager {
                 x_coord REAL,
                 y_coord REAL,
                 uuid TEXT,
+                ref_circuit_id INTEGER,
                 FOREIGN KEY(circuit_id) REFERENCES circuits(id) ON DELETE CASCADE
                 );
             """;
@@ -128,8 +157,47 @@ public class DatabaseManager {
             stmt.execute(sqlCircuits);
             stmt.execute(sqlComponents);
             stmt.execute(sqlConnectors);
+            stmt.execute(
+                "CREATE INDEX IF NOT EXISTS idx_components_circuit ON components(circuit_id)"
+            );
+            stmt.execute(
+                "CREATE INDEX IF NOT EXISTS idx_connectors_circuit ON connectors(circuit_id)"
+            );
+            addColumnIfMissing(
+                stmt,
+                "components",
+                "ref_circuit_id",
+                "INTEGER"
+            );
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         }
     }
+
+    /**
+     * Adds a column to a table created by an earlier version of the schema.
+     *
+     * @param stmt       The statement to run the queries with.
+     * @param table      The table name.
+     * @param column     The column name.
+     * @param definition The column type and constraints.
+     * @throws SQLException If a database access error occurs.
+     */
+    private void addColumnIfMissing(
+        Statement stmt,
+        String table,
+        String column,
+        String definition
+    ) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute(
+            "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition
+        );
+    }
 }
@@ -2,6 +2,7 @@ package com.logisim.data;
 
 import com.logisim.domain.Circuit;
 import com.logisim.domain.Project;
+import com.logisim.jfr.DatabaseEvent;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -36,6 +37,9 @@ public class ProjectDAO {
      * @param project The {@link Project} object containing the data to be persisted.
      */
     public void saveProject(Project project) {
+        DatabaseEvent event = DatabaseEvent.start("ProjectDAO", "saveProject");
+        long projectId = 0;
+        boolean succeeded = false;
         String sql = "INSERT INTO projects(name) VALUES(?)";
 
         try (
@@ -50,17 +54,20 @@ public class ProjectDAO {
 
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    long projectId = generatedKeys.getLong(1);
+                    projectId = generatedKeys.getLong(1);
 
                     for (Circuit c : project.getCircuits()) {
                         circuitDAO.saveCircuit(c, projectId);
                     }
                 }
             }
+            succeeded = true;
             System.out.println("Project Saved.");
         } catch (SQLException e) {
             System.out.println("Error Saving:" + e.getMessage());
         }
+        // The circuits are counted by their own saveCircuit events.
+        event.finish(projectId, 0, 1, succeeded);
     }
 
     /**
@@ -73,6 +80,8 @@ public class ProjectDAO {
      * @return A {@link List} of {@link Project} objects populated with IDs and names.
      */
     public List<Project> getAllProjects() {
+        DatabaseEvent event = DatabaseEvent.start("ProjectDAO", "getAllProjects");
+        boolean succeeded = false;
         List<Project> projects = new ArrayList<>();
         String sql = "SELECT id, name FROM projects ORDER BY created_at DESC";
 
@@ -86,9 +95,11 @@ public class ProjectDAO {
                 String name = rs.getString("name");
                 projects.add(new Project(id, name));
             }
+            succeeded = true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         }
+        event.finish(0, 0, projects.size(), succeeded);
         return projects;
     }
 
@@ -102,6 +113,9 @@ public class ProjectDAO {
      * @param id The unique database identifier of the project to be deleted.
      */
     public void deleteProject(long id) {
+        DatabaseEvent event = DatabaseEvent.start("ProjectDAO", "deleteProject");
+        int rows = 0;
+        boolean succeeded = false;
         String sql = "DELETE FROM projects WHERE id = ?";
         try (
             java.sql.Connection conn =
@@ -109,10 +123,12 @@ public class ProjectDAO {
             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)
         ) {
             pstmt.setLong(1, id);
-            pstmt.executeUpdate();
+            rows = pstmt.executeUpdate();
+            succeeded = true;
             System.out.println("Project deleted: " + id);
         } catch (java.sql.SQLException e) {
             e.printStackTrace();
         }
+        event.finish(id, 0, rows, succeeded);
     }
 }
@@ -1,9 +1,55 @@
 package com.logisim.domain;
 
+import com.logisim.domain.bdd.CircuitBdd;
 import com.logisim.domain.components.Component;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.minimization.ExpressionForm;
+import com.logisim.domain.minimization.LogicMinimizer;
+import com.logisim.domain.sat.EquivalenceChecker;
+import com.logisim.domain.sat.EquivalenceResult;
+import com.logisim.domain.simulation.BitParallelEvaluator;
+import com.logisim.domain.simulation.CompiledSimulator;
+import com.logisim.domain.simulation.DelayModel;
+import com.logisim.domain.simulation.DistributedSimulator;
+import com.logisim.domain.simulation.EventDrivenSimulator;
+import com.logisim.domain.simulation.KernelGenerator;
+import com.logisim.domain.simulation.LevelizedSchedule;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.NetlistPartitioner;
+import com.logisim.domain.simulation.NetlistSimulator;
+import com.logisim.domain.simulation.ParallelLevelSimulator;
+import com.logisim.domain.simulation.ParallelTruthTableTask;
+import com.logisim.domain.simulation.Partitioning;
+import com.logisim.domain.simulation.SccSchedule;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.SimulationStats;
+import com.logisim.domain.simulation.StimulusRunner;
+import com.logisim.domain.simulation.TimedSimulator;
+import com.logisim.domain.simulation.TimingTrace;
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableSpliterator;
+import com.logisim.jfr.AnalysisEvent;
+import com.logisim.jfr.SimulationEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a digital logic circuit consisting of components and connections.
@@ -17,6 +63,19 @@ import java.util.List;
  */
 public class Circuit {
 
+    /**
+     * The most switches a materialized truth table can have: its rows are
+     * indexed by {@code int}. Larger circuits can still be analyzed with
+     * {@link #streamTruthTable()}.
+     */
+    public static final int MAX_TABLE_INPUTS = 30;
+
+    /**
+     * The most switches {@link #streamTruthTable()} accepts: its rows are
+     * indexed by a non-negative {@code long}.
+     */
+    public static final int MAX_STREAM_INPUTS = 62;
+
     /**
      * The unique identifier for this circuit, typically used for database persistence.
      */
@@ -32,11 +91,99 @@ public class Circuit {
      */
     private List<Component> components = new ArrayList<>();
 
+    /**
+     * The components as an identity set, so that {@link #addComponent(Component)}
+     * rejects duplicates without scanning the list. Rebuilt from the list
+     * whenever their sizes differ.
+     */
+    private final Set<Component> componentSet = Collections.newSetFromMap(
+        new IdentityHashMap<>()
+    );
+
     /**
      * The list of connections (wires) linking the components together.
      */
     private List<Connector> connectors = new ArrayList<>();
 
+    /**
+     * Counts the changes to the components and connectors, so that structures
+     * derived from them elsewhere can tell when they are stale.
+     */
+    private long structureVersion;
+
+    /**
+     * Whether the circuit is the shared template of a sub-circuit definition
+     * and rejects structural changes; see {@link #freeze()}.
+     */
+    private boolean frozen;
+
+    /**
+     * The engine used by {@link #simulate()}.
+     */
+    private SimulationMode simulationMode = SimulationMode.LEVELIZED;
+
+    /**
+     * The cached event-driven engine, built on first use and discarded whenever
+     * the circuit structure changes.
+     */
+    private EventDrivenSimulator eventDrivenSimulator;
+
+    /**
+     * The cached topological evaluation schedule, built on first use and
+     * discarded whenever the circuit structure changes.
+     */
+    private LevelizedSchedule levelizedSchedule;
+
+    /**
+     * The cached strongly-connected-component schedule used for circuits with
+     * feedback, built on first use and discarded whenever the circuit
+     * structure changes.
+     */
+    private SccSchedule sccSchedule;
+
+    /**
+     * The cached bit-parallel evaluator used for truth table generation, or
+     * {@code null} if it has not been built for the current structure.
+     */
+    private BitParallelEvaluator bitParallelEvaluator;
+
+    /**
+     * The cached netlist simulator, built on first use and discarded whenever
+     * the circuit structure changes.
+     */
+    private NetlistSimulator netlistSimulator;
+
+    /**
+     * The cached generated-kernel simulator, built on first use and discarded
+     * whenever the circuit structure changes. {@code null} also when the
+     * current netlist cannot be compiled.
+     */
+    private CompiledSimulator compiledSimulator;
+
+    /**
+     * The cached level-parallel simulator, built on first use and discarded
+     * whenever the circuit structure changes. {@code null} also when the
+     * current netlist has feedback.
+     */
+    private ParallelLevelSimulator parallelSimulator;
+
+    /**
+     * The gate delays used in {@link SimulationMode#TIMED} mode.
+     */
+    private DelayModel delayModel = new DelayModel();
+
+    /**
+     * The cached timed simulator, built on first use and discarded whenever
+     * the circuit structure or the delay model changes.
+     */
+    private TimedSimulator timedSimulator;
+
+    /**
+     * The counters recorded by {@link #simulate()} and {@link #settle()}, or
+     * {@code null} while recording is disabled.
+     */
+    private SimulationStats stats;
+
     /**
      * Constructs a new Circuit with a default name.
      */
@@ -49,21 +196,34 @@ public class Circuit {
      *
      * @param comp The {@link Component} to be added.
      * @throws IllegalArgumentException If the provided component is {@code null} or already exists in the circuit.
+     * @throws IllegalStateException If the circuit is frozen.
      */
     public void addComponent(Component comp) throws IllegalArgumentException {
+        requireMutable();
         if (comp == null) {
             throw new IllegalArgumentException(
                 "Expected Component but Recieved Null"
             );
         }
-        for (Component component : components) {
-            if (component == comp) {
-                throw new IllegalArgumentException(
-                    "Component Already Exists in Components."
-                );
-            }
+        if (componentSet.size() != components.size()) {
+            componentSet.clear();
+            componentSet.addAll(components);
+        }
+        if (!componentSet.add(comp)) {
+            throw new IllegalArgumentException(
+                "Component Already Exists in Components."
+            );
         }
         components.add(comp);
+        if (
+            comp instanceof SubCircuitComponent &&
+            !((SubCircuitComponent) comp).isShared()
+        ) {
+            ((SubCircuitComponent) comp).getInnerCircuit().setSimulationMode(
+                    simulationMode
+                );
+        }
+        structureChanged();
     }
 
     /**
@@ -74,13 +234,17 @@ public class Circuit {
      * </p>
      *
      * @param comp The {@link Component} to be removed.
+     * @throws IllegalStateException If the circuit is frozen.
      */
     public void removeComponent(Component comp) {
+        requireMutable();
         if (comp == null) return;
         connectors.removeIf(
             c -> c.getSourceComp() == comp || c.getSinkComp() == comp
         );
         components.remove(comp);
+        componentSet.remove(comp);
+        structureChanged();
     }
 
     /**
@@ -91,6 +255,7 @@ public class Circuit {
      * @param sink       The index of the input pin on the sink (destination) component.
      * @param sinkComp   The index of the sink component in the internal components list.
      * @throws InvalidParameterException If the component indices are out of bounds or the pin indices are invalid for the respective components.
+     * @throws IllegalStateException If the circuit is frozen.
      */
     public void addConnection(
         int source,
@@ -98,6 +263,7 @@ public class Circuit {
         int sink,
         int sinkComp
     ) {
+        requireMutable();
         if (
             (sourceComp < 0 || sourceComp >= components.size()) ||
             (sinkComp < 0 || sinkComp >= components.size())
@@ -121,6 +287,7 @@ public class Circuit {
             sink
         );
         connectors.add(connector);
+        structureChanged();
     }
 
     /**
@@ -131,6 +298,7 @@ public class Circuit {
      * @param sinkPin    The index of the input pin on the sink component.
      * @param sinkComp   The sink {@link Component} instance.
      * @throws IllegalArgumentException If either component is null, or if the specified pin indices do not exist.
+     * @throws IllegalStateException If the circuit is frozen.
      */
     public void addConnection(
         int sourcePin,
@@ -138,6 +306,7 @@ public class Circuit {
         int sinkPin,
         Component sinkComp
     ) {
+        requireMutable();
         if (sourceComp == null || sinkComp == null) {
             throw new IllegalArgumentException(
                 "Source or Sink Component cannot be null"
@@ -169,210 +338,1498 @@ public class Circuit {
             sinkPin
         );
         connectors.add(connector);
+        structureChanged();
+    }
+
+    /**
+     * Makes the components and connectors read-only, so that structures built
+     * from them once (such as the netlist of a shared sub-circuit definition)
+     * cannot go stale. Every later structural change throws, and
+     * {@link #getComponents()} and {@link #getConnectors()} return
+     * unmodifiable views.
+     */
+    public void freeze() {
+        if (frozen) return;
+        frozen = true;
+        components = Collections.unmodifiableList(components);
+        connectors = Collections.unmodifiableList(connectors);
+    }
+
+    /**
+     * Indicates whether the circuit has been made read-only by {@link #freeze()}.
+     *
+     * @return {@code true} if structural changes are rejected.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Rejects a structural change to a frozen circuit.
+     *
+     * @throws IllegalStateException If the circuit is frozen.
+     */
+    private void requireMutable() {
+        if (frozen) {
+            throw new IllegalStateException(
+                "Circuit " + name +
+                " is a shared sub-circuit template and cannot be modified"
+            );
+        }
+    }
+
+    /**
+     * Discards every cached structure derived from the components and connectors.
+     */
+    private void structureChanged() {
+        structureVersion++;
+        eventDrivenSimulator = null;
+        levelizedSchedule = null;
+        sccSchedule = null;
+        bitParallelEvaluator = null;
+        netlistSimulator = null;
+        compiledSimulator = null;
+        timedSimulator = null;
+        parallelSimulator = null;
     }
 
     /**
      * Simulates the circuit logic for one cycle.
      * <p>
-     * This method executes every component (calculating outputs from inputs) and then
-     * processes every connector (propagating outputs to inputs of connected components).
+     * In {@link SimulationMode#SWEEP} mode this method executes every component
+     * (calculating outputs from inputs) and then processes every connector
+     * (propagating outputs to inputs of connected components). In
+     * {@link SimulationMode#EVENT_DRIVEN} mode it re-evaluates only the components
+     * whose inputs changed, until no further changes are pending. In
+     * {@link SimulationMode#LEVELIZED} mode it executes every component once in
+     * topological order; if the circuit has feedback it executes the components
+     * outside loops once and iterates each loop until it settles.
+     * In {@link SimulationMode#NETLIST} mode it settles the compiled netlist and
+     * updates the bulbs. In {@link SimulationMode#COMPILED} mode it runs the
+     * generated kernel and updates the bulbs, or behaves like
+     * {@link SimulationMode#NETLIST} if the circuit cannot be compiled. In
+     * {@link SimulationMode#TIMED} mode it advances simulated time until no
+     * events are pending, within the budget described in {@link #settle()},
+     * and updates the bulbs. In {@link SimulationMode#PARALLEL} mode it
+     * evaluates the netlist level by level on the common fork/join pool and
+     * updates the bulbs, or behaves like {@link SimulationMode#NETLIST} if the
+     * circuit has feedback.
      * </p>
      */
     public void simulate() {
+        SimulationEvent event = new SimulationEvent();
+        event.begin();
+        int passes;
+        if (stats == null) {
+            passes = simulateOnce();
+        } else {
+            long start = System.nanoTime();
+            passes = simulateOnce();
+            stats.recordRun(passes, System.nanoTime() - start);
+        }
+        commitSimulation(event, "simulate", passes, true);
+    }
+
+    /**
+     * Simulates the circuit for one cycle as described in {@link #simulate()}.
+     *
+     * @return The number of passes the engine used; 1 unless a netlist engine
+     *         iterated over feedback.
+     */
+    private int simulateOnce() {
+        if (simulationMode == SimulationMode.TIMED) {
+            runTimed();
+            return 1;
+        }
+        if (simulationMode == SimulationMode.PARALLEL) {
+            ParallelLevelSimulator parallel = getParallelSimulator();
+            if (parallel != null) {
+                SimulationResult result = parallel.run();
+                parallel.writeBackBulbs();
+                return countNetlistPasses(parallel.getNetlist(), result);
+            }
+        }
+        if (simulationMode == SimulationMode.EVENT_DRIVEN) {
+            getEventDrivenSimulator().run(stats);
+            return 1;
+        }
+        if (simulationMode == SimulationMode.COMPILED) {
+            CompiledSimulator compiled = getCompiledSimulator();
+            if (compiled != null) {
+                SimulationResult result = compiled.run();
+                compiled.writeBackBulbs();
+                return countNetlistPasses(compiled.getNetlist(), result);
+            }
+        }
+        if (
+            simulationMode == SimulationMode.NETLIST ||
+            simulationMode == SimulationMode.COMPILED ||
+            simulationMode == SimulationMode.PARALLEL
+        ) {
+            NetlistSimulator simulator = getNetlistSimulator();
+            SimulationResult result = simulator.run();
+            simulator.writeBackBulbs();
+            return countNetlistPasses(simulator.getNetlist(), result);
+        }
+        if (simulationMode == SimulationMode.LEVELIZED) {
+            LevelizedSchedule schedule = getLevelizedSchedule();
+            if (schedule.isAcyclic()) {
+                schedule.evaluate(stats);
+            } else {
+                getSccSchedule().evaluate(stats);
+            }
+            return 1;
+        }
         for (Component comp : components) {
-            comp.execute();
+            if (stats == null) {
+                comp.execute();
+            } else {
+                stats.execute(comp);
+            }
 
             for (Connector conn : connectors) {
                 if (conn.sourceComp == comp) {
                     conn.process();
+                    if (stats != null) {
+                        stats.countPropagations(1);
+                    }
                 }
             }
         }
+        return 1;
     }
 
     /**
-     * Generates a truth table for the current circuit configuration.
+     * Counts the gate evaluations of a netlist engine run, if counters are
+     * being recorded.
+     *
+     * @param netlist The netlist the engine evaluated.
+     * @param result  The result of the run.
+     * @return The number of passes of the run.
+     */
+    private int countNetlistPasses(Netlist netlist, SimulationResult result) {
+        if (stats != null) {
+            stats.countNetlistPasses(netlist, result.getPasses());
+        }
+        return result.getPasses();
+    }
+
+    /**
+     * Simulates the circuit until its signals stop changing.
      * <p>
-     * This method identifies all {@link com.logisim.domain.components.Switch} components as inputs
-     * and all {@link com.logisim.domain.components.Bulb} components as outputs. It iterates through
-     * all possible binary combinations of input states ($2^n$), simulates the circuit for each combination,
-     * and records the resulting output states.
+     * A levelized acyclic circuit, the event-driven engine, the generated
+     * kernel and the level-parallel engine settle in a single
+     * {@link #simulate()} call. A levelized circuit with
+     * feedback iterates each feedback loop separately and reports oscillating
+     * loops by their components, and the netlist engine checks for convergence
+     * itself. Otherwise the circuit is simulated pass by pass,
+     * and the pin values of every component (including the inner circuits of
+     * sub-circuits) are compared after each pass. Simulation stops as soon as a
+     * pass changes nothing, or when a pass reproduces an earlier state, which
+     * means the circuit is oscillating and would never converge. At most one pass
+     * per component, plus two passes of margin, is run.
+     * </p>
+     * <p>
+     * In {@link SimulationMode#TIMED} mode simulated time advances by at most
+     * the largest gate delay times the gate count plus two, which is enough
+     * for any change to cross a circuit without feedback. The result reports
+     * one pass, converged if no events were left pending and oscillating
+     * otherwise.
      * </p>
      *
-     * @return A 2D boolean array representing the truth table.
-     *         Rows represent each input combination.
-     *         Columns [0 to nInputs-1] represent input values.
-     *         Columns [nInputs to end] represent output values.
-     *         Returns a 0x0 array if no inputs or outputs are found.
+     * @return A {@link SimulationResult} with the number of passes used and
+     *         whether the circuit converged or oscillated.
      */
-    public boolean[][] analyze() {
-        List<Component> switches = new ArrayList<>();
-        List<Component> bulbs = new ArrayList<>();
-
-        for (Component comp : components) {
-            if (comp instanceof com.logisim.domain.components.Switch) {
-                switches.add(comp);
-            } else if (comp instanceof com.logisim.domain.components.Bulb) {
-                bulbs.add(comp);
-            }
+    public SimulationResult settle() {
+        SimulationEvent event = new SimulationEvent();
+        event.begin();
+        SimulationResult result;
+        if (stats == null) {
+            result = settleOnce();
+        } else {
+            long start = System.nanoTime();
+            result = settleOnce();
+            stats.recordRun(result.getPasses(), System.nanoTime() - start);
         }
+        commitSimulation(event, "settle", result.getPasses(), result.isConverged());
+        return result;
+    }
 
-        int nInputs = switches.size();
-        int nOutputs = bulbs.size();
-
-        if (nInputs == 0 || nOutputs == 0) {
-            return new boolean[0][0];
+    /**
+     * Fills in and commits a simulation event if the recording wants it.
+     */
+    private void commitSimulation(
+        SimulationEvent event,
+        String operation,
+        int passes,
+        boolean converged
+    ) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.circuitId = id;
+            event.circuitName = name;
+            event.mode = simulationMode.name();
+            event.components = components.size();
+            event.connectors = connectors.size();
+            event.passes = passes;
+            event.converged = converged;
+            event.commit();
         }
+    }
 
-        int totalCombinations = 1 << nInputs;
-        boolean[][] truthTable = new boolean[totalCombinations][nInputs +
-        nOutputs];
-
-        for (int row = 0; row < totalCombinations; row++) {
-            int tempRow = row;
-            for (int col = nInputs - 1; col >= 0; col--) {
-                boolean isOn = (tempRow % 2) == 1;
-                tempRow /= 2;
-
-                ((com.logisim.domain.components.Switch) switches.get(
-                        col
-                    )).setState(isOn);
-
-                truthTable[row][col] = isOn;
+    /**
+     * Simulates the circuit until its signals stop changing, as described in
+     * {@link #settle()}.
+     *
+     * @return A {@link SimulationResult} with the number of passes used and
+     *         whether the circuit converged or oscillated.
+     */
+    private SimulationResult settleOnce() {
+        if (simulationMode == SimulationMode.TIMED) {
+            boolean quiescent = runTimed().isQuiescent();
+            return new SimulationResult(1, quiescent, !quiescent);
+        }
+        if (simulationMode == SimulationMode.PARALLEL) {
+            ParallelLevelSimulator parallel = getParallelSimulator();
+            if (parallel != null) {
+                SimulationResult result = parallel.run();
+                parallel.writeBackBulbs();
+                countNetlistPasses(parallel.getNetlist(), result);
+                return result;
+            }
+        }
+        if (simulationMode == SimulationMode.EVENT_DRIVEN) {
+            boolean settled = getEventDrivenSimulator().run(stats);
+            return new SimulationResult(1, settled, !settled);
+        }
+        if (simulationMode == SimulationMode.COMPILED) {
+            CompiledSimulator compiled = getCompiledSimulator();
+            if (compiled != null) {
+                SimulationResult result = compiled.run();
+                compiled.writeBackBulbs();
+                countNetlistPasses(compiled.getNetlist(), result);
+                return result;
+            }
+        }
+        if (
+            simulationMode == SimulationMode.NETLIST ||
+            simulationMode == SimulationMode.COMPILED ||
+            simulationMode == SimulationMode.PARALLEL
+        ) {
+            NetlistSimulator simulator = getNetlistSimulator();
+            SimulationResult result = simulator.run();
+            simulator.writeBackBulbs();
+            countNetlistPasses(simulator.getNetlist(), result);
+            return result;
+        }
+        if (simulationMode == SimulationMode.LEVELIZED) {
+            if (getLevelizedSchedule().isAcyclic()) {
+                simulateOnce();
+                return new SimulationResult(1, true, false);
             }
+            return getSccSchedule().evaluate(stats);
+        }
 
-            for (int i = 0; i < components.size() + 2; i++) {
-                simulate();
+        int budget = components.size() + 2;
+        Set<BitSet> seen = new HashSet<>();
+        BitSet previous = new BitSet();
+        captureState(previous, 0);
+        seen.add(previous);
+        for (int pass = 1; pass <= budget; pass++) {
+            simulateOnce();
+            BitSet current = new BitSet();
+            captureState(current, 0);
+            if (current.equals(previous)) {
+                return new SimulationResult(pass, true, false);
             }
+            if (!seen.add(current)) {
+                return new SimulationResult(pass, false, true);
+            }
+            previous = current;
+        }
+        return new SimulationResult(budget, false, false);
+    }
 
-            for (int col = 0; col < nOutputs; col++) {
-                com.logisim.domain.components.Bulb bulb =
-                    (com.logisim.domain.components.Bulb) bulbs.get(col);
-                truthTable[row][nInputs + col] = bulb.isOn();
+    /**
+     * Records the value of every input and output pin into a bit set.
+     * <p>
+     * Sub-circuit components contribute the state of their inner circuit as
+     * well, since it can hold values (latches) that their pins do not show.
+     * Instances of a shared definition contribute their own net values rather
+     * than the pins of the shared template.
+     * </p>
+     *
+     * @param state  The bit set to write into.
+     * @param offset The first bit index to use.
+     * @return The next free bit index after this circuit's state.
+     */
+    private int captureState(BitSet state, int offset) {
+        for (Component comp : components) {
+            for (boolean value : comp.getInputs()) {
+                if (value) state.set(offset);
+                offset++;
+            }
+            for (boolean value : comp.getOutputs()) {
+                if (value) state.set(offset);
+                offset++;
             }
+            if (comp instanceof SubCircuitComponent) {
+                SubCircuitComponent sub = (SubCircuitComponent) comp;
+                offset = sub.isShared()
+                    ? sub.getInstanceState().captureState(state, offset)
+                    : sub.getInnerCircuit().captureState(state, offset);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Indicates whether the circuit has no feedback loops, so that its outputs
+     * depend only on the current switch states.
+     *
+     * @return {@code true} if the components can be sorted topologically.
+     */
+    public boolean isAcyclic() {
+        return getLevelizedSchedule().isAcyclic();
+    }
+
+    /**
+     * Retrieves the feedback-loop schedule for the current structure,
+     * rebuilding it if the circuit has changed since it was last built.
+     *
+     * @return The {@link SccSchedule} for this circuit.
+     */
+    private SccSchedule getSccSchedule() {
+        if (sccSchedule == null) {
+            sccSchedule = new SccSchedule(components, connectors);
         }
+        return sccSchedule;
+    }
 
-        return truthTable;
+    /**
+     * Retrieves the levelized schedule for the current structure, rebuilding it
+     * if the circuit has changed since it was last built.
+     *
+     * @return The {@link LevelizedSchedule} for this circuit.
+     */
+    private LevelizedSchedule getLevelizedSchedule() {
+        if (levelizedSchedule == null) {
+            levelizedSchedule = new LevelizedSchedule(components, connectors);
+        }
+        return levelizedSchedule;
     }
 
     /**
-     * Generates a boolean algebraic expression (Sum of Products) based on the provided truth table.
+     * Copies the values computed by the netlist engine back into the pins of
+     * every component.
      * <p>
-     * The method constructs a string expression representing the logic required to produce
-     * a 'true' output. It creates minterms for every row in the truth table where the output
-     * is true.
+     * In {@link SimulationMode#NETLIST}, {@link SimulationMode#COMPILED},
+     * {@link SimulationMode#TIMED} and {@link SimulationMode#PARALLEL} modes
+     * only the bulbs are updated by
+     * {@link #simulate()}; call this before inspecting the pins of other
+     * components. In the other modes the components already hold their values
+     * and this method does nothing.
      * </p>
-     *
-     * @param truthTable A 2D boolean array generated by {@link #analyze()}.
-     * @param inputNames A list of names corresponding to the input columns in the truth table.
-     * @return A String representing the boolean expression (e.g., "(A & B) + (!A & B)").
-     *         Returns "0" if the output is never true.
      */
-    public String generateBooleanExpression(
-        boolean[][] truthTable,
-        List<String> inputNames
-    ) {
-        for (int i = 0; i < truthTable.length; i++) {
-            for (int j = 0; j < truthTable[0].length; j++) {
-                System.out.print(truthTable[i][j]);
+    public void syncComponents() {
+        if (simulationMode == SimulationMode.TIMED) {
+            getTimedSimulator().writeBack();
+            return;
+        }
+        if (simulationMode == SimulationMode.PARALLEL) {
+            ParallelLevelSimulator parallel = getParallelSimulator();
+            if (parallel != null) {
+                parallel.writeBack();
+                return;
             }
-            System.out.print("\n");
         }
-        StringBuilder expression = new StringBuilder();
-        int nRows = truthTable.length;
-        int nInputs = inputNames.size();
-        int outputCol = nInputs;
-        for (int row = 0; row < nRows; row++) {
-            if (truthTable[row][outputCol]) {
-                if (expression.length() > 0) expression.append(" + ");
-                expression.append("(");
-                for (int col = 0; col < nInputs; col++) {
-                    if (col > 0) expression.append(" & ");
-                    if (truthTable[row][col]) {
-                        expression.append(inputNames.get(col));
-                    } else {
-                        expression.append("!" + inputNames.get(col));
-                    }
-                }
-                expression.append(")");
+        if (simulationMode == SimulationMode.COMPILED) {
+            CompiledSimulator compiled = getCompiledSimulator();
+            if (compiled != null) {
+                compiled.writeBack();
+                return;
             }
         }
-        if (expression.length() == 0) {
-            return "0";
+        if (
+            simulationMode == SimulationMode.NETLIST ||
+            simulationMode == SimulationMode.COMPILED ||
+            simulationMode == SimulationMode.PARALLEL
+        ) {
+            getNetlistSimulator().writeBack();
         }
-        return expression.toString();
     }
 
     /**
-     * Retrieves the list of components in the circuit.
+     * Advances the timed simulation for a given amount of simulated time and
+     * returns the waveform of every net.
+     * <p>
+     * The switch states are read at the current simulated time; a gate output
+     * changes after the gate's delay from the {@link DelayModel}. Time carries
+     * over between calls, so repeated calls continue the same simulation. The
+     * net indices in the trace refer to the flattened {@link Netlist} (see
+     * {@link Netlist#findNet(String)}). The bulbs are updated afterwards. This
+     * works in any {@link SimulationMode}.
+     * </p>
      *
-     * @return The list of {@link Component} objects.
+     * @param duration The maximum number of time units to advance.
+     * @return The {@link TimingTrace} of this call.
      */
-    public List<Component> getComponents() {
-        return components;
+    public TimingTrace simulateTimed(long duration) {
+        TimedSimulator simulator = getTimedSimulator();
+        TimingTrace trace = simulator.run(duration, stats);
+        simulator.writeBackBulbs();
+        return trace;
     }
 
     /**
-     * Retrieves the name of the circuit.
+     * Runs the timed simulation with a budget large enough to settle any
+     * circuit without feedback.
      *
-     * @return The circuit name.
+     * @return The {@link TimingTrace} of the run.
      */
-    public String getName() {
-        return name;
+    private TimingTrace runTimed() {
+        long budget =
+            (long) (getNetlistSimulator().getNetlist().getGateCount() + 2) *
+            delayModel.getMaxDelay();
+        return simulateTimed(budget);
     }
 
     /**
-     * Retrieves the list of connectors (wires) in the circuit.
+     * Retrieves the gate delays used by timed simulation.
      *
-     * @return The list of {@link Connector} objects.
+     * @return The {@link DelayModel} of this circuit.
      */
-    public List<Connector> getConnectors() {
-        return connectors;
+    public DelayModel getDelayModel() {
+        return delayModel;
     }
 
     /**
-     * Gets the unique identifier of the circuit.
+     * Sets the gate delays used by timed simulation and restarts the timed
+     * simulation at time 0. Changes made to a model after it has been set
+     * take effect the next time it is set.
      *
-     * @return The circuit ID.
+     * @param delayModel The new {@link DelayModel}.
+     * @throws IllegalArgumentException If the model is {@code null}.
      */
-    public long getId() {
-        return id;
+    public void setDelayModel(DelayModel delayModel) {
+        if (delayModel == null) {
+            throw new IllegalArgumentException(
+                "Expected DelayModel but Recieved Null"
+            );
+        }
+        this.delayModel = delayModel;
+        this.timedSimulator = null;
     }
 
     /**
-     * Sets the unique identifier of the circuit.
+     * Simulates every input vector of a file and writes the bulb values of
+     * each vector to another file (see {@link StimulusRunner} for the format).
+     * <p>
+     * Input bit {@code i} drives the {@code i}-th switch of this circuit and
+     * output bit {@code j} is the {@code j}-th bulb, both in component list
+     * order. The run starts from all nets at 0, independent of the current
+     * simulation mode, and leaves the switches as they were.
+     * </p>
      *
-     * @param id The new circuit ID.
+     * @param input  The input vector file.
+     * @param output The output vector file to create or replace.
+     * @return The number of vectors simulated.
+     * @throws IOException If a file cannot be read or written.
      */
-    public void setId(long id) {
-        this.id = id;
+    public long runStimulus(Path input, Path output) throws IOException {
+        return new StimulusRunner(getNetlistSimulator().getNetlist()).run(
+            input,
+            output
+        );
     }
 
     /**
-     * Sets the name of the circuit.
+     * Splits the logic gates of the flattened circuit into balanced partitions
+     * with few nets crossing between them (see {@link NetlistPartitioner}).
      *
-     * @param name The new circuit name.
+     * @param partitions The number of partitions.
+     * @return The {@link Partitioning}, indexed by the gates of the flattened
+     *         {@link Netlist}.
+     * @throws IllegalArgumentException If the circuit has fewer logic gates
+     *                                  than partitions.
      */
-    public void setName(String name) {
-        this.name = name;
+    public Partitioning partition(int partitions) {
+        return NetlistPartitioner.partition(
+            getNetlistSimulator().getNetlist(),
+            partitions
+        );
     }
 
     /**
-     * Replaces the current list of components with a new list.
+     * Partitions the circuit and starts one worker process per partition.
+     * <p>
+     * The returned simulator reads this circuit's switches and updates its
+     * bulbs; call {@link DistributedSimulator#run()} to simulate and
+     * {@link DistributedSimulator#close()} to stop the workers. The circuit
+     * structure must not change while it is open.
+     * </p>
      *
-     * @param components The new list of {@link Component} objects.
+     * @param partitions The number of worker processes.
+     * @return The running {@link DistributedSimulator}.
+     * @throws IOException If a worker cannot be started.
      */
-    public void setComponents(List<Component> components) {
-        this.components = components;
+    public DistributedSimulator startDistributedSimulation(int partitions)
+        throws IOException {
+        Netlist netlist = getNetlistSimulator().getNetlist();
+        return new DistributedSimulator(
+            netlist,
+            NetlistPartitioner.partition(netlist, partitions)
+        );
     }
 
     /**
-     * Replaces the current list of connectors with a new list.
+     * Retrieves the timed engine for the current structure, rebuilding it on
+     * the flattened netlist if the circuit has changed since it was last built.
      *
-     * @param connectors The new list of {@link Connector} objects.
+     * @return The {@link TimedSimulator} for this circuit.
      */
-    public void setConnectors(List<Connector> connectors) {
-        this.connectors = connectors;
+    private TimedSimulator getTimedSimulator() {
+        if (timedSimulator == null) {
+            timedSimulator = new TimedSimulator(
+                getNetlistSimulator().getNetlist(),
+                delayModel
+            );
+        }
+        return timedSimulator;
+    }
+
+    /**
+     * Retrieves the level-parallel engine for the current structure,
+     * rebuilding its level arrays if the circuit has changed since they were
+     * last built.
+     *
+     * @return The {@link ParallelLevelSimulator} for this circuit, or
+     *         {@code null} if the circuit has feedback.
+     */
+    private ParallelLevelSimulator getParallelSimulator() {
+        if (parallelSimulator == null) {
+            Netlist netlist = getNetlistSimulator().getNetlist();
+            parallelSimulator = netlist.isAcyclic()
+                ? new ParallelLevelSimulator(netlist, ForkJoinPool.commonPool())
+                : null;
+        }
+        return parallelSimulator;
+    }
+
+    /**
+     * Retrieves the generated-kernel engine for the current structure,
+     * generating a new kernel class if the circuit has changed since the last
+     * one was built.
+     *
+     * @return The {@link CompiledSimulator} for this circuit, or {@code null}
+     *         if the circuit has feedback and cannot be compiled.
+     */
+    private CompiledSimulator getCompiledSimulator() {
+        if (compiledSimulator == null) {
+            Netlist netlist = getNetlistSimulator().getNetlist();
+            compiledSimulator = KernelGenerator.supports(netlist)
+                ? new CompiledSimulator(netlist)
+                : null;
+        }
+        return compiledSimulator;
+    }
+
+    /**
+     * Retrieves the netlist engine for the current structure, recompiling the
+     * netlist (with every sub-circuit inlined) if the circuit has changed since
+     * it was last built.
+     *
+     * @return The {@link NetlistSimulator} for this circuit.
+     */
+    private NetlistSimulator getNetlistSimulator() {
+        if (netlistSimulator == null) {
+            netlistSimulator = new NetlistSimulator(
+                Netlist.flatten(components, connectors)
+            );
+        }
+        return netlistSimulator;
+    }
+
+    /**
+     * Retrieves the event-driven engine for the current structure, rebuilding
+     * its fanout index if the circuit has changed since it was last built.
+     *
+     * @return The {@link EventDrivenSimulator} for this circuit.
+     */
+    private EventDrivenSimulator getEventDrivenSimulator() {
+        if (eventDrivenSimulator == null) {
+            eventDrivenSimulator = new EventDrivenSimulator(
+                components,
+                connectors
+            );
+        }
+        return eventDrivenSimulator;
+    }
+
+    /**
+     * Generates a truth table for the current circuit configuration.
+     * <p>
+     * This method identifies all {@link com.logisim.domain.components.Switch} components as inputs
+     * and all {@link com.logisim.domain.components.Bulb} components as outputs. It iterates through
+     * all possible binary combinations of input states ($2^n$) and records the resulting output states.
+     * Circuits without feedback are evaluated 64 rows at a time by {@link #analyzePacked()};
+     * other circuits are simulated row by row. The table takes one {@code boolean}
+     * per cell; {@link #analyzeTable()} holds the same outputs in one bit each.
+     * </p>
+     *
+     * @return A 2D boolean array representing the truth table.
+     *         Rows represent each input combination.
+     *         Columns [0 to nInputs-1] represent input values.
+     *         Columns [nInputs to end] represent output values.
+     *         Returns a 0x0 array if no inputs or outputs are found.
+     * @throws IllegalStateException If the circuit has more than
+     *         {@link #MAX_TABLE_INPUTS} switches.
+     */
+    public boolean[][] analyze() {
+        return analyze(null);
+    }
+
+    /**
+     * Generates a truth table, splitting the input space across a fork/join pool.
+     * <p>
+     * Each worker evaluates its own range of rows on a private copy of the
+     * simulation state, so the live switches and bulbs are never touched.
+     * Circuits with feedback cannot be evaluated this way and are simulated
+     * row by row on the calling thread.
+     * </p>
+     *
+     * @param pool The pool to evaluate on, or {@code null} to evaluate on the calling thread.
+     * @return The truth table in the format of {@link #analyze()}.
+     */
+    public boolean[][] analyze(ForkJoinPool pool) {
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        BitParallelEvaluator evaluator = getBitParallelEvaluator();
+        if (evaluator == null) {
+            boolean[][] truthTable = analyzeScalar();
+            commitAnalysis(event, "analyze", null, pool, truthTable.length);
+            return truthTable;
+        }
+
+        long[][] columns = packedColumns(evaluator, pool);
+        if (columns.length == 0) {
+            commitAnalysis(event, "analyze", evaluator, pool, 0);
+            return new boolean[0][0];
+        }
+
+        int nInputs = evaluator.getInputCount();
+        int nOutputs = columns.length;
+        int totalCombinations = 1 << nInputs;
+        boolean[][] truthTable = new boolean[totalCombinations][nInputs +
+        nOutputs];
+
+        for (int row = 0; row < totalCombinations; row++) {
+            for (int col = 0; col < nInputs; col++) {
+                truthTable[row][col] = ((row >>> (nInputs - 1 - col)) & 1) == 1;
+            }
+            for (int col = 0; col < nOutputs; col++) {
+                truthTable[row][nInputs + col] =
+                    ((columns[col][row >>> 6] >>> (row & 63)) & 1L) == 1L;
+            }
+        }
+
+        commitAnalysis(event, "analyze", evaluator, pool, totalCombinations);
+        return truthTable;
+    }
+
+    /**
+     * Generates the output columns of the truth table in bit-packed form.
+     * <p>
+     * Each output column is a {@code long[]} where bit {@code b} of word {@code w}
+     * holds the output for row {@code w * 64 + b}. Rows are numbered as in
+     * {@link #analyze()}, with the first switch as the most significant bit. The
+     * input columns are not stored, since they follow directly from the row index.
+     * </p>
+     * <p>
+     * Circuits without feedback are evaluated 64 rows per pass with bitwise
+     * operations and leave the switches and bulbs untouched. Circuits with
+     * feedback fall back to row-by-row simulation.
+     * </p>
+     *
+     * @return One packed column per bulb, in component list order.
+     *         Returns a 0x0 array if no inputs or outputs are found.
+     * @throws IllegalStateException If the circuit has more than
+     *         {@link #MAX_TABLE_INPUTS} switches.
+     */
+    public long[][] analyzePacked() {
+        return analyzePacked(null);
+    }
+
+    /**
+     * Generates the packed output columns, splitting the input space across a
+     * fork/join pool.
+     * <p>
+     * The rows are divided into ranges of 64-row words that are evaluated by
+     * {@link ParallelTruthTableTask}s, each with its own private state array.
+     * Circuits with feedback are simulated row by row on the calling thread.
+     * </p>
+     *
+     * @param pool The pool to evaluate on, or {@code null} to evaluate on the calling thread.
+     * @return The packed output columns in the format of {@link #analyzePacked()}.
+     */
+    public long[][] analyzePacked(ForkJoinPool pool) {
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        BitParallelEvaluator evaluator = getBitParallelEvaluator();
+        if (evaluator == null) {
+            boolean[][] truthTable = analyzeScalar();
+            commitAnalysis(event, "analyzePacked", null, pool, truthTable.length);
+            return pack(truthTable);
+        }
+
+        long[][] columns = packedColumns(evaluator, pool);
+        commitAnalysis(
+            event,
+            "analyzePacked",
+            evaluator,
+            pool,
+            columns.length == 0 ? 0 : 1L << evaluator.getInputCount()
+        );
+        return columns;
+    }
+
+    /**
+     * Generates the output columns of the truth table as a {@link TruthTable}.
+     * <p>
+     * The table is kept on the heap up to {@link TruthTable#DEFAULT_HEAP_LIMIT}
+     * bytes and off the heap above, and supports column comparison, popcounts
+     * and XOR differences without expanding any rows.
+     * </p>
+     *
+     * @return The table, with one column per bulb in component list order.
+     *         Has no columns if no inputs or outputs are found.
+     * @throws IllegalStateException If the circuit has more than
+     *         {@link #MAX_TABLE_INPUTS} switches.
+     */
+    public TruthTable analyzeTable() {
+        return analyzeTable(null);
+    }
+
+    /**
+     * Generates the truth table as a {@link TruthTable}, splitting the input
+     * space across a fork/join pool as {@link #analyzePacked(ForkJoinPool)} does.
+     *
+     * @param pool The pool to evaluate on, or {@code null} to evaluate on the calling thread.
+     * @return The table in the format of {@link #analyzeTable()}.
+     */
+    public TruthTable analyzeTable(ForkJoinPool pool) {
+        return fillTable(
+            pool,
+            (nInputs, nOutputs) -> TruthTable.allocate(nInputs, nOutputs)
+        );
+    }
+
+    /**
+     * Generates the truth table as a {@link TruthTable} that spills to a
+     * memory-mapped file once it is larger than a given size.
+     *
+     * @param pool           The pool to evaluate on, or {@code null}.
+     * @param heapLimit      The largest table, in bytes, kept on the heap.
+     * @param spillDirectory The directory for the spill file, which is
+     *                       deleted when the table is closed.
+     * @return The table in the format of {@link #analyzeTable()}.
+     * @throws IOException If the spill file cannot be created.
+     */
+    public TruthTable analyzeTable(
+        ForkJoinPool pool,
+        long heapLimit,
+        Path spillDirectory
+    ) throws IOException {
+        try {
+            return fillTable(pool, (nInputs, nOutputs) -> {
+                try {
+                    return TruthTable.allocate(
+                        nInputs,
+                        nOutputs,
+                        heapLimit,
+                        spillDirectory
+                    );
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Allocates a table for the current structure and fills it.
+     *
+     * @param pool      The pool to evaluate on, or {@code null}.
+     * @param allocator Creates the table from the input and output counts.
+     * @return The filled table.
+     */
+    private TruthTable fillTable(
+        ForkJoinPool pool,
+        BiFunction<Integer, Integer, TruthTable> allocator
+    ) {
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        BitParallelEvaluator evaluator = getBitParallelEvaluator();
+        if (evaluator == null) {
+            boolean[][] truthTable = analyzeScalar();
+            long[][] columns = pack(truthTable);
+            TruthTable table = columns.length == 0
+                ? TruthTable.allocate(0, 0)
+                : allocator.apply(
+                    Integer.numberOfTrailingZeros(truthTable.length),
+                    columns.length
+                );
+            for (int col = 0; col < columns.length; col++) {
+                for (int w = 0; w < columns[col].length; w++) {
+                    table.setWord(col, w, columns[col][w]);
+                }
+            }
+            commitAnalysis(event, "analyzeTable", null, pool, truthTable.length);
+            return table;
+        }
+
+        int nInputs = evaluator.getInputCount();
+        int nOutputs = evaluator.getOutputCount();
+        if (nInputs == 0 || nOutputs == 0) {
+            commitAnalysis(event, "analyzeTable", evaluator, pool, 0);
+            return TruthTable.allocate(0, 0);
+        }
+        requireInputs(nInputs, MAX_TABLE_INPUTS);
+
+        TruthTable table = allocator.apply(nInputs, nOutputs);
+        int words = table.getWordCount();
+        if (pool == null || words <= ParallelTruthTableTask.LEAF_WORDS) {
+            evaluator.evaluateWords(table, 0, words, evaluator.newState());
+        } else {
+            pool.invoke(new ParallelTruthTableTask(evaluator, table, 0, words));
+        }
+        commitAnalysis(event, "analyzeTable", evaluator, pool, table.getRowCount());
+        return table;
+    }
+
+    /**
+     * Streams the rows of the truth table, producing them only as they are
+     * consumed.
+     * <p>
+     * Unlike {@link #analyze()}, no table is allocated. Circuits without
+     * feedback are evaluated 64 rows at a time by a
+     * {@link TruthTableSpliterator}, which leaves the switches and bulbs
+     * untouched; calling {@link Stream#parallel()} splits the rows across
+     * the common fork/join pool. Circuits with feedback are simulated row by
+     * row through the live switches when each row is pulled, and do not
+     * split.
+     * </p>
+     * <p>
+     * Rows come in index order and are numbered as in {@link #analyze()}.
+     * The stream is bound to the circuit structure at the time of the call.
+     * </p>
+     *
+     * @return The rows, or an empty stream if no inputs or outputs are found.
+     * @throws IllegalStateException If the circuit has more than
+     *         {@link #MAX_STREAM_INPUTS} switches.
+     */
+    public Stream<TruthTableRow> streamTruthTable() {
+        BitParallelEvaluator evaluator = getBitParallelEvaluator();
+        if (evaluator == null) {
+            return StreamSupport.stream(scalarRows(), false);
+        }
+        int nInputs = evaluator.getInputCount();
+        if (nInputs == 0 || evaluator.getOutputCount() == 0) {
+            return Stream.empty();
+        }
+        requireInputs(nInputs, MAX_STREAM_INPUTS);
+        return StreamSupport.stream(
+            new TruthTableSpliterator(evaluator, 0, 1L << nInputs),
+            false
+        );
+    }
+
+    /**
+     * Produces truth table rows by setting the switches and settling the
+     * circuit as each row is requested.
+     *
+     * @return The rows in the format of {@link #streamTruthTable()}.
+     */
+    private Spliterator<TruthTableRow> scalarRows() {
+        List<com.logisim.domain.components.Switch> switches = new ArrayList<>();
+        List<com.logisim.domain.components.Bulb> bulbs = new ArrayList<>();
+        for (Component comp : components) {
+            if (comp instanceof com.logisim.domain.components.Switch) {
+                switches.add((com.logisim.domain.components.Switch) comp);
+            } else if (comp instanceof com.logisim.domain.components.Bulb) {
+                bulbs.add((com.logisim.domain.components.Bulb) comp);
+            }
+        }
+        int nInputs = switches.size();
+        int nOutputs = bulbs.size();
+        if (nInputs == 0 || nOutputs == 0) {
+            return Spliterators.emptySpliterator();
+        }
+        requireInputs(nInputs, MAX_STREAM_INPUTS);
+
+        long totalCombinations = 1L << nInputs;
+        return new Spliterators.AbstractSpliterator<>(
+            totalCombinations,
+            Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL
+        ) {
+            private long row;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super TruthTableRow> action) {
+                if (row >= totalCombinations) {
+                    return false;
+                }
+                for (int col = 0; col < nInputs; col++) {
+                    switches.get(col).setState(((row >>> (nInputs - 1 - col)) & 1L) != 0);
+                }
+                settle();
+                long[] outputs = new long[(nOutputs + 63) >>> 6];
+                for (int col = 0; col < nOutputs; col++) {
+                    if (bulbs.get(col).isOn()) {
+                        outputs[col >>> 6] |= 1L << (col & 63);
+                    }
+                }
+                action.accept(new TruthTableRow(row++, nInputs, nOutputs, outputs));
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Rejects circuits with more switches than a table of rows can index.
+     */
+    private static void requireInputs(int nInputs, int limit) {
+        if (nInputs > limit) {
+            throw new IllegalStateException(
+                "A truth table of " + nInputs + " inputs has too many rows; at most " +
+                limit + " inputs are supported" +
+                (limit == MAX_TABLE_INPUTS ? ", use streamTruthTable() or buildBdd()" : "")
+            );
+        }
+    }
+
+    /**
+     * Evaluates the packed output columns with the bit-parallel evaluator.
+     *
+     * @param evaluator The evaluator for the current structure.
+     * @param pool      The pool to evaluate on, or {@code null}.
+     * @return The packed output columns in the format of {@link #analyzePacked()}.
+     */
+    private long[][] packedColumns(
+        BitParallelEvaluator evaluator,
+        ForkJoinPool pool
+    ) {
+        int nInputs = evaluator.getInputCount();
+        int nOutputs = evaluator.getOutputCount();
+        if (nInputs == 0 || nOutputs == 0) {
+            return new long[0][0];
+        }
+        requireInputs(nInputs, MAX_TABLE_INPUTS);
+
+        int words = Math.max(1, (1 << nInputs) >>> 6);
+        long[][] columns = new long[nOutputs][words];
+        if (pool == null || words <= ParallelTruthTableTask.LEAF_WORDS) {
+            evaluator.evaluateWords(columns, 0, words, evaluator.newState());
+        } else {
+            pool.invoke(
+                new ParallelTruthTableTask(evaluator, columns, 0, words)
+            );
+        }
+        return columns;
+    }
+
+    /**
+     * Fills in and commits an analysis event if the recording wants it.
+     *
+     * @param evaluator The bit-parallel evaluator used, or {@code null} if
+     *                  the rows were simulated one by one.
+     */
+    private void commitAnalysis(
+        AnalysisEvent event,
+        String operation,
+        BitParallelEvaluator evaluator,
+        ForkJoinPool pool,
+        long rows
+    ) {
+        event.end();
+        if (event.shouldCommit()) {
+            int inputs = 0;
+            int outputs = 0;
+            for (Component comp : components) {
+                if (comp instanceof com.logisim.domain.components.Switch) inputs++;
+                if (comp instanceof com.logisim.domain.components.Bulb) outputs++;
+            }
+            event.operation = operation;
+            event.circuitId = id;
+            event.circuitName = name;
+            event.components = components.size();
+            event.inputs = inputs;
+            event.outputs = outputs;
+            event.rows = rows;
+            event.bitParallel = evaluator != null;
+            event.pooled = evaluator != null && pool != null;
+            event.commit();
+        }
+    }
+
+    /**
+     * Generates the truth table by setting the switches and simulating the
+     * circuit one row at a time.
+     *
+     * @return The truth table in the format of {@link #analyze()}.
+     */
+    private boolean[][] analyzeScalar() {
+        List<Component> switches = new ArrayList<>();
+        List<Component> bulbs = new ArrayList<>();
+
+        for (Component comp : components) {
+            if (comp instanceof com.logisim.domain.components.Switch) {
+                switches.add(comp);
+            } else if (comp instanceof com.logisim.domain.components.Bulb) {
+                bulbs.add(comp);
+            }
+        }
+
+        int nInputs = switches.size();
+        int nOutputs = bulbs.size();
+
+        if (nInputs == 0 || nOutputs == 0) {
+            return new boolean[0][0];
+        }
+        requireInputs(nInputs, MAX_TABLE_INPUTS);
+
+        int totalCombinations = 1 << nInputs;
+        boolean[][] truthTable = new boolean[totalCombinations][nInputs +
+        nOutputs];
+
+        for (int row = 0; row < totalCombinations; row++) {
+            int tempRow = row;
+            for (int col = nInputs - 1; col >= 0; col--) {
+                boolean isOn = (tempRow % 2) == 1;
+                tempRow /= 2;
+
+                ((com.logisim.domain.components.Switch) switches.get(
+                        col
+                    )).setState(isOn);
+
+                truthTable[row][col] = isOn;
+            }
+
+            settle();
+
+            for (int col = 0; col < nOutputs; col++) {
+                com.logisim.domain.components.Bulb bulb =
+                    (com.logisim.domain.components.Bulb) bulbs.get(col);
+                truthTable[row][nInputs + col] = bulb.isOn();
+            }
+        }
+
+        return truthTable;
+    }
+
+    /**
+     * Converts the output columns of a boolean truth table into packed form.
+     *
+     * @param truthTable A truth table in the format of {@link #analyze()}.
+     * @return The packed output columns in the format of {@link #analyzePacked()}.
+     */
+    private static long[][] pack(boolean[][] truthTable) {
+        if (truthTable.length == 0) {
+            return new long[0][0];
+        }
+        int nRows = truthTable.length;
+        int nInputs = Integer.numberOfTrailingZeros(nRows);
+        int nOutputs = truthTable[0].length - nInputs;
+        long[][] columns = new long[nOutputs][Math.max(1, nRows >>> 6)];
+        for (int row = 0; row < nRows; row++) {
+            for (int col = 0; col < nOutputs; col++) {
+                if (truthTable[row][nInputs + col]) {
+                    columns[col][row >>> 6] |= 1L << (row & 63);
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Retrieves the bit-parallel evaluator for the current structure, compiling
+     * it if the circuit has changed since it was last built.
+     *
+     * @return The {@link BitParallelEvaluator}, or {@code null} if the circuit has
+     *         feedback or components that cannot be evaluated bitwise.
+     */
+    private BitParallelEvaluator getBitParallelEvaluator() {
+        if (bitParallelEvaluator == null) {
+            bitParallelEvaluator = BitParallelEvaluator.supports(
+                    components,
+                    connectors
+                )
+                ? new BitParallelEvaluator(components, connectors)
+                : null;
+        }
+        return bitParallelEvaluator;
+    }
+
+    /**
+     * Builds a reduced ordered binary decision diagram for every bulb,
+     * directly from the gates of the flattened circuit.
+     * <p>
+     * Unlike {@link #analyze()}, no rows are enumerated, so satisfiability,
+     * tautology, minterm counts and expressions stay cheap for circuits with
+     * far more inputs than a truth table can hold; see {@link CircuitBdd}.
+     * The diagrams are a snapshot and do not follow later edits.
+     * </p>
+     *
+     * @return The {@link CircuitBdd} with one output per bulb.
+     * @throws IllegalArgumentException If the circuit has feedback.
+     */
+    public CircuitBdd buildBdd() {
+        return new CircuitBdd(getNetlistSimulator().getNetlist());
+    }
+
+    /**
+     * Checks whether another circuit computes the same functions as this
+     * one, matching switches and bulbs by position in component list order.
+     * <p>
+     * The two circuits are encoded as a miter and decided by a SAT solver
+     * (see {@link EquivalenceChecker}), so no truth table is built. Neither
+     * circuit's switches or bulbs are touched.
+     * </p>
+     *
+     * @param other The circuit to compare with.
+     * @return The {@link EquivalenceResult}, with a counterexample in terms of
+     *         this circuit's switches if the circuits differ.
+     * @throws IllegalArgumentException If the other circuit is {@code null},
+     *         either circuit has feedback, or the pin counts differ.
+     */
+    public EquivalenceResult checkEquivalence(Circuit other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Expected Circuit but Recieved Null");
+        }
+        return EquivalenceChecker.check(
+            getNetlistSimulator().getNetlist(),
+            other.getNetlistSimulator().getNetlist()
+        );
+    }
+
+    /**
+     * Checks whether another circuit computes the same functions as this
+     * one, with an explicit pairing of their switches and bulbs.
+     *
+     * @param other         The circuit to compare with.
+     * @param inputMapping  For every switch of this circuit, the index of the
+     *                      matching switch of the other.
+     * @param outputMapping For every bulb of this circuit, the index of the
+     *                      matching bulb of the other.
+     * @return The {@link EquivalenceResult}.
+     * @throws IllegalArgumentException If the other circuit is {@code null},
+     *         either circuit has feedback, or a mapping is not one-to-one.
+     */
+    public EquivalenceResult checkEquivalence(
+        Circuit other,
+        int[] inputMapping,
+        int[] outputMapping
+    ) {
+        if (other == null) {
+            throw new IllegalArgumentException("Expected Circuit but Recieved Null");
+        }
+        return EquivalenceChecker.check(
+            getNetlistSimulator().getNetlist(),
+            other.getNetlistSimulator().getNetlist(),
+            inputMapping,
+            outputMapping
+        );
+    }
+
+    /**
+     * Generates a minimized boolean algebraic expression (Sum of Products)
+     * for the first output of the provided truth table.
+     * <p>
+     * The output column is minimized by {@link LogicMinimizer}, so the result
+     * has one term per prime implicant of the cover rather than one per true
+     * row. Use {@link #generateBooleanExpressions(boolean[][], List, ExpressionForm)}
+     * for every output, or {@link #generateBooleanExpressions(TruthTable, List, ExpressionForm)}
+     * to avoid the boolean table altogether.
+     * </p>
+     *
+     * @param truthTable A 2D boolean array generated by {@link #analyze()}.
+     * @param inputNames A list of names corresponding to the input columns in the truth table.
+     * @return A String representing the boolean expression (e.g., "(A & B) + (!A & C)").
+     *         Returns "0" if the output is never true and "1" if it is always true.
+     */
+    public String generateBooleanExpression(
+        boolean[][] truthTable,
+        List<String> inputNames
+    ) {
+        List<String> expressions = generateBooleanExpressions(
+            truthTable,
+            inputNames,
+            ExpressionForm.SUM_OF_PRODUCTS
+        );
+        return expressions.isEmpty() ? "0" : expressions.get(0);
+    }
+
+    /**
+     * Generates a minimized expression for every output of a truth table.
+     *
+     * @param truthTable A 2D boolean array generated by {@link #analyze()}.
+     * @param inputNames A list of names corresponding to the input columns in the truth table.
+     * @param form       Whether to write sums of products or products of sums.
+     * @return One expression per output column, in column order.
+     */
+    public List<String> generateBooleanExpressions(
+        boolean[][] truthTable,
+        List<String> inputNames,
+        ExpressionForm form
+    ) {
+        return generateBooleanExpressions(pack(truthTable), inputNames, form);
+    }
+
+    /**
+     * Generates a minimized expression for every packed output column.
+     * <p>
+     * The columns are minimized directly in packed form: exactly for up to
+     * {@link LogicMinimizer#EXACT_INPUT_LIMIT} inputs and heuristically above
+     * that; see {@link LogicMinimizer}.
+     * </p>
+     *
+     * @param columns    The packed output columns generated by {@link #analyzePacked()}.
+     * @param inputNames One name per input, which also gives the input count.
+     * @param form       Whether to write sums of products or products of sums.
+     * @return One expression per output column, in column order.
+     * @throws IllegalArgumentException If there are more than
+     *         {@link LogicMinimizer#MAX_INPUTS} inputs.
+     */
+    public List<String> generateBooleanExpressions(
+        long[][] columns,
+        List<String> inputNames,
+        ExpressionForm form
+    ) {
+        List<String> expressions = new ArrayList<>();
+        for (long[] column : columns) {
+            expressions.add(
+                LogicMinimizer.minimize(column, inputNames.size(), form).format(
+                    inputNames
+                )
+            );
+        }
+        return expressions;
+    }
+
+    /**
+     * Generates a minimized expression for every column of a {@link TruthTable}.
+     *
+     * @param table      The table generated by {@link #analyzeTable()}.
+     * @param inputNames One name per input of the table.
+     * @param form       Whether to write sums of products or products of sums.
+     * @return One expression per output column, in column order.
+     * @throws IllegalArgumentException If the table is {@code null}, the
+     *         number of names does not match its inputs, or it has more than
+     *         {@link LogicMinimizer#MAX_INPUTS} inputs.
+     */
+    public List<String> generateBooleanExpressions(
+        TruthTable table,
+        List<String> inputNames,
+        ExpressionForm form
+    ) {
+        if (table == null) {
+            throw new IllegalArgumentException("Expected TruthTable but Recieved Null");
+        }
+        if (inputNames.size() != table.getInputCount()) {
+            throw new IllegalArgumentException(
+                "Expected " + table.getInputCount() + " input names but Recieved " +
+                inputNames.size()
+            );
+        }
+        List<String> expressions = new ArrayList<>();
+        for (int col = 0; col < table.getOutputCount(); col++) {
+            expressions.add(
+                LogicMinimizer.minimize(
+                    table.toColumn(col),
+                    table.getInputCount(),
+                    form
+                ).format(inputNames)
+            );
+        }
+        return expressions;
+    }
+
+    /**
+     * Retrieves the list of components in the circuit.
+     * <p>
+     * The list must not be changed directly: the cached engines are only
+     * discarded by {@link #addComponent(Component)},
+     * {@link #removeComponent(Component)} and {@link #setComponents(List)}.
+     * </p>
+     *
+     * @return The list of {@link Component} objects.
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * Retrieves a counter that changes whenever a component or connector is
+     * added, removed or replaced. Changes inside sub-circuits do not count.
+     *
+     * @return The structure version.
+     */
+    public long getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Retrieves the name of the circuit.
+     *
+     * @return The circuit name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the list of connectors (wires) in the circuit.
+     * <p>
+     * The list must not be changed directly: the cached engines are only
+     * discarded by the {@code addConnection} methods,
+     * {@link #removeComponent(Component)} and {@link #setConnectors(List)}.
+     * </p>
+     *
+     * @return The list of {@link Connector} objects.
+     */
+    public List<Connector> getConnectors() {
+        return connectors;
+    }
+
+    /**
+     * Gets the unique identifier of the circuit.
+     *
+     * @return The circuit ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the circuit.
+     *
+     * @param id The new circuit ID.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Sets the name of the circuit.
+     *
+     * @param name The new circuit name.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Replaces the current list of components with a new list.
+     *
+     * @param components The new list of {@link Component} objects.
+     * @throws IllegalStateException If the circuit is frozen.
+     */
+    public void setComponents(List<Component> components) {
+        requireMutable();
+        this.components = components;
+        componentSet.clear();
+        structureChanged();
+    }
+
+    /**
+     * Replaces the current list of connectors with a new list.
+     *
+     * @param connectors The new list of {@link Connector} objects.
+     * @throws IllegalStateException If the circuit is frozen.
+     */
+    public void setConnectors(List<Connector> connectors) {
+        requireMutable();
+        this.connectors = connectors;
+        structureChanged();
+    }
+
+    /**
+     * Retrieves the engine used by {@link #simulate()}.
+     *
+     * @return The current {@link SimulationMode}.
+     */
+    public SimulationMode getSimulationMode() {
+        return simulationMode;
+    }
+
+    /**
+     * Selects the engine used by {@link #simulate()}.
+     * <p>
+     * The mode is also applied to the inner circuits of any sub-circuit components.
+     * </p>
+     *
+     * @param simulationMode The {@link SimulationMode} to use.
+     * @throws IllegalArgumentException If the mode is {@code null}.
+     */
+    public void setSimulationMode(SimulationMode simulationMode) {
+        if (simulationMode == null) {
+            throw new IllegalArgumentException(
+                "Expected SimulationMode but Recieved Null"
+            );
+        }
+        this.simulationMode = simulationMode;
+        for (Component comp : components) {
+            if (
+                comp instanceof SubCircuitComponent &&
+                !((SubCircuitComponent) comp).isShared()
+            ) {
+                ((SubCircuitComponent) comp).getInnerCircuit().setSimulationMode(
+                        simulationMode
+                    );
+            }
+        }
+    }
+
+    /**
+     * Turns the recording of simulation counters on or off.
+     * <p>
+     * While enabled, {@link #simulate()} and {@link #settle()} record gate
+     * evaluations per component type, wire propagations, passes, wall time
+     * and the time spent in each sub-circuit instance; see
+     * {@link SimulationStats}. Enabling keeps any counters already recorded;
+     * disabling discards them.
+     * </p>
+     *
+     * @param enabled {@code true} to record counters.
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new SimulationStats();
+        }
+    }
+
+    /**
+     * Indicates whether simulation counters are being recorded.
+     *
+     * @return {@code true} if {@link #getStats()} returns counters.
+     */
+    public boolean isStatsEnabled() {
+        return stats != null;
+    }
+
+    /**
+     * Retrieves the simulation counters recorded since they were enabled or
+     * last reset.
+     *
+     * @return The {@link SimulationStats}, or {@code null} if recording is disabled.
+     */
+    public SimulationStats getStats() {
+        return stats;
     }
 
     /**
@@ -0,0 +1,832 @@
+package com.logisim.domain.bdd;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A store of reduced ordered binary decision diagrams (ROBDDs) over a fixed
+ * set of variables.
+ * <p>
+ * A BDD is identified by the {@code int} index of its root node; {@link #FALSE}
+ * and {@link #TRUE} are the two terminals. Nodes are kept in parallel
+ * {@code int} arrays and are unique: every variable has its own hash table of
+ * {@code (low, high)} pairs, so equal functions always get the same index and
+ * equivalence, tautology and satisfiability are constant-time comparisons.
+ * All operations go through {@link #ite(int, int, int)}, whose results are
+ * memoized in a direct-mapped computed table.
+ * </p>
+ * <p>
+ * Variables are numbered from 0; their position in the diagram (their
+ * <i>level</i>) can be changed at any time with {@link #setOrder(int[])} or
+ * {@link #reorder()}, which sifts each variable to its best level using
+ * in-place swaps of adjacent levels. Node indices stay valid across
+ * reordering, but only for nodes protected with {@link #ref(int)}: every
+ * unreferenced node may be collected by {@link #collectGarbage()} and by
+ * reordering.
+ * </p>
+ * <p>
+ * A manager is not thread-safe.
+ * </p>
+ */
+public class BddManager {
+
+    /** The constant false function. */
+    public static final int FALSE = 0;
+
+    /** The constant true function. */
+    public static final int TRUE = 1;
+
+    /**
+     * How far the node count may grow above the best seen while a variable
+     * is sifted before sifting in that direction stops.
+     */
+    static final double MAX_GROWTH = 1.2;
+
+    /**
+     * The fewest live nodes at which {@link #reorderIfNeeded()} reorders.
+     */
+    static final int MIN_REORDER_NODES = 4096;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_CACHE_SIZE = 1 << 12;
+    private static final int MAX_CACHE_SIZE = 1 << 20;
+
+    private final int variableCount;
+
+    /** The variable of every node; the variable count for terminals, -1 for free nodes. */
+    private int[] vars;
+    private int[] lows;
+    private int[] highs;
+
+    /** The next node in the same unique table chain, or in the free list. */
+    private int[] nexts;
+
+    /** The number of parents plus external references of every node. */
+    private int[] refs;
+
+    /** The number of node slots in use or freed; the next new slot. */
+    private int allocated = 2;
+
+    /** The first free node slot, or 0 if there is none. */
+    private int freeHead;
+
+    /** The number of internal nodes, including unreferenced ones not yet collected. */
+    private int liveNodes;
+
+    /** The unique table of every variable: chains of nodes linked by {@code nexts}. */
+    private final int[][] buckets;
+    private final int[] tableSizes;
+
+    /** The level of every variable. */
+    private final int[] levels;
+
+    /** The variable at every level. */
+    private final int[] order;
+
+    private int[] cacheF;
+    private int[] cacheG;
+    private int[] cacheH;
+    private int[] cacheResults;
+
+    private boolean autoReorder = true;
+    private int nextReorder = MIN_REORDER_NODES;
+    private int reorderings;
+
+    /**
+     * Creates a manager with the identity variable order.
+     *
+     * @param variableCount The number of variables.
+     * @throws IllegalArgumentException If the count is negative.
+     */
+    public BddManager(int variableCount) {
+        if (variableCount < 0) {
+            throw new IllegalArgumentException(
+                "Variable count must not be negative: " + variableCount
+            );
+        }
+        this.variableCount = variableCount;
+        vars = new int[INITIAL_CAPACITY];
+        lows = new int[INITIAL_CAPACITY];
+        highs = new int[INITIAL_CAPACITY];
+        nexts = new int[INITIAL_CAPACITY];
+        refs = new int[INITIAL_CAPACITY];
+        vars[FALSE] = variableCount;
+        vars[TRUE] = variableCount;
+        buckets = new int[variableCount][];
+        tableSizes = new int[variableCount];
+        levels = new int[variableCount];
+        order = new int[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            buckets[v] = new int[16];
+            levels[v] = v;
+            order[v] = v;
+        }
+        allocateCache(MIN_CACHE_SIZE);
+    }
+
+    /**
+     * Retrieves the number of variables.
+     *
+     * @return The variable count.
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Retrieves the function that is true exactly when a variable is.
+     *
+     * @param variable The variable index.
+     * @return The BDD of the variable.
+     * @throws IllegalArgumentException If the variable is out of range.
+     */
+    public int variable(int variable) {
+        checkVariable(variable);
+        return make(variable, FALSE, TRUE);
+    }
+
+    /**
+     * Computes {@code f ? g : h}.
+     *
+     * @param f The condition.
+     * @param g The function where {@code f} is true.
+     * @param h The function where {@code f} is false.
+     * @return The BDD of the result.
+     * @throws IllegalArgumentException If an argument is not a live node.
+     */
+    public int ite(int f, int g, int h) {
+        checkNode(f);
+        checkNode(g);
+        checkNode(h);
+        return iteRec(f, g, h);
+    }
+
+    /**
+     * Computes the complement of a function.
+     *
+     * @param f The function.
+     * @return The BDD of {@code !f}.
+     */
+    public int not(int f) {
+        return ite(f, FALSE, TRUE);
+    }
+
+    /**
+     * Computes the conjunction of two functions.
+     *
+     * @param f The first function.
+     * @param g The second function.
+     * @return The BDD of {@code f & g}.
+     */
+    public int and(int f, int g) {
+        return ite(f, g, FALSE);
+    }
+
+    /**
+     * Computes the disjunction of two functions.
+     *
+     * @param f The first function.
+     * @param g The second function.
+     * @return The BDD of {@code f + g}.
+     */
+    public int or(int f, int g) {
+        return ite(f, TRUE, g);
+    }
+
+    /**
+     * Computes the exclusive or of two functions.
+     *
+     * @param f The first function.
+     * @param g The second function.
+     * @return The BDD of {@code f ^ g}.
+     */
+    public int xor(int f, int g) {
+        return ite(f, not(g), g);
+    }
+
+    /**
+     * Protects a node, and everything below it, from garbage collection and
+     * keeps its index valid across reordering.
+     *
+     * @param f The node.
+     * @return The same node, for chaining.
+     */
+    public int ref(int f) {
+        checkNode(f);
+        if (f > TRUE) {
+            refs[f]++;
+        }
+        return f;
+    }
+
+    /**
+     * Releases a reference taken with {@link #ref(int)}. The node is collected
+     * by the next garbage collection once nothing else refers to it.
+     *
+     * @param f The node.
+     * @throws IllegalStateException If the node is not referenced.
+     */
+    public void deref(int f) {
+        checkNode(f);
+        if (f > TRUE) {
+            if (refs[f] == 0) {
+                throw new IllegalStateException("Node " + f + " is not referenced");
+            }
+            refs[f]--;
+        }
+    }
+
+    /**
+     * Indicates whether a function is true for every assignment.
+     *
+     * @param f The function.
+     * @return {@code true} if {@code f} is the constant true.
+     */
+    public boolean isTautology(int f) {
+        checkNode(f);
+        return f == TRUE;
+    }
+
+    /**
+     * Indicates whether a function is true for some assignment.
+     *
+     * @param f The function.
+     * @return {@code true} unless {@code f} is the constant false.
+     */
+    public boolean isSatisfiable(int f) {
+        checkNode(f);
+        return f != FALSE;
+    }
+
+    /**
+     * Counts the assignments of all variables for which a function is true.
+     *
+     * @param f The function.
+     * @return The number of minterms, up to {@code 2^variableCount}.
+     */
+    public BigInteger countMinterms(int f) {
+        checkNode(f);
+        return countRec(f, new HashMap<>()).shiftLeft(level(f));
+    }
+
+    /**
+     * Finds an assignment for which a function is true, following the low
+     * branch wherever it is satisfiable. Variables the function does not
+     * depend on along that path are false.
+     *
+     * @param f The function.
+     * @return The value of every variable, or {@code null} if {@code f} is
+     *         unsatisfiable.
+     */
+    public boolean[] findSatisfyingAssignment(int f) {
+        checkNode(f);
+        if (f == FALSE) {
+            return null;
+        }
+        boolean[] assignment = new boolean[variableCount];
+        while (f > TRUE) {
+            if (lows[f] != FALSE) {
+                f = lows[f];
+            } else {
+                assignment[vars[f]] = true;
+                f = highs[f];
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Evaluates a function for one assignment.
+     *
+     * @param f          The function.
+     * @param assignment The value of every variable.
+     * @return The value of {@code f}.
+     * @throws IllegalArgumentException If the assignment is {@code null} or too short.
+     */
+    public boolean evaluate(int f, boolean[] assignment) {
+        checkNode(f);
+        if (assignment == null) {
+            throw new IllegalArgumentException("Expected Assignment but Recieved Null");
+        }
+        if (assignment.length < variableCount) {
+            throw new IllegalArgumentException(
+                "Expected " + variableCount + " values but Recieved " + assignment.length
+            );
+        }
+        while (f > TRUE) {
+            f = assignment[vars[f]] ? highs[f] : lows[f];
+        }
+        return f == TRUE;
+    }
+
+    /**
+     * Counts the internal nodes of one function.
+     *
+     * @param f The function.
+     * @return The number of non-terminal nodes reachable from {@code f}.
+     */
+    public int getNodeCount(int f) {
+        checkNode(f);
+        boolean[] seen = new boolean[allocated];
+        int count = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = f;
+        while (top > 0) {
+            int n = stack[--top];
+            if (n <= TRUE || seen[n]) continue;
+            seen[n] = true;
+            count++;
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = lows[n];
+            stack[top++] = highs[n];
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of internal nodes in the manager, including
+     * unreferenced nodes that have not been collected yet.
+     *
+     * @return The node count.
+     */
+    public int getNodeCount() {
+        return liveNodes;
+    }
+
+    /**
+     * Writes a function as a sum of disjoint products, one per path from the
+     * root to {@link #TRUE}. The literals of each product are in variable
+     * order. The number of products is the number of such paths, which is
+     * small for most circuits but not bounded by the node count.
+     *
+     * @param f     The function.
+     * @param names One name per variable.
+     * @return The expression, such as {@code "(A & !B) + (!A & C)"}; "0" or
+     *         "1" for the constants.
+     * @throws IllegalArgumentException If there are fewer names than variables.
+     */
+    public String toExpression(int f, List<String> names) {
+        checkNode(f);
+        if (names == null) {
+            throw new IllegalArgumentException("Expected Names but Recieved Null");
+        }
+        if (names.size() < variableCount) {
+            throw new IllegalArgumentException(
+                "Expected " + variableCount + " names but Recieved " + names.size()
+            );
+        }
+        if (f == FALSE) return "0";
+        if (f == TRUE) return "1";
+        StringBuilder expression = new StringBuilder();
+        appendPaths(f, new byte[variableCount], names, expression);
+        return expression.toString();
+    }
+
+    /**
+     * Retrieves the current variable order.
+     *
+     * @return The variable at every level, from the root down.
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Retrieves the level of a variable.
+     *
+     * @param variable The variable index.
+     * @return Its level, 0 being the root.
+     */
+    public int getLevel(int variable) {
+        checkVariable(variable);
+        return levels[variable];
+    }
+
+    /**
+     * Moves the variables to the given order by swapping adjacent levels.
+     * Unreferenced nodes are collected first.
+     *
+     * @param newOrder The variable for every level, from the root down.
+     * @throws IllegalArgumentException If the order is not a permutation of
+     *                                  the variables.
+     */
+    public void setOrder(int[] newOrder) {
+        if (newOrder == null) {
+            throw new IllegalArgumentException("Expected Order but Recieved Null");
+        }
+        boolean[] seen = new boolean[variableCount];
+        if (newOrder.length != variableCount) {
+            throw new IllegalArgumentException(
+                "Expected " + variableCount + " variables but Recieved " + newOrder.length
+            );
+        }
+        for (int v : newOrder) {
+            checkVariable(v);
+            if (seen[v]) {
+                throw new IllegalArgumentException("Variable " + v + " appears twice");
+            }
+            seen[v] = true;
+        }
+        collectGarbage();
+        for (int level = 0; level < variableCount; level++) {
+            for (int l = levels[newOrder[level]]; l > level; l--) {
+                swap(l - 1);
+            }
+        }
+    }
+
+    /**
+     * Reorders the variables by sifting.
+     * <p>
+     * Variables are taken in decreasing order of their node count. Each is
+     * moved through every level, one adjacent swap at a time, and left at
+     * the level where the manager held the fewest nodes. A direction is
+     * abandoned once the count exceeds the best by {@link #MAX_GROWTH}.
+     * Only referenced nodes survive.
+     * </p>
+     */
+    public void reorder() {
+        collectGarbage();
+        Integer[] byCount = new Integer[variableCount];
+        for (int v = 0; v < variableCount; v++) {
+            byCount[v] = v;
+        }
+        Arrays.sort(byCount, (a, b) -> Integer.compare(tableSizes[b], tableSizes[a]));
+        for (int v : byCount) {
+            sift(v);
+        }
+        reorderings++;
+        nextReorder = Math.max(MIN_REORDER_NODES, 2 * liveNodes);
+    }
+
+    /**
+     * Reorders the variables if automatic reordering is enabled and the node
+     * count has doubled since the last reordering. Every node that is still
+     * needed must be referenced before calling this.
+     *
+     * @return {@code true} if the variables were reordered.
+     */
+    public boolean reorderIfNeeded() {
+        if (!autoReorder || liveNodes < nextReorder) {
+            return false;
+        }
+        reorder();
+        return true;
+    }
+
+    /**
+     * Enables or disables {@link #reorderIfNeeded()}. Enabled by default.
+     *
+     * @param autoReorder {@code true} to reorder automatically.
+     */
+    public void setAutoReorder(boolean autoReorder) {
+        this.autoReorder = autoReorder;
+    }
+
+    /**
+     * Retrieves the number of times the variables have been reordered by
+     * sifting.
+     *
+     * @return The reordering count.
+     */
+    public int getReorderCount() {
+        return reorderings;
+    }
+
+    /**
+     * Frees every node that is neither referenced nor reachable from a
+     * referenced node, and clears the computed table.
+     */
+    public void collectGarbage() {
+        Arrays.fill(cacheF, 0);
+        for (int n = 2; n < allocated; n++) {
+            if (vars[n] >= 0 && refs[n] == 0) {
+                free(n);
+            }
+        }
+    }
+
+    /**
+     * The recursive step of {@link #ite(int, int, int)}.
+     */
+    private int iteRec(int f, int g, int h) {
+        if (f == TRUE) return g;
+        if (f == FALSE) return h;
+        if (g == f) g = TRUE;
+        if (h == f) h = FALSE;
+        if (g == h) return g;
+        if (g == TRUE && h == FALSE) return f;
+
+        int slot = hash(hash(f, g), h) & (cacheF.length - 1);
+        if (cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h) {
+            return cacheResults[slot];
+        }
+
+        int top = Math.min(level(f), Math.min(level(g), level(h)));
+        int v = order[top];
+        int high = iteRec(cofactor(f, v, true), cofactor(g, v, true), cofactor(h, v, true));
+        int low = iteRec(cofactor(f, v, false), cofactor(g, v, false), cofactor(h, v, false));
+        int result = make(v, low, high);
+
+        // The cache may have been reallocated while the node arrays grew.
+        slot = hash(hash(f, g), h) & (cacheF.length - 1);
+        cacheF[slot] = f;
+        cacheG[slot] = g;
+        cacheH[slot] = h;
+        cacheResults[slot] = result;
+        return result;
+    }
+
+    /**
+     * Restricts a node to one value of the variable at or above its level.
+     */
+    private int cofactor(int f, int v, boolean value) {
+        if (vars[f] != v) return f;
+        return value ? highs[f] : lows[f];
+    }
+
+    /**
+     * Counts the minterms of a node over the variables at and below its level.
+     */
+    private BigInteger countRec(int f, Map<Integer, BigInteger> memo) {
+        if (f == FALSE) return BigInteger.ZERO;
+        if (f == TRUE) return BigInteger.ONE;
+        BigInteger count = memo.get(f);
+        if (count == null) {
+            int level = level(f);
+            count = countRec(lows[f], memo)
+                .shiftLeft(level(lows[f]) - level - 1)
+                .add(countRec(highs[f], memo).shiftLeft(level(highs[f]) - level - 1));
+            memo.put(f, count);
+        }
+        return count;
+    }
+
+    /**
+     * Appends one product per path from a node to {@link #TRUE}.
+     *
+     * @param path The literal of every variable on the path so far: 0 for
+     *             none, 1 for negated, 2 for plain.
+     */
+    private void appendPaths(int f, byte[] path, List<String> names, StringBuilder expression) {
+        if (f == FALSE) return;
+        if (f == TRUE) {
+            if (expression.length() > 0) expression.append(" + ");
+            expression.append("(");
+            boolean first = true;
+            for (int v = 0; v < variableCount; v++) {
+                if (path[v] == 0) continue;
+                if (!first) expression.append(" & ");
+                first = false;
+                if (path[v] == 1) expression.append("!");
+                expression.append(names.get(v));
+            }
+            expression.append(")");
+            return;
+        }
+        int v = vars[f];
+        path[v] = 1;
+        appendPaths(lows[f], path, names, expression);
+        path[v] = 2;
+        appendPaths(highs[f], path, names, expression);
+        path[v] = 0;
+    }
+
+    /**
+     * Moves one variable to the level where the manager holds the fewest nodes.
+     */
+    private void sift(int v) {
+        int start = levels[v];
+        int level = start;
+        int best = liveNodes;
+        int bestLevel = start;
+        while (level < variableCount - 1) {
+            swap(level++);
+            if (liveNodes < best) {
+                best = liveNodes;
+                bestLevel = level;
+            } else if (liveNodes > best * MAX_GROWTH) {
+                break;
+            }
+        }
+        while (level > 0) {
+            swap(--level);
+            if (liveNodes < best) {
+                best = liveNodes;
+                bestLevel = level;
+            } else if (level < start && liveNodes > best * MAX_GROWTH) {
+                break;
+            }
+        }
+        while (level < bestLevel) {
+            swap(level++);
+        }
+        while (level > bestLevel) {
+            swap(--level);
+        }
+    }
+
+    /**
+     * Exchanges the variables at {@code level} and {@code level + 1} in place.
+     * <p>
+     * A node of the upper variable {@code x} that has no child on the lower
+     * variable {@code y} keeps its variable and simply moves down a level.
+     * Every other {@code x} node becomes a {@code y} node whose children are
+     * new {@code x} nodes over the four grand-children, so it keeps both its
+     * function and its index. Requires exact reference counts: unreferenced
+     * nodes must have been collected.
+     * </p>
+     */
+    private void swap(int level) {
+        int x = order[level];
+        int y = order[level + 1];
+
+        int[] table = buckets[x];
+        List<Integer> moving = new ArrayList<>();
+        for (int slot = 0; slot < table.length; slot++) {
+            int previous = 0;
+            for (int n = table[slot]; n != 0; ) {
+                int next = nexts[n];
+                if (vars[lows[n]] == y || vars[highs[n]] == y) {
+                    if (previous == 0) table[slot] = next;
+                    else nexts[previous] = next;
+                    tableSizes[x]--;
+                    moving.add(n);
+                } else {
+                    previous = n;
+                }
+                n = next;
+            }
+        }
+
+        order[level] = y;
+        order[level + 1] = x;
+        levels[y] = level;
+        levels[x] = level + 1;
+
+        for (int f : moving) {
+            int f0 = lows[f];
+            int f1 = highs[f];
+            int f00 = cofactor(f0, y, false);
+            int f01 = cofactor(f0, y, true);
+            int f10 = cofactor(f1, y, false);
+            int f11 = cofactor(f1, y, true);
+            int low = make(x, f00, f10);
+            if (low > TRUE) refs[low]++;
+            int high = make(x, f01, f11);
+            if (high > TRUE) refs[high]++;
+            vars[f] = y;
+            lows[f] = low;
+            highs[f] = high;
+            insert(f);
+            release(f0);
+            release(f1);
+        }
+    }
+
+    /**
+     * Finds or creates the node {@code (v, low, high)}.
+     */
+    private int make(int v, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int[] table = buckets[v];
+        for (int n = table[hash(low, high) & (table.length - 1)]; n != 0; n = nexts[n]) {
+            if (lows[n] == low && highs[n] == high) {
+                return n;
+            }
+        }
+        int n = allocate();
+        vars[n] = v;
+        lows[n] = low;
+        highs[n] = high;
+        refs[n] = 0;
+        if (low > TRUE) refs[low]++;
+        if (high > TRUE) refs[high]++;
+        liveNodes++;
+        insert(n);
+        return n;
+    }
+
+    /**
+     * Adds a node to the unique table of its variable, growing the table
+     * when it holds more nodes than buckets.
+     */
+    private void insert(int n) {
+        int v = vars[n];
+        int[] table = buckets[v];
+        int slot = hash(lows[n], highs[n]) & (table.length - 1);
+        nexts[n] = table[slot];
+        table[slot] = n;
+        if (++tableSizes[v] > table.length) {
+            int[] grown = new int[table.length * 2];
+            for (int old : table) {
+                for (int m = old; m != 0; ) {
+                    int next = nexts[m];
+                    int s = hash(lows[m], highs[m]) & (grown.length - 1);
+                    nexts[m] = grown[s];
+                    grown[s] = m;
+                    m = next;
+                }
+            }
+            buckets[v] = grown;
+        }
+    }
+
+    /**
+     * Drops one reference to a node and frees it if none are left.
+     */
+    private void release(int n) {
+        if (n > TRUE && --refs[n] == 0) {
+            free(n);
+        }
+    }
+
+    /**
+     * Unlinks an unreferenced node from its unique table, returns its slot to
+     * the free list and releases its children.
+     */
+    private void free(int n) {
+        int v = vars[n];
+        int[] table = buckets[v];
+        int slot = hash(lows[n], highs[n]) & (table.length - 1);
+        if (table[slot] == n) {
+            table[slot] = nexts[n];
+        } else {
+            int previous = table[slot];
+            while (nexts[previous] != n) {
+                previous = nexts[previous];
+            }
+            nexts[previous] = nexts[n];
+        }
+        tableSizes[v]--;
+        liveNodes--;
+        vars[n] = -1;
+        nexts[n] = freeHead;
+        freeHead = n;
+        release(lows[n]);
+        release(highs[n]);
+    }
+
+    /**
+     * Takes a node slot from the free list, or a new one, growing the node
+     * arrays and the computed table as needed.
+     */
+    private int allocate() {
+        if (freeHead != 0) {
+            int n = freeHead;
+            freeHead = nexts[n];
+            return n;
+        }
+        if (allocated == vars.length) {
+            int capacity = vars.length * 2;
+            vars = Arrays.copyOf(vars, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            nexts = Arrays.copyOf(nexts, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            if (cacheF.length < Math.min(capacity, MAX_CACHE_SIZE)) {
+                allocateCache(Math.min(capacity, MAX_CACHE_SIZE));
+            }
+        }
+        return allocated++;
+    }
+
+    private void allocateCache(int size) {
+        cacheF = new int[size];
+        cacheG = new int[size];
+        cacheH = new int[size];
+        cacheResults = new int[size];
+    }
+
+    private int level(int f) {
+        return f <= TRUE ? variableCount : levels[vars[f]];
+    }
+
+    private static int hash(int a, int b) {
+        int h = a * 0x9E3779B1 + b * 0x85EBCA6B;
+        return h ^ (h >>> 16);
+    }
+
+    private void checkVariable(int variable) {
+        if (variable < 0 || variable >= variableCount) {
+            throw new IllegalArgumentException(
+                "Variable must be between 0 and " + (variableCount - 1) + ": " + variable
+            );
+        }
+    }
+
+    private void checkNode(int f) {
+        if (f < 0 || f >= allocated || vars[f] < 0) {
+            throw new IllegalArgumentException("Not a live BDD node: " + f);
+        }
+    }
+}
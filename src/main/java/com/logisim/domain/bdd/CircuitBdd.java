@@ -0,0 +1,290 @@
+package com.logisim.domain.bdd;
+
+import com.logisim.domain.simulation.Netlist;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ROBDD of every output of a circuit, built symbolically from its gate
+ * graph instead of by enumerating rows.
+ * <p>
+ * Each switch is a variable, numbered in component list order like the input
+ * columns of {@link com.logisim.domain.Circuit#analyze()}, and each bulb has
+ * one BDD, in component list order. The gates of a flattened {@link Netlist}
+ * are applied in topological order. Every net is held only while a gate still
+ * has to read it, and the manager is given the chance to reorder its
+ * variables by sifting after each gate, so intermediate blow-up from a poor
+ * order is caught while the diagrams are still small.
+ * </p>
+ * <p>
+ * The variables start in the order they are first reached by a depth-first
+ * walk from the bulbs through their fan-in, which already interleaves
+ * related inputs such as the operand bits of an adder.
+ * </p>
+ */
+public class CircuitBdd {
+
+    private final BddManager manager;
+    private final int[] outputs;
+
+    /**
+     * Builds the BDDs of a netlist.
+     *
+     * @param netlist The compiled circuit, with sub-circuits inlined.
+     * @throws IllegalArgumentException If the netlist is {@code null}, has
+     *         feedback, or has gates that are not And, Or or Not.
+     */
+    public CircuitBdd(Netlist netlist) {
+        if (netlist == null) {
+            throw new IllegalArgumentException("Expected Netlist but Recieved Null");
+        }
+        if (!netlist.isAcyclic()) {
+            throw new IllegalArgumentException(
+                "Only circuits without feedback can be represented as BDDs"
+            );
+        }
+        int[] switchGates = netlist.getSwitchGates();
+        int[] bulbGates = netlist.getBulbGates();
+        manager = new BddManager(switchGates.length);
+        outputs = new int[bulbGates.length];
+
+        int[] variables = new int[netlist.getGateCount()];
+        Arrays.fill(variables, -1);
+        for (int v = 0; v < switchGates.length; v++) {
+            variables[switchGates[v]] = v;
+        }
+        int[] outputIndex = new int[netlist.getGateCount()];
+        for (int k = 0; k < bulbGates.length; k++) {
+            outputIndex[bulbGates[k]] = k;
+        }
+
+        // The number of input pins that still have to read every net.
+        int[] readers = new int[netlist.getNetCount()];
+        for (int g = 0; g < netlist.getGateCount(); g++) {
+            for (int pin = 0; pin < netlist.getFanIn(g); pin++) {
+                readers[netlist.getInputNet(g, pin)]++;
+            }
+        }
+        readers[Netlist.ZERO_NET] = 0;
+
+        manager.setOrder(initialOrder(netlist, variables));
+
+        int[] nets = new int[netlist.getNetCount()];
+        for (int g : netlist.getOrder()) {
+            int type = netlist.getGateType(g);
+            int result;
+            switch (type) {
+                case Netlist.TYPE_SWITCH:
+                    result = manager.variable(variables[g]);
+                    break;
+                case Netlist.TYPE_BULB:
+                    outputs[outputIndex[g]] = manager.ref(
+                        netlist.getFanIn(g) > 0 ? nets[netlist.getInputNet(g, 0)] : BddManager.FALSE
+                    );
+                    release(netlist, g, nets, readers);
+                    continue;
+                case Netlist.TYPE_AND:
+                case Netlist.TYPE_OR:
+                    boolean and = type == Netlist.TYPE_AND;
+                    result = and ? BddManager.TRUE : BddManager.FALSE;
+                    for (int pin = 0; pin < netlist.getFanIn(g); pin++) {
+                        int input = nets[netlist.getInputNet(g, pin)];
+                        result = and ? manager.and(result, input) : manager.or(result, input);
+                    }
+                    break;
+                case Netlist.TYPE_NOT:
+                    result = manager.not(nets[netlist.getInputNet(g, 0)]);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                        "Cannot represent " + netlist.getGateName(g) + " as a BDD"
+                    );
+            }
+            release(netlist, g, nets, readers);
+            for (int pin = 0; pin < netlist.getOutputCount(g); pin++) {
+                int net = netlist.getOutputNet(g, pin);
+                if (readers[net] > 0) {
+                    nets[net] = manager.ref(result);
+                }
+            }
+            manager.reorderIfNeeded();
+        }
+        manager.collectGarbage();
+    }
+
+    /**
+     * Drops the reference held for each net a gate has just read, once no
+     * other pin needs it.
+     */
+    private void release(Netlist netlist, int gate, int[] nets, int[] readers) {
+        for (int pin = 0; pin < netlist.getFanIn(gate); pin++) {
+            int net = netlist.getInputNet(gate, pin);
+            if (net != Netlist.ZERO_NET && --readers[net] == 0) {
+                manager.deref(nets[net]);
+                nets[net] = BddManager.FALSE;
+            }
+        }
+    }
+
+    /**
+     * Orders the variables by a depth-first walk from every bulb through the
+     * gates that drive it; switches nothing reads come last.
+     */
+    private static int[] initialOrder(Netlist netlist, int[] variables) {
+        int[] drivers = new int[netlist.getNetCount()];
+        Arrays.fill(drivers, -1);
+        for (int g = 0; g < netlist.getGateCount(); g++) {
+            for (int pin = 0; pin < netlist.getOutputCount(g); pin++) {
+                drivers[netlist.getOutputNet(g, pin)] = g;
+            }
+        }
+
+        int variableCount = netlist.getSwitchGates().length;
+        int[] order = new int[variableCount];
+        int placed = 0;
+        boolean[] visited = new boolean[netlist.getGateCount()];
+        int[] stack = new int[Math.max(16, netlist.getGateCount())];
+        for (int bulb : netlist.getBulbGates()) {
+            int top = 0;
+            stack[top++] = bulb;
+            while (top > 0) {
+                int g = stack[--top];
+                if (visited[g]) continue;
+                visited[g] = true;
+                if (variables[g] >= 0) {
+                    order[placed++] = variables[g];
+                }
+                // Pushed in reverse so that the first pin is walked first.
+                for (int pin = netlist.getFanIn(g) - 1; pin >= 0; pin--) {
+                    int driver = drivers[netlist.getInputNet(g, pin)];
+                    if (driver >= 0 && !visited[driver]) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top++] = driver;
+                    }
+                }
+            }
+        }
+        for (int g : netlist.getSwitchGates()) {
+            if (!visited[g]) {
+                order[placed++] = variables[g];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Retrieves the manager holding the diagrams, for further operations.
+     * The output nodes are referenced and stay valid across reordering.
+     *
+     * @return The {@link BddManager}.
+     */
+    public BddManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Retrieves the number of inputs (switches), which is also the number of
+     * variables.
+     *
+     * @return The input count.
+     */
+    public int getInputCount() {
+        return manager.getVariableCount();
+    }
+
+    /**
+     * Retrieves the number of outputs (bulbs).
+     *
+     * @return The output count.
+     */
+    public int getOutputCount() {
+        return outputs.length;
+    }
+
+    /**
+     * Retrieves the root node of one output.
+     *
+     * @param output The bulb index, in component list order.
+     * @return The node in {@link #getManager()}.
+     */
+    public int getOutput(int output) {
+        return outputs[output];
+    }
+
+    /**
+     * Indicates whether some input combination lights an output.
+     *
+     * @param output The bulb index.
+     * @return {@code true} if the output is not constantly off.
+     */
+    public boolean isSatisfiable(int output) {
+        return manager.isSatisfiable(outputs[output]);
+    }
+
+    /**
+     * Indicates whether every input combination lights an output.
+     *
+     * @param output The bulb index.
+     * @return {@code true} if the output is constantly on.
+     */
+    public boolean isTautology(int output) {
+        return manager.isTautology(outputs[output]);
+    }
+
+    /**
+     * Counts the input combinations that light an output, which is the
+     * number of rows of the truth table where it is 1.
+     *
+     * @param output The bulb index.
+     * @return The minterm count.
+     */
+    public BigInteger countMinterms(int output) {
+        return manager.countMinterms(outputs[output]);
+    }
+
+    /**
+     * Finds switch states that light an output.
+     *
+     * @param output The bulb index.
+     * @return The state of every switch, or {@code null} if the output is
+     *         constantly off.
+     */
+    public boolean[] findSatisfyingInputs(int output) {
+        return manager.findSatisfyingAssignment(outputs[output]);
+    }
+
+    /**
+     * Evaluates an output for given switch states.
+     *
+     * @param output The bulb index.
+     * @param inputs The state of every switch, in component list order.
+     * @return The state of the bulb.
+     */
+    public boolean evaluate(int output, boolean[] inputs) {
+        return manager.evaluate(outputs[output], inputs);
+    }
+
+    /**
+     * Writes an output as a sum of disjoint products read off its BDD; see
+     * {@link BddManager#toExpression(int, List)}.
+     *
+     * @param output     The bulb index.
+     * @param inputNames One name per switch.
+     * @return The expression.
+     */
+    public String toExpression(int output, List<String> inputNames) {
+        return manager.toExpression(outputs[output], inputNames);
+    }
+
+    /**
+     * Counts the nodes shared by all outputs.
+     *
+     * @return The number of internal nodes in the manager.
+     */
+    public int getNodeCount() {
+        return manager.getNodeCount();
+    }
+}
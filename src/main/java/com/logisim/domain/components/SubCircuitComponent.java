@@ -1,6 +1,10 @@
 package com.logisim.domain.components;
 
 import com.logisim.domain.Circuit;
+import com.logisim.domain.simulation.NetlistSimulator;
+import com.logisim.domain.simulation.SubCircuitCache;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import com.logisim.jfr.SubCircuitEvent;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +21,16 @@ import java.util.List;
  *   <li><b>Outputs:</b> {@link Bulb} components inside the inner circuit act as output pins for this component.</li>
  * </ul>
  * </p>
+ * <p>
+ * The netlist engines do not call {@link #execute()}: they inline the gates of
+ * the inner circuit into the enclosing netlist instead (see
+ * {@link com.logisim.domain.simulation.Netlist#flatten(List, List)}).
+ * </p>
+ * <p>
+ * A component built from a {@link SubCircuitDefinition} shares its inner
+ * circuit with every other instance of the same source circuit and keeps only
+ * its own signal values; see {@link #isShared()}.
+ * </p>
  */
 public class SubCircuitComponent extends Component {
 
@@ -40,6 +54,23 @@ public class SubCircuitComponent extends Component {
      */
     private List<Bulb> internalBulbs;
 
+    /**
+     * The memo of results for this component's inner circuit, looked up on
+     * first execution.
+     */
+    private SubCircuitCache cache;
+
+    /**
+     * The shared definition this instance was placed from, or {@code null} if
+     * the instance owns its inner circuit.
+     */
+    private SubCircuitDefinition definition;
+
+    /**
+     * The signal values of this instance when it uses a shared definition.
+     */
+    private NetlistSimulator instanceState;
+
     /**
      * Constructs a new SubCircuitComponent based on an existing circuit.
      * <p>
@@ -70,29 +101,131 @@ public class SubCircuitComponent extends Component {
         this.outputs = new boolean[internalBulbs.size()];
     }
 
+    /**
+     * Constructs a new instance of a shared sub-circuit definition.
+     * <p>
+     * The inner circuit, switch list and bulb list are those of the definition
+     * and are read-only; the instance only allocates its pins and one state
+     * bit per net.
+     * </p>
+     *
+     * @param definition The shared {@link SubCircuitDefinition} to place.
+     */
+    public SubCircuitComponent(SubCircuitDefinition definition) {
+        super();
+        this.definition = definition;
+        this.innerCircuit = definition.getTemplate();
+        this.sourceCircuitId = definition.getSourceCircuitId();
+        this.internalSwitches = definition.getSwitches();
+        this.internalBulbs = definition.getBulbs();
+        this.instanceState = definition.newInstanceState();
+
+        this.inputs = new boolean[internalSwitches.size()];
+        this.outputs = new boolean[internalBulbs.size()];
+    }
+
     /**
      * Executes the logic of the encapsulated circuit.
      * <p>
      * This method performs three main steps:
      * 1. Maps the values from this component's input pins to the internal switches of the inner circuit.
-     * 2. Simulates the inner circuit. It runs a loop proportional to the number of components
-     *    to ensure signals propagate through the internal logic gates.
+     * 2. Settles the inner circuit (see {@link Circuit#settle()}) so signals propagate
+     *    through the internal logic gates. An instance of a shared definition
+     *    settles its own state array instead.
      * 3. Maps the resulting states of the internal bulbs to this component's output pins.
      * </p>
+     * <p>
+     * If the inner circuit is combinational, the output vector is first looked
+     * up in a {@link SubCircuitCache}, shared by every instance of the same
+     * definition, and the inner circuit is only settled on a miss.
+     * </p>
+     * <p>
+     * Each execution emits a {@link SubCircuitEvent} when a flight recording
+     * asks for it.
+     * </p>
      */
     @Override
     public void execute() {
-        for (int i = 0; i < inputs.length; i++) {
-            internalSwitches.get(i).setState(inputs[i]);
+        SubCircuitEvent event = new SubCircuitEvent();
+        event.begin();
+        boolean cacheHit = evaluate();
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceCircuitId = sourceCircuitId;
+            event.name = getName();
+            event.components = innerCircuit.getComponents().size();
+            event.shared = definition != null;
+            event.cacheHit = cacheHit;
+            event.commit();
         }
+    }
 
-        for (int i = 0; i < innerCircuit.getComponents().size() + 2; i++) {
-            innerCircuit.simulate();
+    /**
+     * Computes the outputs as described in {@link #execute()}.
+     *
+     * @return {@code true} if the outputs came from the result memo.
+     */
+    private boolean evaluate() {
+        SubCircuitCache memo = getCache();
+        long key = 0;
+        if (memo.isMemoizable()) {
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i]) key |= 1L << i;
+            }
+            Long cached = memo.lookup(key);
+            if (cached != null) {
+                for (int i = 0; i < outputs.length; i++) {
+                    outputs[i] = ((cached >>> i) & 1L) != 0;
+                }
+                return true;
+            }
+        }
+
+        if (definition != null) {
+            instanceState.run(inputs);
+            instanceState.readOutputs(outputs);
+        } else {
+            for (int i = 0; i < inputs.length; i++) {
+                internalSwitches.get(i).setState(inputs[i]);
+            }
+
+            innerCircuit.settle();
+
+            for (int i = 0; i < outputs.length; i++) {
+                outputs[i] = internalBulbs.get(i).isOn();
+            }
         }
 
+        long result = 0;
         for (int i = 0; i < outputs.length; i++) {
-            outputs[i] = internalBulbs.get(i).isOn();
+            if (outputs[i]) result |= 1L << i;
+        }
+        if (memo.isMemoizable()) {
+            memo.store(key, result);
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the result memo for this component's inner circuit, and
+     * resets it if the inner circuit has changed since it was filled.
+     * <p>
+     * Instances of a {@link SubCircuitDefinition} share the definition's memo;
+     * an instance that owns its inner circuit has a private one.
+     * </p>
+     *
+     * @return The {@link SubCircuitCache} used by {@link #execute()}.
+     */
+    public SubCircuitCache getCache() {
+        if (cache == null) {
+            cache = definition != null
+                ? definition.getCache()
+                : new SubCircuitCache(innerCircuit, SubCircuitCache.DEFAULT_CAPACITY);
         }
+        if (!cache.matches(innerCircuit)) {
+            cache.reset(innerCircuit);
+        }
+        return cache;
     }
 
     /**
@@ -117,7 +250,8 @@ public class SubCircuitComponent extends Component {
     /**
      * Retrieves the actual {@link Circuit} object being simulated internally.
      *
-     * @return The inner {@link Circuit} instance.
+     * @return The inner {@link Circuit} instance, which is
+     *         {@link Circuit#isFrozen() frozen} if it is shared.
      */
     public Circuit getInnerCircuit() {
         return innerCircuit;
@@ -130,6 +264,40 @@ public class SubCircuitComponent extends Component {
      */
     public void setInnerCircuit(Circuit innerCircuit) {
         this.innerCircuit = innerCircuit;
+        this.cache = null;
+        this.definition = null;
+        this.instanceState = null;
+    }
+
+    /**
+     * Indicates whether this instance shares its inner circuit with other
+     * instances through a {@link SubCircuitDefinition}.
+     *
+     * @return {@code true} if the inner circuit is a shared, read-only template.
+     */
+    public boolean isShared() {
+        return definition != null;
+    }
+
+    /**
+     * Retrieves the shared definition this instance was placed from.
+     *
+     * @return The {@link SubCircuitDefinition}, or {@code null} if the instance
+     *         owns its inner circuit.
+     */
+    public SubCircuitDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Retrieves the signal values of this instance.
+     *
+     * @return The {@link NetlistSimulator} holding one bit per net of the
+     *         shared definition, or {@code null} if the instance owns its
+     *         inner circuit.
+     */
+    public NetlistSimulator getInstanceState() {
+        return instanceState;
     }
 
     /**
@@ -139,6 +307,7 @@ public class SubCircuitComponent extends Component {
      */
     public void setSourceCircuitId(long sourceCircuitId) {
         this.sourceCircuitId = sourceCircuitId;
+        this.cache = null;
     }
 
     /**
@@ -0,0 +1,726 @@
+package com.logisim.domain.generator;
+
+import com.logisim.data.CircuitDAO;
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds large, realistic circuits programmatically for benchmarks and soak
+ * tests.
+ * <p>
+ * Every generator uses only And, Or, Not, Switch, Bulb and
+ * {@link SubCircuitComponent}, so the result can be simulated, analyzed,
+ * saved and opened in the editor like a circuit drawn by hand. Components are
+ * laid out in columns by logic depth. Inputs are added as switches and
+ * outputs as bulbs, in the order given by each method, which is the order
+ * used by {@link Circuit#analyze()} and by sub-circuit pins.
+ * </p>
+ * <p>
+ * Construction is linear in the number of gates, so circuits of a million
+ * gates take seconds to build; use {@link #persist(Circuit, long)} to store
+ * one.
+ * </p>
+ */
+public final class CircuitGenerator {
+
+    /**
+     * Horizontal distance between layout columns.
+     */
+    private static final double COLUMN_WIDTH = 150;
+
+    /**
+     * Vertical distance between components in a column.
+     */
+    private static final double ROW_HEIGHT = 120;
+
+    /**
+     * The width of a carry-lookahead group, at both levels.
+     */
+    private static final int LOOKAHEAD_GROUP = 4;
+
+    private CircuitGenerator() {}
+
+    /**
+     * Builds a one-bit full adder.
+     * <p>
+     * Inputs: A, B, Cin. Outputs: S, Cout.
+     * </p>
+     *
+     * @return The circuit.
+     */
+    public static Circuit fullAdder() {
+        Builder b = new Builder("Full adder");
+        Signal x = b.input();
+        Signal y = b.input();
+        Signal cin = b.input();
+        Signal[] sum = b.fullAdd(x, y, cin);
+        b.output(sum[0]);
+        b.output(sum[1]);
+        return b.circuit;
+    }
+
+    /**
+     * Builds a ripple-carry adder out of gates.
+     * <p>
+     * Inputs: A0..A(n-1), B0..B(n-1), Cin, least significant bit first.
+     * Outputs: S0..S(n-1), Cout.
+     * </p>
+     *
+     * @param bits The operand width.
+     * @return The circuit, with {@code 14 * bits} gates.
+     */
+    public static Circuit rippleCarryAdder(int bits) {
+        requirePositive(bits, "bits");
+        Builder b = new Builder("Ripple-carry adder " + bits);
+        Signal[] x = b.inputs(bits);
+        Signal[] y = b.inputs(bits);
+        Signal carry = b.input();
+        Signal[] sums = new Signal[bits];
+        for (int i = 0; i < bits; i++) {
+            Signal[] bit = b.fullAdd(x[i], y[i], carry);
+            sums[i] = bit[0];
+            carry = bit[1];
+        }
+        b.outputs(sums);
+        b.output(carry);
+        return b.circuit;
+    }
+
+    /**
+     * Builds a ripple-carry adder out of full adder sub-circuits, all placed
+     * from the same definition, with the pins of {@link #rippleCarryAdder(int)}.
+     * <p>
+     * To persist the result, save the definition's circuit first (for example
+     * the one returned by {@link #fullAdder()}) and build the definition from
+     * it afterwards, so the instances refer to its database ID; or let
+     * {@link #persist(Circuit, long)} do both.
+     * </p>
+     *
+     * @param bits      The operand width.
+     * @param fullAdder A definition with the pins of {@link #fullAdder()}.
+     * @return The circuit.
+     * @throws IllegalArgumentException If the definition does not have three
+     *                                  inputs and two outputs.
+     */
+    public static Circuit rippleCarryAdder(int bits, SubCircuitDefinition fullAdder) {
+        requirePositive(bits, "bits");
+        if (fullAdder == null) {
+            throw new IllegalArgumentException(
+                "Expected SubCircuitDefinition but Recieved Null"
+            );
+        }
+        if (fullAdder.getSwitches().size() != 3 || fullAdder.getBulbs().size() != 2) {
+            throw new IllegalArgumentException(
+                "A full adder has three inputs and two outputs"
+            );
+        }
+        Builder b = new Builder("Ripple-carry adder " + bits);
+        Signal[] x = b.inputs(bits);
+        Signal[] y = b.inputs(bits);
+        Signal carry = b.input();
+        Signal[] sums = new Signal[bits];
+        for (int i = 0; i < bits; i++) {
+            Component adder = b.place(
+                new SubCircuitComponent(fullAdder),
+                x[i],
+                y[i],
+                carry
+            );
+            sums[i] = new Signal(adder, 0);
+            carry = new Signal(adder, 1);
+        }
+        b.outputs(sums);
+        b.output(carry);
+        return b.circuit;
+    }
+
+    /**
+     * Builds a two-level carry-lookahead adder.
+     * <p>
+     * Bits are grouped by four; each group's generate and propagate signals
+     * feed a lookahead unit over four groups, and the carry ripples only
+     * between those 16-bit sections. The pins are those of
+     * {@link #rippleCarryAdder(int)}.
+     * </p>
+     *
+     * @param bits The operand width.
+     * @return The circuit.
+     */
+    public static Circuit carryLookaheadAdder(int bits) {
+        requirePositive(bits, "bits");
+        Builder b = new Builder("Carry-lookahead adder " + bits);
+        Signal[] x = b.inputs(bits);
+        Signal[] y = b.inputs(bits);
+        Signal cin = b.input();
+
+        List<Signal> g = new ArrayList<>();
+        List<Signal> p = new ArrayList<>();
+        for (int i = 0; i < bits; i++) {
+            g.add(b.and(x[i], y[i]));
+            p.add(b.xor(x[i], y[i]));
+        }
+
+        // Group generate and propagate signals.
+        int groups = (bits + LOOKAHEAD_GROUP - 1) / LOOKAHEAD_GROUP;
+        List<Signal> groupG = new ArrayList<>();
+        List<Signal> groupP = new ArrayList<>();
+        for (int k = 0; k < groups; k++) {
+            int from = k * LOOKAHEAD_GROUP;
+            int to = Math.min(bits, from + LOOKAHEAD_GROUP);
+            groupG.add(b.generate(g.subList(from, to), p.subList(from, to)));
+            groupP.add(b.andAll(p.subList(from, to)));
+        }
+
+        // Carry into every group: lookahead within each section of four
+        // groups, rippling from section to section.
+        Signal[] groupCarry = new Signal[groups + 1];
+        groupCarry[0] = cin;
+        for (int from = 0; from < groups; from += LOOKAHEAD_GROUP) {
+            int to = Math.min(groups, from + LOOKAHEAD_GROUP);
+            List<Signal> carries = b.carries(
+                groupG.subList(from, to),
+                groupP.subList(from, to),
+                groupCarry[from]
+            );
+            for (int k = from; k < to; k++) {
+                groupCarry[k + 1] = carries.get(k - from);
+            }
+        }
+
+        Signal[] sums = new Signal[bits];
+        for (int k = 0; k < groups; k++) {
+            int from = k * LOOKAHEAD_GROUP;
+            int to = Math.min(bits, from + LOOKAHEAD_GROUP);
+            List<Signal> carries = b.carries(
+                g.subList(from, to - 1),
+                p.subList(from, to - 1),
+                groupCarry[k]
+            );
+            for (int i = from; i < to; i++) {
+                Signal carry = i == from ? groupCarry[k] : carries.get(i - from - 1);
+                sums[i] = b.xor(p.get(i), carry);
+            }
+        }
+        b.outputs(sums);
+        b.output(groupCarry[groups]);
+        return b.circuit;
+    }
+
+    /**
+     * Builds an unsigned array multiplier: an And gate per partial product and
+     * one row of adders per multiplier bit.
+     * <p>
+     * Inputs: A0..A(n-1), B0..B(n-1). Outputs: P0..P(2n-1). All least
+     * significant bit first.
+     * </p>
+     *
+     * @param bits The operand width, at least 2.
+     * @return The circuit, with about {@code 15 * bits * bits} gates.
+     */
+    public static Circuit arrayMultiplier(int bits) {
+        if (bits < 2) {
+            throw new IllegalArgumentException("Expected at least 2 bits but got " + bits);
+        }
+        Builder b = new Builder("Array multiplier " + bits);
+        Signal[] x = b.inputs(bits);
+        Signal[] y = b.inputs(bits);
+        Signal[] product = new Signal[2 * bits];
+
+        // The running sum of the rows so far, above the bits already final.
+        Signal[] acc = new Signal[bits];
+        for (int j = 0; j < bits; j++) {
+            Signal pp = b.and(x[j], y[0]);
+            if (j == 0) {
+                product[0] = pp;
+            } else {
+                acc[j - 1] = pp;
+            }
+        }
+        for (int i = 1; i < bits; i++) {
+            Signal[] row = new Signal[bits];
+            for (int j = 0; j < bits; j++) {
+                row[j] = b.and(x[j], y[i]);
+            }
+            Signal carry = null;
+            Signal[] next = new Signal[bits];
+            for (int j = 0; j < bits; j++) {
+                Signal[] bit = b.add(acc[j], row[j], carry);
+                if (j == 0) {
+                    product[i] = bit[0];
+                } else {
+                    next[j - 1] = bit[0];
+                }
+                carry = bit[1];
+            }
+            next[bits - 1] = carry;
+            acc = next;
+        }
+        System.arraycopy(acc, 0, product, bits, bits);
+        b.outputs(product);
+        return b.circuit;
+    }
+
+    /**
+     * Builds an n-to-2<sup>n</sup> decoder from predecoded halves.
+     * <p>
+     * Inputs: the n select bits, most significant first, as in the rows of
+     * {@link Circuit#analyze()}. Outputs: Y0..Y(2<sup>n</sup>-1), where Yk is
+     * on exactly when the inputs spell k.
+     * </p>
+     *
+     * @param bits The number of select bits, at most 24.
+     * @return The circuit, with about {@code 2^bits} gates.
+     */
+    public static Circuit decoder(int bits) {
+        requireRange(bits, 1, 24, "bits");
+        Builder b = new Builder("Decoder " + bits);
+        Signal[] select = b.inputs(bits);
+        b.outputs(b.decode(select, 0, bits));
+        return b.circuit;
+    }
+
+    /**
+     * Builds a 2<sup>k</sup>-to-1 multiplexer as a tree of 2-to-1 stages.
+     * <p>
+     * Inputs: D0..D(2<sup>k</sup>-1), then S0..S(k-1) least significant
+     * first. Output: the data input selected by S.
+     * </p>
+     *
+     * @param selectBits The number of select bits, at most 24.
+     * @return The circuit, with about {@code 3 * 2^selectBits} gates.
+     */
+    public static Circuit muxTree(int selectBits) {
+        requireRange(selectBits, 1, 24, "selectBits");
+        Builder b = new Builder("Mux tree " + selectBits);
+        Signal[] level = b.inputs(1 << selectBits);
+        Signal[] select = b.inputs(selectBits);
+        for (Signal s : select) {
+            Signal notS = b.not(s);
+            Signal[] next = new Signal[level.length / 2];
+            for (int i = 0; i < next.length; i++) {
+                next[i] = b.or(
+                    b.and(level[2 * i], notS),
+                    b.and(level[2 * i + 1], s)
+                );
+            }
+            level = next;
+        }
+        b.output(level[0]);
+        return b.circuit;
+    }
+
+    /**
+     * Builds a random combinational circuit with a given depth and fanout.
+     * <p>
+     * The gates are split evenly over {@code depth} levels. Every gate reads
+     * one signal from the level directly before it, so the longest path has
+     * exactly {@code depth} gates, and And and Or gates read a second signal
+     * from any earlier level or input. About one gate in five is a Not. No
+     * signal is read more than {@code maxFanout} times unless every candidate
+     * has reached the limit. Every gate that nothing reads drives a bulb.
+     * </p>
+     *
+     * @param inputs    The number of switches.
+     * @param gates     The number of gates, at least {@code depth}.
+     * @param depth     The number of gate levels.
+     * @param maxFanout The preferred maximum number of readers per signal.
+     * @param seed      The random seed; equal arguments build equal circuits.
+     * @return The circuit.
+     */
+    public static Circuit randomDag(
+        int inputs,
+        int gates,
+        int depth,
+        int maxFanout,
+        long seed
+    ) {
+        requirePositive(inputs, "inputs");
+        requirePositive(depth, "depth");
+        requirePositive(maxFanout, "maxFanout");
+        if (gates < depth) {
+            throw new IllegalArgumentException(
+                "Expected at least " + depth + " gates but got " + gates
+            );
+        }
+        Random random = new Random(seed);
+        Builder b = new Builder("Random DAG " + gates);
+
+        // Signals in creation order; levelStart[l] is the first signal of level l.
+        List<Signal> signals = new ArrayList<>(inputs + gates);
+        int[] levelStart = new int[depth + 2];
+        for (Signal s : b.inputs(inputs)) {
+            signals.add(s);
+        }
+        int[] fanout = new int[inputs + gates];
+        for (int level = 1; level <= depth; level++) {
+            levelStart[level] = signals.size();
+            int count = gates / depth + (level <= gates % depth ? 1 : 0);
+            for (int i = 0; i < count; i++) {
+                int first = pick(random, fanout, maxFanout, levelStart[level - 1], levelStart[level]);
+                Signal gate;
+                if (random.nextInt(5) == 0) {
+                    gate = b.not(signals.get(first));
+                } else {
+                    int second = pick(random, fanout, maxFanout, 0, levelStart[level]);
+                    gate = random.nextBoolean()
+                        ? b.and(signals.get(first), signals.get(second))
+                        : b.or(signals.get(first), signals.get(second));
+                    fanout[second]++;
+                }
+                fanout[first]++;
+                signals.add(gate);
+            }
+        }
+        for (int i = inputs; i < signals.size(); i++) {
+            if (fanout[i] == 0) {
+                b.output(signals.get(i));
+            }
+        }
+        return b.circuit;
+    }
+
+    /**
+     * Picks a signal in {@code [from, to)}, preferring ones read fewer than
+     * {@code maxFanout} times.
+     */
+    private static int pick(Random random, int[] fanout, int maxFanout, int from, int to) {
+        int candidate = from + random.nextInt(to - from);
+        for (int attempt = 0; attempt < 16 && fanout[candidate] >= maxFanout; attempt++) {
+            candidate = from + random.nextInt(to - from);
+        }
+        return candidate;
+    }
+
+    /**
+     * Builds independent SR latches, each a pair of cross-coupled Nor gates
+     * made of Or and Not.
+     * <p>
+     * Inputs: S0, R0, S1, R1, ... Outputs: Q0, Q1, ...
+     * </p>
+     *
+     * @param latches The number of latches.
+     * @return The circuit, with {@code 4 * latches} gates and one feedback
+     *         loop per latch.
+     */
+    public static Circuit srLatchArray(int latches) {
+        requirePositive(latches, "latches");
+        Builder b = new Builder("SR latch array " + latches);
+        Signal[] q = new Signal[latches];
+        for (int i = 0; i < latches; i++) {
+            Signal set = b.input();
+            Signal reset = b.input();
+            // q = NOR(reset, qBar), qBar = NOR(set, q)
+            Or resetOr = new Or();
+            Or setOr = new Or();
+            Signal resetNor = b.place1(new Not(), b.placeUnwired(resetOr, 1));
+            Signal setNor = b.place1(new Not(), b.placeUnwired(setOr, 1));
+            b.connect(reset, resetOr, 0);
+            b.connect(setNor, resetOr, 1);
+            b.connect(set, setOr, 0);
+            b.connect(resetNor, setOr, 1);
+            q[i] = resetNor;
+        }
+        b.outputs(q);
+        return b.circuit;
+    }
+
+    /**
+     * Saves a generated circuit through {@link CircuitDAO}, first saving the
+     * circuit of every sub-circuit that has no database ID yet so that the
+     * saved instances refer to it. The IDs of the saved circuits are set.
+     *
+     * @param circuit   The circuit to save.
+     * @param projectId The project to save the circuits in.
+     * @return The ID of the saved circuit, or 0 if it could not be saved.
+     */
+    public static long persist(Circuit circuit, long projectId) {
+        if (circuit == null) {
+            throw new IllegalArgumentException("Expected Circuit but Recieved Null");
+        }
+        persist(new CircuitDAO(), circuit, projectId, new IdentityHashMap<>());
+        return circuit.getId();
+    }
+
+    private static void persist(
+        CircuitDAO dao,
+        Circuit circuit,
+        long projectId,
+        Map<Circuit, Boolean> saved
+    ) {
+        for (Component comp : circuit.getComponents()) {
+            if (
+                comp instanceof SubCircuitComponent sub &&
+                sub.getSourceCircuitId() <= 0
+            ) {
+                Circuit inner = sub.getInnerCircuit();
+                if (inner.getId() <= 0 && saved.put(inner, Boolean.TRUE) == null) {
+                    persist(dao, inner, projectId, saved);
+                }
+                sub.setSourceCircuitId(inner.getId());
+            }
+        }
+        dao.saveCircuit(circuit, projectId);
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(
+                "Expected " + name + " to be positive but got " + value
+            );
+        }
+    }
+
+    private static void requireRange(int value, int min, int max, String name) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(
+                "Expected " + name + " between " + min + " and " + max +
+                " but got " + value
+            );
+        }
+    }
+
+    /**
+     * An output pin of a component.
+     */
+    private record Signal(Component comp, int pin) {}
+
+    /**
+     * Adds components and wires to a circuit and lays them out in columns by
+     * logic depth.
+     */
+    private static final class Builder {
+
+        private final Circuit circuit = new Circuit();
+
+        /**
+         * The layout column of every component.
+         */
+        private final Map<Component, Integer> columns = new IdentityHashMap<>();
+
+        /**
+         * The number of components placed in each column so far.
+         */
+        private final List<Integer> rows = new ArrayList<>();
+
+        private Builder(String name) {
+            circuit.setName(name);
+        }
+
+        Signal input() {
+            return new Signal(add(new Switch(), 0), 0);
+        }
+
+        Signal[] inputs(int count) {
+            Signal[] signals = new Signal[count];
+            for (int i = 0; i < count; i++) {
+                signals[i] = input();
+            }
+            return signals;
+        }
+
+        void output(Signal signal) {
+            place(new Bulb(), signal);
+        }
+
+        void outputs(Signal[] signals) {
+            for (Signal signal : signals) {
+                output(signal);
+            }
+        }
+
+        Signal and(Signal x, Signal y) {
+            return place1(new And(), x, y);
+        }
+
+        Signal or(Signal x, Signal y) {
+            return place1(new Or(), x, y);
+        }
+
+        Signal not(Signal x) {
+            return place1(new Not(), x);
+        }
+
+        /**
+         * Exclusive or, as (x | y) &amp; !(x &amp; y).
+         */
+        Signal xor(Signal x, Signal y) {
+            return and(or(x, y), not(and(x, y)));
+        }
+
+        /**
+         * Adds three bits.
+         *
+         * @return The sum and the carry.
+         */
+        Signal[] fullAdd(Signal x, Signal y, Signal cin) {
+            Signal half = xor(x, y);
+            return new Signal[] {
+                xor(half, cin),
+                or(and(x, y), and(half, cin)),
+            };
+        }
+
+        /**
+         * Adds up to three bits, any of which may be {@code null} for a
+         * constant 0, without spending gates on the constants.
+         *
+         * @return The sum and the carry, either {@code null} if it is always 0.
+         */
+        Signal[] add(Signal x, Signal y, Signal z) {
+            List<Signal> present = new ArrayList<>(3);
+            for (Signal s : new Signal[] { x, y, z }) {
+                if (s != null) present.add(s);
+            }
+            return switch (present.size()) {
+                case 0 -> new Signal[] { null, null };
+                case 1 -> new Signal[] { present.get(0), null };
+                case 2 -> new Signal[] {
+                    xor(present.get(0), present.get(1)),
+                    and(present.get(0), present.get(1)),
+                };
+                default -> fullAdd(present.get(0), present.get(1), present.get(2));
+            };
+        }
+
+        /**
+         * ANDs a list of signals with a balanced tree.
+         */
+        Signal andAll(List<Signal> signals) {
+            return reduce(signals, true);
+        }
+
+        Signal orAll(List<Signal> signals) {
+            return reduce(signals, false);
+        }
+
+        private Signal reduce(List<Signal> signals, boolean and) {
+            List<Signal> level = new ArrayList<>(signals);
+            while (level.size() > 1) {
+                List<Signal> next = new ArrayList<>();
+                for (int i = 0; i + 1 < level.size(); i += 2) {
+                    next.add(and
+                        ? and(level.get(i), level.get(i + 1))
+                        : or(level.get(i), level.get(i + 1)));
+                }
+                if (level.size() % 2 == 1) {
+                    next.add(level.get(level.size() - 1));
+                }
+                level = next;
+            }
+            return level.get(0);
+        }
+
+        /**
+         * The generate signal of a group: g(n-1) | p(n-1)g(n-2) | ... | p(n-1)..p1 g0.
+         */
+        Signal generate(List<Signal> g, List<Signal> p) {
+            List<Signal> terms = new ArrayList<>();
+            for (int j = 0; j < g.size(); j++) {
+                List<Signal> term = new ArrayList<>(p.subList(j + 1, p.size()));
+                term.add(g.get(j));
+                terms.add(andAll(term));
+            }
+            return orAll(terms);
+        }
+
+        /**
+         * The lookahead carries out of every position of a group with the
+         * given generate and propagate signals and carry in: carry k + 1 is
+         * the generate signal of positions 0..k with the carry in as an
+         * extra generate below position 0.
+         */
+        List<Signal> carries(List<Signal> g, List<Signal> p, Signal cin) {
+            List<Signal> out = new ArrayList<>();
+            for (int k = 0; k < g.size(); k++) {
+                List<Signal> gk = new ArrayList<>();
+                List<Signal> pk = new ArrayList<>();
+                gk.add(cin);
+                pk.add(null);
+                gk.addAll(g.subList(0, k + 1));
+                pk.addAll(p.subList(0, k + 1));
+                out.add(generate(gk, pk));
+            }
+            return out;
+        }
+
+        /**
+         * Predecodes the select bits {@code [from, to)}, most significant
+         * first, into one signal per value.
+         */
+        Signal[] decode(Signal[] select, int from, int to) {
+            if (to - from == 1) {
+                return new Signal[] { not(select[from]), select[from] };
+            }
+            int mid = (from + to) / 2;
+            Signal[] high = decode(select, from, mid);
+            Signal[] low = decode(select, mid, to);
+            Signal[] out = new Signal[high.length * low.length];
+            for (int h = 0; h < high.length; h++) {
+                for (int l = 0; l < low.length; l++) {
+                    out[h * low.length + l] = and(high[h], low[l]);
+                }
+            }
+            return out;
+        }
+
+        /**
+         * Places a component with output pin 0 and wires its inputs.
+         */
+        Signal place1(Component comp, Signal... inputs) {
+            return new Signal(place(comp, inputs), 0);
+        }
+
+        /**
+         * Places a component and wires its inputs in pin order.
+         */
+        Component place(Component comp, Signal... inputs) {
+            int column = 0;
+            for (Signal input : inputs) {
+                column = Math.max(column, columns.get(input.comp()) + 1);
+            }
+            add(comp, column);
+            for (int pin = 0; pin < inputs.length; pin++) {
+                connect(inputs[pin], comp, pin);
+            }
+            return comp;
+        }
+
+        /**
+         * Places a component in a given column without wiring it, for
+         * feedback loops whose inputs do not exist yet.
+         */
+        Signal placeUnwired(Component comp, int column) {
+            add(comp, column);
+            return new Signal(comp, 0);
+        }
+
+        void connect(Signal source, Component sink, int pin) {
+            circuit.addConnection(source.pin(), source.comp(), pin, sink);
+        }
+
+        private Component add(Component comp, int column) {
+            while (rows.size() <= column) {
+                rows.add(0);
+            }
+            int row = rows.get(column);
+            rows.set(column, row + 1);
+            columns.put(comp, column);
+            comp.setPositionX(COLUMN_WIDTH * column);
+            comp.setPositionY(ROW_HEIGHT * row);
+            circuit.addComponent(comp);
+            return comp;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.logisim.domain.minimization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A minimized two-level expression for one output of a truth table.
+ * <p>
+ * In {@link ExpressionForm#SUM_OF_PRODUCTS} form the cubes cover exactly the
+ * rows where the output is 1. In {@link ExpressionForm#PRODUCT_OF_SUMS} form
+ * they cover exactly the rows where it is 0, and each cube is printed as the
+ * clause that excludes it.
+ * </p>
+ */
+public class Cover {
+
+    private final int inputCount;
+    private final ExpressionForm form;
+    private final List<Cube> cubes;
+
+    /**
+     * Creates a cover. The terms are sorted so that equal functions print
+     * equally: fewest literals first, then by the first input they use, then
+     * negated before plain.
+     *
+     * @param inputCount The number of inputs of the function.
+     * @param form       The form of the expression.
+     * @param cubes      The terms of the cover.
+     */
+    public Cover(int inputCount, ExpressionForm form, List<Cube> cubes) {
+        this.inputCount = inputCount;
+        this.form = form;
+        List<Cube> sorted = new ArrayList<>(cubes);
+        sorted.sort(
+            Comparator.comparingInt(Cube::getLiteralCount)
+                .thenComparing(Cube::mask, Comparator.reverseOrder())
+                .thenComparingLong(Cube::value)
+        );
+        this.cubes = List.copyOf(sorted);
+    }
+
+    /**
+     * Evaluates the expression for one row.
+     *
+     * @param row The row index, numbered as in {@link Cube}.
+     * @return The output of the function for that row.
+     */
+    public boolean evaluate(long row) {
+        boolean inside = false;
+        for (Cube cube : cubes) {
+            if (cube.contains(row)) {
+                inside = true;
+                break;
+            }
+        }
+        return form == ExpressionForm.SUM_OF_PRODUCTS ? inside : !inside;
+    }
+
+    /**
+     * Writes the expression with the given input names.
+     * <p>
+     * Products are written as {@code (A & !B)} joined by {@code " + "}, and
+     * sums as {@code (!A + B)} joined by {@code " & "}. A constant function
+     * is written as {@code 0} or {@code 1}.
+     * </p>
+     *
+     * @param inputNames One name per input, in column order.
+     * @return The expression.
+     */
+    public String format(List<String> inputNames) {
+        boolean sop = form == ExpressionForm.SUM_OF_PRODUCTS;
+        if (cubes.isEmpty()) {
+            return sop ? "0" : "1";
+        }
+        StringBuilder expression = new StringBuilder();
+        for (Cube cube : cubes) {
+            if (cube.mask() == 0) {
+                return sop ? "1" : "0";
+            }
+            if (expression.length() > 0) expression.append(sop ? " + " : " & ");
+            expression.append("(");
+            boolean first = true;
+            for (int col = 0; col < inputCount; col++) {
+                long bit = 1L << (inputCount - 1 - col);
+                if ((cube.mask() & bit) == 0) continue;
+                if (!first) expression.append(sop ? " & " : " + ");
+                first = false;
+                // A clause excludes its cube, so its literals are inverted.
+                boolean plain = ((cube.value() & bit) != 0) == sop;
+                if (!plain) expression.append("!");
+                expression.append(inputNames.get(col));
+            }
+            expression.append(")");
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Retrieves the number of inputs of the function.
+     *
+     * @return The input count.
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Retrieves the form of the expression.
+     *
+     * @return The {@link ExpressionForm}.
+     */
+    public ExpressionForm getForm() {
+        return form;
+    }
+
+    /**
+     * Retrieves the terms of the cover.
+     *
+     * @return An unmodifiable list of cubes.
+     */
+    public List<Cube> getCubes() {
+        return cubes;
+    }
+
+    /**
+     * Retrieves the total number of literals, the usual cost of a cover.
+     *
+     * @return The sum of the literal counts of the cubes.
+     */
+    public int getLiteralCount() {
+        int literals = 0;
+        for (Cube cube : cubes) {
+            literals += cube.getLiteralCount();
+        }
+        return literals;
+    }
+}
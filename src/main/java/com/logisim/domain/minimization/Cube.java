@@ -0,0 +1,37 @@
+package com.logisim.domain.minimization;
+
+/**
+ * A product term over the rows of a truth table.
+ * <p>
+ * Rows are numbered as in {@link com.logisim.domain.Circuit#analyze()}: with
+ * {@code n} inputs, input {@code i} is bit {@code n - 1 - i} of the row
+ * index. A bit set in {@code mask} is a literal of the term, and the same
+ * bit of {@code value} says whether the literal is plain (1) or negated (0).
+ * Bits outside the mask are always 0 in {@code value}, so equal terms have
+ * equal records.
+ * </p>
+ *
+ * @param value The required values of the bits in {@code mask}.
+ * @param mask  The bits the term depends on.
+ */
+public record Cube(long value, long mask) {
+
+    /**
+     * Indicates whether a row lies inside the term.
+     *
+     * @param row The row index.
+     * @return {@code true} if the row agrees with every literal.
+     */
+    public boolean contains(long row) {
+        return (row & mask) == value;
+    }
+
+    /**
+     * Retrieves the number of literals of the term.
+     *
+     * @return The number of bits in the mask.
+     */
+    public int getLiteralCount() {
+        return Long.bitCount(mask);
+    }
+}
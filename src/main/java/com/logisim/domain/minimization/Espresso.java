@@ -0,0 +1,209 @@
+package com.logisim.domain.minimization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Heuristic two-level minimization in the style of Espresso, for functions
+ * with too many inputs for {@link QuineMcCluskey}.
+ * <p>
+ * Every uncovered row of the on-set is expanded greedily into a prime
+ * implicant: literals are dropped one at a time while the cube stays inside
+ * the on-set, preferring the literal that covers the most rows not yet
+ * covered. Redundant cubes are then removed. The cover is improved by
+ * repeated passes that reduce each cube to the rows only it covers and
+ * expand it again with a different literal order, for at most
+ * {@link #MAX_PASSES} passes or until a pass no longer lowers the cost.
+ * </p>
+ * <p>
+ * The on-set is read from the packed column and a cover count is kept per
+ * row, so memory grows with the number of rows rather than the number of
+ * prime implicants. That is why {@link LogicMinimizer#MAX_INPUTS} caps the
+ * input count.
+ * </p>
+ */
+final class Espresso {
+
+    /**
+     * The most reduce/expand passes run after the first cover.
+     */
+    static final int MAX_PASSES = 4;
+
+    private Espresso() {}
+
+    /**
+     * Finds a small cover of the rows set in a packed column.
+     *
+     * @param onSet The packed column; bit {@code r} is row {@code r}.
+     * @param n     The number of inputs, at most {@link LogicMinimizer#MAX_INPUTS}.
+     * @return The cubes of the cover.
+     */
+    static List<Cube> minimize(long[] onSet, int n) {
+        int rows = 1 << n;
+        long full = rows - 1L;
+        int[] counts = new int[rows];
+        List<Cube> cover = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            if (counts[row] == 0 && LogicMinimizer.isSet(onSet, row)) {
+                Cube cube = expand(new Cube(row, full), onSet, counts, n, 0);
+                addRows(cube, counts, full, 1);
+                cover.add(cube);
+            }
+        }
+        irredundant(cover, counts, full);
+
+        long cost = cost(cover);
+        for (int pass = 1; pass <= MAX_PASSES; pass++) {
+            List<Cube> candidate = new ArrayList<>(cover);
+            int[] candidateCounts = counts.clone();
+            for (int i = 0; i < candidate.size(); i++) {
+                Cube cube = candidate.get(i);
+                addRows(cube, candidateCounts, full, -1);
+                Cube reduced = reduce(cube, candidateCounts, full);
+                if (reduced == null) {
+                    candidate.remove(i--);
+                    continue;
+                }
+                Cube expanded = expand(reduced, onSet, candidateCounts, n, pass);
+                addRows(expanded, candidateCounts, full, 1);
+                candidate.set(i, expanded);
+            }
+            irredundant(candidate, candidateCounts, full);
+            long candidateCost = cost(candidate);
+            if (candidateCost >= cost) {
+                break;
+            }
+            cover = candidate;
+            counts = candidateCounts;
+            cost = candidateCost;
+        }
+        return cover;
+    }
+
+    /**
+     * Drops literals from a cube while it stays inside the on-set.
+     *
+     * @param cube     An implicant to grow.
+     * @param onSet    The packed on-set.
+     * @param counts   The number of cover cubes over each row, used to
+     *                 prefer literals that reach uncovered rows.
+     * @param n        The number of inputs.
+     * @param rotation Where to start among the literals on ties, so that
+     *                 different passes try different orders.
+     * @return A prime implicant containing the cube.
+     */
+    private static Cube expand(Cube cube, long[] onSet, int[] counts, int n, int rotation) {
+        long full = (1L << n) - 1;
+        while (cube.mask() != 0) {
+            long bestBit = 0;
+            long bestGain = -1;
+            for (int k = 0; k < n; k++) {
+                long bit = 1L << ((k + rotation) % n);
+                if ((cube.mask() & bit) == 0) continue;
+                // The half the cube grows into: the same cube with this literal flipped.
+                long value = cube.value() ^ bit;
+                long free = ~cube.mask() & full;
+                long gain = 0;
+                long sub = 0;
+                do {
+                    int row = (int) (value | sub);
+                    if (!LogicMinimizer.isSet(onSet, row)) {
+                        gain = -1;
+                        break;
+                    }
+                    if (counts[row] == 0) gain++;
+                    sub = (sub - free) & free;
+                } while (sub != 0);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestBit = bit;
+                }
+            }
+            if (bestGain < 0) {
+                break;
+            }
+            cube = new Cube(cube.value() & ~bestBit, cube.mask() & ~bestBit);
+        }
+        return cube;
+    }
+
+    /**
+     * Shrinks a cube to the smallest cube containing the rows no other cube
+     * of the cover reaches.
+     *
+     * @param cube   The cube, already removed from {@code counts}.
+     * @param counts The cover counts of the other cubes.
+     * @param full   The mask of all input bits.
+     * @return The reduced cube, or {@code null} if every row is covered elsewhere.
+     */
+    private static Cube reduce(Cube cube, int[] counts, long full) {
+        long and = full;
+        long or = 0;
+        boolean any = false;
+        long free = ~cube.mask() & full;
+        long sub = 0;
+        do {
+            int row = (int) (cube.value() | sub);
+            if (counts[row] == 0) {
+                and &= row;
+                or |= row;
+                any = true;
+            }
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        if (!any) {
+            return null;
+        }
+        long fixed = ~(and ^ or) & full;
+        return new Cube(and & fixed, fixed);
+    }
+
+    /**
+     * Removes cubes whose rows are all covered by other cubes, trying the
+     * smallest cubes first.
+     */
+    private static void irredundant(List<Cube> cover, int[] counts, long full) {
+        List<Cube> order = new ArrayList<>(cover);
+        order.sort(Comparator.comparingInt(Cube::getLiteralCount).reversed());
+        for (Cube cube : order) {
+            boolean redundant = true;
+            long free = ~cube.mask() & full;
+            long sub = 0;
+            do {
+                if (counts[(int) (cube.value() | sub)] < 2) {
+                    redundant = false;
+                    break;
+                }
+                sub = (sub - free) & free;
+            } while (sub != 0);
+            if (redundant) {
+                addRows(cube, counts, full, -1);
+                cover.remove(cube);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the cover count of every row of a cube.
+     */
+    private static void addRows(Cube cube, int[] counts, long full, int delta) {
+        long free = ~cube.mask() & full;
+        long sub = 0;
+        do {
+            counts[(int) (cube.value() | sub)] += delta;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+    }
+
+    /**
+     * Orders covers by term count, then literal count.
+     */
+    private static long cost(List<Cube> cover) {
+        long literals = 0;
+        for (Cube cube : cover) {
+            literals += cube.getLiteralCount();
+        }
+        return ((long) cover.size() << 32) + literals;
+    }
+}
@@ -0,0 +1,18 @@
+package com.logisim.domain.minimization;
+
+/**
+ * The two-level forms a minimized boolean function can be written in.
+ */
+public enum ExpressionForm {
+    /**
+     * An OR of AND terms, such as {@code (A & !B) + (C)}, covering the rows
+     * where the output is 1.
+     */
+    SUM_OF_PRODUCTS,
+
+    /**
+     * An AND of OR clauses, such as {@code (!A + B) & (C)}, each excluding
+     * rows where the output is 0.
+     */
+    PRODUCT_OF_SUMS,
+}
@@ -0,0 +1,113 @@
+package com.logisim.domain.minimization;
+
+/**
+ * Minimizes the output columns of a truth table into two-level expressions.
+ * <p>
+ * Functions of up to {@link #EXACT_INPUT_LIMIT} inputs are minimized exactly
+ * with Quine-McCluskey and Petrick's method; larger ones with an
+ * Espresso-style heuristic. Both work directly on the bit-packed columns
+ * produced by {@link com.logisim.domain.Circuit#analyzePacked()}, so no
+ * boolean table is built. Functions of more than {@link #MAX_INPUTS} inputs
+ * are rejected.
+ * </p>
+ */
+public final class LogicMinimizer {
+
+    /**
+     * The most inputs minimized exactly; larger functions are minimized
+     * heuristically.
+     */
+    public static final int EXACT_INPUT_LIMIT = 12;
+
+    /**
+     * The most inputs accepted. The heuristic keeps two {@code int} cover
+     * counts per row, 32 MiB at this size, and scans the rows of each cube it
+     * grows, so wider functions would exhaust a default heap long before
+     * finishing.
+     */
+    public static final int MAX_INPUTS = 22;
+
+    private LogicMinimizer() {}
+
+    /**
+     * Minimizes one packed output column.
+     *
+     * @param column     The packed column; bit {@code b} of word {@code w}
+     *                   is the output for row {@code w * 64 + b}.
+     * @param inputCount The number of inputs of the function.
+     * @param form       The form of the result.
+     * @return The minimized {@link Cover}.
+     * @throws IllegalArgumentException If the column or form is {@code null},
+     *         the input count is negative or above {@link #MAX_INPUTS}, or
+     *         the column is too short.
+     */
+    public static Cover minimize(long[] column, int inputCount, ExpressionForm form) {
+        if (column == null) {
+            throw new IllegalArgumentException("Expected Column but Recieved Null");
+        }
+        if (form == null) {
+            throw new IllegalArgumentException(
+                "Expected ExpressionForm but Recieved Null"
+            );
+        }
+        if (inputCount < 0) {
+            throw new IllegalArgumentException(
+                "Input count must not be negative: " + inputCount
+            );
+        }
+        if (inputCount > MAX_INPUTS) {
+            throw new IllegalArgumentException(
+                "Cannot minimize a function of " + inputCount +
+                " inputs; at most " + MAX_INPUTS + " are supported"
+            );
+        }
+        int rows = 1 << inputCount;
+        int words = Math.max(1, rows >>> 6);
+        if (column.length < words) {
+            throw new IllegalArgumentException(
+                "Expected " + words + " words but Recieved " + column.length
+            );
+        }
+
+        long[] target = new long[words];
+        for (int w = 0; w < words; w++) {
+            target[w] = form == ExpressionForm.SUM_OF_PRODUCTS ? column[w] : ~column[w];
+        }
+        if (rows < 64) {
+            target[0] &= (1L << rows) - 1;
+        }
+
+        return new Cover(
+            inputCount,
+            form,
+            inputCount <= EXACT_INPUT_LIMIT
+                ? QuineMcCluskey.minimize(target, inputCount)
+                : Espresso.minimize(target, inputCount)
+        );
+    }
+
+    /**
+     * Reads one row of a packed column.
+     */
+    static boolean isSet(long[] column, int row) {
+        return ((column[row >>> 6] >>> (row & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Lists the rows set in a packed column, in ascending order.
+     */
+    static int[] rowsOf(long[] column, int rows) {
+        int count = 0;
+        for (int w = 0; w < Math.max(1, rows >>> 6); w++) {
+            count += Long.bitCount(column[w]);
+        }
+        int[] result = new int[count];
+        int i = 0;
+        for (int w = 0; w < Math.max(1, rows >>> 6); w++) {
+            for (long bits = column[w]; bits != 0; bits &= bits - 1) {
+                result[i++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,274 @@
+package com.logisim.domain.minimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exact two-level minimization: Quine-McCluskey prime implicant generation
+ * followed by Petrick's method for choosing the cover.
+ * <p>
+ * The essential primes are taken first. Petrick's method then expands the
+ * product of sums of the remaining rows into a sum of products, absorbing
+ * supersets as it goes, and picks the product with the fewest primes and
+ * literals. If the expansion grows past {@link #PETRICK_LIMIT} products the
+ * rest of the cover is chosen greedily instead.
+ * </p>
+ */
+final class QuineMcCluskey {
+
+    /**
+     * The most partial products Petrick's method keeps before falling back
+     * to a greedy cover.
+     */
+    static final int PETRICK_LIMIT = 512;
+
+    private QuineMcCluskey() {}
+
+    /**
+     * Finds a minimum cover of the rows set in a packed column.
+     *
+     * @param onSet The packed column; bit {@code r} is row {@code r}.
+     * @param n     The number of inputs, at most 31.
+     * @return The cubes of the cover.
+     */
+    static List<Cube> minimize(long[] onSet, int n) {
+        int rows = 1 << n;
+        int[] minterms = LogicMinimizer.rowsOf(onSet, rows);
+        if (minterms.length == 0) {
+            return List.of();
+        }
+        if (minterms.length == rows) {
+            return List.of(new Cube(0, 0));
+        }
+
+        List<Cube> primes = primes(minterms, n);
+
+        // For every minterm, the primes that cover it.
+        int[] mintermIndex = new int[rows];
+        Arrays.fill(mintermIndex, -1);
+        for (int i = 0; i < minterms.length; i++) {
+            mintermIndex[minterms[i]] = i;
+        }
+        List<List<Integer>> coveredBy = new ArrayList<>();
+        for (int i = 0; i < minterms.length; i++) {
+            coveredBy.add(new ArrayList<>());
+        }
+        for (int p = 0; p < primes.size(); p++) {
+            Cube prime = primes.get(p);
+            long free = ~prime.mask() & (rows - 1);
+            long sub = 0;
+            do {
+                coveredBy.get(mintermIndex[(int) (prime.value() | sub)]).add(p);
+                sub = (sub - free) & free;
+            } while (sub != 0);
+        }
+
+        BitSet chosen = new BitSet();
+        BitSet covered = new BitSet(minterms.length);
+        for (int i = 0; i < minterms.length; i++) {
+            if (coveredBy.get(i).size() == 1) {
+                chosen.set(coveredBy.get(i).get(0));
+            }
+        }
+        markCovered(chosen, primes, coveredBy, covered);
+
+        if (covered.cardinality() < minterms.length) {
+            BitSet rest = petrick(primes, coveredBy, covered);
+            if (rest == null) {
+                rest = greedy(primes, coveredBy, covered);
+            }
+            chosen.or(rest);
+        }
+
+        List<Cube> cover = new ArrayList<>();
+        for (int p = chosen.nextSetBit(0); p >= 0; p = chosen.nextSetBit(p + 1)) {
+            cover.add(primes.get(p));
+        }
+        return cover;
+    }
+
+    /**
+     * Generates every prime implicant by repeatedly merging cubes that differ
+     * in a single literal.
+     */
+    private static List<Cube> primes(int[] minterms, int n) {
+        long full = (1L << n) - 1;
+        Set<Cube> current = new HashSet<>();
+        for (int row : minterms) {
+            current.add(new Cube(row, full));
+        }
+        List<Cube> primes = new ArrayList<>();
+        while (!current.isEmpty()) {
+            Set<Cube> next = new HashSet<>();
+            Set<Cube> merged = new HashSet<>();
+            for (Cube cube : current) {
+                for (long bits = cube.mask() & ~cube.value(); bits != 0; bits &= bits - 1) {
+                    long bit = bits & -bits;
+                    Cube partner = new Cube(cube.value() | bit, cube.mask());
+                    if (current.contains(partner)) {
+                        next.add(new Cube(cube.value(), cube.mask() & ~bit));
+                        merged.add(cube);
+                        merged.add(partner);
+                    }
+                }
+            }
+            for (Cube cube : current) {
+                if (!merged.contains(cube)) {
+                    primes.add(cube);
+                }
+            }
+            current = next;
+        }
+        return primes;
+    }
+
+    /**
+     * Marks the minterms covered by the chosen primes.
+     */
+    private static void markCovered(
+        BitSet chosen,
+        List<Cube> primes,
+        List<List<Integer>> coveredBy,
+        BitSet covered
+    ) {
+        for (int i = 0; i < coveredBy.size(); i++) {
+            for (int p : coveredBy.get(i)) {
+                if (chosen.get(p)) {
+                    covered.set(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Chooses primes for the uncovered minterms with Petrick's method.
+     *
+     * @return The cheapest product, or {@code null} if the expansion
+     *         exceeded {@link #PETRICK_LIMIT}.
+     */
+    private static BitSet petrick(
+        List<Cube> primes,
+        List<List<Integer>> coveredBy,
+        BitSet covered
+    ) {
+        List<BitSet> products = new ArrayList<>();
+        products.add(new BitSet());
+        for (int i = covered.nextClearBit(0); i < coveredBy.size(); i = covered.nextClearBit(i + 1)) {
+            List<Integer> sum = coveredBy.get(i);
+            Set<BitSet> next = new HashSet<>();
+            for (BitSet product : products) {
+                boolean satisfied = false;
+                for (int p : sum) {
+                    if (product.get(p)) {
+                        satisfied = true;
+                        break;
+                    }
+                }
+                if (satisfied) {
+                    next.add(product);
+                    continue;
+                }
+                for (int p : sum) {
+                    BitSet extended = (BitSet) product.clone();
+                    extended.set(p);
+                    next.add(extended);
+                }
+            }
+            if (next.size() > 8 * PETRICK_LIMIT) {
+                return null;
+            }
+            products = absorb(next);
+            if (products.size() > PETRICK_LIMIT) {
+                return null;
+            }
+        }
+
+        BitSet best = null;
+        int bestPrimes = Integer.MAX_VALUE;
+        int bestLiterals = Integer.MAX_VALUE;
+        for (BitSet product : products) {
+            int literals = 0;
+            for (int p = product.nextSetBit(0); p >= 0; p = product.nextSetBit(p + 1)) {
+                literals += primes.get(p).getLiteralCount();
+            }
+            int count = product.cardinality();
+            if (count < bestPrimes || (count == bestPrimes && literals < bestLiterals)) {
+                best = product;
+                bestPrimes = count;
+                bestLiterals = literals;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Removes every product that contains another product (X + XY = X).
+     */
+    private static List<BitSet> absorb(Set<BitSet> products) {
+        List<BitSet> sorted = new ArrayList<>(products);
+        sorted.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        List<BitSet> kept = new ArrayList<>();
+        for (BitSet product : sorted) {
+            boolean absorbed = false;
+            for (BitSet smaller : kept) {
+                BitSet common = (BitSet) smaller.clone();
+                common.and(product);
+                if (common.equals(smaller)) {
+                    absorbed = true;
+                    break;
+                }
+            }
+            if (!absorbed) {
+                kept.add(product);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Covers the remaining minterms by repeatedly taking the prime that
+     * covers the most of them, preferring fewer literals on ties.
+     */
+    private static BitSet greedy(
+        List<Cube> primes,
+        List<List<Integer>> coveredBy,
+        BitSet covered
+    ) {
+        BitSet open = (BitSet) covered.clone();
+        open.flip(0, coveredBy.size());
+        BitSet chosen = new BitSet();
+        while (!open.isEmpty()) {
+            int[] gain = new int[primes.size()];
+            for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1)) {
+                for (int p : coveredBy.get(i)) {
+                    gain[p]++;
+                }
+            }
+            int best = -1;
+            for (int p = 0; p < primes.size(); p++) {
+                if (
+                    gain[p] > 0 &&
+                    (best < 0 ||
+                        gain[p] > gain[best] ||
+                        (gain[p] == gain[best] &&
+                            primes.get(p).getLiteralCount() <
+                            primes.get(best).getLiteralCount()))
+                ) {
+                    best = p;
+                }
+            }
+            chosen.set(best);
+            for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1)) {
+                if (coveredBy.get(i).contains(best)) {
+                    open.clear(i);
+                }
+            }
+        }
+        return chosen;
+    }
+}
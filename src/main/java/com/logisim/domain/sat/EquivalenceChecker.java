@@ -0,0 +1,288 @@
+package com.logisim.domain.sat;
+
+import com.logisim.domain.simulation.Netlist;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides whether two combinational circuits compute the same functions
+ * with a SAT solver instead of comparing truth tables.
+ * <p>
+ * Both flattened netlists are encoded into one formula over shared input
+ * variables (a <i>miter</i>): each gate becomes a fresh variable tied to its
+ * inputs by Tseitin clauses, each matched pair of outputs feeds a variable
+ * that can only be true where they differ, and one clause requires some
+ * pair to differ. The circuits are equivalent exactly when
+ * {@link SatSolver} proves the formula unsatisfiable; otherwise its model
+ * is the counterexample.
+ * </p>
+ * <p>
+ * Gates are hashed while encoding: a gate of the same type over the same
+ * input literals as one already encoded reuses its variable, so parts the
+ * two circuits have in common collapse onto each other and never reach the
+ * solver. Constant inputs from unconnected pins are folded away.
+ * </p>
+ */
+public final class EquivalenceChecker {
+
+    private EquivalenceChecker() {}
+
+    /**
+     * Checks two netlists, matching switches and bulbs by position in
+     * component list order.
+     *
+     * @param first  The first circuit, with sub-circuits inlined.
+     * @param second The second circuit, with sub-circuits inlined.
+     * @return The {@link EquivalenceResult}.
+     * @throws IllegalArgumentException If a netlist is {@code null}, has
+     *         feedback or non-primitive gates, or the pin counts differ.
+     */
+    public static EquivalenceResult check(Netlist first, Netlist second) {
+        requireNetlist(first);
+        requireNetlist(second);
+        return check(
+            first,
+            second,
+            identity(first.getSwitchGates().length),
+            identity(first.getBulbGates().length)
+        );
+    }
+
+    /**
+     * Checks two netlists with an explicit pairing of their pins.
+     *
+     * @param first          The first circuit, with sub-circuits inlined.
+     * @param second         The second circuit, with sub-circuits inlined.
+     * @param inputMapping   For every switch of the first circuit, the index
+     *                       of the matching switch of the second.
+     * @param outputMapping  For every bulb of the first circuit, the index of
+     *                       the matching bulb of the second.
+     * @return The {@link EquivalenceResult}.
+     * @throws IllegalArgumentException If a netlist is {@code null}, has
+     *         feedback or non-primitive gates, or a mapping is not a
+     *         one-to-one pairing of all pins.
+     */
+    public static EquivalenceResult check(
+        Netlist first,
+        Netlist second,
+        int[] inputMapping,
+        int[] outputMapping
+    ) {
+        requireNetlist(first);
+        requireNetlist(second);
+        requireMapping(inputMapping, first.getSwitchGates().length, second.getSwitchGates().length, "switches");
+        requireMapping(outputMapping, first.getBulbGates().length, second.getBulbGates().length, "bulbs");
+
+        SatSolver solver = new SatSolver();
+        Encoder encoder = new Encoder(solver);
+        int inputCount = inputMapping.length;
+        int[] inputs = new int[inputCount];
+        int[] secondInputs = new int[inputCount];
+        for (int i = 0; i < inputCount; i++) {
+            inputs[i] = solver.newVariable();
+            secondInputs[inputMapping[i]] = inputs[i];
+        }
+        int[] firstOutputs = encoder.encode(first, inputs);
+        int[] secondOutputs = encoder.encode(second, secondInputs);
+
+        List<Integer> differences = new ArrayList<>();
+        int[] pairs = new int[outputMapping.length];
+        for (int k = 0; k < outputMapping.length; k++) {
+            int a = firstOutputs[k];
+            int b = secondOutputs[outputMapping[k]];
+            pairs[k] = b;
+            if (a == b) continue;
+            // d implies a != b; the converse is not needed to find a difference.
+            int d = solver.newVariable();
+            solver.addClause(-d, a, b);
+            solver.addClause(-d, -a, -b);
+            differences.add(d);
+        }
+        if (differences.isEmpty()) {
+            return new EquivalenceResult(true, null, new int[0], 0);
+        }
+        solver.addClause(differences.stream().mapToInt(Integer::intValue).toArray());
+
+        if (!solver.solve()) {
+            return new EquivalenceResult(true, null, new int[0], solver.getConflictCount());
+        }
+        boolean[] counterexample = new boolean[inputCount];
+        for (int i = 0; i < inputCount; i++) {
+            counterexample[i] = solver.isTrue(inputs[i]);
+        }
+        int[] differing = new int[outputMapping.length];
+        int count = 0;
+        for (int k = 0; k < outputMapping.length; k++) {
+            if (solver.isTrue(firstOutputs[k]) != solver.isTrue(pairs[k])) {
+                differing[count++] = k;
+            }
+        }
+        return new EquivalenceResult(
+            false,
+            counterexample,
+            Arrays.copyOf(differing, count),
+            solver.getConflictCount()
+        );
+    }
+
+    private static void requireNetlist(Netlist netlist) {
+        if (netlist == null) {
+            throw new IllegalArgumentException("Expected Netlist but Recieved Null");
+        }
+        if (!netlist.isAcyclic()) {
+            throw new IllegalArgumentException(
+                "Only circuits without feedback can be checked for equivalence"
+            );
+        }
+    }
+
+    private static void requireMapping(int[] mapping, int from, int to, String pins) {
+        if (mapping == null) {
+            throw new IllegalArgumentException("Expected Mapping but Recieved Null");
+        }
+        if (from != to || mapping.length != from) {
+            throw new IllegalArgumentException(
+                "Expected " + from + " " + pins + " on both sides but Recieved " +
+                mapping.length + " mapped to " + to
+            );
+        }
+        boolean[] used = new boolean[to];
+        for (int target : mapping) {
+            if (target < 0 || target >= to || used[target]) {
+                throw new IllegalArgumentException(
+                    "The " + pins + " mapping is not one-to-one"
+                );
+            }
+            used[target] = true;
+        }
+    }
+
+    private static int[] identity(int n) {
+        int[] mapping = new int[n];
+        for (int i = 0; i < n; i++) {
+            mapping[i] = i;
+        }
+        return mapping;
+    }
+
+    /**
+     * Tseitin-encodes netlists into one solver, sharing structurally equal
+     * gates between them.
+     */
+    private static final class Encoder {
+
+        private final SatSolver solver;
+
+        /** A literal that is always true. */
+        private final int trueLit;
+
+        /** The variable of every encoded gate, keyed by type and sorted inputs. */
+        private final Map<List<Integer>, Integer> gates = new HashMap<>();
+
+        Encoder(SatSolver solver) {
+            this.solver = solver;
+            this.trueLit = solver.newVariable();
+            solver.addClause(trueLit);
+        }
+
+        /**
+         * Encodes a netlist.
+         *
+         * @param netlist The netlist.
+         * @param inputs  The literal of every switch, in component list order.
+         * @return The literal of every bulb, in component list order.
+         */
+        int[] encode(Netlist netlist, int[] inputs) {
+            int[] nets = new int[netlist.getNetCount()];
+            nets[Netlist.ZERO_NET] = -trueLit;
+            int[] switchIndex = new int[netlist.getGateCount()];
+            int[] switchGates = netlist.getSwitchGates();
+            for (int i = 0; i < switchGates.length; i++) {
+                switchIndex[switchGates[i]] = i;
+            }
+            int[] bulbGates = netlist.getBulbGates();
+            int[] bulbIndex = new int[netlist.getGateCount()];
+            for (int k = 0; k < bulbGates.length; k++) {
+                bulbIndex[bulbGates[k]] = k;
+            }
+
+            int[] outputs = new int[bulbGates.length];
+            for (int g : netlist.getOrder()) {
+                int type = netlist.getGateType(g);
+                int result;
+                switch (type) {
+                    case Netlist.TYPE_SWITCH:
+                        result = inputs[switchIndex[g]];
+                        break;
+                    case Netlist.TYPE_BULB:
+                        outputs[bulbIndex[g]] = netlist.getFanIn(g) > 0
+                            ? nets[netlist.getInputNet(g, 0)]
+                            : -trueLit;
+                        continue;
+                    case Netlist.TYPE_NOT:
+                        result = -nets[netlist.getInputNet(g, 0)];
+                        break;
+                    case Netlist.TYPE_AND:
+                    case Netlist.TYPE_OR:
+                        int[] operands = new int[netlist.getFanIn(g)];
+                        for (int pin = 0; pin < operands.length; pin++) {
+                            operands[pin] = nets[netlist.getInputNet(g, pin)];
+                        }
+                        // Or is encoded as And by De Morgan, so both share one table.
+                        boolean or = type == Netlist.TYPE_OR;
+                        if (or) {
+                            for (int pin = 0; pin < operands.length; pin++) {
+                                operands[pin] = -operands[pin];
+                            }
+                        }
+                        result = and(operands);
+                        if (or) result = -result;
+                        break;
+                    default:
+                        throw new IllegalArgumentException(
+                            "Cannot encode " + netlist.getGateName(g) + " as clauses"
+                        );
+                }
+                for (int pin = 0; pin < netlist.getOutputCount(g); pin++) {
+                    nets[netlist.getOutputNet(g, pin)] = result;
+                }
+            }
+            return outputs;
+        }
+
+        /**
+         * Encodes the conjunction of some literals, folding constants and
+         * reusing an earlier gate over the same literals.
+         */
+        private int and(int[] operands) {
+            int[] sorted = operands.clone();
+            Arrays.sort(sorted);
+            List<Integer> key = new ArrayList<>();
+            for (int i = 0; i < sorted.length; i++) {
+                int lit = sorted[i];
+                if (lit == -trueLit) return -trueLit;
+                if (lit == trueLit || (i > 0 && lit == sorted[i - 1])) continue;
+                if (Arrays.binarySearch(sorted, -lit) >= 0) return -trueLit;
+                key.add(lit);
+            }
+            if (key.isEmpty()) return trueLit;
+            if (key.size() == 1) return key.get(0);
+
+            Integer known = gates.get(key);
+            if (known != null) return known;
+            int output = solver.newVariable();
+            int[] all = new int[key.size() + 1];
+            all[0] = output;
+            for (int i = 0; i < key.size(); i++) {
+                solver.addClause(-output, key.get(i));
+                all[i + 1] = -key.get(i);
+            }
+            solver.addClause(all);
+            gates.put(key, output);
+            return output;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.logisim.domain.sat;
+
+/**
+ * The outcome of an {@link EquivalenceChecker} run.
+ * <p>
+ * Two circuits are equivalent when every matched pair of bulbs agrees for
+ * every combination of the matched switches. Otherwise the result carries
+ * one input vector on which they disagree.
+ * </p>
+ */
+public class EquivalenceResult {
+
+    private final boolean equivalent;
+    private final boolean[] counterexample;
+    private final int[] differingOutputs;
+    private final long conflicts;
+
+    /**
+     * Creates a new result.
+     *
+     * @param equivalent       Whether the circuits are equivalent.
+     * @param counterexample   The switch states of the first circuit that tell
+     *                         them apart, or {@code null} if equivalent.
+     * @param differingOutputs The bulbs of the first circuit that differ on the
+     *                         counterexample; empty if equivalent.
+     * @param conflicts        The number of conflicts the SAT solver analyzed.
+     */
+    public EquivalenceResult(
+        boolean equivalent,
+        boolean[] counterexample,
+        int[] differingOutputs,
+        long conflicts
+    ) {
+        this.equivalent = equivalent;
+        this.counterexample = counterexample;
+        this.differingOutputs = differingOutputs;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Indicates whether the circuits compute the same functions.
+     *
+     * @return {@code true} if every matched output agrees on every input.
+     */
+    public boolean isEquivalent() {
+        return equivalent;
+    }
+
+    /**
+     * Retrieves an input vector on which the circuits differ.
+     *
+     * @return The state of every switch of the first circuit, in component
+     *         list order, or {@code null} if the circuits are equivalent.
+     */
+    public boolean[] getCounterexample() {
+        return counterexample == null ? null : counterexample.clone();
+    }
+
+    /**
+     * Retrieves the outputs that differ on the counterexample.
+     *
+     * @return The indices of the bulbs of the first circuit, in component list
+     *         order; empty if the circuits are equivalent.
+     */
+    public int[] getDifferingOutputs() {
+        return differingOutputs.clone();
+    }
+
+    /**
+     * Retrieves the number of conflicts the SAT solver analyzed, a measure
+     * of how hard the check was.
+     *
+     * @return The conflict count.
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+}
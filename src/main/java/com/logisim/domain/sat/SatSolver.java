@@ -0,0 +1,563 @@
+package com.logisim.domain.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A conflict-driven clause learning (CDCL) SAT solver for formulas in
+ * conjunctive normal form.
+ * <p>
+ * Variables are numbered from 1 and literals are written as in DIMACS: the
+ * variable for a positive literal, its negation for a negative one. The
+ * solver follows the MiniSat design:
+ * </p>
+ * <ul>
+ *   <li>Two watched literals per clause, so unit propagation only visits
+ *       clauses whose watched literal has just become false.</li>
+ *   <li>First-UIP conflict analysis; the learned clause is shortened by
+ *       dropping literals implied by the others and added to the formula.</li>
+ *   <li>VSIDS branching: variables in recent conflicts are bumped and every
+ *       activity decays, with the most active free variable kept on top of a
+ *       binary heap. Each variable is retried with its last value.</li>
+ *   <li>Restarts after a number of conflicts that follows the Luby sequence
+ *       times {@link #RESTART_UNIT}.</li>
+ * </ul>
+ * <p>
+ * Learned clauses are kept for the life of the solver. Clauses may be added
+ * between calls to {@link #solve()}. A solver is not thread-safe.
+ * </p>
+ */
+public class SatSolver {
+
+    /** The number of conflicts in the first restart interval. */
+    static final int RESTART_UNIT = 100;
+
+    private static final double VARIABLE_DECAY = 0.95;
+
+    private static final int UNSATISFIABLE = -1;
+    private static final int RESTART = 0;
+    private static final int SATISFIABLE = 1;
+
+    private int variableCount;
+
+    /** Every clause of two or more literals; the first two are watched. */
+    private final List<int[]> clauses = new ArrayList<>();
+
+    /** The clauses watching each literal, indexed by internal literal. */
+    private int[][] watchers = new int[0][];
+    private int[] watcherCounts = new int[0];
+
+    /** The value of every variable: 0 unassigned, 1 true, -1 false. */
+    private byte[] values = new byte[0];
+    private int[] levels = new int[0];
+
+    /** The clause that implied every variable, or -1 for decisions. */
+    private int[] reasons = new int[0];
+    private boolean[] phases = new boolean[0];
+    private boolean[] seen = new boolean[0];
+    private double[] activities = new double[0];
+    private double activityIncrement = 1;
+
+    private int[] trail = new int[0];
+    private int trailSize;
+    private int propagated;
+    private int[] trailLimits = new int[0];
+    private int decisionLevel;
+
+    private int[] heap = new int[0];
+    private int heapSize;
+    private int[] heapIndex = new int[0];
+
+    private boolean contradiction;
+    private boolean[] model;
+
+    private long conflicts;
+    private long decisions;
+    private long propagations;
+
+    /**
+     * Adds a variable.
+     *
+     * @return Its number, which is also its positive literal.
+     */
+    public int newVariable() {
+        int v = variableCount++;
+        if (v == values.length) {
+            int capacity = Math.max(16, 2 * values.length);
+            values = Arrays.copyOf(values, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            trailLimits = Arrays.copyOf(trailLimits, capacity + 1);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+            watchers = Arrays.copyOf(watchers, 2 * capacity);
+            watcherCounts = Arrays.copyOf(watcherCounts, 2 * capacity);
+        }
+        reasons[v] = -1;
+        heapIndex[v] = -1;
+        watchers[2 * v] = new int[4];
+        watchers[2 * v + 1] = new int[4];
+        heapInsert(v);
+        return v + 1;
+    }
+
+    /**
+     * Retrieves the number of variables.
+     *
+     * @return The variable count.
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Adds a clause: the disjunction of the given literals. Literals already
+     * false at the top level are dropped, and a clause already satisfied
+     * there is ignored.
+     *
+     * @param literals The literals, each a variable number or its negation.
+     * @throws IllegalArgumentException If a literal is 0 or names an unknown variable.
+     */
+    public void addClause(int... literals) {
+        if (literals == null) {
+            throw new IllegalArgumentException("Expected Literals but Recieved Null");
+        }
+        cancelUntil(0);
+        int[] clause = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            if (literal == 0 || Math.abs(literal) > variableCount) {
+                throw new IllegalArgumentException("Not a literal: " + literal);
+            }
+            int lit = toInternal(literal);
+            int value = valueOf(lit);
+            if (value > 0) return;
+            if (value < 0) continue;
+            boolean duplicate = false;
+            for (int k = 0; k < size; k++) {
+                if (clause[k] == lit) duplicate = true;
+                if (clause[k] == (lit ^ 1)) return;
+            }
+            if (!duplicate) clause[size++] = lit;
+        }
+        if (contradiction) return;
+        if (size == 0) {
+            contradiction = true;
+        } else if (size == 1) {
+            assign(clause[0], -1);
+            contradiction = propagate() >= 0;
+        } else {
+            attach(Arrays.copyOf(clause, size));
+        }
+    }
+
+    /**
+     * Decides whether the clauses can all be satisfied at once.
+     *
+     * @return {@code true} if they can; {@link #getValue(int)} then reads the
+     *         satisfying assignment.
+     */
+    public boolean solve() {
+        model = null;
+        if (contradiction) {
+            return false;
+        }
+        for (int restart = 0; ; restart++) {
+            int status = search(luby(restart) * RESTART_UNIT);
+            if (status == SATISFIABLE) {
+                model = new boolean[variableCount];
+                for (int v = 0; v < variableCount; v++) {
+                    model[v] = values[v] > 0;
+                }
+                cancelUntil(0);
+                return true;
+            }
+            if (status == UNSATISFIABLE) {
+                contradiction = true;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads the value of a variable in the assignment found by the last
+     * successful {@link #solve()}.
+     *
+     * @param variable The variable number.
+     * @return Its value.
+     * @throws IllegalStateException If the last call did not find an assignment.
+     */
+    public boolean getValue(int variable) {
+        if (model == null) {
+            throw new IllegalStateException("No satisfying assignment has been found");
+        }
+        if (variable < 1 || variable > model.length) {
+            throw new IllegalArgumentException("Not a variable: " + variable);
+        }
+        return model[variable - 1];
+    }
+
+    /**
+     * Reads the value of a literal in the last satisfying assignment.
+     *
+     * @param literal The literal.
+     * @return Its value.
+     */
+    public boolean isTrue(int literal) {
+        return getValue(Math.abs(literal)) == literal > 0;
+    }
+
+    /**
+     * Retrieves the number of conflicts analyzed so far.
+     *
+     * @return The conflict count.
+     */
+    public long getConflictCount() {
+        return conflicts;
+    }
+
+    /**
+     * Retrieves the number of branching decisions made so far.
+     *
+     * @return The decision count.
+     */
+    public long getDecisionCount() {
+        return decisions;
+    }
+
+    /**
+     * Retrieves the number of literals assigned by unit propagation so far.
+     *
+     * @return The propagation count.
+     */
+    public long getPropagationCount() {
+        return propagations;
+    }
+
+    /**
+     * Runs CDCL until a model is found, the formula is refuted, or the
+     * conflict budget is spent.
+     */
+    private int search(long budget) {
+        long localConflicts = 0;
+        while (true) {
+            int conflict = propagate();
+            if (conflict >= 0) {
+                conflicts++;
+                localConflicts++;
+                if (decisionLevel == 0) {
+                    return UNSATISFIABLE;
+                }
+                learn(conflict);
+                activityIncrement /= VARIABLE_DECAY;
+            } else {
+                if (localConflicts >= budget) {
+                    cancelUntil(0);
+                    return RESTART;
+                }
+                int v = nextBranchVariable();
+                if (v < 0) {
+                    return SATISFIABLE;
+                }
+                decisions++;
+                trailLimits[decisionLevel++] = trailSize;
+                assign(2 * v + (phases[v] ? 0 : 1), -1);
+            }
+        }
+    }
+
+    /**
+     * Propagates every assignment on the trail not yet propagated.
+     *
+     * @return The index of a clause whose literals are all false, or -1.
+     */
+    private int propagate() {
+        while (propagated < trailSize) {
+            int falseLit = trail[propagated++] ^ 1;
+            int[] list = watchers[falseLit];
+            int count = watcherCounts[falseLit];
+            int kept = 0;
+            int i = 0;
+            while (i < count) {
+                int ci = list[i++];
+                int[] clause = clauses.get(ci);
+                if (clause[0] == falseLit) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLit;
+                }
+                if (valueOf(clause[0]) > 0) {
+                    list[kept++] = ci;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (valueOf(clause[k]) >= 0) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLit;
+                        watch(clause[1], ci);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                list[kept++] = ci;
+                if (valueOf(clause[0]) < 0) {
+                    while (i < count) {
+                        list[kept++] = list[i++];
+                    }
+                    watcherCounts[falseLit] = kept;
+                    propagated = trailSize;
+                    return ci;
+                }
+                propagations++;
+                assign(clause[0], ci);
+            }
+            watcherCounts[falseLit] = kept;
+        }
+        return -1;
+    }
+
+    /**
+     * Derives the first-UIP clause of a conflict, backjumps and asserts it.
+     */
+    private void learn(int conflict) {
+        int[] learnt = new int[decisionLevel + 16];
+        int size = 1;
+        int pending = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        int ci = conflict;
+        do {
+            int[] clause = clauses.get(ci);
+            for (int k = lit < 0 ? 0 : 1; k < clause.length; k++) {
+                int q = clause[k];
+                int v = q >> 1;
+                if (!seen[v] && levels[v] > 0) {
+                    bump(v);
+                    seen[v] = true;
+                    if (levels[v] >= decisionLevel) {
+                        pending++;
+                    } else {
+                        if (size == learnt.length) {
+                            learnt = Arrays.copyOf(learnt, 2 * size);
+                        }
+                        learnt[size++] = q;
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            lit = trail[index--];
+            ci = reasons[lit >> 1];
+            seen[lit >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        learnt[0] = lit ^ 1;
+
+        // Drop literals whose reason lies entirely within the clause.
+        int[] marked = Arrays.copyOf(learnt, size);
+        int kept = 1;
+        for (int k = 1; k < size; k++) {
+            int v = learnt[k] >> 1;
+            int reason = reasons[v];
+            boolean implied = reason >= 0;
+            if (implied) {
+                int[] clause = clauses.get(reason);
+                for (int j = 1; j < clause.length; j++) {
+                    int u = clause[j] >> 1;
+                    if (!seen[u] && levels[u] > 0) {
+                        implied = false;
+                        break;
+                    }
+                }
+            }
+            if (!implied) {
+                learnt[kept++] = learnt[k];
+            }
+        }
+        for (int k = 1; k < marked.length; k++) {
+            seen[marked[k] >> 1] = false;
+        }
+        size = kept;
+
+        int backjump = 0;
+        for (int k = 1; k < size; k++) {
+            int level = levels[learnt[k] >> 1];
+            if (level > backjump) {
+                backjump = level;
+                int swap = learnt[1];
+                learnt[1] = learnt[k];
+                learnt[k] = swap;
+            }
+        }
+        cancelUntil(backjump);
+        if (size == 1) {
+            assign(learnt[0], -1);
+        } else {
+            assign(learnt[0], attach(Arrays.copyOf(learnt, size)));
+        }
+    }
+
+    /**
+     * Stores a clause and watches its first two literals.
+     *
+     * @return The clause index.
+     */
+    private int attach(int[] clause) {
+        int ci = clauses.size();
+        clauses.add(clause);
+        watch(clause[0], ci);
+        watch(clause[1], ci);
+        return ci;
+    }
+
+    private void watch(int lit, int ci) {
+        int[] list = watchers[lit];
+        if (watcherCounts[lit] == list.length) {
+            list = Arrays.copyOf(list, 2 * list.length);
+            watchers[lit] = list;
+        }
+        list[watcherCounts[lit]++] = ci;
+    }
+
+    private void assign(int lit, int reason) {
+        int v = lit >> 1;
+        values[v] = (byte) ((lit & 1) == 0 ? 1 : -1);
+        levels[v] = decisionLevel;
+        reasons[v] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    /**
+     * Undoes every assignment above a decision level, saving each variable's
+     * value as its next phase.
+     */
+    private void cancelUntil(int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+            int v = trail[i] >> 1;
+            phases[v] = values[v] > 0;
+            values[v] = 0;
+            reasons[v] = -1;
+            if (heapIndex[v] < 0) {
+                heapInsert(v);
+            }
+        }
+        trailSize = trailLimits[level];
+        propagated = trailSize;
+        decisionLevel = level;
+    }
+
+    /**
+     * Takes the most active unassigned variable off the heap.
+     *
+     * @return The variable index, or -1 if every variable is assigned.
+     */
+    private int nextBranchVariable() {
+        while (heapSize > 0) {
+            int v = heapRemoveTop();
+            if (values[v] == 0) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private void bump(int v) {
+        activities[v] += activityIncrement;
+        if (activities[v] > 1e100) {
+            for (int u = 0; u < variableCount; u++) {
+                activities[u] *= 1e-100;
+            }
+            activityIncrement *= 1e-100;
+        }
+        if (heapIndex[v] >= 0) {
+            siftUp(heapIndex[v]);
+        }
+    }
+
+    private int valueOf(int lit) {
+        int value = values[lit >> 1];
+        return (lit & 1) == 0 ? value : -value;
+    }
+
+    private static int toInternal(int literal) {
+        return literal > 0 ? 2 * (literal - 1) : 2 * (-literal - 1) + 1;
+    }
+
+    /**
+     * The Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ...
+     */
+    static long luby(int i) {
+        int size = 1;
+        int sequence = 0;
+        while (size < i + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            sequence--;
+            i = i % size;
+        }
+        return 1L << sequence;
+    }
+
+    private void heapInsert(int v) {
+        heapIndex[v] = heapSize;
+        heap[heapSize++] = v;
+        siftUp(heapIndex[v]);
+    }
+
+    private int heapRemoveTop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activities[heap[parent]] >= activities[v]) break;
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && activities[heap[child + 1]] > activities[heap[child]]) {
+                child++;
+            }
+            if (activities[heap[child]] <= activities[v]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
@@ -0,0 +1,410 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates an acyclic circuit on 64 input combinations at once.
+ * <p>
+ * Every net (component output pin) holds a {@code long} whose bit {@code i} is
+ * the value of that net for the {@code i}-th input vector, so And, Or and Not
+ * become single bitwise instructions. The evaluator is compiled once from the
+ * circuit's levelized order and is immutable afterwards: all mutable values live
+ * in a state array supplied by the caller, which lets several threads share one
+ * evaluator as long as each uses its own state.
+ * </p>
+ * <p>
+ * Sub-circuit components are compiled recursively; their nets are laid out in a
+ * region of the parent's state array.
+ * </p>
+ */
+public class BitParallelEvaluator {
+
+    private static final int OP_NOP = 0;
+    private static final int OP_AND = 1;
+    private static final int OP_OR = 2;
+    private static final int OP_NOT = 3;
+    private static final int OP_SUB = 4;
+
+    /**
+     * Net 0 is never driven and always reads as all-zero; unconnected input pins refer to it.
+     */
+    private static final int ZERO_NET = 0;
+
+    /**
+     * The bit patterns of the six lowest row-index bits across a 64-row word.
+     */
+    private static final long[] LOW_PATTERNS = {
+        0xAAAAAAAAAAAAAAAAL,
+        0xCCCCCCCCCCCCCCCCL,
+        0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L,
+        0xFFFF0000FFFF0000L,
+        0xFFFFFFFF00000000L,
+    };
+
+    /**
+     * The opcode of every step, in evaluation order. Switches and bulbs are
+     * no-ops: switch nets are written before the run and bulb nets read after it.
+     */
+    private final int[] ops;
+
+    /**
+     * The first operand net of every step.
+     */
+    private final int[] firstArgs;
+
+    /**
+     * The second operand net of every step (And/Or only).
+     */
+    private final int[] secondArgs;
+
+    /**
+     * The net written by every step. For sub-circuit steps this is the base
+     * offset of the sub-circuit's state region.
+     */
+    private final int[] targets;
+
+    /**
+     * The compiled inner circuit of every sub-circuit step, {@code null} elsewhere.
+     */
+    private final BitParallelEvaluator[] subEvaluators;
+
+    /**
+     * For every sub-circuit step, the nets feeding its input pins.
+     */
+    private final int[][] subInputs;
+
+    /**
+     * For every sub-circuit step, the nets receiving its output pins.
+     */
+    private final int[][] subOutputs;
+
+    /**
+     * The nets driven by the circuit's switches, in component list order.
+     */
+    private final int[] inputNets;
+
+    /**
+     * The nets read by the circuit's bulbs, in component list order.
+     */
+    private final int[] outputNets;
+
+    /**
+     * The number of {@code long} slots one evaluation needs, including sub-circuit regions.
+     */
+    private final int stateSize;
+
+
+    /**
+     * Compiles the given acyclic circuit structure.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     * @throws IllegalArgumentException If the circuit has feedback or contains a
+     *                                  component type that cannot be evaluated bitwise.
+     */
+    public BitParallelEvaluator(
+        List<Component> components,
+        List<Connector> connectors
+    ) {
+        if (!supports(components, connectors)) {
+            throw new IllegalArgumentException(
+                "Circuit cannot be evaluated bit-parallel"
+            );
+        }
+        LevelizedSchedule schedule = new LevelizedSchedule(
+            components,
+            connectors
+        );
+
+        Map<Component, int[]> outputNetsOf = new IdentityHashMap<>();
+        Map<Component, int[]> inputNetsOf = new IdentityHashMap<>();
+        int nextNet = ZERO_NET + 1;
+        for (Component comp : components) {
+            int[] outs = new int[comp.getOutputs().length];
+            for (int pin = 0; pin < outs.length; pin++) {
+                outs[pin] = nextNet++;
+            }
+            outputNetsOf.put(comp, outs);
+            inputNetsOf.put(comp, new int[comp.getInputs().length]);
+        }
+        for (Connector conn : connectors) {
+            int[] sinkPins = inputNetsOf.get(conn.getSinkComp());
+            int[] sourcePins = outputNetsOf.get(conn.getSourceComp());
+            if (sinkPins != null && sourcePins != null) {
+                sinkPins[conn.getSink()] = sourcePins[conn.getSource()];
+            }
+        }
+
+        List<Component> order = new ArrayList<>();
+        for (int level = 0; level < schedule.getLevelCount(); level++) {
+            order.addAll(schedule.getLevel(level));
+        }
+
+        int steps = order.size();
+        this.ops = new int[steps];
+        this.firstArgs = new int[steps];
+        this.secondArgs = new int[steps];
+        this.targets = new int[steps];
+        this.subEvaluators = new BitParallelEvaluator[steps];
+        this.subInputs = new int[steps][];
+        this.subOutputs = new int[steps][];
+
+        int stateEnd = nextNet;
+        for (int k = 0; k < steps; k++) {
+            Component comp = order.get(k);
+            int[] in = inputNetsOf.get(comp);
+            int[] out = outputNetsOf.get(comp);
+            if (comp instanceof And) {
+                ops[k] = OP_AND;
+                firstArgs[k] = in[0];
+                secondArgs[k] = in[1];
+                targets[k] = out[0];
+            } else if (comp instanceof Or) {
+                ops[k] = OP_OR;
+                firstArgs[k] = in[0];
+                secondArgs[k] = in[1];
+                targets[k] = out[0];
+            } else if (comp instanceof Not) {
+                ops[k] = OP_NOT;
+                firstArgs[k] = in[0];
+                targets[k] = out[0];
+            } else if (comp instanceof SubCircuitComponent) {
+                SubCircuitComponent sub = (SubCircuitComponent) comp;
+                BitParallelEvaluator inner = new BitParallelEvaluator(
+                    sub.getInnerCircuit().getComponents(),
+                    sub.getInnerCircuit().getConnectors()
+                );
+                ops[k] = OP_SUB;
+                subEvaluators[k] = inner;
+                subInputs[k] = in;
+                subOutputs[k] = out;
+                targets[k] = stateEnd;
+                stateEnd += inner.stateSize;
+            } else {
+                ops[k] = OP_NOP;
+            }
+        }
+        this.stateSize = stateEnd;
+
+        List<Integer> switchNets = new ArrayList<>();
+        List<Integer> bulbNets = new ArrayList<>();
+        for (Component comp : components) {
+            if (comp instanceof Switch) {
+                switchNets.add(outputNetsOf.get(comp)[0]);
+            } else if (comp instanceof Bulb) {
+                bulbNets.add(inputNetsOf.get(comp)[0]);
+            }
+        }
+        this.inputNets = switchNets.stream().mapToInt(Integer::intValue).toArray();
+        this.outputNets = bulbNets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Checks whether a circuit can be compiled into a bit-parallel evaluator.
+     * <p>
+     * The circuit must have no feedback and consist only of switches, bulbs,
+     * And, Or and Not gates, and sub-circuits that satisfy the same conditions.
+     * </p>
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     * @return {@code true} if the circuit is supported.
+     */
+    public static boolean supports(
+        List<Component> components,
+        List<Connector> connectors
+    ) {
+        for (Component comp : components) {
+            if (comp instanceof SubCircuitComponent) {
+                SubCircuitComponent sub = (SubCircuitComponent) comp;
+                if (
+                    !supports(
+                        sub.getInnerCircuit().getComponents(),
+                        sub.getInnerCircuit().getConnectors()
+                    )
+                ) {
+                    return false;
+                }
+            } else if (
+                !(comp instanceof Switch ||
+                    comp instanceof Bulb ||
+                    comp instanceof And ||
+                    comp instanceof Or ||
+                    comp instanceof Not)
+            ) {
+                return false;
+            }
+        }
+        return new LevelizedSchedule(components, connectors).isAcyclic();
+    }
+
+    /**
+     * Allocates a state array large enough for one evaluation.
+     *
+     * @return A zeroed state array.
+     */
+    public long[] newState() {
+        return new long[stateSize];
+    }
+
+    /**
+     * Evaluates 64 input vectors at once.
+     *
+     * @param inputs  One word per switch; bit {@code i} is the switch value in vector {@code i}.
+     * @param outputs One word per bulb, filled with the bulb values for each vector.
+     * @param state   Scratch state from {@link #newState()}, owned by the calling thread.
+     */
+    public void evaluate(long[] inputs, long[] outputs, long[] state) {
+        for (int i = 0; i < inputNets.length; i++) {
+            state[inputNets[i]] = inputs[i];
+        }
+        run(state, 0);
+        for (int i = 0; i < outputNets.length; i++) {
+            outputs[i] = state[outputNets[i]];
+        }
+    }
+
+    /**
+     * Executes every step against the state region starting at {@code base}.
+     *
+     * @param state The shared state array.
+     * @param base  The offset of this evaluator's region.
+     */
+    private void run(long[] state, int base) {
+        for (int k = 0; k < ops.length; k++) {
+            switch (ops[k]) {
+                case OP_AND -> state[base + targets[k]] =
+                    state[base + firstArgs[k]] & state[base + secondArgs[k]];
+                case OP_OR -> state[base + targets[k]] =
+                    state[base + firstArgs[k]] | state[base + secondArgs[k]];
+                case OP_NOT -> state[base + targets[k]] =
+                    ~state[base + firstArgs[k]];
+                case OP_SUB -> {
+                    BitParallelEvaluator inner = subEvaluators[k];
+                    int innerBase = base + targets[k];
+                    int[] in = subInputs[k];
+                    for (int i = 0; i < in.length; i++) {
+                        state[innerBase + inner.inputNets[i]] = state[base +
+                        in[i]];
+                    }
+                    inner.run(state, innerBase);
+                    int[] out = subOutputs[k];
+                    for (int i = 0; i < out.length; i++) {
+                        state[base + out[i]] = state[innerBase +
+                        inner.outputNets[i]];
+                    }
+                }
+                default -> {}
+            }
+        }
+    }
+
+    /**
+     * Computes the output columns of the truth table for a range of 64-row words.
+     * <p>
+     * Rows are numbered as in {@link com.logisim.domain.Circuit#analyze()}: the
+     * first switch is the most significant bit of the row index. Bit {@code b}
+     * of word {@code w} in a column holds row {@code w * 64 + b}.
+     * </p>
+     *
+     * @param columns   One array per bulb, receiving the packed output words.
+     * @param fromWord  The first word to compute (inclusive).
+     * @param toWord    The last word to compute (exclusive).
+     * @param state     Scratch state from {@link #newState()}, owned by the calling thread.
+     */
+    public void evaluateWords(
+        long[][] columns,
+        int fromWord,
+        int toWord,
+        long[] state
+    ) {
+        int nInputs = inputNets.length;
+        long validMask = nInputs >= 6 ? -1L : (1L << (1 << nInputs)) - 1;
+        long[] inputs = new long[nInputs];
+        long[] outputs = new long[outputNets.length];
+        for (int w = fromWord; w < toWord; w++) {
+            for (int col = 0; col < nInputs; col++) {
+                inputs[col] = inputPattern(nInputs - 1 - col, w);
+            }
+            evaluate(inputs, outputs, state);
+            for (int b = 0; b < outputs.length; b++) {
+                columns[b][w] = outputs[b] & validMask;
+            }
+        }
+    }
+
+    /**
+     * Computes the output columns of a {@link TruthTable} for a range of
+     * 64-row words, in the same row order as
+     * {@link #evaluateWords(long[][], int, int, long[])}.
+     *
+     * @param table    The table receiving the words, one column per bulb.
+     * @param fromWord The first word to compute (inclusive).
+     * @param toWord   The last word to compute (exclusive).
+     * @param state    Scratch state from {@link #newState()}, owned by the calling thread.
+     */
+    public void evaluateWords(
+        TruthTable table,
+        int fromWord,
+        int toWord,
+        long[] state
+    ) {
+        int nInputs = inputNets.length;
+        long validMask = nInputs >= 6 ? -1L : (1L << (1 << nInputs)) - 1;
+        long[] inputs = new long[nInputs];
+        long[] outputs = new long[outputNets.length];
+        for (int w = fromWord; w < toWord; w++) {
+            for (int col = 0; col < nInputs; col++) {
+                inputs[col] = inputPattern(nInputs - 1 - col, w);
+            }
+            evaluate(inputs, outputs, state);
+            for (int b = 0; b < outputs.length; b++) {
+                table.setWord(b, w, outputs[b] & validMask);
+            }
+        }
+    }
+
+    /**
+     * Computes the value of one row-index bit for the 64 rows of a word.
+     *
+     * @param bit  The row-index bit (0 is least significant).
+     * @param word The word index.
+     * @return A word whose bit {@code i} is bit {@code bit} of row {@code word * 64 + i}.
+     */
+    public static long inputPattern(int bit, long word) {
+        if (bit < 6) {
+            return LOW_PATTERNS[bit];
+        }
+        return ((word >>> (bit - 6)) & 1L) != 0 ? -1L : 0L;
+    }
+
+    /**
+     * Retrieves the number of switches (truth table inputs).
+     *
+     * @return The input count.
+     */
+    public int getInputCount() {
+        return inputNets.length;
+    }
+
+    /**
+     * Retrieves the number of bulbs (truth table outputs).
+     *
+     * @return The output count.
+     */
+    public int getOutputCount() {
+        return outputNets.length;
+    }
+}
@@ -0,0 +1,100 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Switch;
+
+/**
+ * Simulates a {@link Netlist} through a generated {@link NetlistKernel}.
+ * <p>
+ * Every net is a {@code long} that is either {@code 0} or {@code -1}, so a run
+ * sets the switch nets, calls the kernel once and reads the results. The same
+ * kernel can be driven with 64 independent input vectors per call through
+ * {@link #evaluate(long[])}.
+ * </p>
+ */
+public class CompiledSimulator {
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * The generated evaluator for {@link #netlist}.
+     */
+    private final NetlistKernel kernel;
+
+    /**
+     * One word per net, used by {@link #run()}.
+     */
+    private final long[] nets;
+
+    /**
+     * Generates the kernel for a netlist.
+     *
+     * @param netlist The compiled circuit; must be {@link KernelGenerator#supports(Netlist) supported}.
+     * @throws IllegalArgumentException If the netlist has feedback or opaque gates.
+     */
+    public CompiledSimulator(Netlist netlist) {
+        this.netlist = netlist;
+        this.kernel = KernelGenerator.generate(netlist);
+        this.nets = new long[netlist.getNetCount()];
+    }
+
+    /**
+     * Reads the switch states and evaluates the circuit once.
+     *
+     * @return A converged {@link SimulationResult} of one pass.
+     */
+    public SimulationResult run() {
+        for (int gate : netlist.getSwitchGates()) {
+            Switch sw = (Switch) netlist.getComponent(gate);
+            nets[netlist.getOutputNet(gate, 0)] = sw.isOn() ? -1L : 0L;
+        }
+        kernel.evaluate(nets);
+        return new SimulationResult(1, true, false);
+    }
+
+    /**
+     * Evaluates the kernel on a caller-supplied net array, for example one
+     * holding 64 input vectors per switch net.
+     *
+     * @param state One word per net, with the switch nets filled in.
+     */
+    public void evaluate(long[] state) {
+        kernel.evaluate(state);
+    }
+
+    /**
+     * Copies the results of the last {@link #run()} into the bulbs.
+     */
+    public void writeBackBulbs() {
+        netlist.writeBackBulbs(net -> nets[net] != 0);
+    }
+
+    /**
+     * Copies the results of the last {@link #run()} into the pins of every
+     * component, including the components inlined from sub-circuits, and
+     * updates the bulbs.
+     */
+    public void writeBack() {
+        netlist.writeBack(net -> nets[net] != 0);
+    }
+
+    /**
+     * Retrieves the netlist this simulator was generated from.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Retrieves the generated kernel.
+     *
+     * @return The {@link NetlistKernel}.
+     */
+    public NetlistKernel getKernel() {
+        return kernel;
+    }
+}
@@ -0,0 +1,86 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The propagation delay of each component type, in simulation time units.
+ * <p>
+ * A delay applies to every instance of the given class and of its subclasses
+ * that have no delay of their own. Types without a configured delay use
+ * {@link #DEFAULT_DELAY}. Switches and bulbs have no delay: a switch drives its
+ * net at the moment it is read and a bulb only observes its net.
+ * </p>
+ */
+public class DelayModel {
+
+    /**
+     * The delay of component types without a configured delay.
+     */
+    public static final int DEFAULT_DELAY = 1;
+
+    /**
+     * The configured delays by component class.
+     */
+    private final Map<Class<? extends Component>, Integer> delays =
+        new HashMap<>();
+
+    /**
+     * Creates a model in which And, Or and Not gates all take one time unit.
+     */
+    public DelayModel() {
+        delays.put(And.class, 1);
+        delays.put(Or.class, 1);
+        delays.put(Not.class, 1);
+    }
+
+    /**
+     * Sets the delay of a component type.
+     *
+     * @param type  The component class.
+     * @param delay The propagation delay in time units.
+     * @throws IllegalArgumentException If the delay is not positive.
+     */
+    public void setDelay(Class<? extends Component> type, int delay) {
+        if (delay < 1) {
+            throw new IllegalArgumentException(
+                "Delay must be at least 1 but was " + delay
+            );
+        }
+        delays.put(type, delay);
+    }
+
+    /**
+     * Retrieves the delay of a component type, falling back to the delay of
+     * its nearest configured superclass.
+     *
+     * @param type The component class.
+     * @return The propagation delay in time units.
+     */
+    public int getDelay(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Integer delay = delays.get(c);
+            if (delay != null) {
+                return delay;
+            }
+        }
+        return DEFAULT_DELAY;
+    }
+
+    /**
+     * Retrieves the largest delay any component type can have.
+     *
+     * @return The maximum configured delay, at least {@link #DEFAULT_DELAY}.
+     */
+    public int getMaxDelay() {
+        int max = DEFAULT_DELAY;
+        for (int delay : delays.values()) {
+            max = Math.max(max, delay);
+        }
+        return max;
+    }
+}
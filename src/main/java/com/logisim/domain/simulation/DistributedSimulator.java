@@ -0,0 +1,402 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Switch;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a partitioned {@link Netlist} with one {@link PartitionWorker}
+ * process per partition, exchanging boundary net values over loopback
+ * sockets.
+ * <p>
+ * This process stays the coordinator: it owns the switches and bulbs and a
+ * copy of every net that crosses a partition boundary. Each step sends every
+ * worker the current values of its imported nets, lets all workers settle
+ * their partitions concurrently, and collects the exported nets. Steps repeat
+ * until one changes no boundary net; for a circuit without feedback this
+ * takes one step more than the largest number of partition crossings on any
+ * path, which is why {@link NetlistPartitioner} minimizes cut nets.
+ * </p>
+ * <p>
+ * Workers are started with the same Java runtime and class path as this
+ * process. Each run passes its workers a random token on their command line,
+ * and connections that do not echo it back are dropped. Only And, Or and Not
+ * gates can be distributed; the netlist must be flattened so that
+ * sub-circuits have been inlined. Close the simulator to stop the workers.
+ * </p>
+ */
+public class DistributedSimulator implements AutoCloseable {
+
+    /**
+     * How long to wait for the workers to connect, in milliseconds.
+     */
+    public static final int CONNECT_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * The worker processes, by partition.
+     */
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * The connections to the workers, by partition.
+     */
+    private final Socket[] sockets;
+    private final DataInputStream[] inputs;
+    private final DataOutputStream[] outputs;
+
+    /**
+     * The imported and exported nets of each partition, as global net indices.
+     */
+    private final int[][] imports;
+    private final int[][] exports;
+
+    /**
+     * The coordinator's copy of the boundary, switch and bulb nets.
+     */
+    private final byte[] nets;
+
+    /**
+     * Partitions the netlist, starts one worker process per partition and
+     * sends each its gates.
+     *
+     * @param netlist      The flattened circuit to simulate.
+     * @param partitioning The assignment of gates to workers.
+     * @throws IllegalArgumentException If the netlist contains gates other than
+     *                                  switches, bulbs, And, Or and Not.
+     * @throws IOException              If a worker cannot be started or
+     *                                  does not connect in time.
+     */
+    public DistributedSimulator(Netlist netlist, Partitioning partitioning)
+        throws IOException {
+        this.netlist = netlist;
+        int k = partitioning.getPartitionCount();
+        int gates = netlist.getGateCount();
+        for (int g = 0; g < gates; g++) {
+            if (netlist.getGateType(g) == Netlist.TYPE_OPAQUE) {
+                throw new IllegalArgumentException(
+                    "Cannot distribute " + netlist.getGateName(g)
+                );
+            }
+        }
+
+        // The owner of each net: a partition, or k for the coordinator
+        // (switches), or -1 for the zero net.
+        int[] driverPart = new int[netlist.getNetCount()];
+        Arrays.fill(driverPart, -1);
+        for (int g = 0; g < gates; g++) {
+            int part = partitioning.getPartition(g);
+            for (int pin = 0; pin < netlist.getOutputCount(g); pin++) {
+                driverPart[netlist.getOutputNet(g, pin)] = part < 0 ? k : part;
+            }
+        }
+        List<List<Integer>> importLists = new ArrayList<>();
+        List<List<Integer>> exportLists = new ArrayList<>();
+        boolean[][] imported = new boolean[k][netlist.getNetCount()];
+        boolean[][] exported = new boolean[k][netlist.getNetCount()];
+        for (int p = 0; p < k; p++) {
+            importLists.add(new ArrayList<>());
+            exportLists.add(new ArrayList<>());
+        }
+        for (int g = 0; g < gates; g++) {
+            int reader = partitioning.getPartition(g);
+            for (int pin = 0; pin < netlist.getFanIn(g); pin++) {
+                int net = netlist.getInputNet(g, pin);
+                int owner = driverPart[net];
+                if (owner < 0 || owner == reader || (reader < 0 && owner == k)) {
+                    continue;
+                }
+                if (reader >= 0 && !imported[reader][net]) {
+                    imported[reader][net] = true;
+                    importLists.get(reader).add(net);
+                }
+                if (owner < k && !exported[owner][net]) {
+                    exported[owner][net] = true;
+                    exportLists.get(owner).add(net);
+                }
+            }
+        }
+        this.imports = new int[k][];
+        this.exports = new int[k][];
+        for (int p = 0; p < k; p++) {
+            imports[p] = toArray(importLists.get(p));
+            exports[p] = toArray(exportLists.get(p));
+        }
+        this.nets = new byte[netlist.getNetCount()];
+        this.sockets = new Socket[k];
+        this.inputs = new DataInputStream[k];
+        this.outputs = new DataOutputStream[k];
+
+        try {
+            connect(k);
+            for (int p = 0; p < k; p++) {
+                sendSetup(p, partitioning.getGates(p));
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Starts the worker processes and accepts their connections.
+     *
+     * @throws IOException If a worker does not connect in time, or a
+     *                     connection carrying this run's token announces a
+     *                     partition that is out of range or already connected.
+     */
+    private void connect(int k) throws IOException {
+        long token = new SecureRandom().nextLong();
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+        try (
+            ServerSocket server = new ServerSocket(
+                0,
+                k,
+                InetAddress.getLoopbackAddress()
+            )
+        ) {
+            String java = System.getProperty("java.home") +
+            File.separator + "bin" + File.separator + "java";
+            for (int p = 0; p < k; p++) {
+                processes.add(
+                    new ProcessBuilder(
+                        java,
+                        "-cp",
+                        System.getProperty("java.class.path"),
+                        PartitionWorker.class.getName(),
+                        Integer.toString(server.getLocalPort()),
+                        Integer.toString(p),
+                        Long.toString(token)
+                    )
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start()
+                );
+            }
+            for (int connected = 0; connected < k;) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new IOException("Partition worker did not connect");
+                }
+                server.setSoTimeout((int) remaining);
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Partition worker did not connect", e);
+                }
+                DataInputStream in;
+                int p;
+                try {
+                    socket.setSoTimeout((int) remaining);
+                    in = new DataInputStream(
+                        new BufferedInputStream(socket.getInputStream())
+                    );
+                    p = in.readInt();
+                    if (in.readLong() != token) {
+                        socket.close();
+                        continue;
+                    }
+                    socket.setSoTimeout(0);
+                } catch (IOException e) {
+                    // Not one of our workers, or one that died mid-hello;
+                    // a missing worker surfaces as a timeout.
+                    socket.close();
+                    continue;
+                }
+                if (p < 0 || p >= k || sockets[p] != null) {
+                    socket.close();
+                    throw new IOException(
+                        "Partition worker announced invalid partition " + p
+                    );
+                }
+                socket.setTcpNoDelay(true);
+                sockets[p] = socket;
+                inputs[p] = in;
+                outputs[p] = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream())
+                );
+                connected++;
+            }
+        }
+    }
+
+    /**
+     * Sends a worker the gates of its partition and its boundary nets.
+     */
+    private void sendSetup(int p, int[] gates) throws IOException {
+        DataOutputStream out = outputs[p];
+        out.writeInt(gates.length);
+        for (int g : gates) {
+            int type = netlist.getGateType(g);
+            out.writeByte(type);
+            out.writeInt(netlist.getInputNet(g, 0));
+            out.writeInt(
+                type == Netlist.TYPE_NOT ? Netlist.ZERO_NET : netlist.getInputNet(g, 1)
+            );
+            out.writeInt(netlist.getOutputNet(g, 0));
+        }
+        out.writeInt(imports[p].length);
+        for (int net : imports[p]) out.writeInt(net);
+        out.writeInt(exports[p].length);
+        for (int net : exports[p]) out.writeInt(net);
+        out.flush();
+    }
+
+    /**
+     * Reads the switch states and steps the workers until no boundary net
+     * changes, or until a step reproduces an earlier boundary state, which
+     * means the circuit is oscillating across partitions. At most one step
+     * per gate plus two is run.
+     *
+     * @return A {@link SimulationResult} whose pass count is the number of
+     *         steps, converged if a step changed no boundary net and every
+     *         worker settled its own gates, and oscillating if the boundary
+     *         repeated or a worker found its own gates oscillating.
+     * @throws IOException If a worker connection fails.
+     */
+    public SimulationResult run() throws IOException {
+        for (int gate : netlist.getSwitchGates()) {
+            Switch sw = (Switch) netlist.getComponent(gate);
+            nets[netlist.getOutputNet(gate, 0)] = (byte) (sw.isOn() ? 1 : 0);
+        }
+        int k = sockets.length;
+        byte[][] importBits = new byte[k][];
+        byte[][] exportBits = new byte[k][];
+        for (int p = 0; p < k; p++) {
+            importBits[p] = new byte[(imports[p].length + 7) >>> 3];
+            exportBits[p] = new byte[(exports[p].length + 7) >>> 3];
+        }
+
+        int budget = netlist.getGateCount() + 2;
+        Set<ByteBuffer> seen = new HashSet<>();
+        seen.add(ByteBuffer.wrap(nets.clone()));
+        for (int step = 1; step <= budget; step++) {
+            for (int p = 0; p < k; p++) {
+                PartitionWorker.pack(nets, imports[p], importBits[p]);
+                outputs[p].writeByte(PartitionWorker.STEP);
+                outputs[p].write(importBits[p]);
+                outputs[p].flush();
+            }
+            boolean changed = false;
+            boolean settled = true;
+            for (int p = 0; p < k; p++) {
+                inputs[p].readFully(exportBits[p]);
+                settled &= inputs[p].readBoolean();
+                for (int i = 0; i < exports[p].length; i++) {
+                    byte value = (byte) ((exportBits[p][i >>> 3] >>> (i & 7)) & 1);
+                    int net = exports[p][i];
+                    if (nets[net] != value) {
+                        nets[net] = value;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                return new SimulationResult(step, settled, !settled);
+            }
+            if (!seen.add(ByteBuffer.wrap(nets.clone()))) {
+                return new SimulationResult(step, false, true);
+            }
+        }
+        return new SimulationResult(budget, false, false);
+    }
+
+    /**
+     * Reads the value of a net known to the coordinator: a switch output, a
+     * bulb input or a net crossing a partition boundary.
+     *
+     * @param net The net index.
+     * @return The value after the last run.
+     */
+    public boolean get(int net) {
+        return nets[net] != 0;
+    }
+
+    /**
+     * Copies the values of the last run into the bulbs.
+     */
+    public void writeBackBulbs() {
+        netlist.writeBackBulbs(this::get);
+    }
+
+    /**
+     * Retrieves the number of nets exchanged with the workers per step.
+     *
+     * @return The total number of imported and exported nets.
+     */
+    public int getBoundaryNetCount() {
+        int count = 0;
+        for (int p = 0; p < sockets.length; p++) {
+            count += imports[p].length + exports[p].length;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the netlist this simulator runs on.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Tells every connected worker to stop, closes the connections and waits
+     * briefly for those processes to exit, killing any that do not. Workers
+     * that never connected are killed at once.
+     */
+    @Override
+    public void close() {
+        for (int p = 0; p < sockets.length; p++) {
+            if (sockets[p] == null) continue;
+            try {
+                outputs[p].writeByte(PartitionWorker.STOP);
+                outputs[p].flush();
+                sockets[p].close();
+            } catch (IOException e) {
+                // The worker is gone already.
+            }
+        }
+        for (int p = 0; p < processes.size(); p++) {
+            Process process = processes.get(p);
+            if (sockets[p] == null) {
+                process.destroyForcibly();
+                continue;
+            }
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Component;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event-driven simulation engine for a single circuit.
+ * <p>
+ * On construction the engine builds a fanout index that maps every component to
+ * the connectors leaving it, so propagating a change never scans the full
+ * connector list. {@link #run()} then keeps a work queue of components whose
+ * inputs changed and executes only those, until the queue is empty.
+ * </p>
+ * <p>
+ * The index is a snapshot of the circuit structure. The owning circuit discards
+ * the engine whenever components or connectors are added or removed.
+ * </p>
+ */
+public class EventDrivenSimulator {
+
+    /**
+     * The components of the circuit, indexed by their position in the circuit's list.
+     */
+    private final Component[] components;
+
+    /**
+     * For every component, the connectors whose source is that component.
+     */
+    private final Connector[][] fanout;
+
+    /**
+     * For every connector in {@link #fanout}, the index of its sink component.
+     */
+    private final int[][] fanoutSinks;
+
+    /**
+     * The output values of every component as they were last propagated.
+     */
+    private final boolean[][] lastOutputs;
+
+    /**
+     * Indices of components that take no inputs (switches); these are re-checked on every run.
+     */
+    private final int[] sources;
+
+    /**
+     * Circular work queue of component indices waiting to be executed.
+     */
+    private final int[] queue;
+
+    /**
+     * Marks the components currently held in {@link #queue}.
+     */
+    private final boolean[] queued;
+
+    /**
+     * The maximum number of component executions a single run may perform
+     * before it is considered to be oscillating.
+     */
+    private final long evaluationBudget;
+
+    /**
+     * Whether every component has been executed and the last run left no
+     * change unprocessed.
+     */
+    private boolean primed;
+
+    /**
+     * The number of component executions performed by the last call to {@link #run()}.
+     */
+    private long lastEvaluations;
+
+    /**
+     * Builds the fanout index for the given circuit structure.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     */
+    public EventDrivenSimulator(
+        List<Component> components,
+        List<Connector> connectors
+    ) {
+        int n = components.size();
+        this.components = components.toArray(new Component[0]);
+
+        Map<Component, Integer> indexOf = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexOf.put(this.components[i], i);
+        }
+
+        List<List<Connector>> outgoing = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            outgoing.add(new ArrayList<>());
+        }
+        for (Connector conn : connectors) {
+            Integer src = indexOf.get(conn.getSourceComp());
+            if (src != null && indexOf.containsKey(conn.getSinkComp())) {
+                outgoing.get(src).add(conn);
+            }
+        }
+
+        this.fanout = new Connector[n][];
+        this.fanoutSinks = new int[n][];
+        this.lastOutputs = new boolean[n][];
+        List<Integer> sourceList = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            fanout[i] = outgoing.get(i).toArray(new Connector[0]);
+            fanoutSinks[i] = new int[fanout[i].length];
+            for (int j = 0; j < fanout[i].length; j++) {
+                fanoutSinks[i][j] = indexOf.get(fanout[i][j].getSinkComp());
+            }
+            lastOutputs[i] = new boolean[this.components[i].getOutputs().length];
+            if (this.components[i].getInputs().length == 0) {
+                sourceList.add(i);
+            }
+        }
+        this.sources = sourceList.stream().mapToInt(Integer::intValue).toArray();
+
+        this.queue = new int[Math.max(1, n)];
+        this.queued = new boolean[n];
+        this.evaluationBudget = (long) Math.max(1, n) * (n + 2);
+    }
+
+    /**
+     * Propagates pending changes through the circuit until no component has a
+     * changed input left to process.
+     * <p>
+     * The first run executes every component. Later runs start from the
+     * components without inputs (switches) and only follow outputs that differ
+     * from the values propagated previously. A run that exhausts its budget
+     * leaves changes unprocessed, so the next run executes every component
+     * again.
+     * </p>
+     *
+     * @return {@code true} if the circuit settled, {@code false} if the
+     *         evaluation budget ran out first (the circuit is oscillating).
+     */
+    public boolean run() {
+        return run(null);
+    }
+
+    /**
+     * Propagates pending changes as {@link #run()} does, and counts the
+     * executions and wires.
+     *
+     * @param stats The counters to record into, or {@code null} to record nothing.
+     * @return {@code true} if the circuit settled.
+     */
+    public boolean run(SimulationStats stats) {
+        int n = components.length;
+        int head = 0;
+        int size = 0;
+        boolean[] visited = primed ? null : new boolean[n];
+
+        if (!primed) {
+            for (int i = 0; i < n; i++) {
+                queue[size++] = i;
+                queued[i] = true;
+            }
+        } else {
+            for (int src : sources) {
+                queue[size++] = src;
+                queued[src] = true;
+            }
+        }
+
+        long evaluations = 0;
+        while (size > 0) {
+            if (evaluations >= evaluationBudget) {
+                while (size > 0) {
+                    queued[queue[head]] = false;
+                    head = (head + 1) % n;
+                    size--;
+                }
+                lastEvaluations = evaluations;
+                primed = false;
+                return false;
+            }
+            int idx = queue[head];
+            head = (head + 1) % n;
+            size--;
+            queued[idx] = false;
+
+            Component comp = components[idx];
+            if (stats == null) {
+                comp.execute();
+            } else {
+                stats.execute(comp);
+            }
+            evaluations++;
+
+            boolean[] outputs = comp.getOutputs();
+            boolean[] previous = lastOutputs[idx];
+            boolean changed = visited != null && !visited[idx];
+            if (visited != null) {
+                visited[idx] = true;
+            }
+            for (int pin = 0; pin < outputs.length; pin++) {
+                if (outputs[pin] != previous[pin]) {
+                    previous[pin] = outputs[pin];
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                continue;
+            }
+
+            Connector[] wires = fanout[idx];
+            int[] sinks = fanoutSinks[idx];
+            if (stats != null) {
+                stats.countPropagations(wires.length);
+            }
+            for (int w = 0; w < wires.length; w++) {
+                Connector wire = wires[w];
+                boolean[] sinkInputs = wire.getSinkComp().getInputs();
+                boolean before = sinkInputs[wire.getSink()];
+                wire.process();
+                int sink = sinks[w];
+                if (before != sinkInputs[wire.getSink()] && !queued[sink]) {
+                    queue[(head + size) % n] = sink;
+                    queued[sink] = true;
+                    size++;
+                }
+            }
+        }
+
+        lastEvaluations = evaluations;
+        primed = true;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of component executions performed by the last run.
+     *
+     * @return The evaluation count of the most recent {@link #run()}.
+     */
+    public long getLastEvaluations() {
+        return lastEvaluations;
+    }
+}
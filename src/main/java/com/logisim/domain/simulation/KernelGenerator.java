@@ -0,0 +1,456 @@
+package com.logisim.domain.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a {@link NetlistKernel} class for a {@link Netlist} at runtime.
+ * <p>
+ * The generated class contains straight-line bytecode for the levelized gates:
+ * for an And gate {@code nets[t] = nets[a] & nets[b]}, for an Or gate
+ * {@code nets[t] = nets[a] | nets[b]} and for a Not gate
+ * {@code nets[t] = nets[a] ^ -1L}. There are no branches, no virtual calls and
+ * no per-gate objects, so the JIT can compile each method in full.
+ * </p>
+ * <p>
+ * The gates are split into static methods of at most {@link #GATES_PER_METHOD}
+ * gates, which keeps every method below HotSpot's limit for compiling large
+ * methods. The class is defined with
+ * {@link MethodHandles.Lookup#defineHiddenClass(byte[], boolean, MethodHandles.Lookup.ClassOption...)},
+ * so it can be unloaded together with the kernel once the circuit changes.
+ * </p>
+ */
+public final class KernelGenerator {
+
+    /**
+     * The largest number of gates emitted into one method. At no more than 40
+     * bytes of bytecode per gate this stays below the 8000-byte limit above
+     * which HotSpot refuses to JIT-compile a method.
+     */
+    public static final int GATES_PER_METHOD = 150;
+
+    /**
+     * The largest number of calls emitted into one dispatch method.
+     */
+    private static final int CALLS_PER_METHOD = 1000;
+
+    private static final String CLASS_NAME =
+        "com/logisim/domain/simulation/GeneratedKernel";
+    private static final String KERNEL_INTERFACE =
+        "com/logisim/domain/simulation/NetlistKernel";
+    private static final String STEP_DESCRIPTOR = "([J)V";
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int LALOAD = 0x2f;
+    private static final int LASTORE = 0x50;
+    private static final int LAND = 0x7f;
+    private static final int LOR = 0x81;
+    private static final int LXOR = 0x83;
+    private static final int ISHL = 0x78;
+    private static final int IOR = 0x80;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    private KernelGenerator() {}
+
+    /**
+     * Checks whether a netlist can be turned into a kernel.
+     *
+     * @param netlist The compiled circuit.
+     * @return {@code true} if the netlist is acyclic and contains only switches,
+     *         bulbs and And/Or/Not gates.
+     */
+    public static boolean supports(Netlist netlist) {
+        if (!netlist.isAcyclic()) {
+            return false;
+        }
+        for (int gate = 0; gate < netlist.getGateCount(); gate++) {
+            if (netlist.getGateType(gate) == Netlist.TYPE_OPAQUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates, defines and instantiates a kernel for the given netlist.
+     *
+     * @param netlist The compiled circuit.
+     * @return A new {@link NetlistKernel} instance.
+     * @throws IllegalArgumentException If the netlist is not {@link #supports(Netlist) supported}.
+     * @throws IllegalStateException    If the generated class cannot be defined.
+     */
+    public static NetlistKernel generate(Netlist netlist) {
+        if (!supports(netlist)) {
+            throw new IllegalArgumentException(
+                "Only acyclic netlists of primitive gates can be compiled"
+            );
+        }
+        byte[] bytes = generateClassFile(netlist);
+        try {
+            MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClass(
+                bytes,
+                true
+            );
+            return (NetlistKernel) hidden
+                .findConstructor(
+                    hidden.lookupClass(),
+                    MethodType.methodType(void.class)
+                )
+                .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException(
+                "Failed to define generated kernel: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    /**
+     * Produces the class file bytes of a kernel.
+     *
+     * @param netlist The compiled circuit.
+     * @return The class file.
+     */
+    static byte[] generateClassFile(Netlist netlist) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int kernelInterface = pool.classRef(KERNEL_INTERFACE);
+        int codeAttribute = pool.utf8("Code");
+        int minusOne = pool.longConstant(-1L);
+
+        List<MethodBody> methods = new ArrayList<>();
+
+        Code init = new Code();
+        init.op(ALOAD_0);
+        init.op(INVOKESPECIAL);
+        init.u2(pool.methodRef("java/lang/Object", "<init>", "()V"));
+        init.op(RETURN);
+        methods.add(new MethodBody(ACC_PUBLIC, "<init>", "()V", 1, 1, init));
+
+        int[] order = netlist.getOrder();
+        List<String> steps = new ArrayList<>();
+        Code step = null;
+        int gatesInStep = 0;
+        for (int gate : order) {
+            int type = netlist.getGateType(gate);
+            if (
+                type != Netlist.TYPE_AND &&
+                type != Netlist.TYPE_OR &&
+                type != Netlist.TYPE_NOT
+            ) {
+                continue;
+            }
+            if (step == null || gatesInStep == GATES_PER_METHOD) {
+                if (step != null) {
+                    step.op(RETURN);
+                }
+                step = new Code();
+                gatesInStep = 0;
+                String name = "gates" + steps.size();
+                steps.add(name);
+                methods.add(
+                    new MethodBody(
+                        ACC_PRIVATE | ACC_STATIC,
+                        name,
+                        STEP_DESCRIPTOR,
+                        8,
+                        1,
+                        step
+                    )
+                );
+            }
+            step.op(ALOAD_0);
+            step.pushInt(netlist.getOutputNet(gate, 0));
+            step.op(ALOAD_0);
+            step.pushInt(netlist.getInputNet(gate, 0));
+            step.op(LALOAD);
+            if (type == Netlist.TYPE_NOT) {
+                step.op(LDC2_W);
+                step.u2(minusOne);
+                step.op(LXOR);
+            } else {
+                step.op(ALOAD_0);
+                step.pushInt(netlist.getInputNet(gate, 1));
+                step.op(LALOAD);
+                step.op(type == Netlist.TYPE_AND ? LAND : LOR);
+            }
+            step.op(LASTORE);
+            gatesInStep++;
+        }
+        if (step != null) {
+            step.op(RETURN);
+        }
+
+        while (steps.size() > CALLS_PER_METHOD) {
+            List<String> groups = new ArrayList<>();
+            for (int i = 0; i < steps.size(); i += CALLS_PER_METHOD) {
+                String name = "group" + methods.size();
+                Code group = new Code();
+                for (String callee : steps.subList(
+                    i,
+                    Math.min(i + CALLS_PER_METHOD, steps.size())
+                )) {
+                    group.op(ALOAD_0);
+                    group.op(INVOKESTATIC);
+                    group.u2(pool.methodRef(CLASS_NAME, callee, STEP_DESCRIPTOR));
+                }
+                group.op(RETURN);
+                methods.add(
+                    new MethodBody(
+                        ACC_PRIVATE | ACC_STATIC,
+                        name,
+                        STEP_DESCRIPTOR,
+                        1,
+                        1,
+                        group
+                    )
+                );
+                groups.add(name);
+            }
+            steps = groups;
+        }
+
+        Code evaluate = new Code();
+        for (String callee : steps) {
+            evaluate.op(ALOAD_1);
+            evaluate.op(INVOKESTATIC);
+            evaluate.u2(pool.methodRef(CLASS_NAME, callee, STEP_DESCRIPTOR));
+        }
+        evaluate.op(RETURN);
+        methods.add(
+            new MethodBody(
+                ACC_PUBLIC,
+                "evaluate",
+                STEP_DESCRIPTOR,
+                1,
+                2,
+                evaluate
+            )
+        );
+
+        for (MethodBody method : methods) {
+            method.nameIndex = pool.utf8(method.name);
+            method.descriptorIndex = pool.utf8(method.descriptor);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(61);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(kernelInterface);
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (MethodBody method : methods) {
+                byte[] code = method.code.toByteArray();
+                out.writeShort(method.access);
+                out.writeShort(method.nameIndex);
+                out.writeShort(method.descriptorIndex);
+                out.writeShort(1);
+                out.writeShort(codeAttribute);
+                out.writeInt(12 + code.length);
+                out.writeShort(method.maxStack);
+                out.writeShort(method.maxLocals);
+                out.writeInt(code.length);
+                out.write(code);
+                out.writeShort(0);
+                out.writeShort(0);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A method waiting to be written into the class file.
+     */
+    private static final class MethodBody {
+
+        final int access;
+        final String name;
+        final String descriptor;
+        final int maxStack;
+        final int maxLocals;
+        final Code code;
+        int nameIndex;
+        int descriptorIndex;
+
+        MethodBody(
+            int access,
+            String name,
+            String descriptor,
+            int maxStack,
+            int maxLocals,
+            Code code
+        ) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+            this.code = code;
+        }
+    }
+
+    /**
+     * A growable buffer of bytecode.
+     */
+    private static final class Code extends ByteArrayOutputStream {
+
+        void op(int opcode) {
+            write(opcode);
+        }
+
+        void u2(int value) {
+            write(value >>> 8);
+            write(value);
+        }
+
+        /**
+         * Pushes a non-negative int constant with the shortest instruction.
+         * Values above {@link Short#MAX_VALUE} are assembled from two 15-bit
+         * halves rather than loaded from the constant pool, which would
+         * overflow for netlists with more than about 65,000 nets.
+         */
+        void pushInt(int value) {
+            if (value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                op(BIPUSH);
+                write(value);
+            } else if (value <= Short.MAX_VALUE) {
+                op(SIPUSH);
+                u2(value);
+            } else {
+                op(SIPUSH);
+                u2(value >>> 15);
+                op(BIPUSH);
+                write(15);
+                op(ISHL);
+                op(SIPUSH);
+                u2(value & Short.MAX_VALUE);
+                op(IOR);
+            }
+        }
+    }
+
+    /**
+     * The constant pool of the generated class, with de-duplicated entries.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int LONG = 5;
+        private static final int CLASS = 7;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(entries);
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int nextIndex = 1;
+
+        int utf8(String value) {
+            Integer existing = indices.get("U" + value);
+            if (existing != null) return existing;
+            try {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return register("U" + value, 1);
+        }
+
+        int classRef(String internalName) {
+            Integer existing = indices.get("C" + internalName);
+            if (existing != null) return existing;
+            int name = utf8(internalName);
+            writeTagged(CLASS, name);
+            return register("C" + internalName, 1);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            String key = "M" + owner + "." + name + descriptor;
+            Integer existing = indices.get(key);
+            if (existing != null) return existing;
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            Integer nameAndType = indices.get("N" + name + descriptor);
+            if (nameAndType == null) {
+                writeTagged(NAME_AND_TYPE, nameIndex, descriptorIndex);
+                nameAndType = register("N" + name + descriptor, 1);
+            }
+            writeTagged(METHOD_REF, ownerIndex, nameAndType);
+            return register(key, 1);
+        }
+
+        int longConstant(long value) {
+            Integer existing = indices.get("J" + value);
+            if (existing != null) return existing;
+            try {
+                out.writeByte(LONG);
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return register("J" + value, 2);
+        }
+
+        private void writeTagged(int tag, int... operands) {
+            try {
+                out.writeByte(tag);
+                for (int operand : operands) {
+                    out.writeShort(operand);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int register(String key, int slots) {
+            int index = nextIndex;
+            indices.put(key, index);
+            nextIndex += slots;
+            if (nextIndex > 0xFFFF) {
+                throw new IllegalStateException("Constant pool overflow");
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(nextIndex);
+            entries.writeTo(target);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Component;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A topologically sorted evaluation schedule for a combinational circuit.
+ * <p>
+ * Components are grouped into levels: level 0 holds the components that no wire
+ * drives, and every other component sits one level after the deepest component
+ * feeding it. Executing the levels in order, and propagating each component's
+ * outgoing wires right after it runs, settles an acyclic circuit in a single pass.
+ * </p>
+ * <p>
+ * If the wires form a cycle the schedule is marked cyclic and must not be used
+ * for single-pass evaluation; the owning circuit falls back to iterative passes.
+ * </p>
+ */
+public class LevelizedSchedule {
+
+    /**
+     * The components in evaluation order. Only complete when the circuit is acyclic.
+     */
+    private final Component[] order;
+
+    /**
+     * For every entry of {@link #order}, the connectors leaving that component.
+     */
+    private final Connector[][] fanout;
+
+    /**
+     * Offsets into {@link #order} where each level starts, with a final entry
+     * equal to the number of scheduled components.
+     */
+    private final int[] levelStarts;
+
+    /**
+     * Whether every component could be scheduled (the circuit has no feedback).
+     */
+    private final boolean acyclic;
+
+
+    /**
+     * Sorts the given circuit structure into levels.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     */
+    public LevelizedSchedule(
+        List<Component> components,
+        List<Connector> connectors
+    ) {
+        int n = components.size();
+
+        Map<Component, Integer> indexOf = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexOf.put(components.get(i), i);
+        }
+
+        List<List<Connector>> outgoing = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            outgoing.add(new ArrayList<>());
+        }
+        int[] pendingInputs = new int[n];
+        for (Connector conn : connectors) {
+            Integer src = indexOf.get(conn.getSourceComp());
+            Integer sink = indexOf.get(conn.getSinkComp());
+            if (src != null && sink != null) {
+                outgoing.get(src).add(conn);
+                pendingInputs[sink]++;
+            }
+        }
+
+        int[] sorted = new int[n];
+        int scheduled = 0;
+        for (int i = 0; i < n; i++) {
+            if (pendingInputs[i] == 0) {
+                sorted[scheduled++] = i;
+            }
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        int levelStart = 0;
+        while (levelStart < scheduled) {
+            starts.add(levelStart);
+            int levelEnd = scheduled;
+            for (int k = levelStart; k < levelEnd; k++) {
+                for (Connector conn : outgoing.get(sorted[k])) {
+                    int sink = indexOf.get(conn.getSinkComp());
+                    if (--pendingInputs[sink] == 0) {
+                        sorted[scheduled++] = sink;
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+        starts.add(scheduled);
+
+        this.acyclic = scheduled == n;
+        this.order = new Component[scheduled];
+        this.fanout = new Connector[scheduled][];
+        for (int k = 0; k < scheduled; k++) {
+            order[k] = components.get(sorted[k]);
+            fanout[k] = outgoing.get(sorted[k]).toArray(new Connector[0]);
+        }
+        this.levelStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Executes every component once in level order, propagating each
+     * component's outgoing wires immediately after it runs.
+     *
+     * @throws IllegalStateException If the circuit contains a cycle.
+     */
+    public void evaluate() {
+        evaluate(null);
+    }
+
+    /**
+     * Executes every component once in level order, as {@link #evaluate()}
+     * does, and counts the executions and wires.
+     *
+     * @param stats The counters to record into, or {@code null} to record nothing.
+     * @throws IllegalStateException If the circuit contains a cycle.
+     */
+    public void evaluate(SimulationStats stats) {
+        if (!acyclic) {
+            throw new IllegalStateException(
+                "Cannot levelize a circuit with feedback"
+            );
+        }
+        for (int k = 0; k < order.length; k++) {
+            if (stats == null) {
+                order[k].execute();
+            } else {
+                stats.execute(order[k]);
+                stats.countPropagations(fanout[k].length);
+            }
+            for (Connector conn : fanout[k]) {
+                conn.process();
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the circuit is free of feedback loops.
+     *
+     * @return {@code true} if every component was scheduled.
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    /**
+     * Retrieves the number of levels in the schedule (the logic depth plus one).
+     *
+     * @return The level count; 0 for an empty circuit.
+     */
+    public int getLevelCount() {
+        return levelStarts.length - 1;
+    }
+
+    /**
+     * Retrieves the components of one level.
+     *
+     * @param level The level index, starting at 0.
+     * @return The components scheduled at that level, in evaluation order.
+     */
+    public List<Component> getLevel(int level) {
+        return List.of(order).subList(levelStarts[level], levelStarts[level + 1]);
+    }
+}
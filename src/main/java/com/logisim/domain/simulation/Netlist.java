@@ -0,0 +1,843 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A compiled, primitive-array form of a circuit.
+ * <p>
+ * Every component becomes a <i>gate</i> identified by an index, and every output
+ * pin becomes a <i>net</i> identified by an index. The structure is stored as
+ * parallel {@code int} arrays rather than objects:
+ * </p>
+ * <ul>
+ *   <li>{@code gateTypes[g]}: one of the {@code TYPE_*} constants.</li>
+ *   <li>{@code fanInStarts[g]} .. {@code fanInStarts[g + 1]}: the slice of
+ *       {@code fanInNets} holding the net read by each input pin of gate {@code g}.</li>
+ *   <li>{@code outputStarts[g]} .. {@code outputStarts[g + 1]}: the slice of
+ *       {@code outputNets} holding the net driven by each output pin.</li>
+ *   <li>{@code order}: the gates in evaluation order, grouped into levels by
+ *       {@code levelStarts} when the circuit has no feedback.</li>
+ * </ul>
+ * <p>
+ * Net 0 is never driven and reads as 0; unconnected input pins refer to it.
+ * The netlist holds no signal values itself; simulators keep them in their own
+ * state arrays, so one netlist can back any number of simulations.
+ * </p>
+ * <p>
+ * A netlist built with {@link #flatten(List, List)} has no gates for
+ * sub-circuits: their gates are inlined, and their internal switches and bulbs
+ * are reduced to nets. Those inlined components are kept as <i>mirrors</i> so
+ * that simulators can still copy results back into them. Gates and mirrors
+ * inlined from a shared {@link SubCircuitDefinition} belong to a template used
+ * by every instance, so results are never copied back into them.
+ * </p>
+ */
+public class Netlist {
+
+    /** A switch: its single output net is set from the switch state. */
+    public static final int TYPE_SWITCH = 0;
+
+    /** A bulb: its single input net is copied to the bulb when results are written back. */
+    public static final int TYPE_BULB = 1;
+
+    /** A two-input AND gate. */
+    public static final int TYPE_AND = 2;
+
+    /** A two-input OR gate. */
+    public static final int TYPE_OR = 3;
+
+    /** A one-input NOT gate. */
+    public static final int TYPE_NOT = 4;
+
+    /**
+     * Any other component (such as a sub-circuit); evaluated by copying its input
+     * nets into the component, calling {@link Component#execute()} and reading its outputs.
+     */
+    public static final int TYPE_OPAQUE = 5;
+
+    /**
+     * The net that is never driven.
+     */
+    public static final int ZERO_NET = 0;
+
+    private final int[] gateTypes;
+    private final int[] fanInStarts;
+    private final int[] fanInNets;
+    private final int[] outputStarts;
+    private final int[] outputNets;
+    private final int[] order;
+    private final int[] levelStarts;
+    private final boolean acyclic;
+    private final int netCount;
+
+    /**
+     * The component each gate was compiled from, used for switch reads,
+     * opaque evaluation and write-back.
+     */
+    private final Component[] gateComponents;
+
+    /**
+     * The gates compiled from switches, in component list order.
+     */
+    private final int[] switchGates;
+
+    /**
+     * The gates compiled from bulbs, in component list order.
+     */
+    private final int[] bulbGates;
+
+
+    /**
+     * The hierarchical name of each gate.
+     */
+    private final String[] gateNames;
+
+    /**
+     * The gate index of each hierarchical gate name.
+     */
+    private final Map<String, Integer> gateIndex;
+
+    /**
+     * The net carrying the value of each named gate, internal switch and
+     * internal bulb.
+     */
+    private final Map<String, Integer> netNames;
+
+    /**
+     * Components that were inlined rather than compiled into gates (internal
+     * switches and bulbs, and sub-circuits), whose pins mirror existing nets.
+     */
+    private final Component[] mirrorComponents;
+
+    /**
+     * The gates and mirrors inlined from a shared {@link SubCircuitDefinition},
+     * whose components must not be written to.
+     */
+    private final BitSet sharedGates;
+    private final BitSet sharedMirrors;
+
+    /**
+     * The nets mirrored by the input pins of each {@link #mirrorComponents} entry.
+     */
+    private final int[][] mirrorInputNets;
+
+    /**
+     * The nets mirrored by the output pins of each {@link #mirrorComponents} entry.
+     */
+    private final int[][] mirrorOutputNets;
+
+    /**
+     * Compiles the given circuit structure. Sub-circuits are kept as
+     * {@link #TYPE_OPAQUE} gates.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     */
+    public Netlist(List<Component> components, List<Connector> connectors) {
+        this(components, connectors, false);
+    }
+
+    /**
+     * Compiles the given circuit structure, inlining the gates of every
+     * sub-circuit (at any depth) into the netlist.
+     * <p>
+     * The switches and bulbs inside a sub-circuit become plain nets: each
+     * internal switch takes the net wired to the matching input pin of the
+     * sub-circuit, and each output pin of the sub-circuit takes the net that
+     * drives the matching internal bulb. Inlined gates keep a hierarchical
+     * name such as {@code "adder#2/and#0"} (see {@link #getGateName(int)}).
+     * </p>
+     *
+     * @param components The components of the top-level circuit.
+     * @param connectors The connectors (wires) of the top-level circuit.
+     * @return The flattened netlist.
+     */
+    public static Netlist flatten(
+        List<Component> components,
+        List<Connector> connectors
+    ) {
+        return new Netlist(components, connectors, true);
+    }
+
+    /**
+     * Compiles the given circuit structure.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     * @param flatten    Whether to inline sub-circuits.
+     */
+    private Netlist(
+        List<Component> components,
+        List<Connector> connectors,
+        boolean flatten
+    ) {
+
+        Assembler assembler = new Assembler(flatten);
+        assembler.addCircuit(components, connectors, "", null, null);
+
+        int n = assembler.gateComponents.size();
+        this.gateComponents = assembler.gateComponents.toArray(new Component[0]);
+        this.gateNames = assembler.gateNames.toArray(new String[0]);
+        this.gateTypes = new int[n];
+        this.fanInStarts = new int[n + 1];
+        this.outputStarts = new int[n + 1];
+        for (int g = 0; g < n; g++) {
+            gateTypes[g] = typeOf(gateComponents[g]);
+            fanInStarts[g + 1] = fanInStarts[g] +
+            assembler.gateInputs.get(g).length;
+            outputStarts[g + 1] = outputStarts[g] +
+            assembler.gateOutputs.get(g).length;
+        }
+        this.fanInNets = new int[fanInStarts[n]];
+        this.outputNets = new int[outputStarts[n]];
+        for (int g = 0; g < n; g++) {
+            int[] inputs = assembler.gateInputs.get(g);
+            for (int pin = 0; pin < inputs.length; pin++) {
+                fanInNets[fanInStarts[g] + pin] = assembler.resolve(inputs[pin]);
+            }
+            int[] outputs = assembler.gateOutputs.get(g);
+            System.arraycopy(outputs, 0, outputNets, outputStarts[g], outputs.length);
+        }
+        this.netCount = assembler.nextNet;
+
+        int mirrors = assembler.mirrorComponents.size();
+        this.mirrorComponents = assembler.mirrorComponents.toArray(
+            new Component[0]
+        );
+        this.sharedGates = assembler.sharedGates;
+        this.sharedMirrors = assembler.sharedMirrors;
+        this.mirrorInputNets = new int[mirrors][];
+        this.mirrorOutputNets = new int[mirrors][];
+        for (int m = 0; m < mirrors; m++) {
+            mirrorInputNets[m] = assembler.resolveAll(
+                assembler.mirrorInputs.get(m)
+            );
+            mirrorOutputNets[m] = assembler.resolveAll(
+                assembler.mirrorOutputs.get(m)
+            );
+        }
+
+        this.netNames = new HashMap<>();
+        this.gateIndex = new HashMap<>();
+        List<Integer> switches = new ArrayList<>();
+        List<Integer> bulbs = new ArrayList<>();
+        for (int g = 0; g < n; g++) {
+            gateIndex.put(gateNames[g], g);
+            if (gateTypes[g] == TYPE_SWITCH) {
+                switches.add(g);
+            } else if (gateTypes[g] == TYPE_BULB) {
+                bulbs.add(g);
+            }
+            if (outputStarts[g + 1] > outputStarts[g]) {
+                netNames.put(gateNames[g], outputNets[outputStarts[g]]);
+            } else if (fanInStarts[g + 1] > fanInStarts[g]) {
+                netNames.put(gateNames[g], fanInNets[fanInStarts[g]]);
+            }
+        }
+        for (int m = 0; m < mirrors; m++) {
+            String name = assembler.mirrorNames.get(m);
+            if (mirrorOutputNets[m].length > 0) {
+                netNames.put(name, mirrorOutputNets[m][0]);
+            } else if (mirrorInputNets[m].length > 0) {
+                netNames.put(name, mirrorInputNets[m][0]);
+            }
+        }
+        this.switchGates = switches.stream().mapToInt(Integer::intValue).toArray();
+        this.bulbGates = bulbs.stream().mapToInt(Integer::intValue).toArray();
+
+        this.order = new int[n];
+        List<Integer> starts = new ArrayList<>();
+        this.acyclic = levelize(starts);
+        if (acyclic) {
+            this.levelStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        } else {
+            for (int g = 0; g < n; g++) {
+                order[g] = g;
+            }
+            this.levelStarts = new int[] { 0, n };
+        }
+    }
+
+    /**
+     * Sorts the gates into levels: level 0 holds the gates that read no driven
+     * net, and every other gate sits one level after the deepest gate driving
+     * one of its inputs.
+     *
+     * @param starts Receives the offset into {@link #order} of each level,
+     *               followed by the number of gates sorted.
+     * @return {@code true} if every gate was sorted, i.e. there is no feedback.
+     */
+    private boolean levelize(List<Integer> starts) {
+        int n = gateTypes.length;
+        int[] driver = new int[netCount];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < n; g++) {
+            for (int pin = outputStarts[g]; pin < outputStarts[g + 1]; pin++) {
+                driver[outputNets[pin]] = g;
+            }
+        }
+
+        int[] pendingInputs = new int[n];
+        int[] fanoutCounts = new int[n + 1];
+        for (int pin = 0; pin < fanInNets.length; pin++) {
+            int d = driver[fanInNets[pin]];
+            if (d >= 0) {
+                fanoutCounts[d + 1]++;
+            }
+        }
+        for (int g = 0; g < n; g++) {
+            fanoutCounts[g + 1] += fanoutCounts[g];
+        }
+        int[] fanout = new int[fanoutCounts[n]];
+        int[] fill = Arrays.copyOf(fanoutCounts, n);
+        for (int g = 0; g < n; g++) {
+            for (int pin = fanInStarts[g]; pin < fanInStarts[g + 1]; pin++) {
+                int d = driver[fanInNets[pin]];
+                if (d >= 0) {
+                    fanout[fill[d]++] = g;
+                    pendingInputs[g]++;
+                }
+            }
+        }
+
+        int scheduled = 0;
+        for (int g = 0; g < n; g++) {
+            if (pendingInputs[g] == 0) {
+                order[scheduled++] = g;
+            }
+        }
+        int levelStart = 0;
+        while (levelStart < scheduled) {
+            starts.add(levelStart);
+            int levelEnd = scheduled;
+            for (int k = levelStart; k < levelEnd; k++) {
+                int g = order[k];
+                for (int e = fanoutCounts[g]; e < fanoutCounts[g + 1]; e++) {
+                    if (--pendingInputs[fanout[e]] == 0) {
+                        order[scheduled++] = fanout[e];
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+        starts.add(scheduled);
+        return scheduled == n;
+    }
+
+    /**
+     * Determines the gate type of a component.
+     *
+     * @param comp The component.
+     * @return One of the {@code TYPE_*} constants.
+     */
+    private static int typeOf(Component comp) {
+        if (comp instanceof Switch) return TYPE_SWITCH;
+        if (comp instanceof Bulb) return TYPE_BULB;
+        if (comp instanceof And) return TYPE_AND;
+        if (comp instanceof Or) return TYPE_OR;
+        if (comp instanceof Not) return TYPE_NOT;
+        return TYPE_OPAQUE;
+    }
+
+    /**
+     * Retrieves the number of gates.
+     *
+     * @return The gate count.
+     */
+    public int getGateCount() {
+        return gateTypes.length;
+    }
+
+    /**
+     * Retrieves the number of nets, including {@link #ZERO_NET}.
+     *
+     * @return The net count.
+     */
+    public int getNetCount() {
+        return netCount;
+    }
+
+    /**
+     * Retrieves the type of a gate.
+     *
+     * @param gate The gate index.
+     * @return One of the {@code TYPE_*} constants.
+     */
+    public int getGateType(int gate) {
+        return gateTypes[gate];
+    }
+
+    /**
+     * Retrieves the number of input pins of a gate.
+     *
+     * @param gate The gate index.
+     * @return The fan-in of the gate.
+     */
+    public int getFanIn(int gate) {
+        return fanInStarts[gate + 1] - fanInStarts[gate];
+    }
+
+    /**
+     * Retrieves the net read by one input pin of a gate.
+     *
+     * @param gate The gate index.
+     * @param pin  The input pin index.
+     * @return The net index, or {@link #ZERO_NET} if the pin is unconnected.
+     */
+    public int getInputNet(int gate, int pin) {
+        return fanInNets[fanInStarts[gate] + pin];
+    }
+
+    /**
+     * Retrieves the number of output pins of a gate.
+     *
+     * @param gate The gate index.
+     * @return The output count of the gate.
+     */
+    public int getOutputCount(int gate) {
+        return outputStarts[gate + 1] - outputStarts[gate];
+    }
+
+    /**
+     * Retrieves the net driven by one output pin of a gate.
+     *
+     * @param gate The gate index.
+     * @param pin  The output pin index.
+     * @return The net index.
+     */
+    public int getOutputNet(int gate, int pin) {
+        return outputNets[outputStarts[gate] + pin];
+    }
+
+    /**
+     * Retrieves the component a gate was compiled from.
+     *
+     * @param gate The gate index.
+     * @return The source {@link Component}.
+     */
+    public Component getComponent(int gate) {
+        return gateComponents[gate];
+    }
+
+    /**
+     * Indicates whether the netlist has no feedback, so that evaluating
+     * {@link #getOrder()} once settles every net.
+     *
+     * @return {@code true} if the gates are in topological order.
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    /**
+     * Retrieves the gates in evaluation order: topological if the netlist is
+     * acyclic, otherwise component list order.
+     *
+     * @return The order array; must not be modified.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Retrieves the offsets into {@link #getOrder()} at which each level starts,
+     * followed by the gate count. A cyclic netlist has a single level.
+     *
+     * @return The level start array; must not be modified.
+     */
+    public int[] getLevelStarts() {
+        return levelStarts;
+    }
+
+    /**
+     * Retrieves the gates compiled from switches, in component list order.
+     *
+     * @return The switch gate indices; must not be modified.
+     */
+    public int[] getSwitchGates() {
+        return switchGates;
+    }
+
+    /**
+     * Retrieves the gates compiled from bulbs, in component list order.
+     *
+     * @return The bulb gate indices; must not be modified.
+     */
+    public int[] getBulbGates() {
+        return bulbGates;
+    }
+
+    /**
+     * Retrieves the hierarchical name of a gate: the component name and index
+     * within its circuit, prefixed by the same for every enclosing
+     * sub-circuit, for example {@code "adder#2/and#0"}.
+     *
+     * @param gate The gate index.
+     * @return The hierarchical name.
+     */
+    public String getGateName(int gate) {
+        return gateNames[gate];
+    }
+
+    /**
+     * Looks up a gate by its hierarchical name.
+     *
+     * @param name The name returned by {@link #getGateName(int)}.
+     * @return The gate index, or -1 if there is no such gate.
+     */
+    public int findGate(String name) {
+        return gateIndex.getOrDefault(name, -1);
+    }
+
+    /**
+     * Looks up the net carrying the value of a named component: the first
+     * output of a gate or internal switch, or the input of a bulb.
+     *
+     * @param name A hierarchical name, as for {@link #getGateName(int)}.
+     * @return The net index, or -1 if there is no such component.
+     */
+    public int findNet(String name) {
+        return netNames.getOrDefault(name, -1);
+    }
+
+    /**
+     * Retrieves the number of inlined components whose pins mirror nets
+     * (see {@link #flatten(List, List)}).
+     *
+     * @return The mirror count; 0 for a netlist that was not flattened.
+     */
+    public int getMirrorCount() {
+        return mirrorComponents.length;
+    }
+
+    /**
+     * Retrieves an inlined component.
+     *
+     * @param mirror The mirror index.
+     * @return The internal switch, internal bulb or sub-circuit.
+     */
+    public Component getMirrorComponent(int mirror) {
+        return mirrorComponents[mirror];
+    }
+
+    /**
+     * Retrieves the nets mirrored by the input pins of an inlined component.
+     *
+     * @param mirror The mirror index.
+     * @return One net per input pin; must not be modified.
+     */
+    public int[] getMirrorInputNets(int mirror) {
+        return mirrorInputNets[mirror];
+    }
+
+    /**
+     * Retrieves the nets mirrored by the output pins of an inlined component.
+     *
+     * @param mirror The mirror index.
+     * @return One net per output pin; must not be modified.
+     */
+    public int[] getMirrorOutputNets(int mirror) {
+        return mirrorOutputNets[mirror];
+    }
+
+    /**
+     * Copies net values into the bulbs, so that {@link Bulb#isOn()} reflects
+     * the simulator the values come from.
+     *
+     * @param value Reads the value of a net in the simulator's state.
+     */
+    public void writeBackBulbs(IntPredicate value) {
+        for (int gate : bulbGates) {
+            Component bulb = gateComponents[gate];
+            bulb.setInput(0, value.test(fanInNets[fanInStarts[gate]]));
+            bulb.execute();
+        }
+    }
+
+    /**
+     * Copies net values back into the input and output pins of every
+     * component, including the components inlined from sub-circuits, and
+     * updates the bulbs. Components of shared sub-circuit definitions are
+     * skipped: they are common to every instance.
+     *
+     * @param value Reads the value of a net in the simulator's state.
+     */
+    public void writeBack(IntPredicate value) {
+        for (int gate = 0; gate < gateComponents.length; gate++) {
+            if (sharedGates.get(gate)) continue;
+            Component comp = gateComponents[gate];
+            boolean[] inputs = comp.getInputs();
+            for (int pin = 0; pin < inputs.length; pin++) {
+                inputs[pin] = value.test(fanInNets[fanInStarts[gate] + pin]);
+            }
+            boolean[] outputs = comp.getOutputs();
+            for (int pin = 0; pin < outputs.length; pin++) {
+                outputs[pin] = value.test(outputNets[outputStarts[gate] + pin]);
+            }
+        }
+        for (int mirror = 0; mirror < mirrorComponents.length; mirror++) {
+            if (sharedMirrors.get(mirror)) continue;
+            Component comp = mirrorComponents[mirror];
+            int[] inputs = mirrorInputNets[mirror];
+            for (int pin = 0; pin < inputs.length; pin++) {
+                comp.getInputs()[pin] = value.test(inputs[pin]);
+            }
+            int[] outputs = mirrorOutputNets[mirror];
+            for (int pin = 0; pin < outputs.length; pin++) {
+                comp.getOutputs()[pin] = value.test(outputs[pin]);
+            }
+            if (comp instanceof Switch) {
+                ((Switch) comp).setState(comp.getOutput(0));
+            } else if (comp instanceof Bulb) {
+                comp.execute();
+            }
+        }
+        writeBackBulbs(value);
+    }
+
+    /**
+     * Retrieves the raw gate type array, indexed by gate.
+     *
+     * @return The type array; must not be modified.
+     */
+    int[] gateTypes() {
+        return gateTypes;
+    }
+
+    /**
+     * Retrieves the raw fan-in offset array (length gate count + 1).
+     *
+     * @return The offset array; must not be modified.
+     */
+    int[] fanInStarts() {
+        return fanInStarts;
+    }
+
+    /**
+     * Retrieves the raw fan-in net array.
+     *
+     * @return The net array; must not be modified.
+     */
+    int[] fanInNets() {
+        return fanInNets;
+    }
+
+    /**
+     * Retrieves the raw output offset array (length gate count + 1).
+     *
+     * @return The offset array; must not be modified.
+     */
+    int[] outputStarts() {
+        return outputStarts;
+    }
+
+    /**
+     * Retrieves the raw output net array.
+     *
+     * @return The net array; must not be modified.
+     */
+    int[] outputNets() {
+        return outputNets;
+    }
+
+    /**
+     * Collects gates and nets while walking a circuit hierarchy.
+     * <p>
+     * Gate outputs receive net numbers as they are created. The pins of an
+     * inlined sub-circuit are <i>ports</i>, encoded as negative references
+     * {@code -(port + 1)}, which are bound to another reference once the wiring
+     * of the circuit holding them is known and resolved at the end.
+     * </p>
+     */
+    private static final class Assembler {
+
+        final boolean flatten;
+        final List<Component> gateComponents = new ArrayList<>();
+        final List<String> gateNames = new ArrayList<>();
+        final List<int[]> gateInputs = new ArrayList<>();
+        final List<int[]> gateOutputs = new ArrayList<>();
+        final List<Component> mirrorComponents = new ArrayList<>();
+        final List<String> mirrorNames = new ArrayList<>();
+        final List<int[]> mirrorInputs = new ArrayList<>();
+        final List<int[]> mirrorOutputs = new ArrayList<>();
+        final List<Integer> portTargets = new ArrayList<>();
+        final BitSet sharedGates = new BitSet();
+        final BitSet sharedMirrors = new BitSet();
+        int nextNet = ZERO_NET + 1;
+
+        /**
+         * Whether the circuit being added belongs to a shared definition.
+         */
+        boolean inShared;
+
+        Assembler(boolean flatten) {
+            this.flatten = flatten;
+        }
+
+        /**
+         * Adds the components of one circuit.
+         *
+         * @param components The components of the circuit.
+         * @param connectors The connectors of the circuit.
+         * @param prefix     The hierarchical name prefix of the circuit.
+         * @param inPorts    For an inlined circuit, the port referenced by each
+         *                   internal switch; {@code null} at the top level.
+         * @param outPorts   For an inlined circuit, the port to bind to the
+         *                   input of each internal bulb; {@code null} at the top level.
+         */
+        void addCircuit(
+            List<Component> components,
+            List<Connector> connectors,
+            String prefix,
+            int[] inPorts,
+            int[] outPorts
+        ) {
+            Map<Component, int[]> outputRefs = new IdentityHashMap<>();
+            Map<Component, int[]> inputSlots = new IdentityHashMap<>();
+            List<int[]> pendingPorts = new ArrayList<>();
+            List<int[]> pendingSlots = new ArrayList<>();
+            int switchIndex = 0;
+            int bulbIndex = 0;
+
+            for (int i = 0; i < components.size(); i++) {
+                Component comp = components.get(i);
+                String name = prefix + comp.getName() + "#" + i;
+                if (inPorts != null && comp instanceof Switch) {
+                    int[] refs = {
+                        switchIndex < inPorts.length
+                            ? inPorts[switchIndex]
+                            : ZERO_NET,
+                    };
+                    switchIndex++;
+                    outputRefs.put(comp, refs);
+                    addMirror(comp, name, new int[0], refs);
+                } else if (inPorts != null && comp instanceof Bulb) {
+                    int[] slot = new int[comp.getInputs().length];
+                    inputSlots.put(comp, slot);
+                    if (bulbIndex < outPorts.length && slot.length > 0) {
+                        pendingPorts.add(new int[] { outPorts[bulbIndex] });
+                        pendingSlots.add(slot);
+                    }
+                    bulbIndex++;
+                    addMirror(comp, name, slot, new int[0]);
+                } else if (flatten && comp instanceof SubCircuitComponent) {
+                    SubCircuitComponent sub = (SubCircuitComponent) comp;
+                    int[] ins = newPorts(sub.getInputs().length);
+                    int[] outs = newPorts(sub.getOutputs().length);
+                    int[] slot = new int[ins.length];
+                    inputSlots.put(comp, slot);
+                    pendingPorts.add(ins);
+                    pendingSlots.add(slot);
+                    outputRefs.put(comp, outs);
+                    addMirror(comp, name, ins, outs);
+                    boolean outerShared = inShared;
+                    inShared |= sub.isShared();
+                    addCircuit(
+                        sub.getInnerCircuit().getComponents(),
+                        sub.getInnerCircuit().getConnectors(),
+                        name + "/",
+                        ins,
+                        outs
+                    );
+                    inShared = outerShared;
+                } else {
+                    int[] slot = new int[comp.getInputs().length];
+                    int[] outs = new int[comp.getOutputs().length];
+                    for (int pin = 0; pin < outs.length; pin++) {
+                        outs[pin] = nextNet++;
+                    }
+                    inputSlots.put(comp, slot);
+                    outputRefs.put(comp, outs);
+                    sharedGates.set(gateComponents.size(), inShared);
+                    gateComponents.add(comp);
+                    gateNames.add(name);
+                    gateInputs.add(slot);
+                    gateOutputs.add(outs);
+                }
+            }
+
+            for (Connector conn : connectors) {
+                int[] src = outputRefs.get(conn.getSourceComp());
+                int[] sink = inputSlots.get(conn.getSinkComp());
+                if (
+                    src != null &&
+                    sink != null &&
+                    conn.getSource() < src.length &&
+                    conn.getSink() < sink.length
+                ) {
+                    sink[conn.getSink()] = src[conn.getSource()];
+                }
+            }
+
+            for (int k = 0; k < pendingPorts.size(); k++) {
+                int[] ports = pendingPorts.get(k);
+                int[] slot = pendingSlots.get(k);
+                for (int pin = 0; pin < ports.length; pin++) {
+                    portTargets.set(-ports[pin] - 1, slot[pin]);
+                }
+            }
+        }
+
+        private int[] newPorts(int count) {
+            int[] ports = new int[count];
+            for (int pin = 0; pin < count; pin++) {
+                portTargets.add(ZERO_NET);
+                ports[pin] = -portTargets.size();
+            }
+            return ports;
+        }
+
+        private void addMirror(
+            Component comp,
+            String name,
+            int[] inputs,
+            int[] outputs
+        ) {
+            sharedMirrors.set(mirrorComponents.size(), inShared);
+            mirrorComponents.add(comp);
+            mirrorNames.add(name);
+            mirrorInputs.add(inputs);
+            mirrorOutputs.add(outputs);
+        }
+
+        /**
+         * Follows port bindings down to a net. A chain of ports that loops
+         * back on itself is driven by no gate and resolves to {@link #ZERO_NET}.
+         *
+         * @param ref A net number or an encoded port.
+         * @return The net number.
+         */
+        int resolve(int ref) {
+            for (int steps = 0; ref < 0; steps++) {
+                if (steps > portTargets.size()) {
+                    return ZERO_NET;
+                }
+                ref = portTargets.get(-ref - 1);
+            }
+            return ref;
+        }
+
+        int[] resolveAll(int[] refs) {
+            int[] nets = new int[refs.length];
+            for (int i = 0; i < refs.length; i++) {
+                nets[i] = resolve(refs[i]);
+            }
+            return nets;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.logisim.domain.simulation;
+
+/**
+ * A generated evaluator for one compiled circuit.
+ * <p>
+ * Implementations are produced by {@link KernelGenerator} and contain one
+ * straight-line sequence of array loads, bitwise operations and stores per gate.
+ * Each net is a {@code long}, so the same kernel evaluates a single input vector
+ * (with nets holding {@code 0} or {@code -1}) or 64 vectors at once (one per bit).
+ * </p>
+ */
+public interface NetlistKernel {
+    /**
+     * Evaluates every gate once, in topological order.
+     *
+     * @param nets One word per net of the netlist; switch nets must be filled in
+     *             by the caller, all other nets are overwritten.
+     */
+    void evaluate(long[] nets);
+}
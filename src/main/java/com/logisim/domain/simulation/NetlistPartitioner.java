@@ -0,0 +1,226 @@
+package com.logisim.domain.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Splits the logic gates of a {@link Netlist} into {@code k} balanced
+ * partitions while keeping the number of cut nets low.
+ * <p>
+ * A net is cut when the logic gates driving or reading it lie in more than
+ * one partition; every cut net costs one value exchange per simulation step.
+ * Partitioning runs in two phases:
+ * </p>
+ * <ol>
+ *   <li>The gates are ordered by a breadth-first walk over shared nets, so
+ *       that connected gates end up close together, and the order is cut into
+ *       {@code k} runs of equal length.</li>
+ *   <li>Refinement passes in the style of Fiduccia and Mattheyses then move
+ *       single gates to the neighbouring partition that removes the most cut
+ *       nets, as long as the move keeps every partition within
+ *       {@link #IMBALANCE} of the average size. Passes repeat until one moves
+ *       nothing or {@link #MAX_PASSES} is reached.</li>
+ * </ol>
+ * <p>
+ * Moves are evaluated from a per-net, per-partition pin count, so the gain of
+ * a move costs one lookup per net of the gate. Switches and bulbs are not
+ * partitioned.
+ * </p>
+ */
+public final class NetlistPartitioner {
+
+    /**
+     * The largest allowed deviation of a partition from the average size, as a
+     * fraction of the average.
+     */
+    public static final double IMBALANCE = 0.1;
+
+    /**
+     * The maximum number of refinement passes.
+     */
+    public static final int MAX_PASSES = 16;
+
+    private NetlistPartitioner() {}
+
+    /**
+     * Partitions the logic gates of a netlist.
+     *
+     * @param netlist The compiled circuit.
+     * @param k       The number of partitions.
+     * @return The {@link Partitioning}.
+     * @throws IllegalArgumentException If {@code k} is less than 1 or greater
+     *                                  than the number of logic gates.
+     */
+    public static Partitioning partition(Netlist netlist, int k) {
+        int gates = netlist.getGateCount();
+        boolean[] logic = new boolean[gates];
+        int logicCount = 0;
+        for (int g = 0; g < gates; g++) {
+            int type = netlist.getGateType(g);
+            logic[g] = type != Netlist.TYPE_SWITCH && type != Netlist.TYPE_BULB;
+            if (logic[g]) logicCount++;
+        }
+        if (k < 1 || k > Math.max(1, logicCount)) {
+            throw new IllegalArgumentException(
+                "Cannot split " + logicCount + " gates into " + k + " partitions"
+            );
+        }
+
+        int[][] gateNets = new int[gates][];
+        for (int g = 0; g < gates; g++) {
+            gateNets[g] = logic[g] ? distinctNets(netlist, g) : new int[0];
+        }
+        int netCount = netlist.getNetCount();
+        int[] netStarts = new int[netCount + 1];
+        for (int[] nets : gateNets) {
+            for (int net : nets) netStarts[net + 1]++;
+        }
+        for (int n = 0; n < netCount; n++) {
+            netStarts[n + 1] += netStarts[n];
+        }
+        int[] netGates = new int[netStarts[netCount]];
+        int[] fill = Arrays.copyOf(netStarts, netCount);
+        for (int g = 0; g < gates; g++) {
+            for (int net : gateNets[g]) {
+                netGates[fill[net]++] = g;
+            }
+        }
+
+        int[] partOf = new int[gates];
+        Arrays.fill(partOf, -1);
+        int[] sizes = new int[k];
+        int[] walk = breadthFirstOrder(netlist, logic, gateNets, netStarts, netGates);
+        for (int i = 0; i < walk.length; i++) {
+            int part = (int) ((long) i * k / walk.length);
+            partOf[walk[i]] = part;
+            sizes[part]++;
+        }
+
+        int[] pins = new int[netCount * k];
+        for (int g = 0; g < gates; g++) {
+            for (int net : gateNets[g]) {
+                pins[net * k + partOf[g]]++;
+            }
+        }
+
+        double average = (double) logicCount / k;
+        int maxSize = (int) Math.ceil(average * (1 + IMBALANCE));
+        int minSize = Math.max(1, (int) Math.floor(average * (1 - IMBALANCE)));
+        int[] gains = new int[k];
+        boolean[] candidate = new boolean[k];
+        for (int pass = 0; pass < MAX_PASSES && k > 1; pass++) {
+            int moves = 0;
+            for (int g : walk) {
+                int from = partOf[g];
+                if (sizes[from] <= minSize) continue;
+                Arrays.fill(gains, 0);
+                Arrays.fill(candidate, false);
+                for (int net : gateNets[g]) {
+                    int base = net * k;
+                    boolean alone = pins[base + from] == 1;
+                    int span = 0;
+                    for (int p = 0; p < k; p++) {
+                        if (pins[base + p] > 0) span++;
+                    }
+                    for (int p = 0; p < k; p++) {
+                        if (p == from) continue;
+                        if (pins[base + p] > 0) {
+                            // Leaving uncuts the net if g was its last pin in
+                            // "from" and p holds all the others.
+                            candidate[p] = true;
+                            if (alone && span == 2) gains[p]++;
+                        } else if (span == 1 && !alone) {
+                            // The net stays in "from" and is now cut.
+                            gains[p]--;
+                        }
+                    }
+                }
+                int best = -1;
+                for (int p = 0; p < k; p++) {
+                    if (!candidate[p] || sizes[p] >= maxSize) continue;
+                    if (best < 0 || gains[p] > gains[best]) best = p;
+                }
+                if (best < 0 || gains[best] <= 0) continue;
+                for (int net : gateNets[g]) {
+                    pins[net * k + from]--;
+                    pins[net * k + best]++;
+                }
+                partOf[g] = best;
+                sizes[from]--;
+                sizes[best]++;
+                moves++;
+            }
+            if (moves == 0) break;
+        }
+
+        int cut = 0;
+        for (int net = 0; net < netCount; net++) {
+            int span = 0;
+            for (int p = 0; p < k; p++) {
+                if (pins[net * k + p] > 0) span++;
+            }
+            if (span > 1) cut++;
+        }
+        return new Partitioning(partOf, k, cut);
+    }
+
+    /**
+     * Lists the nets a gate reads or drives, once each, without the zero net.
+     */
+    private static int[] distinctNets(Netlist netlist, int gate) {
+        int[] nets = new int[netlist.getFanIn(gate) + netlist.getOutputCount(gate)];
+        int count = 0;
+        for (int pin = 0; pin < netlist.getFanIn(gate); pin++) {
+            count = addDistinct(nets, count, netlist.getInputNet(gate, pin));
+        }
+        for (int pin = 0; pin < netlist.getOutputCount(gate); pin++) {
+            count = addDistinct(nets, count, netlist.getOutputNet(gate, pin));
+        }
+        return Arrays.copyOf(nets, count);
+    }
+
+    private static int addDistinct(int[] nets, int count, int net) {
+        if (net == Netlist.ZERO_NET) return count;
+        for (int i = 0; i < count; i++) {
+            if (nets[i] == net) return count;
+        }
+        nets[count] = net;
+        return count + 1;
+    }
+
+    /**
+     * Orders the logic gates by a breadth-first walk over shared nets,
+     * starting a new walk from the next unvisited gate in netlist order
+     * whenever one runs out.
+     */
+    private static int[] breadthFirstOrder(
+        Netlist netlist,
+        boolean[] logic,
+        int[][] gateNets,
+        int[] netStarts,
+        int[] netGates
+    ) {
+        int gates = logic.length;
+        boolean[] visited = new boolean[gates];
+        int[] queue = new int[gates];
+        int head = 0;
+        int tail = 0;
+        for (int seed : netlist.getOrder()) {
+            if (!logic[seed] || visited[seed]) continue;
+            visited[seed] = true;
+            queue[tail++] = seed;
+            while (head < tail) {
+                int g = queue[head++];
+                for (int net : gateNets[g]) {
+                    for (int i = netStarts[net]; i < netStarts[net + 1]; i++) {
+                        int next = netGates[i];
+                        if (!visited[next]) {
+                            visited[next] = true;
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+}
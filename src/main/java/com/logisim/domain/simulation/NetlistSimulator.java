@@ -0,0 +1,260 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Simulates a {@link Netlist} on a single packed state array.
+ * <p>
+ * The value of net {@code n} is bit {@code n % 64} of {@code state[n / 64]}.
+ * A run reads the switch states, evaluates the gates with an {@code int}
+ * switch over their type, and allocates nothing unless the netlist has
+ * feedback. Component objects are only
+ * touched for switches, for opaque gates such as sub-circuits, and when the
+ * results are written back with {@link #writeBackBulbs()} or {@link #writeBack()}.
+ * </p>
+ */
+public class NetlistSimulator {
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * One bit per net.
+     */
+    private final long[] state;
+
+    /**
+     * Creates a simulator with every net at 0.
+     *
+     * @param netlist The compiled circuit to simulate.
+     */
+    public NetlistSimulator(Netlist netlist) {
+        this.netlist = netlist;
+        this.state = new long[(netlist.getNetCount() + 63) >>> 6];
+    }
+
+    /**
+     * Reads the switch states and evaluates the netlist until it settles.
+     * <p>
+     * An acyclic netlist is evaluated once in topological order. A netlist with
+     * feedback is evaluated pass by pass until a pass changes no net, or until
+     * a pass reproduces an earlier state, which means the netlist is
+     * oscillating; at most one pass per gate plus two is run.
+     * </p>
+     *
+     * @return A {@link SimulationResult} with the number of passes used and
+     *         whether the netlist converged or oscillated.
+     */
+    public SimulationResult run() {
+        int[] switchGates = netlist.getSwitchGates();
+        int[] outputStarts = netlist.outputStarts();
+        int[] outputNets = netlist.outputNets();
+        for (int gate : switchGates) {
+            Switch sw = (Switch) netlist.getComponent(gate);
+            set(outputNets[outputStarts[gate]], sw.isOn());
+        }
+        return settle();
+    }
+
+    /**
+     * Takes the switch values from an array instead of the switch objects and
+     * evaluates the netlist until it settles, as {@link #run()} does.
+     * <p>
+     * Used by sub-circuit instances, whose switches belong to a definition
+     * shared with other instances.
+     * </p>
+     *
+     * @param inputs One value per switch gate, in {@link Netlist#getSwitchGates()} order;
+     *               missing values read as 0.
+     * @return A {@link SimulationResult} with the number of passes used.
+     */
+    public SimulationResult run(boolean[] inputs) {
+        int[] switchGates = netlist.getSwitchGates();
+        int[] outputStarts = netlist.outputStarts();
+        int[] outputNets = netlist.outputNets();
+        for (int k = 0; k < switchGates.length; k++) {
+            set(
+                outputNets[outputStarts[switchGates[k]]],
+                k < inputs.length && inputs[k]
+            );
+        }
+        return settle();
+    }
+
+    /**
+     * Copies the values read by the bulb gates into an array instead of the
+     * bulb objects.
+     *
+     * @param outputs Receives one value per bulb gate, in
+     *                {@link Netlist#getBulbGates()} order.
+     */
+    public void readOutputs(boolean[] outputs) {
+        int[] bulbGates = netlist.getBulbGates();
+        int[] fanInStarts = netlist.fanInStarts();
+        int[] fanInNets = netlist.fanInNets();
+        for (int k = 0; k < bulbGates.length && k < outputs.length; k++) {
+            outputs[k] = get(fanInNets[fanInStarts[bulbGates[k]]]);
+        }
+    }
+
+    /**
+     * Evaluates the netlist from the current switch nets until it settles or
+     * revisits an earlier state.
+     *
+     * @return A {@link SimulationResult} with the number of passes used.
+     */
+    private SimulationResult settle() {
+        if (netlist.isAcyclic()) {
+            evaluatePass();
+            return new SimulationResult(1, true, false);
+        }
+
+        int budget = netlist.getGateCount() + 2;
+        Set<BitSet> seen = new HashSet<>();
+        seen.add(BitSet.valueOf(state));
+        for (int pass = 1; pass <= budget; pass++) {
+            if (!evaluatePass()) {
+                return new SimulationResult(pass, true, false);
+            }
+            if (!seen.add(BitSet.valueOf(state))) {
+                return new SimulationResult(pass, false, true);
+            }
+        }
+        return new SimulationResult(budget, false, false);
+    }
+
+    /**
+     * Evaluates every gate once in the netlist's order.
+     *
+     * @return {@code true} if any net changed value.
+     */
+    private boolean evaluatePass() {
+        int[] order = netlist.getOrder();
+        int[] types = netlist.gateTypes();
+        int[] fanInStarts = netlist.fanInStarts();
+        int[] fanInNets = netlist.fanInNets();
+        int[] outputStarts = netlist.outputStarts();
+        int[] outputNets = netlist.outputNets();
+
+        boolean changed = false;
+        for (int gate : order) {
+            int in = fanInStarts[gate];
+            int out = outputStarts[gate];
+            switch (types[gate]) {
+                case Netlist.TYPE_AND -> changed |= set(
+                    outputNets[out],
+                    get(fanInNets[in]) && get(fanInNets[in + 1])
+                );
+                case Netlist.TYPE_OR -> changed |= set(
+                    outputNets[out],
+                    get(fanInNets[in]) || get(fanInNets[in + 1])
+                );
+                case Netlist.TYPE_NOT -> changed |= set(
+                    outputNets[out],
+                    !get(fanInNets[in])
+                );
+                case Netlist.TYPE_OPAQUE -> changed |= evaluateOpaque(gate);
+                default -> {}
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Evaluates a gate through its component object.
+     *
+     * @param gate The gate index.
+     * @return {@code true} if any of its output nets changed value.
+     */
+    private boolean evaluateOpaque(int gate) {
+        Component comp = netlist.getComponent(gate);
+        int[] fanInStarts = netlist.fanInStarts();
+        int[] fanInNets = netlist.fanInNets();
+        for (int pin = fanInStarts[gate]; pin < fanInStarts[gate + 1]; pin++) {
+            comp.setInput(pin - fanInStarts[gate], get(fanInNets[pin]));
+        }
+        comp.execute();
+        int[] outputStarts = netlist.outputStarts();
+        int[] outputNets = netlist.outputNets();
+        boolean changed = false;
+        for (int pin = outputStarts[gate]; pin < outputStarts[gate + 1]; pin++) {
+            changed |= set(
+                outputNets[pin],
+                comp.getOutput(pin - outputStarts[gate])
+            );
+        }
+        return changed;
+    }
+
+    /**
+     * Records the value of every net into a bit set.
+     *
+     * @param target The bit set to write into.
+     * @param offset The bit index of net 0.
+     * @return The next free bit index after the nets.
+     */
+    public int captureState(BitSet target, int offset) {
+        for (int net = 0; net < netlist.getNetCount(); net++) {
+            if (get(net)) target.set(offset + net);
+        }
+        return offset + netlist.getNetCount();
+    }
+
+    /**
+     * Reads the value of a net.
+     *
+     * @param net The net index.
+     * @return The current value.
+     */
+    public boolean get(int net) {
+        return ((state[net >>> 6] >>> net) & 1L) != 0;
+    }
+
+    /**
+     * Writes the value of a net.
+     *
+     * @param net   The net index.
+     * @param value The new value.
+     * @return {@code true} if the value changed.
+     */
+    private boolean set(int net, boolean value) {
+        long mask = 1L << net;
+        long word = state[net >>> 6];
+        long updated = value ? word | mask : word & ~mask;
+        state[net >>> 6] = updated;
+        return updated != word;
+    }
+
+    /**
+     * Copies the settled values into the bulbs, so that {@link Bulb#isOn()}
+     * reflects the last run.
+     */
+    public void writeBackBulbs() {
+        netlist.writeBackBulbs(this::get);
+    }
+
+    /**
+     * Copies every net value back into the input and output pins of every
+     * component, including the components inlined from sub-circuits, and
+     * updates the bulbs.
+     */
+    public void writeBack() {
+        netlist.writeBack(this::get);
+    }
+
+    /**
+     * Retrieves the netlist this simulator runs on.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+}
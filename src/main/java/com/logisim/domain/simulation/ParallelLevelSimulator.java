@@ -0,0 +1,305 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates an acyclic {@link Netlist} level by level, evaluating the gates of
+ * each large level in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * All gates of one level read only nets driven by earlier levels and each
+ * writes only its own output net, so the gates of a level can run in any
+ * order on any thread. A level is split into chunks that idle workers steal
+ * from each other, and the next level starts only after every chunk has
+ * been joined, which acts as a barrier.
+ * </p>
+ * <p>
+ * Forking and joining costs far more than evaluating a few gates, so the
+ * work is batched adaptively: levels with fewer than
+ * {@link #PARALLEL_LEVEL_GATES} gates are evaluated inline by the thread that
+ * drives the run, with no barrier at all, and large levels are cut into chunks
+ * of at least {@link #MIN_CHUNK_GATES} gates, about four per worker.
+ * </p>
+ * <p>
+ * Nets are stored one per byte rather than packed, so that two threads never
+ * write the same array element. Opaque gates go through their component
+ * objects, which are not thread-safe, and are evaluated by the driving
+ * thread after the parallel part of their level.
+ * </p>
+ */
+public class ParallelLevelSimulator {
+
+    /**
+     * The smallest level evaluated in parallel.
+     */
+    public static final int PARALLEL_LEVEL_GATES = 4096;
+
+    /**
+     * The smallest chunk of a level handed to a single task.
+     */
+    public static final int MIN_CHUNK_GATES = 1024;
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * The pool the large levels run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The And, Or and Not gates in level order, as parallel arrays of their
+     * type, input nets and output net. A Not gate reads only {@link #in0}.
+     */
+    private final int[] ops;
+    private final int[] in0;
+    private final int[] in1;
+    private final int[] out;
+
+    /**
+     * Offsets into {@link #ops} where each level starts, followed by the number
+     * of And, Or and Not gates.
+     */
+    private final int[] levelStarts;
+
+    /**
+     * The opaque gates in level order, and the offsets where each level starts.
+     */
+    private final int[] opaqueGates;
+    private final int[] opaqueStarts;
+
+    /**
+     * One byte per net, 0 or 1.
+     */
+    private final byte[] nets;
+
+    /**
+     * Prepares a parallel simulation of an acyclic netlist with every net at 0.
+     *
+     * @param netlist The compiled circuit to simulate.
+     * @param pool    The pool to evaluate large levels on.
+     * @throws IllegalArgumentException If the netlist has feedback.
+     */
+    public ParallelLevelSimulator(Netlist netlist, ForkJoinPool pool) {
+        if (!netlist.isAcyclic()) {
+            throw new IllegalArgumentException(
+                "Cannot evaluate levels of a circuit with feedback in parallel"
+            );
+        }
+        this.netlist = netlist;
+        this.pool = pool;
+        this.nets = new byte[netlist.getNetCount()];
+
+        int[] order = netlist.getOrder();
+        int[] gateLevelStarts = netlist.getLevelStarts();
+        int levels = gateLevelStarts.length - 1;
+        int[] types = netlist.gateTypes();
+        int[] fanInStarts = netlist.fanInStarts();
+        int[] fanInNets = netlist.fanInNets();
+
+        int primitives = 0;
+        int opaque = 0;
+        for (int gate : order) {
+            if (isPrimitive(types[gate])) {
+                primitives++;
+            } else if (types[gate] == Netlist.TYPE_OPAQUE) {
+                opaque++;
+            }
+        }
+        this.ops = new int[primitives];
+        this.in0 = new int[primitives];
+        this.in1 = new int[primitives];
+        this.out = new int[primitives];
+        this.levelStarts = new int[levels + 1];
+        this.opaqueGates = new int[opaque];
+        this.opaqueStarts = new int[levels + 1];
+
+        int p = 0;
+        int o = 0;
+        for (int level = 0; level < levels; level++) {
+            levelStarts[level] = p;
+            opaqueStarts[level] = o;
+            for (int k = gateLevelStarts[level]; k < gateLevelStarts[level + 1]; k++) {
+                int gate = order[k];
+                int type = types[gate];
+                if (isPrimitive(type)) {
+                    ops[p] = type;
+                    in0[p] = fanInNets[fanInStarts[gate]];
+                    in1[p] = type == Netlist.TYPE_NOT
+                        ? Netlist.ZERO_NET
+                        : fanInNets[fanInStarts[gate] + 1];
+                    out[p] = netlist.getOutputNet(gate, 0);
+                    p++;
+                } else if (type == Netlist.TYPE_OPAQUE) {
+                    opaqueGates[o++] = gate;
+                }
+            }
+        }
+        levelStarts[levels] = p;
+        opaqueStarts[levels] = o;
+    }
+
+    private static boolean isPrimitive(int type) {
+        return (
+            type == Netlist.TYPE_AND ||
+            type == Netlist.TYPE_OR ||
+            type == Netlist.TYPE_NOT
+        );
+    }
+
+    /**
+     * Reads the switch states and evaluates every level once, which settles
+     * the circuit.
+     *
+     * @return A {@link SimulationResult} reporting a single converged pass.
+     */
+    public SimulationResult run() {
+        for (int gate : netlist.getSwitchGates()) {
+            Switch sw = (Switch) netlist.getComponent(gate);
+            nets[netlist.getOutputNet(gate, 0)] = (byte) (sw.isOn() ? 1 : 0);
+        }
+        int parallelism = pool.getParallelism();
+        for (int level = 0; level < levelStarts.length - 1; level++) {
+            int from = levelStarts[level];
+            int to = levelStarts[level + 1];
+            int size = to - from;
+            if (size < PARALLEL_LEVEL_GATES || parallelism < 2) {
+                evaluateRange(from, to);
+            } else {
+                int chunk = Math.max(MIN_CHUNK_GATES, size / (parallelism * 4));
+                pool.invoke(new LevelTask(from, to, chunk));
+            }
+            for (int k = opaqueStarts[level]; k < opaqueStarts[level + 1]; k++) {
+                evaluateOpaque(opaqueGates[k]);
+            }
+        }
+        return new SimulationResult(1, true, false);
+    }
+
+    /**
+     * Evaluates a range of And, Or and Not gates of one level.
+     *
+     * @param from The first gate position (inclusive).
+     * @param to   The last gate position (exclusive).
+     */
+    private void evaluateRange(int from, int to) {
+        byte[] n = nets;
+        for (int k = from; k < to; k++) {
+            switch (ops[k]) {
+                case Netlist.TYPE_AND -> n[out[k]] = (byte) (n[in0[k]] & n[in1[k]]);
+                case Netlist.TYPE_OR -> n[out[k]] = (byte) (n[in0[k]] | n[in1[k]]);
+                default -> n[out[k]] = (byte) (n[in0[k]] ^ 1);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a gate through its component object.
+     *
+     * @param gate The gate index.
+     */
+    private void evaluateOpaque(int gate) {
+        Component comp = netlist.getComponent(gate);
+        for (int pin = 0; pin < netlist.getFanIn(gate); pin++) {
+            comp.setInput(pin, get(netlist.getInputNet(gate, pin)));
+        }
+        comp.execute();
+        for (int pin = 0; pin < netlist.getOutputCount(gate); pin++) {
+            nets[netlist.getOutputNet(gate, pin)] =
+                (byte) (comp.getOutput(pin) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Fork/join task that evaluates a range of one level, splitting it in half
+     * until it is at most one chunk long.
+     */
+    @SuppressWarnings("serial")
+    private final class LevelTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        LevelTask(int from, int to, int chunk) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                evaluateRange(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LevelTask(from, mid, chunk), new LevelTask(mid, to, chunk));
+        }
+    }
+
+    /**
+     * Reads the value of a net.
+     *
+     * @param net The net index.
+     * @return The current value.
+     */
+    public boolean get(int net) {
+        return nets[net] != 0;
+    }
+
+    /**
+     * Retrieves the number of levels, including levels with no And, Or or Not
+     * gates.
+     *
+     * @return The level count.
+     */
+    public int getLevelCount() {
+        return levelStarts.length - 1;
+    }
+
+    /**
+     * Retrieves the number of levels large enough to be evaluated in parallel.
+     *
+     * @return The parallel level count.
+     */
+    public int getParallelLevelCount() {
+        int count = 0;
+        for (int level = 0; level < levelStarts.length - 1; level++) {
+            if (levelStarts[level + 1] - levelStarts[level] >= PARALLEL_LEVEL_GATES) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the settled values into the bulbs, so that {@link Bulb#isOn()}
+     * reflects the last run.
+     */
+    public void writeBackBulbs() {
+        netlist.writeBackBulbs(this::get);
+    }
+
+    /**
+     * Copies every net value back into the input and output pins of every
+     * component, including the components inlined from sub-circuits.
+     */
+    public void writeBack() {
+        netlist.writeBack(this::get);
+    }
+
+    /**
+     * Retrieves the netlist this simulator runs on.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+}
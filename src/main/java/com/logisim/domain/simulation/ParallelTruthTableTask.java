@@ -0,0 +1,119 @@
+package com.logisim.domain.simulation;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task that fills a range of packed truth table words.
+ * <p>
+ * The task splits its word range in half until it is at most
+ * {@link #LEAF_WORDS} long, then evaluates the range with a
+ * {@link BitParallelEvaluator}, into either packed {@code long[]} columns or a
+ * {@link TruthTable}. Every leaf allocates its own state array, so
+ * workers never share mutable simulation state; they only write disjoint word
+ * ranges of the result columns.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public class ParallelTruthTableTask extends RecursiveAction {
+
+    /**
+     * The largest range (in 64-row words) evaluated without splitting further.
+     */
+    public static final int LEAF_WORDS = 256;
+
+    /**
+     * The compiled circuit shared by all tasks.
+     */
+    private final BitParallelEvaluator evaluator;
+
+    /**
+     * The output columns being filled, one per bulb, or {@code null} if a
+     * table is filled instead.
+     */
+    private final long[][] columns;
+
+    /**
+     * The table being filled, or {@code null} if columns are filled instead.
+     */
+    private final TruthTable table;
+
+    /**
+     * The first word of this task's range (inclusive).
+     */
+    private final int fromWord;
+
+    /**
+     * The last word of this task's range (exclusive).
+     */
+    private final int toWord;
+
+    /**
+     * Creates a task for a range of truth table words.
+     *
+     * @param evaluator The compiled circuit.
+     * @param columns   The output columns to fill, one per bulb.
+     * @param fromWord  The first word to compute (inclusive).
+     * @param toWord    The last word to compute (exclusive).
+     */
+    public ParallelTruthTableTask(
+        BitParallelEvaluator evaluator,
+        long[][] columns,
+        int fromWord,
+        int toWord
+    ) {
+        this.evaluator = evaluator;
+        this.columns = columns;
+        this.table = null;
+        this.fromWord = fromWord;
+        this.toWord = toWord;
+    }
+
+    /**
+     * Creates a task for a range of words of a {@link TruthTable}.
+     *
+     * @param evaluator The compiled circuit.
+     * @param table     The table to fill, with one column per bulb.
+     * @param fromWord  The first word to compute (inclusive).
+     * @param toWord    The last word to compute (exclusive).
+     */
+    public ParallelTruthTableTask(
+        BitParallelEvaluator evaluator,
+        TruthTable table,
+        int fromWord,
+        int toWord
+    ) {
+        this.evaluator = evaluator;
+        this.columns = null;
+        this.table = table;
+        this.fromWord = fromWord;
+        this.toWord = toWord;
+    }
+
+    /**
+     * Evaluates the range directly if it is small enough, otherwise splits it in half.
+     */
+    @Override
+    protected void compute() {
+        if (toWord - fromWord <= LEAF_WORDS) {
+            if (table != null) {
+                evaluator.evaluateWords(table, fromWord, toWord, evaluator.newState());
+            } else {
+                evaluator.evaluateWords(
+                    columns,
+                    fromWord,
+                    toWord,
+                    evaluator.newState()
+                );
+            }
+            return;
+        }
+        int mid = (fromWord + toWord) >>> 1;
+        invokeAll(split(fromWord, mid), split(mid, toWord));
+    }
+
+    private ParallelTruthTableTask split(int from, int to) {
+        return table != null
+            ? new ParallelTruthTableTask(evaluator, table, from, to)
+            : new ParallelTruthTableTask(evaluator, columns, from, to);
+    }
+}
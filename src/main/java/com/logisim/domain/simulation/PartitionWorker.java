@@ -0,0 +1,279 @@
+package com.logisim.domain.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simulates one partition of a netlist in its own process, on behalf of a
+ * {@link DistributedSimulator}.
+ * <p>
+ * The worker connects to the coordinator over a loopback socket, announces its
+ * partition index together with the token the coordinator passed on its
+ * command line, and receives the gates of its partition as plain arrays: no
+ * component objects cross the process boundary. It then answers step
+ * requests until told to stop. A step carries the values of the nets the
+ * partition reads but does not drive (its imports); the worker settles its
+ * gates and replies with the values of the nets other partitions or bulbs
+ * read (its exports), followed by a flag telling whether its own gates
+ * settled.
+ * </p>
+ * <p>
+ * Wire format, all integers big-endian:
+ * </p>
+ * <ul>
+ *   <li>Hello (worker to coordinator): {@code int partition},
+ *       {@code long token}.</li>
+ *   <li>Setup: {@code int gateCount}, then per gate {@code byte type},
+ *       {@code int in0}, {@code int in1}, {@code int out}; then
+ *       {@code int importCount, int[] imports, int exportCount, int[] exports}.
+ *       Nets are global netlist indices; a Not gate's {@code in1} is
+ *       {@link Netlist#ZERO_NET}.</li>
+ *   <li>Step: {@code byte} {@link #STEP} and the import values packed eight
+ *       per byte; the reply is the export values packed the same way and a
+ *       {@code boolean}.</li>
+ *   <li>Stop: {@code byte} {@link #STOP}.</li>
+ * </ul>
+ */
+public final class PartitionWorker {
+
+    /**
+     * Command byte requesting one simulation step.
+     */
+    static final byte STEP = 1;
+
+    /**
+     * Command byte telling the worker to exit.
+     */
+    static final byte STOP = 0;
+
+    private final int[] ops;
+    private final int[] in0;
+    private final int[] in1;
+    private final int[] out;
+
+    /**
+     * The gates in evaluation order: topological within the partition, with
+     * imported nets treated as inputs.
+     */
+    private final int[] order;
+
+    /**
+     * Whether the partition's own gates form a feedback loop.
+     */
+    private final boolean cyclic;
+
+    /**
+     * The local indices of the imported and exported nets.
+     */
+    private final int[] imports;
+    private final int[] exports;
+
+    /**
+     * One byte per local net; local net 0 is the zero net.
+     */
+    private final byte[] nets;
+
+    /**
+     * Reads the setup message and maps the global net indices to a dense
+     * local numbering.
+     *
+     * @param in The stream from the coordinator.
+     * @throws IOException If the stream fails.
+     */
+    private PartitionWorker(DataInputStream in) throws IOException {
+        Map<Integer, Integer> local = new HashMap<>();
+        local.put(Netlist.ZERO_NET, 0);
+        int gates = in.readInt();
+        this.ops = new int[gates];
+        this.in0 = new int[gates];
+        this.in1 = new int[gates];
+        this.out = new int[gates];
+        for (int g = 0; g < gates; g++) {
+            ops[g] = in.readByte();
+            in0[g] = localNet(local, in.readInt());
+            in1[g] = localNet(local, in.readInt());
+            out[g] = localNet(local, in.readInt());
+        }
+        this.imports = new int[in.readInt()];
+        for (int i = 0; i < imports.length; i++) {
+            imports[i] = localNet(local, in.readInt());
+        }
+        this.exports = new int[in.readInt()];
+        for (int i = 0; i < exports.length; i++) {
+            exports[i] = localNet(local, in.readInt());
+        }
+        this.nets = new byte[local.size()];
+
+        // Kahn's algorithm over the gates; a net driven by a local gate must
+        // be computed before its readers.
+        int[] driver = new int[nets.length];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < gates; g++) {
+            driver[out[g]] = g;
+        }
+        int[] pending = new int[gates];
+        int[] readerCount = new int[gates];
+        for (int g = 0; g < gates; g++) {
+            for (int net : inputsOf(g)) {
+                if (driver[net] >= 0) {
+                    pending[g]++;
+                    readerCount[driver[net]]++;
+                }
+            }
+        }
+        int[][] readers = new int[gates][];
+        for (int g = 0; g < gates; g++) {
+            readers[g] = new int[readerCount[g]];
+            readerCount[g] = 0;
+        }
+        for (int g = 0; g < gates; g++) {
+            for (int net : inputsOf(g)) {
+                int d = driver[net];
+                if (d >= 0) readers[d][readerCount[d]++] = g;
+            }
+        }
+        int[] sorted = new int[gates];
+        int count = 0;
+        for (int g = 0; g < gates; g++) {
+            if (pending[g] == 0) sorted[count++] = g;
+        }
+        for (int k = 0; k < count; k++) {
+            for (int r : readers[sorted[k]]) {
+                if (--pending[r] == 0) sorted[count++] = r;
+            }
+        }
+        this.cyclic = count < gates;
+        if (cyclic) {
+            for (int g = 0; g < gates; g++) {
+                sorted[g] = g;
+            }
+        }
+        this.order = sorted;
+    }
+
+    private int[] inputsOf(int g) {
+        return ops[g] == Netlist.TYPE_NOT ? new int[] { in0[g] } : new int[] { in0[g], in1[g] };
+    }
+
+    private static int localNet(Map<Integer, Integer> local, int net) {
+        return local.computeIfAbsent(net, n -> local.size());
+    }
+
+    /**
+     * Settles the partition from the current import values, giving up as soon
+     * as a pass reproduces an earlier state.
+     *
+     * @return {@code true} if the gates settled; always so without feedback.
+     */
+    private boolean settle() {
+        if (!cyclic) {
+            evaluatePass();
+            return true;
+        }
+        int budget = ops.length + 2;
+        Set<ByteBuffer> seen = new HashSet<>();
+        seen.add(ByteBuffer.wrap(nets.clone()));
+        for (int pass = 0; pass < budget; pass++) {
+            if (!evaluatePass()) return true;
+            if (!seen.add(ByteBuffer.wrap(nets.clone()))) return false;
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates every gate once in {@link #order}.
+     *
+     * @return {@code true} if any net changed.
+     */
+    private boolean evaluatePass() {
+        byte[] n = nets;
+        boolean changed = false;
+        for (int g : order) {
+            byte value = switch (ops[g]) {
+                case Netlist.TYPE_AND -> (byte) (n[in0[g]] & n[in1[g]]);
+                case Netlist.TYPE_OR -> (byte) (n[in0[g]] | n[in1[g]]);
+                default -> (byte) (n[in0[g]] ^ 1);
+            };
+            if (n[out[g]] != value) {
+                n[out[g]] = value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Serves step requests until the coordinator sends {@link #STOP} or
+     * closes the connection.
+     */
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        byte[] importBits = new byte[(imports.length + 7) >>> 3];
+        byte[] exportBits = new byte[(exports.length + 7) >>> 3];
+        while (in.read() == STEP) {
+            in.readFully(importBits);
+            unpack(importBits, imports, nets);
+            boolean settled = settle();
+            pack(nets, exports, exportBits);
+            out.write(exportBits);
+            out.writeBoolean(settled);
+            out.flush();
+        }
+    }
+
+    /**
+     * Packs the values of the given nets eight per byte.
+     */
+    static void pack(byte[] values, int[] nets, byte[] bits) {
+        Arrays.fill(bits, (byte) 0);
+        for (int i = 0; i < nets.length; i++) {
+            bits[i >>> 3] |= (byte) (values[nets[i]] << (i & 7));
+        }
+    }
+
+    /**
+     * Unpacks values packed by {@link #pack} into the given nets.
+     */
+    static void unpack(byte[] bits, int[] nets, byte[] values) {
+        for (int i = 0; i < nets.length; i++) {
+            values[nets[i]] = (byte) ((bits[i >>> 3] >>> (i & 7)) & 1);
+        }
+    }
+
+    /**
+     * Connects to a coordinator on the loopback interface and simulates one
+     * partition until told to stop.
+     *
+     * @param args The coordinator's port, this worker's partition index and
+     *             the coordinator's token for this run.
+     * @throws IOException If the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int partition = Integer.parseInt(args[1]);
+        long token = Long.parseLong(args[2]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream())
+            );
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream())
+            );
+            out.writeInt(partition);
+            out.writeLong(token);
+            out.flush();
+            new PartitionWorker(in).serve(in, out);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.logisim.domain.simulation;
+
+/**
+ * An assignment of the logic gates of a {@link Netlist} to partitions, as
+ * computed by {@link NetlistPartitioner}.
+ * <p>
+ * Switches and bulbs belong to no partition: they are the circuit's inputs and
+ * outputs and stay with whoever drives the simulation.
+ * </p>
+ */
+public class Partitioning {
+
+    /**
+     * The partition of each gate, or -1 for switches and bulbs.
+     */
+    private final int[] partOf;
+
+    /**
+     * The number of partitions.
+     */
+    private final int partitionCount;
+
+    /**
+     * The number of nets read or driven by logic gates of more than one partition.
+     */
+    private final int cutNetCount;
+
+    /**
+     * Creates a partitioning.
+     *
+     * @param partOf         The partition of each gate, or -1 for switches and bulbs.
+     * @param partitionCount The number of partitions.
+     * @param cutNetCount    The number of nets spanning more than one partition.
+     */
+    Partitioning(int[] partOf, int partitionCount, int cutNetCount) {
+        this.partOf = partOf;
+        this.partitionCount = partitionCount;
+        this.cutNetCount = cutNetCount;
+    }
+
+    /**
+     * Retrieves the number of partitions.
+     *
+     * @return The partition count.
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Retrieves the partition a gate was assigned to.
+     *
+     * @param gate The gate index in the netlist.
+     * @return The partition index, or -1 for switches and bulbs.
+     */
+    public int getPartition(int gate) {
+        return partOf[gate];
+    }
+
+    /**
+     * Retrieves the gates of one partition.
+     *
+     * @param partition The partition index.
+     * @return The gate indices, in ascending order.
+     */
+    public int[] getGates(int partition) {
+        int[] gates = new int[getSize(partition)];
+        int count = 0;
+        for (int g = 0; g < partOf.length; g++) {
+            if (partOf[g] == partition) {
+                gates[count++] = g;
+            }
+        }
+        return gates;
+    }
+
+    /**
+     * Retrieves the number of gates in one partition.
+     *
+     * @param partition The partition index.
+     * @return The gate count.
+     */
+    public int getSize(int partition) {
+        int size = 0;
+        for (int p : partOf) {
+            if (p == partition) size++;
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the number of cut nets: nets whose logic gate pins lie in more
+     * than one partition and whose value must therefore be exchanged.
+     *
+     * @return The cut net count.
+     */
+    public int getCutNetCount() {
+        return cutNetCount;
+    }
+}
@@ -0,0 +1,312 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An evaluation schedule for circuits with feedback, built from the strongly
+ * connected components (SCCs) of the component graph.
+ * <p>
+ * Every feedback loop lies entirely inside one SCC, and the SCCs themselves form
+ * an acyclic graph. The schedule visits the SCCs in topological order: a
+ * component outside any loop is executed once, and the components of a cyclic
+ * SCC are executed pass by pass until their pins stop changing. The pass
+ * budget of a loop depends only on its own size, so a single latch does not
+ * cost the rest of the circuit any extra passes.
+ * </p>
+ * <p>
+ * A loop that revisits an earlier state is reported as oscillating,
+ * together with its components (see {@link SimulationResult#getOscillatingComponents()}).
+ * </p>
+ */
+public class SccSchedule {
+
+    /**
+     * The SCCs in topological order, each with its members in component list order.
+     */
+    private final Component[][] groups;
+
+    /**
+     * The outgoing connectors of each member, parallel to {@link #groups}.
+     */
+    private final Connector[][][] fanout;
+
+    /**
+     * Whether each SCC contains a feedback loop: more than one member, or a
+     * member wired to itself.
+     */
+    private final boolean[] cyclic;
+
+
+    /**
+     * Computes the SCCs of the given circuit structure.
+     *
+     * @param components The components of the circuit.
+     * @param connectors The connectors (wires) of the circuit.
+     */
+    public SccSchedule(List<Component> components, List<Connector> connectors) {
+        int n = components.size();
+
+        Map<Component, Integer> indexOf = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexOf.put(components.get(i), i);
+        }
+        List<List<Connector>> outgoing = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            outgoing.add(new ArrayList<>());
+        }
+        boolean[] selfLoop = new boolean[n];
+        for (Connector conn : connectors) {
+            Integer src = indexOf.get(conn.getSourceComp());
+            Integer sink = indexOf.get(conn.getSinkComp());
+            if (src != null && sink != null) {
+                outgoing.get(src).add(conn);
+                if (src.equals(sink)) {
+                    selfLoop[src] = true;
+                }
+            }
+        }
+
+        int[] sccOf = new int[n];
+        int sccCount = findSccs(indexOf, outgoing, sccOf);
+
+        // Tarjan numbers the SCCs in reverse topological order.
+        int[] sizes = new int[sccCount];
+        for (int i = 0; i < n; i++) {
+            sizes[sccOf[i]]++;
+        }
+        this.groups = new Component[sccCount][];
+        this.fanout = new Connector[sccCount][][];
+        this.cyclic = new boolean[sccCount];
+        int[] fill = new int[sccCount];
+        for (int scc = 0; scc < sccCount; scc++) {
+            int g = sccCount - 1 - scc;
+            groups[g] = new Component[sizes[scc]];
+            fanout[g] = new Connector[sizes[scc]][];
+            cyclic[g] = sizes[scc] > 1;
+        }
+        for (int i = 0; i < n; i++) {
+            int g = sccCount - 1 - sccOf[i];
+            int k = fill[g]++;
+            groups[g][k] = components.get(i);
+            fanout[g][k] = outgoing.get(i).toArray(new Connector[0]);
+            if (selfLoop[i]) {
+                cyclic[g] = true;
+            }
+        }
+    }
+
+    /**
+     * Labels every component with its SCC using Tarjan's algorithm, with an
+     * explicit stack so that long chains do not overflow the call stack.
+     *
+     * @param indexOf  The index of each component.
+     * @param outgoing The outgoing connectors of each component.
+     * @param sccOf    Receives the SCC number of each component.
+     * @return The number of SCCs.
+     */
+    private static int findSccs(
+        Map<Component, Integer> indexOf,
+        List<List<Connector>> outgoing,
+        int[] sccOf
+    ) {
+        int n = outgoing.size();
+        int[] order = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callStack = new int[n];
+        int[] edgeCursor = new int[n];
+        int counter = 0;
+        int sccCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (order[root] >= 0) continue;
+            int depth = 0;
+            callStack[depth++] = root;
+            order[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                List<Connector> edges = outgoing.get(v);
+                if (edgeCursor[v] < edges.size()) {
+                    int w = indexOf.get(edges.get(edgeCursor[v]++).getSinkComp());
+                    if (order[w] < 0) {
+                        order[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[depth++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], order[w]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == order[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        sccOf[w] = sccCount;
+                    } while (w != v);
+                    sccCount++;
+                }
+            }
+        }
+        return sccCount;
+    }
+
+    /**
+     * Executes every component in SCC order, iterating each feedback loop
+     * until its pins stop changing.
+     * <p>
+     * A loop gets at most one pass per member plus two. It stops early when a
+     * pass changes none of its members' pins, or when a pass reproduces an
+     * earlier state, in which case the loop is oscillating.
+     * </p>
+     *
+     * @return A {@link SimulationResult} whose pass count is the largest number
+     *         of passes any single loop needed, and which lists the components
+     *         of every oscillating loop.
+     */
+    public SimulationResult evaluate() {
+        return evaluate(null);
+    }
+
+    /**
+     * Executes every component in SCC order, as {@link #evaluate()} does, and
+     * counts the executions and wires.
+     *
+     * @param stats The counters to record into, or {@code null} to record nothing.
+     * @return A {@link SimulationResult} as described for {@link #evaluate()}.
+     */
+    public SimulationResult evaluate(SimulationStats stats) {
+        int maxPasses = 1;
+        boolean converged = true;
+        List<List<Component>> oscillating = new ArrayList<>();
+        for (int g = 0; g < groups.length; g++) {
+            if (!cyclic[g]) {
+                execute(g, stats);
+                continue;
+            }
+            int budget = groups[g].length + 2;
+            Set<BitSet> seen = new HashSet<>();
+            BitSet previous = captureState(g);
+            seen.add(previous);
+            int passes = budget;
+            boolean loopConverged = false;
+            for (int pass = 1; pass <= budget; pass++) {
+                execute(g, stats);
+                BitSet current = captureState(g);
+                if (current.equals(previous)) {
+                    passes = pass;
+                    loopConverged = true;
+                    break;
+                }
+                if (!seen.add(current)) {
+                    passes = pass;
+                    oscillating.add(List.of(groups[g]));
+                    break;
+                }
+                previous = current;
+            }
+            maxPasses = Math.max(maxPasses, passes);
+            converged &= loopConverged;
+        }
+        return new SimulationResult(
+            maxPasses,
+            converged,
+            !oscillating.isEmpty(),
+            oscillating
+        );
+    }
+
+    /**
+     * Executes the members of one SCC once, propagating each member's outgoing
+     * wires immediately after it runs.
+     *
+     * @param g     The SCC index.
+     * @param stats The counters to record into, or {@code null}.
+     */
+    private void execute(int g, SimulationStats stats) {
+        Component[] members = groups[g];
+        for (int k = 0; k < members.length; k++) {
+            if (stats == null) {
+                members[k].execute();
+            } else {
+                stats.execute(members[k]);
+                stats.countPropagations(fanout[g][k].length);
+            }
+            for (Connector conn : fanout[g][k]) {
+                conn.process();
+            }
+        }
+    }
+
+    /**
+     * Records the input and output pins of the members of one SCC.
+     *
+     * @param g The SCC index.
+     * @return One bit per pin.
+     */
+    private BitSet captureState(int g) {
+        BitSet state = new BitSet();
+        int offset = 0;
+        for (Component comp : groups[g]) {
+            for (boolean value : comp.getInputs()) {
+                if (value) state.set(offset);
+                offset++;
+            }
+            for (boolean value : comp.getOutputs()) {
+                if (value) state.set(offset);
+                offset++;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Retrieves the number of SCCs, including single components outside any loop.
+     *
+     * @return The SCC count.
+     */
+    public int getGroupCount() {
+        return groups.length;
+    }
+
+    /**
+     * Retrieves the components of one SCC.
+     *
+     * @param group The SCC index, in topological order.
+     * @return The members, in component list order.
+     */
+    public List<Component> getGroup(int group) {
+        return List.of(groups[group]);
+    }
+
+    /**
+     * Indicates whether an SCC contains a feedback loop.
+     *
+     * @param group The SCC index, in topological order.
+     * @return {@code true} if the SCC has more than one member or a self-loop.
+     */
+    public boolean isCyclic(int group) {
+        return cyclic[group];
+    }
+}
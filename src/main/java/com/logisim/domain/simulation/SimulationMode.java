@@ -0,0 +1,71 @@
+package com.logisim.domain.simulation;
+
+/**
+ * Selects the engine used by {@link com.logisim.domain.Circuit#simulate()}.
+ * <p>
+ * All modes produce the same settled values for a combinational circuit; they
+ * differ in how much work a single call performs.
+ * </p>
+ */
+public enum SimulationMode {
+    /**
+     * Executes every component once, in list order, and propagates each
+     * component's outgoing wires immediately after it runs. One call is one
+     * pass, so callers repeat it until the signals have travelled through the
+     * whole circuit.
+     */
+    SWEEP,
+
+    /**
+     * Re-evaluates only the components whose inputs changed, using a work queue
+     * and a per-component fanout index. One call runs until no more changes are
+     * pending.
+     */
+    EVENT_DRIVEN,
+
+    /**
+     * Executes the components in topological order, so one call settles a
+     * circuit without feedback. The schedule is computed once and reused until
+     * the circuit structure changes. Circuits with feedback are scheduled by
+     * their strongly connected components ({@link SccSchedule}): one call
+     * evaluates the acyclic parts once and iterates each feedback loop until it
+     * settles.
+     */
+    LEVELIZED,
+
+    /**
+     * Compiles the circuit into a primitive-array {@link Netlist}, with the gates
+     * of every sub-circuit inlined, and simulates it on a packed bit array,
+     * without touching gate objects. One call settles the circuit. Only the bulbs are updated after each call; other component
+     * pins are written back on request.
+     */
+    NETLIST,
+
+    /**
+     * Generates a class with straight-line bytecode for the compiled
+     * {@link Netlist} and runs it. The class is generated once and reused until
+     * the circuit structure changes. Circuits with feedback fall back to
+     * {@link #NETLIST}.
+     */
+    COMPILED,
+
+    /**
+     * Simulates the compiled {@link Netlist} in simulated time, with the gate
+     * delays of a {@link DelayModel}, using {@link TimedSimulator}. One call
+     * runs until no events are pending or a time budget proportional to the
+     * gate count has passed, so an oscillator does not hang the caller. Use
+     * {@link com.logisim.domain.Circuit#simulateTimed(long)} to obtain the
+     * waveform of every net.
+     */
+    TIMED,
+
+    /**
+     * Evaluates the compiled {@link Netlist} level by level with
+     * {@link ParallelLevelSimulator}, running the gates of each large level in
+     * parallel on the common fork/join pool. One call settles the circuit.
+     * Pays off for circuits with many thousands of gates per level; smaller
+     * levels are evaluated on the calling thread. Circuits with feedback fall
+     * back to {@link #NETLIST}.
+     */
+    PARALLEL,
+}
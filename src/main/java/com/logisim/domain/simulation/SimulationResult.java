@@ -0,0 +1,127 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Component;
+import java.util.List;
+
+/**
+ * Describes how a call to {@link com.logisim.domain.Circuit#settle()} ended.
+ * <p>
+ * A circuit either converges (a pass changed no pin values), is detected to be
+ * oscillating (a pass reproduced a state seen earlier, so it will cycle forever),
+ * or exhausts its pass budget without either being observed.
+ * </p>
+ */
+public class SimulationResult {
+
+    /**
+     * The number of simulation passes that were actually run.
+     */
+    private final int passes;
+
+    /**
+     * Whether the circuit reached a stable state.
+     */
+    private final boolean converged;
+
+    /**
+     * Whether the circuit was detected to be cycling through repeated states.
+     */
+    private final boolean oscillating;
+
+    /**
+     * The components of each feedback loop found to be oscillating, if the
+     * engine can tell them apart.
+     */
+    private final List<List<Component>> oscillatingComponents;
+
+    /**
+     * Creates a new result.
+     *
+     * @param passes      The number of simulation passes that were run.
+     * @param converged   {@code true} if the circuit reached a stable state.
+     * @param oscillating {@code true} if the circuit revisited an earlier state.
+     */
+    public SimulationResult(int passes, boolean converged, boolean oscillating) {
+        this(passes, converged, oscillating, List.of());
+    }
+
+    /**
+     * Creates a new result that names the oscillating feedback loops.
+     *
+     * @param passes                The number of simulation passes that were run.
+     * @param converged             {@code true} if the circuit reached a stable state.
+     * @param oscillating           {@code true} if the circuit revisited an earlier state.
+     * @param oscillatingComponents The components of each oscillating loop.
+     */
+    public SimulationResult(
+        int passes,
+        boolean converged,
+        boolean oscillating,
+        List<List<Component>> oscillatingComponents
+    ) {
+        this.passes = passes;
+        this.converged = converged;
+        this.oscillating = oscillating;
+        this.oscillatingComponents = List.copyOf(oscillatingComponents);
+    }
+
+    /**
+     * Retrieves the number of simulation passes that were actually run.
+     *
+     * @return The pass count.
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Indicates whether the circuit reached a stable state.
+     *
+     * @return {@code true} if the last pass changed no pin values.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Indicates whether the circuit was detected to be oscillating.
+     *
+     * @return {@code true} if a pass reproduced an earlier, different state.
+     */
+    public boolean isOscillating() {
+        return oscillating;
+    }
+
+    /**
+     * Retrieves the components of each feedback loop that was found to be
+     * oscillating.
+     * <p>
+     * Only engines that schedule feedback loops separately (see
+     * {@link SccSchedule}) fill this in; others report an empty list even when
+     * {@link #isOscillating()} is {@code true}.
+     * </p>
+     *
+     * @return One list of components per oscillating loop.
+     */
+    public List<List<Component>> getOscillatingComponents() {
+        return oscillatingComponents;
+    }
+
+    /**
+     * Returns a short human-readable summary of the result.
+     *
+     * @return A description such as "converged after 3 passes".
+     */
+    @Override
+    public String toString() {
+        String status = converged
+            ? "converged"
+            : oscillating ? "oscillating" : "not converged";
+        String summary =
+            status + " after " + passes + (passes == 1 ? " pass" : " passes");
+        for (List<Component> loop : oscillatingComponents) {
+            summary += ", loop of " + loop.stream().map(Component::getName).toList();
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,325 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.SubCircuitComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters recorded while a circuit simulates, for finding out why a circuit
+ * is slow.
+ * <p>
+ * A circuit only records counters while they are enabled (see
+ * {@link com.logisim.domain.Circuit#setStatsEnabled(boolean)}); otherwise its
+ * engines pass {@code null} and pay a single null check per component.
+ * </p>
+ * <p>
+ * The engines that execute components ({@link SimulationMode#SWEEP},
+ * {@link SimulationMode#EVENT_DRIVEN}, {@link SimulationMode#LEVELIZED} and
+ * the opaque gates of {@link SimulationMode#TIMED}) count every execution
+ * and every wire they propagate, and time every sub-circuit execution. The
+ * netlist engines evaluate every gate in each pass, so their evaluations
+ * are counted as the gates of each type times the passes, and their
+ * propagations as the gate inputs read times the passes; they inline
+ * sub-circuits, whose gates count under their own types.
+ * </p>
+ * <p>
+ * Not thread-safe: a circuit is simulated by one thread at a time.
+ * </p>
+ */
+public class SimulationStats {
+
+    /**
+     * The executions and total time of one sub-circuit instance.
+     *
+     * @param component  The sub-circuit instance.
+     * @param executions The number of times it was executed.
+     * @param nanos      The wall time spent in those executions, inner circuit included.
+     */
+    public record SubCircuitStats(
+        SubCircuitComponent component,
+        long executions,
+        long nanos
+    ) {}
+
+    /**
+     * The evaluation counters, one single-element array per component class,
+     * so that counting does not box.
+     */
+    private final Map<Class<?>, long[]> evaluationsByClass = new IdentityHashMap<>();
+
+    /**
+     * Evaluations counted by type name, for the netlist engines.
+     */
+    private final Map<String, long[]> evaluationsByName = new TreeMap<>();
+
+    /**
+     * For every sub-circuit instance executed, its execution count and nanoseconds.
+     */
+    private final Map<SubCircuitComponent, long[]> subCircuits = new IdentityHashMap<>();
+
+    /**
+     * The netlist whose gate counts are held in {@link #netlistGates}.
+     */
+    private Netlist countedNetlist;
+
+    /**
+     * The number of gates of each type in {@link #countedNetlist}.
+     */
+    private Map<String, Long> netlistGates;
+
+    /**
+     * The number of gate inputs in {@link #countedNetlist}.
+     */
+    private long netlistFanIn;
+
+    private long propagations;
+    private long runs;
+    private long passes;
+    private int lastPasses;
+    private long totalNanos;
+    private long lastPassNanos;
+    private long maxPassNanos;
+
+    /**
+     * Executes a component and counts the evaluation. Sub-circuit instances
+     * are also timed.
+     *
+     * @param comp The component to execute.
+     */
+    public void execute(Component comp) {
+        if (comp instanceof SubCircuitComponent) {
+            long start = System.nanoTime();
+            comp.execute();
+            long elapsed = System.nanoTime() - start;
+            long[] counters = subCircuits.computeIfAbsent(
+                (SubCircuitComponent) comp,
+                k -> new long[2]
+            );
+            counters[0]++;
+            counters[1] += elapsed;
+        } else {
+            comp.execute();
+        }
+        evaluationsByClass.computeIfAbsent(comp.getClass(), k -> new long[1])[0]++;
+    }
+
+    /**
+     * Counts wires propagated by an engine.
+     *
+     * @param count The number of wires.
+     */
+    public void countPropagations(long count) {
+        propagations += count;
+    }
+
+    /**
+     * Counts the evaluation of one netlist gate.
+     *
+     * @param netlist The netlist.
+     * @param gate    The gate index.
+     */
+    public void countGate(Netlist netlist, int gate) {
+        evaluationsByName.computeIfAbsent(typeName(netlist, gate), k -> new long[1])[0]++;
+    }
+
+    /**
+     * Counts the passes of a netlist engine, each of which evaluates every gate
+     * and reads every gate input once.
+     *
+     * @param netlist The netlist evaluated.
+     * @param passes  The number of passes.
+     */
+    public void countNetlistPasses(Netlist netlist, int passes) {
+        if (netlist != countedNetlist) {
+            Map<String, Long> gates = new TreeMap<>();
+            long fanIn = 0;
+            for (int g = 0; g < netlist.getGateCount(); g++) {
+                gates.merge(typeName(netlist, g), 1L, Long::sum);
+                fanIn += netlist.getFanIn(g);
+            }
+            countedNetlist = netlist;
+            netlistGates = gates;
+            netlistFanIn = fanIn;
+        }
+        for (Map.Entry<String, Long> entry : netlistGates.entrySet()) {
+            evaluationsByName.computeIfAbsent(entry.getKey(), k -> new long[1])[0] +=
+                entry.getValue() * passes;
+        }
+        propagations += netlistFanIn * passes;
+    }
+
+    /**
+     * Records one call of {@link com.logisim.domain.Circuit#simulate()} or
+     * {@link com.logisim.domain.Circuit#settle()}. Its time is spread evenly
+     * over its passes.
+     *
+     * @param passes The passes it used.
+     * @param nanos  Its wall time.
+     */
+    public void recordRun(int passes, long nanos) {
+        runs++;
+        this.passes += passes;
+        lastPasses = passes;
+        totalNanos += nanos;
+        lastPassNanos = nanos / Math.max(1, passes);
+        maxPassNanos = Math.max(maxPassNanos, lastPassNanos);
+    }
+
+    /**
+     * Clears every counter.
+     */
+    public void reset() {
+        evaluationsByClass.clear();
+        evaluationsByName.clear();
+        subCircuits.clear();
+        propagations = 0;
+        runs = 0;
+        passes = 0;
+        lastPasses = 0;
+        totalNanos = 0;
+        lastPassNanos = 0;
+        maxPassNanos = 0;
+    }
+
+    /**
+     * Retrieves the gate evaluations per component type.
+     *
+     * @return Evaluation counts keyed by simple class name (And, Or, ...), sorted by name.
+     */
+    public Map<String, Long> getEvaluationsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<Class<?>, long[]> entry : evaluationsByClass.entrySet()) {
+            result.merge(entry.getKey().getSimpleName(), entry.getValue()[0], Long::sum);
+        }
+        for (Map.Entry<String, long[]> entry : evaluationsByName.entrySet()) {
+            result.merge(entry.getKey(), entry.getValue()[0], Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the total number of gate evaluations.
+     *
+     * @return The sum of {@link #getEvaluationsByType()}.
+     */
+    public long getEvaluations() {
+        long total = 0;
+        for (long count : getEvaluationsByType().values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves the number of wire propagations.
+     *
+     * @return The propagation count.
+     */
+    public long getPropagations() {
+        return propagations;
+    }
+
+    /**
+     * Retrieves the number of simulate and settle calls recorded.
+     *
+     * @return The run count.
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Retrieves the passes used by all recorded runs.
+     *
+     * @return The total pass count.
+     */
+    public long getPasses() {
+        return passes;
+    }
+
+    /**
+     * Retrieves the passes the last run needed to converge.
+     *
+     * @return The pass count of the last run; 0 before any run.
+     */
+    public int getLastPasses() {
+        return lastPasses;
+    }
+
+    /**
+     * Retrieves the wall time of all recorded runs.
+     *
+     * @return The total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Retrieves the mean wall time per pass over all recorded runs.
+     *
+     * @return The time in nanoseconds; 0 before any run.
+     */
+    public long getMeanPassNanos() {
+        return passes == 0 ? 0 : totalNanos / passes;
+    }
+
+    /**
+     * Retrieves the wall time per pass of the last run.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getLastPassNanos() {
+        return lastPassNanos;
+    }
+
+    /**
+     * Retrieves the largest wall time per pass of any recorded run.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getMaxPassNanos() {
+        return maxPassNanos;
+    }
+
+    /**
+     * Retrieves the sub-circuit instances that took the most time.
+     *
+     * @param limit The maximum number of instances to return.
+     * @return The instances, most time first.
+     */
+    public List<SubCircuitStats> getHottestSubCircuits(int limit) {
+        List<SubCircuitStats> result = new ArrayList<>();
+        for (Map.Entry<SubCircuitComponent, long[]> entry : subCircuits.entrySet()) {
+            result.add(
+                new SubCircuitStats(
+                    entry.getKey(),
+                    entry.getValue()[0],
+                    entry.getValue()[1]
+                )
+            );
+        }
+        result.sort(Comparator.comparingLong(SubCircuitStats::nanos).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Names the type of a netlist gate the way {@link #execute(Component)}
+     * names component classes.
+     */
+    private static String typeName(Netlist netlist, int gate) {
+        return switch (netlist.getGateType(gate)) {
+            case Netlist.TYPE_SWITCH -> "Switch";
+            case Netlist.TYPE_BULB -> "Bulb";
+            case Netlist.TYPE_AND -> "And";
+            case Netlist.TYPE_OR -> "Or";
+            case Netlist.TYPE_NOT -> "Not";
+            default -> netlist.getComponent(gate).getClass().getSimpleName();
+        };
+    }
+}
@@ -0,0 +1,503 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Switch;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pushes a file of input vectors through a circuit and writes the bulb values
+ * of every vector to an output file.
+ * <p>
+ * Both files share one binary format: a 16-byte header of a magic number
+ * ({@link #INPUT_MAGIC} or {@link #OUTPUT_MAGIC}), the number of bits per
+ * vector as an {@code int} and the number of vectors as a {@code long}, all
+ * big-endian, followed by one record per vector of {@code ceil(bits / 8)}
+ * bytes. Bit {@code i} of a record is bit {@code i % 8} of byte {@code i / 8}.
+ * Input bit {@code i} drives the {@code i}-th switch and output bit {@code j}
+ * is the {@code j}-th bulb, in the order of {@link Netlist#getSwitchGates()}
+ * and {@link Netlist#getBulbGates()}.
+ * </p>
+ * <p>
+ * A run is a three-stage pipeline. A reader thread copies records out of
+ * the memory-mapped input file, {@link #MAP_WINDOW_BYTES} at a time. The calling
+ * thread simulates them, and a writer thread appends the results. Stages hand
+ * over batches of up to {@link #BATCH_VECTORS} vectors through bounded
+ * queues, and a fixed pool of {@link #BUFFERS} batches is recycled, so memory
+ * use does not depend on the file size.
+ * </p>
+ * <p>
+ * Circuits without feedback are evaluated 64 vectors per call of a generated
+ * kernel (see {@link KernelGenerator}). Vectors are independent there.
+ * Circuits with feedback or opaque gates are settled one vector at a time on a
+ * {@link NetlistSimulator}, in file order, so latches carry their state from
+ * one vector to the next. The switch states are set for each vector and
+ * restored when the run ends.
+ * </p>
+ */
+public class StimulusRunner {
+
+    /**
+     * The magic number of an input vector file, {@code "LSVI"}.
+     */
+    public static final int INPUT_MAGIC = 0x4C535649;
+
+    /**
+     * The magic number of an output vector file, {@code "LSVO"}.
+     */
+    public static final int OUTPUT_MAGIC = 0x4C53564F;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * The number of vectors handed from one stage to the next at a time.
+     */
+    public static final int BATCH_VECTORS = 4096;
+
+    /**
+     * The number of batch buffers in flight.
+     */
+    public static final int BUFFERS = 4;
+
+    /**
+     * The largest part of the input file mapped at once.
+     */
+    public static final int MAP_WINDOW_BYTES = 64 << 20;
+
+    /**
+     * A batch of vectors travelling through the pipeline. A batch with a
+     * count of -1 marks the end of the stream.
+     */
+    private static final class Batch {
+
+        final byte[] inputs;
+        final byte[] outputs;
+        int count;
+
+        Batch(int inputBytes, int outputBytes) {
+            this.inputs = new byte[BATCH_VECTORS * inputBytes];
+            this.outputs = new byte[BATCH_VECTORS * outputBytes];
+        }
+    }
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * The nets driven by the switches and read by the bulbs.
+     */
+    private final int[] inputNets;
+    private final int[] outputNets;
+
+    /**
+     * The generated kernel, or {@code null} if vectors are settled one at a time.
+     */
+    private final NetlistKernel kernel;
+
+    /**
+     * Prepares a runner for a netlist, generating a kernel if the netlist
+     * supports one.
+     *
+     * @param netlist The compiled circuit.
+     */
+    public StimulusRunner(Netlist netlist) {
+        this.netlist = netlist;
+        int[] switches = netlist.getSwitchGates();
+        int[] bulbs = netlist.getBulbGates();
+        this.inputNets = new int[switches.length];
+        for (int i = 0; i < switches.length; i++) {
+            inputNets[i] = netlist.getOutputNet(switches[i], 0);
+        }
+        this.outputNets = new int[bulbs.length];
+        for (int j = 0; j < bulbs.length; j++) {
+            outputNets[j] = netlist.getInputNet(bulbs[j], 0);
+        }
+        this.kernel = KernelGenerator.supports(netlist)
+            ? KernelGenerator.generate(netlist)
+            : null;
+    }
+
+    /**
+     * Indicates whether vectors are evaluated 64 at a time by a generated kernel.
+     *
+     * @return {@code false} if the circuit is settled one vector at a time.
+     */
+    public boolean isBitParallel() {
+        return kernel != null;
+    }
+
+    /**
+     * Simulates every vector of an input file and writes the outputs.
+     *
+     * @param input  The input vector file.
+     * @param output The output vector file to create or replace.
+     * @return The number of vectors simulated.
+     * @throws IOException              If a file cannot be read or written, or
+     *                                  the input is not a vector file.
+     * @throws IllegalArgumentException If the input vectors do not have one bit
+     *                                  per switch.
+     */
+    public long run(Path input, Path output) throws IOException {
+        int inputBytes = (inputNets.length + 7) >>> 3;
+        int outputBytes = (outputNets.length + 7) >>> 3;
+        try (
+            FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(
+                output,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            long vectors = readHeader(in, INPUT_MAGIC, inputNets.length);
+            if (in.size() < HEADER_BYTES + vectors * inputBytes) {
+                throw new IOException("Truncated vector file " + input);
+            }
+            writeHeader(out, OUTPUT_MAGIC, outputNets.length, vectors);
+
+            BlockingQueue<Batch> free = new ArrayBlockingQueue<>(BUFFERS);
+            BlockingQueue<Batch> read = new ArrayBlockingQueue<>(BUFFERS + 1);
+            BlockingQueue<Batch> simulated = new ArrayBlockingQueue<>(BUFFERS + 1);
+            for (int b = 0; b < BUFFERS; b++) {
+                free.add(new Batch(inputBytes, outputBytes));
+            }
+            Batch end = new Batch(0, 0);
+            end.count = -1;
+
+            Throwable[] failure = new Throwable[1];
+            Thread reader = new Thread(
+                () -> {
+                    try {
+                        readBatches(in, vectors, inputBytes, free, read);
+                    } catch (Throwable e) {
+                        fail(failure, e);
+                    } finally {
+                        // Room is guaranteed: only BUFFERS batches exist.
+                        read.offer(end);
+                    }
+                },
+                "stimulus-reader"
+            );
+            Thread writer = new Thread(
+                () -> {
+                    try {
+                        ByteBuffer buffer = ByteBuffer.allocateDirect(
+                            BATCH_VECTORS * outputBytes
+                        );
+                        for (Batch batch = simulated.take(); batch != end; batch = simulated.take()) {
+                            buffer.clear();
+                            buffer.put(batch.outputs, 0, batch.count * outputBytes);
+                            buffer.flip();
+                            while (buffer.hasRemaining()) {
+                                out.write(buffer);
+                            }
+                            free.put(batch);
+                        }
+                    } catch (Throwable e) {
+                        fail(failure, e);
+                        // Stop the reader, which may wait for a free batch.
+                        reader.interrupt();
+                    }
+                },
+                "stimulus-writer"
+            );
+            reader.setDaemon(true);
+            writer.setDaemon(true);
+
+            boolean[] savedStates = saveSwitches();
+            NetlistSimulator simulator = kernel == null
+                ? new NetlistSimulator(netlist)
+                : null;
+            long[] state = kernel == null ? null : new long[netlist.getNetCount()];
+            reader.start();
+            writer.start();
+            try {
+                for (Batch batch = read.take(); batch != end; batch = read.take()) {
+                    if (kernel != null) {
+                        simulateParallel(batch, inputBytes, outputBytes, state);
+                    } else {
+                        simulateSequential(batch, inputBytes, outputBytes, simulator);
+                    }
+                    simulated.put(batch);
+                }
+                simulated.put(end);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(failure, e);
+            } finally {
+                reader.interrupt();
+                writer.interrupt();
+                restoreSwitches(savedStates);
+            }
+            synchronized (failure) {
+                if (failure[0] instanceof IOException io) throw io;
+                if (failure[0] instanceof RuntimeException re) throw re;
+                if (failure[0] != null) throw new IOException(failure[0]);
+            }
+            return vectors;
+        }
+    }
+
+    private static void fail(Throwable[] failure, Throwable e) {
+        synchronized (failure) {
+            if (failure[0] == null) failure[0] = e;
+        }
+    }
+
+    /**
+     * Copies the records of the input file into batches, mapping the file
+     * one window at a time.
+     */
+    private static void readBatches(
+        FileChannel in,
+        long vectors,
+        int inputBytes,
+        BlockingQueue<Batch> free,
+        BlockingQueue<Batch> read
+    ) throws IOException, InterruptedException {
+        if (inputBytes == 0) {
+            for (long done = 0; done < vectors; ) {
+                Batch batch = free.take();
+                batch.count = (int) Math.min(BATCH_VECTORS, vectors - done);
+                done += batch.count;
+                read.put(batch);
+            }
+            return;
+        }
+        long windowVectors = Math.max(1, MAP_WINDOW_BYTES / inputBytes);
+        for (long start = 0; start < vectors; start += windowVectors) {
+            long count = Math.min(windowVectors, vectors - start);
+            MappedByteBuffer window = in.map(
+                FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES + start * inputBytes,
+                count * inputBytes
+            );
+            while (window.hasRemaining()) {
+                Batch batch = free.take();
+                int bytes = Math.min(window.remaining(), BATCH_VECTORS * inputBytes);
+                window.get(batch.inputs, 0, bytes);
+                batch.count = bytes / inputBytes;
+                read.put(batch);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a batch 64 vectors per kernel call.
+     */
+    private void simulateParallel(
+        Batch batch,
+        int inputBytes,
+        int outputBytes,
+        long[] state
+    ) {
+        byte[] inputs = batch.inputs;
+        byte[] outputs = batch.outputs;
+        Arrays.fill(outputs, 0, batch.count * outputBytes, (byte) 0);
+        for (int base = 0; base < batch.count; base += 64) {
+            int lanes = Math.min(64, batch.count - base);
+            for (int i = 0; i < inputNets.length; i++) {
+                long word = 0;
+                int offset = base * inputBytes + (i >>> 3);
+                int shift = i & 7;
+                for (int v = 0; v < lanes; v++) {
+                    word |= (long) ((inputs[offset + v * inputBytes] >>> shift) & 1) << v;
+                }
+                state[inputNets[i]] = word;
+            }
+            kernel.evaluate(state);
+            for (int j = 0; j < outputNets.length; j++) {
+                long word = state[outputNets[j]];
+                int offset = base * outputBytes + (j >>> 3);
+                byte bit = (byte) (1 << (j & 7));
+                while (word != 0) {
+                    int v = Long.numberOfTrailingZeros(word);
+                    if (v >= lanes) break;
+                    outputs[offset + v * outputBytes] |= bit;
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Settles a batch one vector at a time, in order.
+     */
+    private void simulateSequential(
+        Batch batch,
+        int inputBytes,
+        int outputBytes,
+        NetlistSimulator simulator
+    ) {
+        int[] switches = netlist.getSwitchGates();
+        for (int v = 0; v < batch.count; v++) {
+            for (int i = 0; i < switches.length; i++) {
+                boolean on = ((batch.inputs[v * inputBytes + (i >>> 3)] >>> (i & 7)) & 1) != 0;
+                ((Switch) netlist.getComponent(switches[i])).setState(on);
+            }
+            simulator.run();
+            for (int b = 0; b < outputBytes; b++) {
+                batch.outputs[v * outputBytes + b] = 0;
+            }
+            for (int j = 0; j < outputNets.length; j++) {
+                if (simulator.get(outputNets[j])) {
+                    batch.outputs[v * outputBytes + (j >>> 3)] |= (byte) (1 << (j & 7));
+                }
+            }
+        }
+    }
+
+    private boolean[] saveSwitches() {
+        int[] switches = netlist.getSwitchGates();
+        boolean[] states = new boolean[switches.length];
+        for (int i = 0; i < switches.length; i++) {
+            states[i] = ((Switch) netlist.getComponent(switches[i])).isOn();
+        }
+        return states;
+    }
+
+    private void restoreSwitches(boolean[] states) {
+        int[] switches = netlist.getSwitchGates();
+        for (int i = 0; i < switches.length; i++) {
+            ((Switch) netlist.getComponent(switches[i])).setState(states[i]);
+        }
+    }
+
+    /**
+     * Reads and checks a vector file header.
+     *
+     * @return The number of vectors in the file.
+     */
+    private static long readHeader(FileChannel channel, int magic, int bits)
+        throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                throw new IOException("Not a vector file: missing header");
+            }
+        }
+        header.flip();
+        if (header.getInt() != magic) {
+            throw new IOException("Not a vector file: bad magic number");
+        }
+        int fileBits = header.getInt();
+        if (fileBits != bits) {
+            throw new IllegalArgumentException(
+                "Expected " + bits + " bits per vector but the file has " + fileBits
+            );
+        }
+        return header.getLong();
+    }
+
+    private static void writeHeader(
+        FileChannel channel,
+        int magic,
+        int bits,
+        long vectors
+    ) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(magic).putInt(bits).putLong(vectors).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Writes an input vector file.
+     *
+     * @param path    The file to create or replace.
+     * @param inputs  The number of bits per vector (switches).
+     * @param vectors The vectors, each with {@code inputs} entries.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeInputs(Path path, int inputs, List<boolean[]> vectors)
+        throws IOException {
+        writeVectors(path, INPUT_MAGIC, inputs, vectors);
+    }
+
+    /**
+     * Reads every vector of an output file into memory. Meant for small files.
+     *
+     * @param path The output vector file.
+     * @return The vectors, each with one entry per bulb.
+     * @throws IOException If the file cannot be read or is not an output file.
+     */
+    public static List<boolean[]> readOutputs(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != OUTPUT_MAGIC) {
+                throw new IOException("Not an output vector file: " + path);
+            }
+            int bits = header.getInt();
+            long vectors = header.getLong();
+            int bytes = (bits + 7) >>> 3;
+            ByteBuffer data = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES,
+                vectors * bytes
+            );
+            List<boolean[]> result = new ArrayList<>();
+            for (long v = 0; v < vectors; v++) {
+                boolean[] vector = new boolean[bits];
+                int offset = (int) (v * bytes);
+                for (int i = 0; i < bits; i++) {
+                    vector[i] = ((data.get(offset + (i >>> 3)) >>> (i & 7)) & 1) != 0;
+                }
+                result.add(vector);
+            }
+            return result;
+        }
+    }
+
+    private static void writeVectors(
+        Path path,
+        int magic,
+        int bits,
+        List<boolean[]> vectors
+    ) throws IOException {
+        int bytes = (bits + 7) >>> 3;
+        try (
+            FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            writeHeader(channel, magic, bits, vectors.size());
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(1, bytes) * 1024);
+            for (boolean[] vector : vectors) {
+                if (buffer.remaining() < bytes) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                    buffer.clear();
+                }
+                for (int b = 0; b < bytes; b++) {
+                    int packed = 0;
+                    for (int i = b * 8; i < Math.min(bits, b * 8 + 8); i++) {
+                        if (vector[i]) packed |= 1 << (i & 7);
+                    }
+                    buffer.put((byte) packed);
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+}
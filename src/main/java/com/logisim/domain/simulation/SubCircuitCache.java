@@ -0,0 +1,213 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded memo of sub-circuit results, keyed by packed input bits.
+ * <p>
+ * A combinational circuit always maps the same inputs to the same outputs, so
+ * a {@link com.logisim.domain.components.SubCircuitComponent} can look its
+ * output vector up here instead of settling its inner circuit. Input pin
+ * {@code i} is bit {@code i} of the key and output pin {@code j} is bit
+ * {@code j} of the stored value. When the cache is full the least recently
+ * used entry is evicted.
+ * </p>
+ * <p>
+ * A cache belongs to one inner circuit object: every instance placed from the
+ * same {@link SubCircuitDefinition} shares the definition's cache, while an
+ * instance that owns its inner circuit has a private one. The entries are
+ * discarded whenever that circuit's
+ * {@link Circuit#getStructureVersion() structure version} changes. Circuits
+ * with feedback, and circuits with more than {@link #MAX_PINS} inputs or
+ * outputs, are never memoized.
+ * </p>
+ */
+public class SubCircuitCache {
+
+    /**
+     * The number of input patterns kept per source circuit.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The largest number of input or output pins that fit a packed key or value.
+     */
+    public static final int MAX_PINS = 64;
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int capacity;
+
+    /**
+     * The output vectors by input pattern, in access order.
+     */
+    private final LinkedHashMap<Long, Long> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Whether the circuit the entries were computed from can be memoized.
+     */
+    private boolean memoizable;
+
+    /**
+     * The circuit the entries were computed from.
+     */
+    private Circuit source;
+
+    /**
+     * The structure version of {@link #source} when the entries were computed.
+     */
+    private long structureVersion;
+
+    /**
+     * Creates an empty cache for a circuit.
+     *
+     * @param definition The inner circuit whose results will be cached.
+     * @param capacity   The maximum number of entries.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public SubCircuitCache(Circuit definition, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "Cache capacity must be positive but was " + capacity
+            );
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > SubCircuitCache.this.capacity;
+            }
+        };
+        reset(definition);
+    }
+
+    /**
+     * Checks whether the entries were computed from the given circuit in its
+     * current structure.
+     *
+     * @param definition The inner circuit of an instance.
+     * @return {@code true} if it is the same circuit object and its structure
+     *         version has not changed since.
+     */
+    public synchronized boolean matches(Circuit definition) {
+        return (
+            definition == source &&
+            definition.getStructureVersion() == structureVersion
+        );
+    }
+
+    /**
+     * Discards every entry and re-examines a (changed) circuit.
+     *
+     * @param definition The inner circuit whose results will be cached.
+     */
+    public synchronized void reset(Circuit definition) {
+        entries.clear();
+        source = definition;
+        structureVersion = definition.getStructureVersion();
+        int switches = 0;
+        int bulbs = 0;
+        for (Component comp : definition.getComponents()) {
+            if (comp instanceof Switch) switches++;
+            if (comp instanceof Bulb) bulbs++;
+        }
+        memoizable = switches <= MAX_PINS &&
+        bulbs <= MAX_PINS &&
+        Netlist.flatten(
+            definition.getComponents(),
+            definition.getConnectors()
+        ).isAcyclic();
+    }
+
+    /**
+     * Indicates whether results of this circuit may be cached: it has no
+     * feedback (at any depth) and at most {@link #MAX_PINS} inputs and outputs.
+     *
+     * @return {@code true} if {@link #lookup(long)} and {@link #store(long, long)} may be used.
+     */
+    public synchronized boolean isMemoizable() {
+        return memoizable;
+    }
+
+    /**
+     * Looks up the outputs for an input pattern, counting a hit or a miss.
+     *
+     * @param inputs The packed input bits.
+     * @return The packed output bits, or {@code null} on a miss.
+     */
+    public synchronized Long lookup(long inputs) {
+        Long outputs = entries.get(inputs);
+        if (outputs == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return outputs;
+    }
+
+    /**
+     * Records the outputs computed for an input pattern, evicting the least
+     * recently used entry if the cache is full.
+     *
+     * @param inputs  The packed input bits.
+     * @param outputs The packed output bits.
+     */
+    public synchronized void store(long inputs, long outputs) {
+        entries.put(inputs, outputs);
+    }
+
+    /**
+     * Discards every entry and resets the counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Retrieves the number of lookups that found an entry.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups that found no entry.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieves the number of cached input patterns.
+     *
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the maximum number of entries.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,211 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The shared, read-only form of a circuit used as a sub-circuit.
+ * <p>
+ * A definition is built once per source circuit and holds the loaded
+ * {@link Circuit} together with its flattened {@link Netlist}. Every
+ * {@link com.logisim.domain.components.SubCircuitComponent} placed from that
+ * circuit refers to the same definition and only allocates a
+ * {@link NetlistSimulator} for its own signal values, so memory grows with
+ * instances &times; nets rather than instances &times; component objects.
+ * </p>
+ * <p>
+ * The circuit held by a definition is {@link Circuit#freeze() frozen}, so the
+ * netlist built here always matches it. It must not be simulated directly; it
+ * is only used as a template for drawing and for inlining into an enclosing
+ * netlist.
+ * </p>
+ */
+public final class SubCircuitDefinition {
+
+    /**
+     * The shared definitions, by source circuit ID.
+     */
+    private static final Map<Long, SubCircuitDefinition> SHARED =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The source circuit IDs being loaded by the current thread's chain of
+     * nested loads, used to reject circuits that contain themselves.
+     */
+    private static final ThreadLocal<Set<Long>> LOADING = ThreadLocal.withInitial(
+        HashSet::new
+    );
+
+    private final long sourceCircuitId;
+    private final Circuit template;
+    private final Netlist netlist;
+    private final List<Switch> switches;
+    private final List<Bulb> bulbs;
+
+    /**
+     * The result memo shared by every instance, created on first use.
+     */
+    private SubCircuitCache cache;
+
+    /**
+     * Builds a definition from a loaded circuit.
+     *
+     * @param template The circuit to share; it is frozen by this call.
+     */
+    public SubCircuitDefinition(Circuit template) {
+        template.freeze();
+        this.sourceCircuitId = template.getId();
+        this.template = template;
+        this.netlist = Netlist.flatten(
+            template.getComponents(),
+            template.getConnectors()
+        );
+        List<Switch> switchList = new ArrayList<>();
+        List<Bulb> bulbList = new ArrayList<>();
+        for (Component comp : template.getComponents()) {
+            if (comp instanceof Switch) {
+                switchList.add((Switch) comp);
+            } else if (comp instanceof Bulb) {
+                bulbList.add((Bulb) comp);
+            }
+        }
+        this.switches = Collections.unmodifiableList(switchList);
+        this.bulbs = Collections.unmodifiableList(bulbList);
+    }
+
+    /**
+     * Retrieves the definition shared by every instance of a saved circuit,
+     * loading the circuit on first use.
+     * <p>
+     * Threads that miss at the same time each load the circuit, and all of
+     * them return the definition that was published first.
+     * </p>
+     *
+     * @param sourceCircuitId The database ID of the source circuit.
+     * @param loader          Loads the circuit if no definition exists yet.
+     * @return The shared {@link SubCircuitDefinition}.
+     * @throws IllegalStateException If the circuit (directly or through its
+     *                               sub-circuits) contains itself.
+     */
+    public static SubCircuitDefinition forSource(
+        long sourceCircuitId,
+        Supplier<Circuit> loader
+    ) {
+        SubCircuitDefinition existing = SHARED.get(sourceCircuitId);
+        if (existing != null) {
+            return existing;
+        }
+        Set<Long> loading = LOADING.get();
+        if (!loading.add(sourceCircuitId)) {
+            throw new IllegalStateException(
+                "Circuit " + sourceCircuitId + " contains itself"
+            );
+        }
+        try {
+            SubCircuitDefinition loaded = new SubCircuitDefinition(
+                loader.get()
+            );
+            existing = SHARED.putIfAbsent(sourceCircuitId, loaded);
+            return existing != null ? existing : loaded;
+        } finally {
+            loading.remove(sourceCircuitId);
+        }
+    }
+
+    /**
+     * Discards the shared definition of a saved circuit, so that instances
+     * placed afterwards see its new contents. Existing instances keep the old one.
+     *
+     * @param sourceCircuitId The database ID of the source circuit.
+     */
+    public static void invalidate(long sourceCircuitId) {
+        SHARED.remove(sourceCircuitId);
+    }
+
+    /**
+     * Discards every shared definition.
+     */
+    public static void invalidateAll() {
+        SHARED.clear();
+    }
+
+    /**
+     * Allocates the per-instance signal state for this definition.
+     *
+     * @return A new {@link NetlistSimulator} with every net at 0.
+     */
+    public NetlistSimulator newInstanceState() {
+        return new NetlistSimulator(netlist);
+    }
+
+    /**
+     * Retrieves the result memo shared by every instance of this definition,
+     * creating it on first use.
+     *
+     * @return The {@link SubCircuitCache} for the template circuit.
+     */
+    public synchronized SubCircuitCache getCache() {
+        if (cache == null) {
+            cache = new SubCircuitCache(
+                template,
+                SubCircuitCache.DEFAULT_CAPACITY
+            );
+        }
+        return cache;
+    }
+
+    /**
+     * Retrieves the database ID of the source circuit.
+     *
+     * @return The source circuit ID.
+     */
+    public long getSourceCircuitId() {
+        return sourceCircuitId;
+    }
+
+    /**
+     * Retrieves the shared circuit.
+     *
+     * @return The frozen template {@link Circuit}.
+     */
+    public Circuit getTemplate() {
+        return template;
+    }
+
+    /**
+     * Retrieves the flattened netlist of the shared circuit.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+
+    /**
+     * Retrieves the switches of the shared circuit, which act as input pins.
+     *
+     * @return An unmodifiable list of {@link Switch} components.
+     */
+    public List<Switch> getSwitches() {
+        return switches;
+    }
+
+    /**
+     * Retrieves the bulbs of the shared circuit, which act as output pins.
+     *
+     * @return An unmodifiable list of {@link Bulb} components.
+     */
+    public List<Bulb> getBulbs() {
+        return bulbs;
+    }
+}
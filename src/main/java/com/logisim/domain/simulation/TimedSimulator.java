@@ -0,0 +1,347 @@
+package com.logisim.domain.simulation;
+
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import java.util.Arrays;
+
+/**
+ * Simulates a {@link Netlist} with per-gate propagation delays, so that
+ * glitches and path lengths become visible.
+ * <p>
+ * An event sets one net to a value at one point in time. Pending events are
+ * kept in a timing wheel: a ring of buckets, one per time unit, that is at
+ * least one slot longer than the largest gate delay. Scheduling and
+ * dequeuing an event are both constant-time appends and scans of
+ * {@code int} arrays, and no objects are allocated once the buckets have grown
+ * to their working size.
+ * </p>
+ * <p>
+ * At each time step all events of the current bucket are applied, the gates
+ * reading a changed net are evaluated once, and each gate output that differs
+ * from the value last scheduled for it is scheduled after the gate's delay
+ * (transport delay). Switches change their nets with no delay.
+ * </p>
+ */
+public class TimedSimulator {
+
+    /**
+     * The compiled circuit.
+     */
+    private final Netlist netlist;
+
+    /**
+     * The delay of each gate.
+     */
+    private final int[] delays;
+
+    /**
+     * The gates reading each net: {@code readers[readerStarts[n]] ..
+     * readers[readerStarts[n + 1]]}.
+     */
+    private final int[] readerStarts;
+    private final int[] readers;
+
+    /**
+     * The current value of each net.
+     */
+    private final boolean[] values;
+
+    /**
+     * The value each net will have once its pending events have been applied.
+     */
+    private final boolean[] projected;
+
+    /**
+     * The timing wheel: bucket {@code t & mask} holds the events of time
+     * {@code t}, each encoded as {@code net << 1 | value}.
+     */
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final int mask;
+
+    /**
+     * The gates to evaluate in the current time step, and the step each gate
+     * was last queued in, used to queue it only once per step.
+     */
+    private final int[] affected;
+    private final long[] queuedAt;
+
+    /**
+     * The number of events in the wheel.
+     */
+    private int pending;
+
+    /**
+     * The next time step to simulate.
+     */
+    private long now;
+
+    /**
+     * Whether every gate has been evaluated once from the all-zero state.
+     */
+    private boolean initialized;
+
+    /**
+     * The counters of the current {@link #run(long, SimulationStats)} call, or
+     * {@code null}.
+     */
+    private SimulationStats stats;
+
+    /**
+     * Prepares a timed simulation with every net at 0 and the time at 0.
+     *
+     * @param netlist The compiled circuit to simulate.
+     * @param model   The propagation delays to use.
+     */
+    public TimedSimulator(Netlist netlist, DelayModel model) {
+        this.netlist = netlist;
+        int gates = netlist.getGateCount();
+        int netCount = netlist.getNetCount();
+
+        this.delays = new int[gates];
+        int maxDelay = 1;
+        for (int g = 0; g < gates; g++) {
+            delays[g] = Math.max(
+                1,
+                model.getDelay(netlist.getComponent(g).getClass())
+            );
+            maxDelay = Math.max(maxDelay, delays[g]);
+        }
+
+        int[] fanInStarts = netlist.fanInStarts();
+        int[] fanInNets = netlist.fanInNets();
+        this.readerStarts = new int[netCount + 1];
+        for (int net : fanInNets) {
+            readerStarts[net + 1]++;
+        }
+        for (int n = 0; n < netCount; n++) {
+            readerStarts[n + 1] += readerStarts[n];
+        }
+        this.readers = new int[fanInNets.length];
+        int[] fill = Arrays.copyOf(readerStarts, netCount);
+        for (int g = 0; g < gates; g++) {
+            for (int pin = fanInStarts[g]; pin < fanInStarts[g + 1]; pin++) {
+                readers[fill[fanInNets[pin]]++] = g;
+            }
+        }
+
+        this.values = new boolean[netCount];
+        this.projected = new boolean[netCount];
+        int slots = Integer.highestOneBit(maxDelay) << 1;
+        this.buckets = new int[slots][16];
+        this.bucketSizes = new int[slots];
+        this.mask = slots - 1;
+        this.affected = new int[gates];
+        this.queuedAt = new long[gates];
+        Arrays.fill(queuedAt, -1);
+    }
+
+    /**
+     * Reads the switch states and advances the simulation until no events
+     * are pending or the given time has passed.
+     * <p>
+     * The first call also evaluates every gate from the all-zero state at
+     * time 0, so its trace starts with the power-up transient.
+     * </p>
+     *
+     * @param duration The maximum number of time units to advance.
+     * @return The changes recorded during this call.
+     */
+    public TimingTrace run(long duration) {
+        return run(duration, null);
+    }
+
+    /**
+     * Advances the simulation as {@link #run(long)} does, and counts the gate
+     * evaluations and the events applied.
+     *
+     * @param duration The maximum number of time units to advance.
+     * @param stats    The counters to record into, or {@code null} to record nothing.
+     * @return The changes recorded during this call.
+     */
+    public TimingTrace run(long duration, SimulationStats stats) {
+        this.stats = stats;
+        TimingTrace trace = new TimingTrace();
+        if (!initialized) {
+            initialized = true;
+            for (int g = 0; g < netlist.getGateCount(); g++) {
+                evaluate(g);
+            }
+        }
+        for (int gate : netlist.getSwitchGates()) {
+            Switch sw = (Switch) netlist.getComponent(gate);
+            int net = netlist.getOutputNet(gate, 0);
+            if (projected[net] != sw.isOn()) {
+                projected[net] = sw.isOn();
+                schedule(now, net, sw.isOn());
+            }
+        }
+
+        long end = now + duration;
+        while (pending > 0 && now <= end) {
+            step(trace);
+            now++;
+        }
+        trace.finish(now, pending == 0);
+        this.stats = null;
+        return trace;
+    }
+
+    /**
+     * Applies the events of the current time and evaluates the gates they
+     * affect.
+     *
+     * @param trace The log to record changes into.
+     */
+    private void step(TimingTrace trace) {
+        int slot = (int) (now & mask);
+        int[] bucket = buckets[slot];
+        int count = bucketSizes[slot];
+        bucketSizes[slot] = 0;
+        pending -= count;
+
+        int affectedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int net = bucket[i] >>> 1;
+            boolean value = (bucket[i] & 1) != 0;
+            if (values[net] == value) continue;
+            values[net] = value;
+            trace.record(now, net, value);
+            if (stats != null) {
+                stats.countPropagations(readerStarts[net + 1] - readerStarts[net]);
+            }
+            for (int r = readerStarts[net]; r < readerStarts[net + 1]; r++) {
+                int g = readers[r];
+                if (queuedAt[g] != now) {
+                    queuedAt[g] = now;
+                    affected[affectedCount++] = g;
+                }
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            evaluate(affected[i]);
+        }
+    }
+
+    /**
+     * Evaluates one gate from the current net values and schedules any output
+     * that differs from its projected value.
+     *
+     * @param g The gate index.
+     */
+    private void evaluate(int g) {
+        if (stats != null && netlist.getGateType(g) != Netlist.TYPE_OPAQUE) {
+            stats.countGate(netlist, g);
+        }
+        int in = netlist.fanInStarts()[g];
+        int[] fanInNets = netlist.fanInNets();
+        switch (netlist.getGateType(g)) {
+            case Netlist.TYPE_AND -> drive(
+                g,
+                netlist.getOutputNet(g, 0),
+                values[fanInNets[in]] && values[fanInNets[in + 1]]
+            );
+            case Netlist.TYPE_OR -> drive(
+                g,
+                netlist.getOutputNet(g, 0),
+                values[fanInNets[in]] || values[fanInNets[in + 1]]
+            );
+            case Netlist.TYPE_NOT -> drive(
+                g,
+                netlist.getOutputNet(g, 0),
+                !values[fanInNets[in]]
+            );
+            case Netlist.TYPE_OPAQUE -> {
+                Component comp = netlist.getComponent(g);
+                for (int pin = 0; pin < netlist.getFanIn(g); pin++) {
+                    comp.setInput(pin, values[fanInNets[in + pin]]);
+                }
+                if (stats == null) {
+                    comp.execute();
+                } else {
+                    stats.execute(comp);
+                }
+                for (int pin = 0; pin < netlist.getOutputCount(g); pin++) {
+                    drive(g, netlist.getOutputNet(g, pin), comp.getOutput(pin));
+                }
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * Schedules a gate output after the gate's delay if it differs from the
+     * value already projected for the net.
+     */
+    private void drive(int g, int net, boolean value) {
+        if (projected[net] != value) {
+            projected[net] = value;
+            schedule(now + delays[g], net, value);
+        }
+    }
+
+    /**
+     * Appends an event to the bucket of its time.
+     */
+    private void schedule(long time, int net, boolean value) {
+        int slot = (int) (time & mask);
+        if (bucketSizes[slot] == buckets[slot].length) {
+            buckets[slot] = Arrays.copyOf(buckets[slot], bucketSizes[slot] * 2);
+        }
+        buckets[slot][bucketSizes[slot]++] = (net << 1) | (value ? 1 : 0);
+        pending++;
+    }
+
+    /**
+     * Reads the current value of a net.
+     *
+     * @param net The net index.
+     * @return The current value.
+     */
+    public boolean get(int net) {
+        return values[net];
+    }
+
+    /**
+     * Retrieves the current simulation time. Switch changes read by the next
+     * call to {@link #run(long)} take effect at this time.
+     *
+     * @return The first time step that has not been simulated yet.
+     */
+    public long getTime() {
+        return now;
+    }
+
+    /**
+     * Retrieves the number of events waiting in the timing wheel.
+     *
+     * @return The pending event count.
+     */
+    public int getPendingEvents() {
+        return pending;
+    }
+
+    /**
+     * Copies the current net values into the bulbs.
+     */
+    public void writeBackBulbs() {
+        netlist.writeBackBulbs(net -> values[net]);
+    }
+
+    /**
+     * Copies the current net values into the pins of every component,
+     * including the components inlined from sub-circuits.
+     */
+    public void writeBack() {
+        netlist.writeBack(net -> values[net]);
+    }
+
+    /**
+     * Retrieves the netlist this simulator runs on.
+     *
+     * @return The {@link Netlist}.
+     */
+    public Netlist getNetlist() {
+        return netlist;
+    }
+}
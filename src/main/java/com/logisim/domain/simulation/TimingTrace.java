@@ -0,0 +1,143 @@
+package com.logisim.domain.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The time-ordered log of net value changes recorded by a {@link TimedSimulator}.
+ * <p>
+ * Changes are stored in three parallel primitive arrays, in the order they
+ * happened. {@link #getChanges(int)} extracts the waveform of a single net.
+ * </p>
+ */
+public class TimingTrace {
+
+    /**
+     * A single value change of a net.
+     *
+     * @param time  The simulation time at which the net took its new value.
+     * @param net   The net index.
+     * @param value The new value.
+     */
+    public record NetChange(long time, int net, boolean value) {}
+
+    private long[] times = new long[64];
+    private int[] nets = new int[64];
+    private boolean[] values = new boolean[64];
+    private int size;
+
+    /**
+     * The simulation time when recording ended.
+     */
+    private long endTime;
+
+    /**
+     * Whether no events were pending when recording ended.
+     */
+    private boolean quiescent;
+
+    /**
+     * Appends a change. Changes must be recorded in non-decreasing time order.
+     *
+     * @param time  The simulation time.
+     * @param net   The net index.
+     * @param value The new value.
+     */
+    void record(long time, int net, boolean value) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            nets = Arrays.copyOf(nets, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        times[size] = time;
+        nets[size] = net;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Marks the end of recording.
+     *
+     * @param time      The first time step that was not simulated.
+     * @param quiescent {@code true} if no events were left pending.
+     */
+    void finish(long time, boolean quiescent) {
+        this.endTime = time;
+        this.quiescent = quiescent;
+    }
+
+    /**
+     * Retrieves the number of recorded changes.
+     *
+     * @return The change count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves one recorded change.
+     *
+     * @param index The change index, in time order.
+     * @return The {@link NetChange}.
+     */
+    public NetChange get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new NetChange(times[index], nets[index], values[index]);
+    }
+
+    /**
+     * Retrieves the waveform of one net.
+     *
+     * @param net The net index.
+     * @return The changes of that net, in time order.
+     */
+    public List<NetChange> getChanges(int net) {
+        List<NetChange> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (nets[i] == net) {
+                changes.add(new NetChange(times[i], net, values[i]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Retrieves the time of the last change of a net, which for an output is
+     * the length of the path that switched it last.
+     *
+     * @param net The net index.
+     * @return The time of its last change, or -1 if it never changed.
+     */
+    public long getLastChangeTime(int net) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (nets[i] == net) {
+                return times[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the simulation time when recording ended.
+     *
+     * @return The first time step that was not simulated.
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Indicates whether the circuit was quiet when recording ended, i.e. no
+     * events were pending.
+     *
+     * @return {@code true} if every net has settled.
+     */
+    public boolean isQuiescent() {
+        return quiescent;
+    }
+}
@@ -0,0 +1,552 @@
+package com.logisim.domain.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The output columns of a truth table, each stored as a bitset of
+ * {@code long} words.
+ * <p>
+ * Rows are numbered as in {@link com.logisim.domain.Circuit#analyze()}: the
+ * first switch is the most significant bit of the row index. Bit {@code b}
+ * of word {@code w} in a column holds row {@code w * 64 + b}, and the unused
+ * bits of a table with fewer than 64 rows are zero. The input columns are not
+ * stored, since they follow from the row index.
+ * </p>
+ * <p>
+ * Where the words live is chosen when the table is allocated (see
+ * {@link Storage}): tables up to a size limit stay on the Java heap; larger
+ * ones go to direct buffers outside the heap, or to a memory-mapped spill
+ * file if a directory is given, so the operating system can page them out.
+ * Every column is a separate buffer of at most 128 MiB, so the table as a
+ * whole is not limited to 2 GiB.
+ * </p>
+ * <p>
+ * A table can be written to a file with {@link #save(Path)} and mapped back
+ * with {@link #open(Path)}. The file is a 16-byte header of the magic number
+ * {@link #MAGIC}, the input count, the output count and a reserved zero, all
+ * {@code int}s in big-endian order, followed by the columns one after the
+ * other, each as {@link #getWordCount()} little-endian {@code long}s.
+ * </p>
+ * <p>
+ * Reads and writes of distinct words may run on different threads. Tables
+ * backed by a file should be closed when no longer needed.
+ * </p>
+ */
+public final class TruthTable implements AutoCloseable {
+
+    /**
+     * Where the words of a table are kept.
+     */
+    public enum Storage {
+        /** {@code long[]} arrays on the Java heap. */
+        HEAP,
+        /** Direct buffers outside the Java heap. */
+        OFF_HEAP,
+        /** A memory-mapped file. */
+        MAPPED,
+    }
+
+    /**
+     * The magic number of a truth table file, {@code "LSTT"}.
+     */
+    public static final int MAGIC = 0x4C535454;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    public static final int HEADER_BYTES = 16;
+
+    /**
+     * The most inputs a table can have, which bounds the words of a column
+     * to an {@code int}.
+     */
+    public static final int MAX_INPUTS = 30;
+
+    /**
+     * The largest table, in bytes, kept on the heap by {@link #allocate(int, int)}.
+     */
+    public static final long DEFAULT_HEAP_LIMIT = 64L << 20;
+
+    private final int inputCount;
+    private final int wordCount;
+    private final Storage storage;
+    private final LongBuffer[] columns;
+
+    /**
+     * The file behind a mapped table, or {@code null}.
+     */
+    private final FileChannel channel;
+
+    private TruthTable(
+        int inputCount,
+        Storage storage,
+        LongBuffer[] columns,
+        FileChannel channel
+    ) {
+        this.inputCount = inputCount;
+        this.wordCount = wordCount(inputCount);
+        this.storage = storage;
+        this.columns = columns;
+        this.channel = channel;
+    }
+
+    /**
+     * Allocates an all-zero table, on the heap up to
+     * {@link #DEFAULT_HEAP_LIMIT} bytes and off the heap above.
+     *
+     * @param inputCount  The number of inputs.
+     * @param outputCount The number of output columns.
+     * @return The table.
+     * @throws IllegalArgumentException If a count is out of range.
+     */
+    public static TruthTable allocate(int inputCount, int outputCount) {
+        return allocate(inputCount, outputCount, DEFAULT_HEAP_LIMIT);
+    }
+
+    /**
+     * Allocates an all-zero table, on the heap up to a size limit and off
+     * the heap above.
+     *
+     * @param inputCount  The number of inputs.
+     * @param outputCount The number of output columns.
+     * @param heapLimit   The largest table, in bytes, kept on the heap.
+     * @return The table.
+     * @throws IllegalArgumentException If a count is out of range.
+     */
+    public static TruthTable allocate(int inputCount, int outputCount, long heapLimit) {
+        checkCounts(inputCount, outputCount);
+        int words = wordCount(inputCount);
+        LongBuffer[] columns = new LongBuffer[outputCount];
+        boolean onHeap = (long) outputCount * words * Long.BYTES <= heapLimit;
+        for (int col = 0; col < outputCount; col++) {
+            columns[col] = onHeap
+                ? LongBuffer.wrap(new long[words])
+                : ByteBuffer
+                    .allocateDirect(words * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+        return new TruthTable(
+            inputCount,
+            onHeap ? Storage.HEAP : Storage.OFF_HEAP,
+            columns,
+            null
+        );
+    }
+
+    /**
+     * Allocates an all-zero table, on the heap up to a size limit and in a
+     * memory-mapped spill file above. The spill file is deleted when the
+     * table is closed, or earlier where the platform allows an open file to
+     * be unlinked.
+     *
+     * @param inputCount     The number of inputs.
+     * @param outputCount    The number of output columns.
+     * @param heapLimit      The largest table, in bytes, kept on the heap.
+     * @param spillDirectory The directory for the spill file.
+     * @return The table.
+     * @throws IOException If the spill file cannot be created.
+     * @throws IllegalArgumentException If a count is out of range or the
+     *         directory is {@code null}.
+     */
+    public static TruthTable allocate(
+        int inputCount,
+        int outputCount,
+        long heapLimit,
+        Path spillDirectory
+    ) throws IOException {
+        if (spillDirectory == null) {
+            throw new IllegalArgumentException("Expected Path but Recieved Null");
+        }
+        checkCounts(inputCount, outputCount);
+        if ((long) outputCount * wordCount(inputCount) * Long.BYTES <= heapLimit) {
+            return allocate(inputCount, outputCount, heapLimit);
+        }
+        Path file = Files.createTempFile(spillDirectory, "truthtable", ".lstt");
+        FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE
+        );
+        try {
+            return map(channel, inputCount, outputCount, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps a table file written by {@link #save(Path)}. The mapping is read-only.
+     *
+     * @param file The table file.
+     * @return The table, backed by the file until closed.
+     * @throws IOException If the file cannot be read or is not a table file.
+     */
+    public static TruthTable open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a truth table file: " + file);
+            }
+            int inputCount = header.getInt();
+            int outputCount = header.getInt();
+            if (
+                inputCount < 0 ||
+                inputCount > MAX_INPUTS ||
+                outputCount < 0 ||
+                channel.size() <
+                HEADER_BYTES + (long) outputCount * wordCount(inputCount) * Long.BYTES
+            ) {
+                throw new IOException("Truncated or corrupt truth table file: " + file);
+            }
+            return map(channel, inputCount, outputCount, FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the columns of a table file, writing the header first if the
+     * mapping is writable.
+     */
+    private static TruthTable map(
+        FileChannel channel,
+        int inputCount,
+        int outputCount,
+        FileChannel.MapMode mode
+    ) throws IOException {
+        int words = wordCount(inputCount);
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            writeHeader(channel, inputCount, outputCount);
+        }
+        LongBuffer[] columns = new LongBuffer[outputCount];
+        long columnBytes = (long) words * Long.BYTES;
+        for (int col = 0; col < outputCount; col++) {
+            columns[col] = channel
+                .map(mode, HEADER_BYTES + col * columnBytes, columnBytes)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+        }
+        return new TruthTable(inputCount, Storage.MAPPED, columns, channel);
+    }
+
+    private static void writeHeader(FileChannel channel, int inputCount, int outputCount)
+        throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(inputCount).putInt(outputCount).putInt(0).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static void checkCounts(int inputCount, int outputCount) {
+        if (inputCount < 0 || inputCount > MAX_INPUTS) {
+            throw new IllegalArgumentException(
+                "Input count must be between 0 and " + MAX_INPUTS + ": " + inputCount
+            );
+        }
+        if (outputCount < 0) {
+            throw new IllegalArgumentException(
+                "Output count must not be negative: " + outputCount
+            );
+        }
+    }
+
+    private static int wordCount(int inputCount) {
+        return Math.max(1, (1 << inputCount) >>> 6);
+    }
+
+    /**
+     * Writes the table to a file in the format described above.
+     *
+     * @param file The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (
+            FileChannel out = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            writeHeader(out, inputCount, columns.length);
+            ByteBuffer buffer = ByteBuffer
+                .allocateDirect(ParallelTruthTableTask.LEAF_WORDS * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            LongBuffer words = buffer.asLongBuffer();
+            long position = HEADER_BYTES;
+            for (LongBuffer column : columns) {
+                LongBuffer source = column.duplicate();
+                source.clear();
+                while (source.hasRemaining()) {
+                    int n = Math.min(words.capacity(), source.remaining());
+                    words.clear();
+                    words.put(source.slice().limit(n));
+                    source.position(source.position() + n);
+                    buffer.clear().limit(n * Long.BYTES);
+                    while (buffer.hasRemaining()) {
+                        position += out.write(buffer, position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the file behind a mapped table and deletes it if it was a
+     * spill file. The table must not be used afterwards. Does nothing for
+     * other tables.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Retrieves the number of inputs.
+     *
+     * @return The input count.
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Retrieves the number of output columns.
+     *
+     * @return The output count.
+     */
+    public int getOutputCount() {
+        return columns.length;
+    }
+
+    /**
+     * Retrieves the number of rows, {@code 2^inputs}.
+     *
+     * @return The row count.
+     */
+    public long getRowCount() {
+        return 1L << inputCount;
+    }
+
+    /**
+     * Retrieves the number of words in each column.
+     *
+     * @return The word count.
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Retrieves where the words of this table are kept.
+     *
+     * @return The {@link Storage}.
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Reads one word of a column.
+     *
+     * @param column The output column.
+     * @param word   The word index.
+     * @return The 64 output values of rows {@code word * 64} onwards.
+     */
+    public long getWord(int column, int word) {
+        return columns[column].get(word);
+    }
+
+    /**
+     * Writes one word of a column.
+     *
+     * @param column The output column.
+     * @param word   The word index.
+     * @param value  The 64 output values of rows {@code word * 64} onwards.
+     * @throws java.nio.ReadOnlyBufferException If the table was opened from a file.
+     */
+    public void setWord(int column, int word, long value) {
+        columns[column].put(word, value);
+    }
+
+    /**
+     * Reads one output value.
+     *
+     * @param column The output column.
+     * @param row    The row index.
+     * @return The output value in that row.
+     */
+    public boolean getOutput(int column, long row) {
+        return ((columns[column].get((int) (row >>> 6)) >>> (row & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Reads one row.
+     *
+     * @param index The row index.
+     * @return The row.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    public TruthTableRow getRow(long index) {
+        if (index < 0 || index >= getRowCount()) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + getRowCount());
+        }
+        long[] outputs = new long[(columns.length + 63) >>> 6];
+        for (int k = 0; k < columns.length; k++) {
+            if (getOutput(k, index)) {
+                outputs[k >>> 6] |= 1L << (k & 63);
+            }
+        }
+        return new TruthTableRow(index, inputCount, columns.length, outputs);
+    }
+
+    /**
+     * Copies one column into a {@code long[]}, in the packed format of
+     * {@link com.logisim.domain.Circuit#analyzePacked()}.
+     *
+     * @param column The output column.
+     * @return A copy of the column's words.
+     */
+    public long[] toColumn(int column) {
+        long[] words = new long[wordCount];
+        columns[column].duplicate().clear().get(words);
+        return words;
+    }
+
+    /**
+     * Counts the rows in which an output is true.
+     *
+     * @param column The output column.
+     * @return The number of ones in the column.
+     */
+    public long popCount(int column) {
+        LongBuffer words = columns[column];
+        long count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            count += Long.bitCount(words.get(w));
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a column of this table equals a column of another
+     * table over the same inputs. Words are compared in bulk, without
+     * expanding any rows.
+     *
+     * @param column      The column of this table.
+     * @param other       The other table.
+     * @param otherColumn The column of the other table.
+     * @return {@code true} if the two outputs agree in every row.
+     */
+    public boolean columnEquals(int column, TruthTable other, int otherColumn) {
+        requireSameInputs(other);
+        return (
+            columns[column]
+                .duplicate()
+                .clear()
+                .mismatch(other.columns[otherColumn].duplicate().clear()) ==
+            -1
+        );
+    }
+
+    /**
+     * Counts the rows in which a column of this table differs from a column
+     * of another table over the same inputs.
+     *
+     * @param column      The column of this table.
+     * @param other       The other table.
+     * @param otherColumn The column of the other table.
+     * @return The number of ones in the XOR of the two columns.
+     */
+    public long differenceCount(int column, TruthTable other, int otherColumn) {
+        requireSameInputs(other);
+        LongBuffer a = columns[column];
+        LongBuffer b = other.columns[otherColumn];
+        long count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            count += Long.bitCount(a.get(w) ^ b.get(w));
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first row in which a column of this table differs from a
+     * column of another table over the same inputs.
+     *
+     * @param column      The column of this table.
+     * @param other       The other table.
+     * @param otherColumn The column of the other table.
+     * @return The lowest differing row index, or -1 if the columns are equal.
+     */
+    public long firstDifference(int column, TruthTable other, int otherColumn) {
+        requireSameInputs(other);
+        LongBuffer a = columns[column];
+        LongBuffer b = other.columns[otherColumn];
+        int word = a.duplicate().clear().mismatch(b.duplicate().clear());
+        if (word < 0) {
+            return -1;
+        }
+        return ((long) word << 6) + Long.numberOfTrailingZeros(a.get(word) ^ b.get(word));
+    }
+
+    /**
+     * Computes the XOR of every column with the matching column of another
+     * table: the result is true exactly where the two tables differ. The
+     * result is allocated as by {@link #allocate(int, int)}.
+     *
+     * @param other A table with the same input and output counts.
+     * @return The difference table.
+     * @throws IllegalArgumentException If the tables have different shapes.
+     */
+    public TruthTable xor(TruthTable other) {
+        requireSameInputs(other);
+        if (other.columns.length != columns.length) {
+            throw new IllegalArgumentException(
+                "Expected " + columns.length + " outputs but Recieved " +
+                other.columns.length
+            );
+        }
+        TruthTable diff = allocate(inputCount, columns.length);
+        for (int col = 0; col < columns.length; col++) {
+            LongBuffer a = columns[col];
+            LongBuffer b = other.columns[col];
+            LongBuffer target = diff.columns[col];
+            for (int w = 0; w < wordCount; w++) {
+                target.put(w, a.get(w) ^ b.get(w));
+            }
+        }
+        return diff;
+    }
+
+    private void requireSameInputs(TruthTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Expected TruthTable but Recieved Null");
+        }
+        if (other.inputCount != inputCount) {
+            throw new IllegalArgumentException(
+                "Expected " + inputCount + " inputs but Recieved " + other.inputCount
+            );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.logisim.domain.simulation;
+
+/**
+ * One row of a truth table in packed form.
+ * <p>
+ * The input values are not stored: they are the bits of the row index, with
+ * the first switch as the most significant bit, as in
+ * {@link com.logisim.domain.Circuit#analyze()}. The output values are packed
+ * into {@code long} words, bit {@code k % 64} of word {@code k / 64} holding
+ * output {@code k}.
+ * </p>
+ */
+public final class TruthTableRow {
+
+    private final long index;
+    private final int inputCount;
+    private final int outputCount;
+    private final long[] outputs;
+
+    /**
+     * Creates a row.
+     *
+     * @param index       The row index.
+     * @param inputCount  The number of inputs.
+     * @param outputCount The number of outputs.
+     * @param outputs     The packed output values; kept, not copied.
+     */
+    public TruthTableRow(long index, int inputCount, int outputCount, long[] outputs) {
+        this.index = index;
+        this.inputCount = inputCount;
+        this.outputCount = outputCount;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Reads one row out of packed output columns.
+     *
+     * @param columns    The packed columns produced by
+     *                   {@link com.logisim.domain.Circuit#analyzePacked()}.
+     * @param inputCount The number of inputs.
+     * @param index      The row index.
+     * @return The row.
+     */
+    public static TruthTableRow fromColumns(long[][] columns, int inputCount, long index) {
+        long[] outputs = new long[(columns.length + 63) >>> 6];
+        for (int k = 0; k < columns.length; k++) {
+            if (((columns[k][(int) (index >>> 6)] >>> (index & 63)) & 1L) != 0) {
+                outputs[k >>> 6] |= 1L << (k & 63);
+            }
+        }
+        return new TruthTableRow(index, inputCount, columns.length, outputs);
+    }
+
+    /**
+     * Retrieves the row index.
+     *
+     * @return The index, whose bits are the input values.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Retrieves the number of inputs.
+     *
+     * @return The input count.
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Retrieves the number of outputs.
+     *
+     * @return The output count.
+     */
+    public int getOutputCount() {
+        return outputCount;
+    }
+
+    /**
+     * Reads one input value.
+     *
+     * @param column The input (switch) index.
+     * @return The value of that input in this row.
+     */
+    public boolean getInput(int column) {
+        return ((index >>> (inputCount - 1 - column)) & 1L) != 0;
+    }
+
+    /**
+     * Reads one output value.
+     *
+     * @param column The output (bulb) index.
+     * @return The value of that output in this row.
+     */
+    public boolean getOutput(int column) {
+        return ((outputs[column >>> 6] >>> (column & 63)) & 1L) != 0;
+    }
+
+    /**
+     * Expands the row into the format of one row of
+     * {@link com.logisim.domain.Circuit#analyze()}.
+     *
+     * @return The input values followed by the output values.
+     */
+    public boolean[] toArray() {
+        boolean[] row = new boolean[inputCount + outputCount];
+        for (int col = 0; col < inputCount; col++) {
+            row[col] = getInput(col);
+        }
+        for (int col = 0; col < outputCount; col++) {
+            row[inputCount + col] = getOutput(col);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,109 @@
+package com.logisim.domain.simulation;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Produces the rows of a truth table on demand with a
+ * {@link BitParallelEvaluator}.
+ * <p>
+ * Rows are evaluated one 64-row word at a time, when the first row of the
+ * word is requested, so only one word of outputs is held at any moment. The
+ * row range is a {@code long}, which allows up to 62 inputs. Splitting
+ * divides the remaining range at a word boundary; every part allocates its
+ * own state array, so a parallel stream evaluates the parts on different
+ * threads without sharing mutable state.
+ * </p>
+ */
+public class TruthTableSpliterator implements Spliterator<TruthTableRow> {
+
+    /**
+     * The smallest range, in rows, that is split further.
+     */
+    public static final long MIN_SPLIT_ROWS = 64L * ParallelTruthTableTask.LEAF_WORDS;
+
+    private final BitParallelEvaluator evaluator;
+    private long row;
+    private final long toRow;
+
+    private long[] state;
+    private long[] inputWords;
+    private long[] outputWords;
+
+    /** The word whose outputs are in {@code outputWords}, or -1. */
+    private long evaluatedWord = -1;
+
+    /**
+     * Creates a spliterator over a range of rows.
+     *
+     * @param evaluator The compiled circuit.
+     * @param fromRow   The first row (inclusive).
+     * @param toRow     The last row (exclusive).
+     */
+    public TruthTableSpliterator(BitParallelEvaluator evaluator, long fromRow, long toRow) {
+        this.evaluator = evaluator;
+        this.row = fromRow;
+        this.toRow = toRow;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super TruthTableRow> action) {
+        if (row >= toRow) {
+            return false;
+        }
+        long word = row >>> 6;
+        if (word != evaluatedWord) {
+            evaluate(word);
+        }
+        int outputCount = evaluator.getOutputCount();
+        long[] outputs = new long[(outputCount + 63) >>> 6];
+        int bit = (int) (row & 63);
+        for (int k = 0; k < outputCount; k++) {
+            outputs[k >>> 6] |= ((outputWords[k] >>> bit) & 1L) << (k & 63);
+        }
+        action.accept(
+            new TruthTableRow(row, evaluator.getInputCount(), outputCount, outputs)
+        );
+        row++;
+        return true;
+    }
+
+    @Override
+    public Spliterator<TruthTableRow> trySplit() {
+        long remaining = toRow - row;
+        if (remaining < 2 * MIN_SPLIT_ROWS) {
+            return null;
+        }
+        long middle = (row + remaining / 2) & ~63L;
+        TruthTableSpliterator prefix = new TruthTableSpliterator(evaluator, row, middle);
+        row = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return toRow - row;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Evaluates the 64 rows of one word.
+     */
+    private void evaluate(long word) {
+        int inputCount = evaluator.getInputCount();
+        if (state == null) {
+            state = evaluator.newState();
+            inputWords = new long[inputCount];
+            outputWords = new long[evaluator.getOutputCount()];
+        }
+        for (int col = 0; col < inputCount; col++) {
+            inputWords[col] = BitParallelEvaluator.inputPattern(inputCount - 1 - col, word);
+        }
+        evaluator.evaluate(inputWords, outputWords, state);
+        evaluatedWord = word;
+    }
+}
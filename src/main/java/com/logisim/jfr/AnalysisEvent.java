@@ -0,0 +1,51 @@
+package com.logisim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a truth table is generated by
+ * {@link com.logisim.domain.Circuit#analyze(java.util.concurrent.ForkJoinPool)},
+ * {@link com.logisim.domain.Circuit#analyzePacked(java.util.concurrent.ForkJoinPool)}
+ * or {@link com.logisim.domain.Circuit#analyzeTable(java.util.concurrent.ForkJoinPool)}.
+ */
+@Name("com.logisim.Analysis")
+@Label("Truth Table Analysis")
+@Category({ "LogiSim", "Simulation" })
+@Description("Generation of a truth table")
+public class AnalysisEvent extends Event {
+
+    @Label("Operation")
+    @Description("analyze, analyzePacked or analyzeTable")
+    public String operation;
+
+    @Label("Circuit ID")
+    @Description("The database ID of the circuit; 0 if it was never saved")
+    public long circuitId;
+
+    @Label("Circuit Name")
+    public String circuitName;
+
+    @Label("Components")
+    public int components;
+
+    @Label("Inputs")
+    public int inputs;
+
+    @Label("Outputs")
+    public int outputs;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bit-Parallel")
+    @Description("Whether the rows were evaluated 64 at a time instead of simulated one by one")
+    public boolean bitParallel;
+
+    @Label("Pooled")
+    @Description("Whether the rows were split across a fork/join pool")
+    public boolean pooled;
+}
@@ -0,0 +1,75 @@
+package com.logisim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted by every public method of {@link com.logisim.data.CircuitDAO} and
+ * {@link com.logisim.data.ProjectDAO}.
+ */
+@Name("com.logisim.Database")
+@Label("Database Operation")
+@Category({ "LogiSim", "Database" })
+@Description("One data access object call")
+public class DatabaseEvent extends Event {
+
+    @Label("DAO")
+    public String dao;
+
+    @Label("Operation")
+    @Description("The name of the method called")
+    public String operation;
+
+    @Label("Project ID")
+    @Description("The project involved; 0 if none")
+    public long projectId;
+
+    @Label("Circuit ID")
+    @Description("The circuit involved; 0 if none")
+    public long circuitId;
+
+    @Label("Rows")
+    @Description("The number of rows written or read")
+    public long rows;
+
+    @Label("Succeeded")
+    @Description("Whether the call completed without a database error")
+    public boolean succeeded;
+
+    /**
+     * Creates and begins the event for one DAO call.
+     *
+     * @param dao       The simple class name of the DAO.
+     * @param operation The name of the method called.
+     * @return The started event.
+     */
+    public static DatabaseEvent start(String dao, String operation) {
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+        event.dao = dao;
+        event.operation = operation;
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param projectId The project involved; 0 if none.
+     * @param circuitId The circuit involved; 0 if none.
+     * @param rows      The number of rows written or read.
+     * @param succeeded Whether the call completed without a database error.
+     */
+    public void finish(long projectId, long circuitId, long rows, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.projectId = projectId;
+            this.circuitId = circuitId;
+            this.rows = rows;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
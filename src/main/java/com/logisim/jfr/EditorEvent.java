@@ -0,0 +1,33 @@
+package com.logisim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted by the circuit editor when it loads a circuit or runs a simulation.
+ */
+@Name("com.logisim.Editor")
+@Label("Editor Action")
+@Category({ "LogiSim", "User Interface" })
+@Description("A circuit editor action on the JavaFX thread")
+public class EditorEvent extends Event {
+
+    @Label("Action")
+    @Description("setContext or handleRun")
+    public String action;
+
+    @Label("Circuit ID")
+    public long circuitId;
+
+    @Label("Circuit Name")
+    public String circuitName;
+
+    @Label("Components")
+    public int components;
+
+    @Label("Connectors")
+    public int connectors;
+}
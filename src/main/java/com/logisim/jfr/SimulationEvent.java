@@ -0,0 +1,49 @@
+package com.logisim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by {@link com.logisim.domain.Circuit#simulate()} and
+ * {@link com.logisim.domain.Circuit#settle()}, including the settles of
+ * sub-circuit inner circuits.
+ */
+@Name("com.logisim.Simulation")
+@Label("Simulation")
+@Category({ "LogiSim", "Simulation" })
+@Description("A simulate or settle call on a circuit")
+@Threshold("1 ms")
+@StackTrace(false)
+public class SimulationEvent extends Event {
+
+    @Label("Operation")
+    @Description("simulate or settle")
+    public String operation;
+
+    @Label("Circuit ID")
+    @Description("The database ID of the circuit; 0 if it was never saved")
+    public long circuitId;
+
+    @Label("Circuit Name")
+    public String circuitName;
+
+    @Label("Simulation Mode")
+    public String mode;
+
+    @Label("Components")
+    public int components;
+
+    @Label("Connectors")
+    public int connectors;
+
+    @Label("Passes")
+    public int passes;
+
+    @Label("Converged")
+    public boolean converged;
+}
@@ -0,0 +1,39 @@
+package com.logisim.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by {@link com.logisim.domain.components.SubCircuitComponent#execute()}.
+ */
+@Name("com.logisim.SubCircuitExecution")
+@Label("Sub-Circuit Execution")
+@Category({ "LogiSim", "Simulation" })
+@Description("One execution of a sub-circuit instance")
+@Threshold("1 ms")
+@StackTrace(false)
+public class SubCircuitEvent extends Event {
+
+    @Label("Source Circuit ID")
+    @Description("The database ID of the circuit the instance was made from")
+    public long sourceCircuitId;
+
+    @Label("Name")
+    public String name;
+
+    @Label("Inner Components")
+    public int components;
+
+    @Label("Shared")
+    @Description("Whether the instance belongs to a shared definition")
+    public boolean shared;
+
+    @Label("Cache Hit")
+    @Description("Whether the outputs came from the result memo")
+    public boolean cacheHit;
+}
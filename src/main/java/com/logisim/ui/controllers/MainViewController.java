@@ -1,7 +1,6 @@
 package com.logisim.ui.controllers;
 
 import com.logisim.data.CircuitDAO;
-import com.logisim.data.DatabaseManager;
 import com.logisim.domain.Circuit;
 import com.logisim.domain.Project;
 import com.logisim.domain.components.And;
@@ -11,24 +10,28 @@ import com.logisim.domain.components.Not;
 import com.logisim.domain.components.Or;
 import com.logisim.domain.components.SubCircuitComponent;
 import com.logisim.domain.components.Switch;
+import com.logisim.domain.minimization.ExpressionForm;
+import com.logisim.domain.minimization.LogicMinimizer;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.SimulationStats;
+import com.logisim.domain.simulation.TruthTable;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.jfr.EditorEvent;
 import com.logisim.ui.components.GateFactory;
 import com.logisim.ui.components.Port;
 import com.logisim.ui.components.Wire;
 import com.logisim.ui.logic.ConnectionManager;
 import com.logisim.ui.logic.SafePoints;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Point2D;
@@ -44,6 +47,7 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
@@ -85,6 +89,12 @@ public class MainViewController {
     private Circuit currentCircuit;
     private CircuitDAO circuitDAO = new CircuitDAO();
 
+    /**
+     * The simulation statistics window, or {@code null} while it is closed.
+     */
+    private Stage statsStage;
+    private TextArea statsText;
+
     /**
      * Refreshes the sidebar with buttons to insert other circuits from the current project.
      * <p>
@@ -152,16 +162,15 @@ public class MainViewController {
      * @param template The {@link Circuit} metadata object representing the circuit to import.
      */
     private void spawnSubCircuit(Circuit template) {
-        Circuit innerLogic = loadFullCircuitFromDB(template.getId());
-        innerLogic.setName(template.getName());
-
         Point2D pos = SafePoints.getSafeSpawnPoint(
             canvasScrollPane,
             canvasPane,
             gridSize
         );
 
-        SubCircuitComponent subComp = new SubCircuitComponent(innerLogic);
+        SubCircuitComponent subComp = new SubCircuitComponent(
+            circuitDAO.loadDefinition(template.getId())
+        );
 
         subComp.setPositionX(pos.getX());
         subComp.setPositionY(pos.getY());
@@ -228,47 +237,7 @@ public class MainViewController {
      * @return A fully constructed {@link Circuit} object with components and logic connections.
      */
     public Circuit loadFullCircuitFromDB(long id) {
-        Circuit c = new Circuit();
-        c.setId(id);
-        String sql = "SELECT name FROM circuits WHERE id = ?";
-        try (
-            Connection conn = DatabaseManager.getInstance().getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
-        ) {
-            pstmt.setLong(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    c.setName(rs.getString("name"));
-                } else {
-                    c.setName("SubCircuit");
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            c.setName("Error");
-        }
-        c.setName("SubInstance");
-
-        List<Component> comps = circuitDAO.loadComponents(id);
-
-        List<CircuitDAO.ConnectionRecord> rawConns = circuitDAO.loadConnections(
-            id
-        );
-
-        Map<String, Component> map = new HashMap<>();
-        for (Component comp : comps) {
-            map.put(comp.getUuid(), comp);
-            c.addComponent(comp);
-        }
-
-        for (CircuitDAO.ConnectionRecord r : rawConns) {
-            Component src = map.get(r.sourceUuid());
-            Component sink = map.get(r.sinkUuid());
-            if (src != null && sink != null) {
-                c.addConnection(r.sourcePin(), src, r.sinkPin(), sink);
-            }
-        }
-        return c;
+        return circuitDAO.loadCircuit(id);
     }
 
     /**
@@ -315,10 +284,10 @@ public class MainViewController {
     @FXML
     private void handleRun() {
         if (currentCircuit == null) return;
+        EditorEvent event = new EditorEvent();
+        event.begin();
         System.out.println("Running Sim");
-        for (int i = 0; i < currentCircuit.getComponents().size(); i++) {
-            currentCircuit.simulate();
-        }
+        SimulationResult result = currentCircuit.settle();
 
         for (Node node : canvasPane.getChildren()) {
             if (node instanceof StackPane) {
@@ -328,7 +297,163 @@ public class MainViewController {
                 }
             }
         }
-        System.out.println("Simulation Complete.");
+        System.out.println("Simulation Complete: " + result);
+        refreshStats();
+        commitEditorEvent(event, "handleRun");
+    }
+
+    /**
+     * Opens the simulation statistics window and starts recording counters
+     * for the current circuit.
+     * <p>
+     * The window shows the counters of {@link SimulationStats} and is
+     * refreshed after every run. Closing it stops recording, so simulation
+     * pays nothing for the counters while the window is closed.
+     * </p>
+     */
+    @FXML
+    private void handleStats() {
+        if (currentCircuit == null) return;
+        currentCircuit.setStatsEnabled(true);
+        if (statsStage == null) {
+            statsStage = createStatsWindow();
+        }
+        refreshStats();
+        statsStage.show();
+        statsStage.toFront();
+    }
+
+    /**
+     * Builds the simulation statistics window, placed to the right of the
+     * editor like the analysis window.
+     *
+     * @return The window, not yet shown.
+     */
+    private Stage createStatsWindow() {
+        Stage stage = new Stage();
+        stage.setTitle("Simulation Statistics");
+
+        VBox layout = new VBox(15);
+        layout.setStyle("-fx-background-color: #1e1e1e; -fx-padding: 20;");
+
+        Label lblStats = new Label("Counters:");
+        lblStats.getStyleClass().add("header-label");
+
+        statsText = new TextArea();
+        statsText.setEditable(false);
+        statsText.setStyle(
+            "-fx-font-family: 'Consolas', monospace; -fx-font-size: 14px;"
+        );
+        VBox.setVgrow(statsText, Priority.ALWAYS);
+
+        Button btnReset = new Button("Reset");
+        btnReset.getStyleClass().addAll("button", "button-secondary");
+        btnReset.setOnAction(e -> {
+            if (currentCircuit != null && currentCircuit.getStats() != null) {
+                currentCircuit.getStats().reset();
+            }
+            refreshStats();
+        });
+
+        Button btnStop = new Button("Stop Recording");
+        btnStop.getStyleClass().addAll("button", "button-secondary");
+        btnStop.setOnAction(e -> stage.close());
+
+        layout.getChildren().addAll(
+            lblStats,
+            statsText,
+            new HBox(10, btnReset, btnStop)
+        );
+
+        Scene scene = new Scene(layout, 450, 500);
+        scene
+            .getStylesheets()
+            .add(
+                getClass()
+                    .getResource("/com/logisim/ui/styles/application.css")
+                    .toExternalForm()
+            );
+        stage.setScene(scene);
+
+        Stage owner = (Stage) btnAnd.getScene().getWindow();
+        stage.initOwner(owner);
+        stage.setX(owner.getX() + owner.getWidth());
+        stage.setY(owner.getY());
+        stage.setOnHidden(e -> {
+            if (currentCircuit != null) {
+                currentCircuit.setStatsEnabled(false);
+            }
+            statsStage = null;
+            statsText = null;
+        });
+        return stage;
+    }
+
+    /**
+     * Shows the current circuit's counters in the statistics window, if it is open.
+     */
+    private void refreshStats() {
+        if (statsText == null) return;
+        SimulationStats stats = currentCircuit == null
+            ? null
+            : currentCircuit.getStats();
+        if (stats == null) {
+            statsText.setText("Recording is off. Press Statistics to start.");
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Runs:            %d%n", stats.getRuns()));
+        text.append(
+            String.format(
+                "Passes:          %d (last run %d)%n",
+                stats.getPasses(),
+                stats.getLastPasses()
+            )
+        );
+        text.append(
+            String.format(
+                "Total time:      %.3f ms%n",
+                stats.getTotalNanos() / 1e6
+            )
+        );
+        text.append(
+            String.format(
+                "Time per pass:   mean %.1f us, max %.1f us, last %.1f us%n",
+                stats.getMeanPassNanos() / 1e3,
+                stats.getMaxPassNanos() / 1e3,
+                stats.getLastPassNanos() / 1e3
+            )
+        );
+        text.append(
+            String.format("Propagations:    %d%n%n", stats.getPropagations())
+        );
+
+        text.append(String.format("Evaluations:     %d%n", stats.getEvaluations()));
+        for (Map.Entry<String, Long> entry : stats
+            .getEvaluationsByType()
+            .entrySet()) {
+            text.append(
+                String.format("  %-22s %d%n", entry.getKey(), entry.getValue())
+            );
+        }
+
+        List<SimulationStats.SubCircuitStats> hottest =
+            stats.getHottestSubCircuits(10);
+        if (!hottest.isEmpty()) {
+            text.append(String.format("%nHottest sub-circuits:%n"));
+            for (SimulationStats.SubCircuitStats sub : hottest) {
+                text.append(
+                    String.format(
+                        "  %-22s %d runs, %.3f ms%n",
+                        sub.component().getName(),
+                        sub.executions(),
+                        sub.nanos() / 1e6
+                    )
+                );
+            }
+        }
+        statsText.setText(text.toString());
     }
 
     /**
@@ -363,7 +488,10 @@ public class MainViewController {
      * Performs a combinatorial logic analysis of the circuit.
      * <p>
      * Identifies input switches and output bulbs, generates a truth table,
-     * and derives a boolean expression. Results are shown in a new window.
+     * and derives a minimized boolean expression for every output. Results are
+     * shown in a new window. Circuits with more than
+     * {@link LogicMinimizer#MAX_INPUTS} inputs still get their truth table,
+     * with a note in place of the expression.
      * </p>
      */
     @FXML
@@ -405,19 +533,42 @@ public class MainViewController {
         }
 
         try {
-            boolean[][] truthTable = currentCircuit.analyze();
-            if (truthTable.length == 0) {
+            TruthTable truthTable = currentCircuit.analyzeTable(
+                ForkJoinPool.commonPool()
+            );
+            if (truthTable.getOutputCount() == 0) {
                 showAlert(
                     "Analysis Failed",
                     "Circuit logic could not be simulated."
                 );
                 return;
             }
-            String expression = currentCircuit.generateBooleanExpression(
+            StringBuilder expression = new StringBuilder();
+            if (inputCount > LogicMinimizer.MAX_INPUTS) {
+                expression
+                    .append("Expression not available: minimization supports at most ")
+                    .append(LogicMinimizer.MAX_INPUTS)
+                    .append(" inputs.");
+            } else {
+                List<String> expressions =
+                    currentCircuit.generateBooleanExpressions(
+                        truthTable,
+                        columnHeaders.subList(0, inputCount),
+                        ExpressionForm.SUM_OF_PRODUCTS
+                    );
+                for (int i = 0; i < expressions.size(); i++) {
+                    if (i > 0) expression.append("\n");
+                    expression
+                        .append(columnHeaders.get(inputCount + i))
+                        .append(" = ")
+                        .append(expressions.get(i));
+                }
+            }
+            showAnalysisWindow(
                 truthTable,
-                columnHeaders.subList(0, inputCount)
+                columnHeaders,
+                expression.toString()
             );
-            showAnalysisWindow(truthTable, columnHeaders, expression);
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error", "Analysis Error: " + e.getMessage());
@@ -426,14 +577,19 @@ public class MainViewController {
 
     /**
      * Helper method to display the analysis results in a dedicated window.
+     * <p>
+     * The table reads its rows straight from the bit-packed {@link TruthTable}
+     * as they scroll into view, so no per-cell strings are built for rows
+     * that are never shown.
+     * </p>
      *
-     * @param rawData    The 2D boolean array representing the truth table.
+     * @param truthTable The truth table of the circuit.
      * @param headers    The list of column headers (Input names and Output names).
      * @param expression The derived boolean expression string.
      */
     @SuppressWarnings("deprecation")
     private void showAnalysisWindow(
-        boolean[][] rawData,
+        TruthTable truthTable,
         List<String> headers,
         String expression
     ) {
@@ -449,7 +605,9 @@ public class MainViewController {
         TextArea txtExpression = new TextArea(expression);
         txtExpression.setEditable(false);
         txtExpression.setWrapText(true);
-        txtExpression.setPrefRowCount(2);
+        txtExpression.setPrefRowCount(
+            Math.min(6, Math.max(2, (int) expression.lines().count()))
+        );
         txtExpression.setStyle(
             "-fx-font-family: 'Consolas', monospace; -fx-font-size: 14px;"
         );
@@ -457,35 +615,45 @@ public class MainViewController {
         Label lblTable = new Label("Truth Table:");
         lblTable.getStyleClass().add("header-label");
 
-        TableView<ObservableList<String>> table = new TableView<>();
+        TableView<TruthTableRow> table = new TableView<>();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         VBox.setVgrow(table, Priority.ALWAYS);
 
+        int inputCount = truthTable.getInputCount();
         for (int i = 0; i < headers.size(); i++) {
             final int colIndex = i;
-            TableColumn<ObservableList<String>, String> col = new TableColumn<>(
+            TableColumn<TruthTableRow, String> col = new TableColumn<>(
                 headers.get(i)
             );
 
-            col.setCellValueFactory(param ->
-                new SimpleStringProperty(param.getValue().get(colIndex))
-            );
+            col.setCellValueFactory(param -> {
+                TruthTableRow row = param.getValue();
+                boolean value = colIndex < inputCount
+                    ? row.getInput(colIndex)
+                    : row.getOutput(colIndex - inputCount);
+                return new SimpleStringProperty(value ? "1" : "0");
+            });
 
             col.setStyle("-fx-alignment: CENTER;");
             table.getColumns().add(col);
         }
 
-        ObservableList<ObservableList<String>> data =
-            FXCollections.observableArrayList();
-        for (boolean[] row : rawData) {
-            ObservableList<String> rowList =
-                FXCollections.observableArrayList();
-            for (boolean cell : row) {
-                rowList.add(cell ? "1" : "0");
-            }
-            data.add(rowList);
-        }
-        table.setItems(data);
+        int rowCount = (int) truthTable.getRowCount();
+        table.setItems(
+            FXCollections.observableList(
+                new AbstractList<TruthTableRow>() {
+                    @Override
+                    public TruthTableRow get(int index) {
+                        return truthTable.getRow(index);
+                    }
+
+                    @Override
+                    public int size() {
+                        return rowCount;
+                    }
+                }
+            )
+        );
 
         layout.getChildren().addAll(lblExpr, txtExpression, lblTable, table);
 
@@ -759,6 +927,11 @@ public class MainViewController {
      * @param circuit The {@link Circuit} to be edited.
      */
     public void setContext(Project project, Circuit circuit) {
+        EditorEvent event = new EditorEvent();
+        event.begin();
+        if (statsStage != null) {
+            statsStage.close();
+        }
         this.currentProject = project;
         this.currentCircuit = circuit;
         System.out.println(
@@ -832,6 +1005,26 @@ public class MainViewController {
             }
         }
         refreshSubCircuitSidebar();
+        commitEditorEvent(event, "setContext");
+    }
+
+    /**
+     * Fills in and commits an editor event for the current circuit if the
+     * flight recording wants it.
+     *
+     * @param event  The event begun when the action started.
+     * @param action The name of the action.
+     */
+    private void commitEditorEvent(EditorEvent event, String action) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.circuitId = currentCircuit.getId();
+            event.circuitName = currentCircuit.getName();
+            event.components = currentCircuit.getComponents().size();
+            event.connectors = currentCircuit.getConnectors().size();
+            event.commit();
+        }
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.bdd.BddManager;
+import com.logisim.domain.bdd.CircuitBdd;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BddTest {
+
+    private static List<String> names(int n) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            names.add(String.valueOf((char) ('A' + i)));
+        }
+        return names;
+    }
+
+    /**
+     * Checks every output of a BDD against every row of the circuit's truth table.
+     */
+    private static void assertMatchesTruthTable(Circuit circuit, CircuitBdd bdd) {
+        boolean[][] table = circuit.analyze();
+        int n = bdd.getInputCount();
+        for (int k = 0; k < bdd.getOutputCount(); k++) {
+            long ones = 0;
+            for (boolean[] row : table) {
+                boolean[] inputs = Arrays.copyOf(row, n);
+                assertEquals(row[n + k], bdd.evaluate(k, inputs));
+                if (row[n + k]) ones++;
+            }
+            assertEquals(BigInteger.valueOf(ones), bdd.countMinterms(k));
+        }
+    }
+
+    @Test
+    void equalFunctionsShareOneNode() {
+        BddManager manager = new BddManager(3);
+        int a = manager.variable(0);
+        int b = manager.variable(1);
+        int c = manager.variable(2);
+
+        assertEquals(a, manager.or(manager.and(a, b), manager.and(a, manager.not(b))));
+        assertTrue(manager.isTautology(manager.or(a, manager.not(a))));
+        assertFalse(manager.isSatisfiable(manager.and(a, manager.not(a))));
+        assertEquals(
+            manager.and(manager.or(a, b), c),
+            manager.or(manager.and(a, c), manager.and(b, c))
+        );
+
+        int f = manager.xor(a, manager.and(b, c));
+        assertEquals(BigInteger.valueOf(4), manager.countMinterms(f));
+        assertEquals("(!A & B & C) + (A & !B) + (A & B & !C)", manager.toExpression(f, names(3)));
+        assertTrue(manager.evaluate(f, manager.findSatisfyingAssignment(f)));
+        assertNull(manager.findSatisfyingAssignment(BddManager.FALSE));
+        assertEquals("1", manager.toExpression(BddManager.TRUE, names(3)));
+    }
+
+    @Test
+    void siftingRecoversFromABadOrder() {
+        // (x0 & y0) + ... + (x9 & y9) is exponential with every x above every y.
+        int n = 10;
+        BddManager manager = new BddManager(2 * n);
+        int f = BddManager.FALSE;
+        for (int i = 0; i < n; i++) {
+            f = manager.or(f, manager.and(manager.variable(i), manager.variable(n + i)));
+        }
+        manager.ref(f);
+        BigInteger minterms = manager.countMinterms(f);
+        int before = manager.getNodeCount(f);
+        assertTrue(before > 1000, "Nodes before sifting: " + before);
+
+        manager.reorder();
+        int after = manager.getNodeCount(f);
+        assertEquals(2 * n, after);
+        assertEquals(minterms, manager.countMinterms(f));
+        assertEquals(1, manager.getReorderCount());
+
+        Random random = new Random(5);
+        for (int trial = 0; trial < 200; trial++) {
+            boolean[] assignment = new boolean[2 * n];
+            boolean expected = false;
+            for (int v = 0; v < 2 * n; v++) {
+                assignment[v] = random.nextBoolean();
+            }
+            for (int i = 0; i < n; i++) {
+                expected |= assignment[i] && assignment[n + i];
+            }
+            assertEquals(expected, manager.evaluate(f, assignment));
+        }
+    }
+
+    @Test
+    void circuitBddsMatchTheTruthTable() {
+        Circuit random = CircuitGenerator.randomDag(10, 120, 8, 3, 11);
+        assertMatchesTruthTable(random, random.buildBdd());
+
+        Circuit adder = CircuitGenerator.rippleCarryAdder(
+            4,
+            new SubCircuitDefinition(CircuitGenerator.fullAdder())
+        );
+        assertMatchesTruthTable(adder, adder.buildBdd());
+
+        Circuit mux = CircuitGenerator.muxTree(3);
+        assertMatchesTruthTable(mux, mux.buildBdd());
+    }
+
+    @Test
+    void wideAdderIsAnalyzedWithoutEnumeratingRows() {
+        int bits = 32;
+        Circuit adder = CircuitGenerator.rippleCarryAdder(bits);
+        CircuitBdd bdd = adder.buildBdd();
+        assertEquals(2 * bits + 1, bdd.getInputCount());
+        assertEquals(bits + 1, bdd.getOutputCount());
+        // Quadratic in the width, where a truth table would have 2^65 rows.
+        assertTrue(bdd.getNodeCount() < 2 * bits * bits, "Nodes: " + bdd.getNodeCount());
+
+        // Every sum bit and the carry out are 1 for exactly half of the 2^65 rows.
+        BigInteger half = BigInteger.ONE.shiftLeft(2 * bits);
+        for (int k = 0; k <= bits; k++) {
+            assertTrue(bdd.isSatisfiable(k));
+            assertFalse(bdd.isTautology(k));
+            assertEquals(half, bdd.countMinterms(k));
+        }
+
+        // All ones plus carry in gives all ones with a carry out.
+        boolean[] inputs = new boolean[2 * bits + 1];
+        Arrays.fill(inputs, true);
+        for (int k = 0; k <= bits; k++) {
+            assertTrue(bdd.evaluate(k, inputs));
+        }
+        boolean[] witness = bdd.findSatisfyingInputs(bits);
+        assertTrue(bdd.evaluate(bits, witness));
+    }
+
+    @Test
+    void feedbackIsRejected() {
+        Circuit latches = CircuitGenerator.srLatchArray(1);
+        assertThrows(IllegalArgumentException.class, latches::buildBdd);
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBdd(null));
+        assertThrows(IllegalArgumentException.class, () -> new BddManager(2).variable(2));
+        assertThrows(IllegalArgumentException.class, () -> new BddManager(2).setOrder(new int[] { 0, 0 }));
+    }
+}
@@ -0,0 +1,198 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.BitParallelEvaluator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BitParallelEvaluatorTest {
+
+    @Test
+    void packedColumnsMatchRowByRowSimulation() {
+        Circuit circuit = buildParityWithCarry(8);
+        long[][] packed = circuit.analyzePacked();
+
+        List<Switch> switches = new ArrayList<>();
+        List<Bulb> bulbs = new ArrayList<>();
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch) switches.add((Switch) comp);
+            if (comp instanceof Bulb) bulbs.add((Bulb) comp);
+        }
+
+        assertEquals(bulbs.size(), packed.length);
+        assertEquals(4, packed[0].length, "256 rows pack into 4 words");
+        for (int row = 0; row < 256; row++) {
+            for (int col = 0; col < switches.size(); col++) {
+                switches.get(col).setState(((row >> (7 - col)) & 1) == 1);
+            }
+            circuit.settle();
+            for (int col = 0; col < bulbs.size(); col++) {
+                boolean bit = ((packed[col][row >>> 6] >>> (row & 63)) & 1L) != 0;
+                assertEquals(bulbs.get(col).isOn(), bit, "Row " + row);
+            }
+        }
+    }
+
+    @Test
+    void analyzeUnpacksIntoBooleanTable() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Or or = new Or();
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(or);
+        circuit.addComponent(not);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, a, 0, or);
+        circuit.addConnection(0, b, 1, or);
+        circuit.addConnection(0, or, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+
+        long[][] packed = circuit.analyzePacked();
+        assertEquals(1, packed.length);
+        assertEquals(0b0001L, packed[0][0], "NOR is true only for row 0");
+
+        boolean[][] table = circuit.analyze();
+        assertEquals(4, table.length);
+        assertArrayEquals(new boolean[] { false, false, true }, table[0]);
+        assertArrayEquals(new boolean[] { false, true, false }, table[1]);
+        assertArrayEquals(new boolean[] { true, false, false }, table[2]);
+        assertArrayEquals(new boolean[] { true, true, false }, table[3]);
+    }
+
+    @Test
+    void evaluatesSubCircuitsInline() {
+        Circuit inner = new Circuit();
+        Switch x = new Switch();
+        Switch y = new Switch();
+        And and = new And();
+        Bulb out = new Bulb();
+        inner.addComponent(x);
+        inner.addComponent(y);
+        inner.addComponent(and);
+        inner.addComponent(out);
+        inner.addConnection(0, x, 0, and);
+        inner.addConnection(0, y, 1, and);
+        inner.addConnection(0, and, 0, out);
+
+        Circuit outer = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+        outer.addComponent(a);
+        outer.addComponent(b);
+        outer.addComponent(sub);
+        outer.addComponent(not);
+        outer.addComponent(bulb);
+        outer.addConnection(0, a, 0, sub);
+        outer.addConnection(0, b, 1, sub);
+        outer.addConnection(0, sub, 0, not);
+        outer.addConnection(0, not, 0, bulb);
+
+        assertTrue(
+            BitParallelEvaluator.supports(
+                outer.getComponents(),
+                outer.getConnectors()
+            )
+        );
+        assertEquals(0b0111L, outer.analyzePacked()[0][0], "NAND truth table");
+    }
+
+    @Test
+    void feedbackFallsBackToScalarAnalysis() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Or or = new Or();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(set);
+        circuit.addComponent(or);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, set, 0, or);
+        circuit.addConnection(0, or, 0, bulb);
+        circuit.addConnection(0, or, 1, or);
+
+        assertFalse(
+            BitParallelEvaluator.supports(
+                circuit.getComponents(),
+                circuit.getConnectors()
+            )
+        );
+        long[][] packed = circuit.analyzePacked();
+        assertEquals(1, packed.length);
+        assertEquals(0b10L, packed[0][0] & 0b10L);
+    }
+
+    @Test
+    void inputPatternsFollowRowIndexBits() {
+        for (int bit = 0; bit < 10; bit++) {
+            for (long word = 0; word < 20; word++) {
+                long pattern = BitParallelEvaluator.inputPattern(bit, word);
+                for (int i = 0; i < 64; i++) {
+                    long row = word * 64 + i;
+                    assertEquals(
+                        (row >>> bit) & 1L,
+                        (pattern >>> i) & 1L,
+                        "bit " + bit + " row " + row
+                    );
+                }
+            }
+        }
+    }
+
+    private Circuit buildParityWithCarry(int nInputs) {
+        Circuit circuit = new Circuit();
+        Switch[] inputs = new Switch[nInputs];
+        for (int i = 0; i < nInputs; i++) {
+            inputs[i] = new Switch();
+            circuit.addComponent(inputs[i]);
+        }
+        Component parity = inputs[0];
+        Component carry = inputs[0];
+        for (int i = 1; i < nInputs; i++) {
+            // xor = (p | x) & !(p & x)
+            Or or = new Or();
+            And both = new And();
+            Not notBoth = new Not();
+            And xor = new And();
+            Or anyCarry = new Or();
+            circuit.addComponent(or);
+            circuit.addComponent(both);
+            circuit.addComponent(notBoth);
+            circuit.addComponent(xor);
+            circuit.addComponent(anyCarry);
+            circuit.addConnection(0, parity, 0, or);
+            circuit.addConnection(0, inputs[i], 1, or);
+            circuit.addConnection(0, parity, 0, both);
+            circuit.addConnection(0, inputs[i], 1, both);
+            circuit.addConnection(0, both, 0, notBoth);
+            circuit.addConnection(0, or, 0, xor);
+            circuit.addConnection(0, notBoth, 1, xor);
+            circuit.addConnection(0, carry, 0, anyCarry);
+            circuit.addConnection(0, both, 1, anyCarry);
+            parity = xor;
+            carry = anyCarry;
+        }
+        Bulb parityBulb = new Bulb();
+        Bulb carryBulb = new Bulb();
+        circuit.addComponent(parityBulb);
+        circuit.addComponent(carryBulb);
+        circuit.addConnection(0, parity, 0, parityBulb);
+        circuit.addConnection(0, carry, 0, carryBulb);
+        return circuit;
+    }
+}
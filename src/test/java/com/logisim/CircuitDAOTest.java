@@ -3,13 +3,24 @@ package com.logisim;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.logisim.data.CircuitDAO;
+import com.logisim.data.DatabaseManager;
 import com.logisim.domain.Circuit;
 import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CircuitDAOTest {
@@ -17,6 +28,21 @@ class CircuitDAOTest {
     private static final CircuitDAO circuitDAO = new CircuitDAO();
     private static final long TEST_PROJECT_ID = 1;
 
+    @TempDir
+    static Path databaseDir;
+
+    @BeforeAll
+    static void useScratchDatabase() {
+        DatabaseManager.setDatabasePath(
+            databaseDir.resolve("logisim_test.db").toString()
+        );
+    }
+
+    @AfterAll
+    static void restoreDefaultDatabase() {
+        DatabaseManager.setDatabasePath(DatabaseManager.DEFAULT_DATABASE_PATH);
+    }
+
     @Test
     @Order(1)
     void createCircuit() {
@@ -40,6 +66,7 @@ class CircuitDAOTest {
         assertDoesNotThrow(() -> {
             circuitDAO.saveCircuit(c, TEST_PROJECT_ID);
         });
+        assertTrue(c.getId() > 0, "The generated ID is assigned");
     }
 
     @Test
@@ -51,4 +78,41 @@ class CircuitDAOTest {
         assertNotNull(circuits);
         assertTrue(circuits.size() > 0);
     }
+
+    @Test
+    @Order(4)
+    void persistGeneratedCircuitWithSubCircuits() {
+        Circuit adder = CircuitGenerator.rippleCarryAdder(
+            4,
+            new SubCircuitDefinition(CircuitGenerator.fullAdder())
+        );
+        long id = CircuitGenerator.persist(adder, TEST_PROJECT_ID);
+        assertTrue(id > 0);
+
+        Circuit loaded = circuitDAO.loadCircuit(id);
+        assertEquals(adder.getComponents().size(), loaded.getComponents().size());
+        assertEquals(adder.getConnectors().size(), loaded.getConnectors().size());
+
+        // 5 + 6 + 1 = 12: inputs are A0..A3, B0..B3, Cin.
+        boolean[] inputs = {
+            true, false, true, false,
+            false, true, true, false,
+            true,
+        };
+        List<Switch> switches = new ArrayList<>();
+        List<Bulb> bulbs = new ArrayList<>();
+        for (Component comp : loaded.getComponents()) {
+            if (comp instanceof Switch) switches.add((Switch) comp);
+            if (comp instanceof Bulb) bulbs.add((Bulb) comp);
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            switches.get(i).setState(inputs[i]);
+        }
+        loaded.settle();
+        int sum = 0;
+        for (int i = 0; i < bulbs.size(); i++) {
+            if (bulbs.get(i).isOn()) sum |= 1 << i;
+        }
+        assertEquals(12, sum);
+    }
 }
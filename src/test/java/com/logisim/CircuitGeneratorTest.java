@@ -0,0 +1,232 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.Connector;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CircuitGeneratorTest {
+
+    private static List<Switch> switches(Circuit circuit) {
+        List<Switch> list = new ArrayList<>();
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch) list.add((Switch) comp);
+        }
+        return list;
+    }
+
+    private static List<Bulb> bulbs(Circuit circuit) {
+        List<Bulb> list = new ArrayList<>();
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Bulb) list.add((Bulb) comp);
+        }
+        return list;
+    }
+
+    /**
+     * Sets the switches from the bits of {@code value}, first switch least
+     * significant, settles, and reads the bulbs the same way.
+     */
+    private static long evaluate(Circuit circuit, long value) {
+        List<Switch> switches = switches(circuit);
+        for (int i = 0; i < switches.size(); i++) {
+            switches.get(i).setState(((value >>> i) & 1) == 1);
+        }
+        assertTrue(circuit.settle().isConverged());
+        List<Bulb> bulbs = bulbs(circuit);
+        long result = 0;
+        for (int i = 0; i < bulbs.size(); i++) {
+            if (bulbs.get(i).isOn()) result |= 1L << i;
+        }
+        return result;
+    }
+
+    private static long addInputs(int bits, long a, long b, long cin) {
+        return a | (b << bits) | (cin << (2 * bits));
+    }
+
+    @Test
+    void addersAddExhaustively() {
+        int bits = 4;
+        List<Circuit> adders = List.of(
+            CircuitGenerator.rippleCarryAdder(bits),
+            CircuitGenerator.carryLookaheadAdder(bits),
+            CircuitGenerator.rippleCarryAdder(
+                bits,
+                new SubCircuitDefinition(CircuitGenerator.fullAdder())
+            )
+        );
+        for (Circuit adder : adders) {
+            for (long a = 0; a < 16; a++) {
+                for (long b = 0; b < 16; b++) {
+                    for (long c = 0; c < 2; c++) {
+                        assertEquals(
+                            a + b + c,
+                            evaluate(adder, addInputs(bits, a, b, c)),
+                            adder.getName() + ": " + a + " + " + b + " + " + c
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void wideLookaheadAdderMatchesRippleAdder() {
+        int bits = 31;
+        Circuit ripple = CircuitGenerator.rippleCarryAdder(bits);
+        Circuit lookahead = CircuitGenerator.carryLookaheadAdder(bits);
+        ripple.setSimulationMode(SimulationMode.NETLIST);
+        lookahead.setSimulationMode(SimulationMode.NETLIST);
+        Random random = new Random(3);
+        long mask = (1L << bits) - 1;
+        for (int trial = 0; trial < 200; trial++) {
+            long a = random.nextLong() & mask;
+            long b = trial % 10 == 0 ? mask - a : random.nextLong() & mask;
+            long c = random.nextInt(2);
+            long inputs = addInputs(bits, a, b, c);
+            assertEquals(a + b + c, evaluate(ripple, inputs));
+            assertEquals(a + b + c, evaluate(lookahead, inputs));
+        }
+    }
+
+    @Test
+    void multiplierMultiplies() {
+        Circuit multiplier = CircuitGenerator.arrayMultiplier(4);
+        for (long a = 0; a < 16; a++) {
+            for (long b = 0; b < 16; b++) {
+                assertEquals(a * b, evaluate(multiplier, a | (b << 4)), a + " * " + b);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () ->
+            CircuitGenerator.arrayMultiplier(1)
+        );
+    }
+
+    @Test
+    void decoderRowsFormIdentityTable() {
+        Circuit decoder = CircuitGenerator.decoder(5);
+        boolean[][] table = decoder.analyze();
+        assertEquals(32, table.length);
+        for (int row = 0; row < 32; row++) {
+            for (int out = 0; out < 32; out++) {
+                assertEquals(row == out, table[row][5 + out], "Row " + row + " Y" + out);
+            }
+        }
+    }
+
+    @Test
+    void muxTreeSelectsDataInput() {
+        int k = 3;
+        Circuit mux = CircuitGenerator.muxTree(k);
+        Random random = new Random(5);
+        for (int trial = 0; trial < 100; trial++) {
+            long data = random.nextInt(1 << 8);
+            long select = random.nextInt(8);
+            assertEquals((data >>> select) & 1, evaluate(mux, data | (select << 8)));
+        }
+    }
+
+    @Test
+    void randomDagHasRequestedShape() {
+        int inputs = 32;
+        int gates = 20_000;
+        int depth = 50;
+        int maxFanout = 3;
+        Circuit dag = CircuitGenerator.randomDag(inputs, gates, depth, maxFanout, 11);
+        assertTrue(dag.isAcyclic());
+        assertEquals(inputs, switches(dag).size());
+        int bulbCount = bulbs(dag).size();
+        assertEquals(inputs + gates + bulbCount, dag.getComponents().size());
+
+        Map<Component, Integer> fanout = new HashMap<>();
+        Map<Component, List<Component>> sources = new HashMap<>();
+        for (Connector c : dag.getConnectors()) {
+            if (!(c.getSinkComp() instanceof Bulb)) {
+                fanout.merge(c.getSourceComp(), 1, Integer::sum);
+            }
+            sources.computeIfAbsent(c.getSinkComp(), k -> new ArrayList<>())
+                .add(c.getSourceComp());
+        }
+        int overLimit = 0;
+        for (int count : fanout.values()) {
+            if (count > maxFanout) overLimit++;
+        }
+        assertTrue(overLimit < gates / 100, overLimit + " signals exceed the fan-out");
+
+        // The longest path counts exactly one gate per level.
+        Map<Component, Integer> level = new HashMap<>();
+        int longest = 0;
+        for (Component comp : dag.getComponents()) {
+            if (comp instanceof Switch || comp instanceof Bulb) continue;
+            int l = 0;
+            for (Component source : sources.get(comp)) {
+                l = Math.max(l, level.getOrDefault(source, 0));
+            }
+            level.put(comp, l + 1);
+            longest = Math.max(longest, l + 1);
+        }
+        assertEquals(depth, longest);
+
+        Circuit again = CircuitGenerator.randomDag(inputs, gates, depth, maxFanout, 11);
+        assertEquals(dag.getConnectors().size(), again.getConnectors().size());
+    }
+
+    @Test
+    void latchesHoldTheirState() {
+        Circuit latches = CircuitGenerator.srLatchArray(3);
+        assertFalse(latches.isAcyclic());
+        // Reset every latch, then set latches 0 and 2 and release.
+        assertEquals(0, evaluate(latches, 0b101010));
+        assertEquals(0b101, evaluate(latches, 0b010001));
+        assertEquals(0b101, evaluate(latches, 0));
+        // Reset latch 0.
+        assertEquals(0b100, evaluate(latches, 0b000010));
+        assertEquals(0b100, evaluate(latches, 0));
+    }
+
+    @Test
+    void buildsHundredThousandGateCircuitsQuickly() {
+        long start = System.nanoTime();
+        Circuit dag = CircuitGenerator.randomDag(64, 100_000, 200, 4, 1);
+        Circuit decoder = CircuitGenerator.decoder(16);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(dag.getComponents().size() > 100_000);
+        assertTrue(decoder.getComponents().size() > 65_536);
+        assertTrue(millis < 20_000, "Took " + millis + " ms");
+
+        dag.setSimulationMode(SimulationMode.NETLIST);
+        assertTrue(dag.settle().isConverged());
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () ->
+            CircuitGenerator.rippleCarryAdder(0)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            CircuitGenerator.decoder(25)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            CircuitGenerator.randomDag(4, 3, 10, 2, 0)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            CircuitGenerator.rippleCarryAdder(
+                4,
+                new SubCircuitDefinition(CircuitGenerator.muxTree(1))
+            )
+        );
+    }
+}
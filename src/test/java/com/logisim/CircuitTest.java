@@ -6,7 +6,10 @@ import com.logisim.domain.Circuit;
 import com.logisim.domain.components.And;
 import com.logisim.domain.components.Bulb;
 import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
 import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
 import org.junit.jupiter.api.Test;
 
 class CircuitTest {
@@ -74,4 +77,127 @@ class CircuitTest {
         // 1 1 -> 1
         assertTrue(truthTable[3][2]);
     }
+
+    @Test
+    void settleStopsOnceNothingChanges() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.SWEEP);
+        Switch sw = new Switch();
+        Not first = new Not();
+        Not second = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(sw);
+        circuit.addComponent(first);
+        circuit.addComponent(second);
+        circuit.addComponent(bulb);
+        for (int i = 0; i < 20; i++) {
+            circuit.addComponent(new And());
+        }
+        circuit.addConnection(0, sw, 0, first);
+        circuit.addConnection(0, first, 0, second);
+        circuit.addConnection(0, second, 0, bulb);
+
+        sw.setState(true);
+        SimulationResult result = circuit.settle();
+
+        assertTrue(bulb.isOn());
+        assertTrue(result.isConverged());
+        assertFalse(result.isOscillating());
+        assertTrue(
+            result.getPasses() <= 2,
+            "Ordered chain needs one pass plus one to confirm, used " +
+                result.getPasses()
+        );
+    }
+
+    @Test
+    void settleDetectsOscillation() {
+        Circuit circuit = new Circuit();
+        Not ring = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(ring);
+        circuit.addComponent(bulb);
+        for (int i = 0; i < 50; i++) {
+            circuit.addComponent(new Or());
+        }
+        circuit.addConnection(0, ring, 0, ring);
+        circuit.addConnection(0, ring, 0, bulb);
+
+        SimulationResult result = circuit.settle();
+
+        assertFalse(result.isConverged());
+        assertTrue(result.isOscillating());
+        assertTrue(result.getPasses() < 5, "Used " + result.getPasses());
+    }
+
+    @Test
+    void settleConvergesLatch() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Or latch = new Or();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(bulb);
+        circuit.addComponent(latch);
+        circuit.addComponent(set);
+        circuit.addConnection(0, set, 0, latch);
+        circuit.addConnection(0, latch, 1, latch);
+        circuit.addConnection(0, latch, 0, bulb);
+
+        set.setState(true);
+        SimulationResult result = circuit.settle();
+
+        assertTrue(result.isConverged());
+        assertTrue(bulb.isOn());
+    }
+
+    @Test
+    void swappingAGateRebuildsEveryEngine() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            Circuit circuit = new Circuit();
+            circuit.setSimulationMode(mode);
+            Switch a = new Switch();
+            Switch b = new Switch();
+            And and = new And();
+            Bulb bulb = new Bulb();
+            circuit.addComponent(a);
+            circuit.addComponent(b);
+            circuit.addComponent(and);
+            circuit.addComponent(bulb);
+            circuit.addConnection(0, a, 0, and);
+            circuit.addConnection(0, b, 1, and);
+            circuit.addConnection(0, and, 0, bulb);
+
+            a.setState(true);
+            circuit.settle();
+            assertFalse(bulb.isOn(), mode + " with And");
+            assertArrayEquals(
+                new boolean[] { false, false, false, true },
+                outputColumn(circuit.analyze()),
+                mode + " And table"
+            );
+
+            Or or = new Or();
+            circuit.removeComponent(and);
+            circuit.addComponent(or);
+            circuit.addConnection(0, a, 0, or);
+            circuit.addConnection(0, b, 1, or);
+            circuit.addConnection(0, or, 0, bulb);
+
+            circuit.settle();
+            assertTrue(bulb.isOn(), mode + " with Or");
+            assertArrayEquals(
+                new boolean[] { false, true, true, true },
+                outputColumn(circuit.analyze()),
+                mode + " Or table"
+            );
+        }
+    }
+
+    private static boolean[] outputColumn(boolean[][] table) {
+        boolean[] column = new boolean[table.length];
+        for (int row = 0; row < table.length; row++) {
+            column[row] = table[row][2];
+        }
+        return column;
+    }
 }
@@ -0,0 +1,156 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.DistributedSimulator;
+import com.logisim.domain.simulation.Partitioning;
+import com.logisim.domain.simulation.SimulationResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DistributedSimulatorTest {
+
+    /**
+     * Builds a chain of clusters: each cluster is a small tree of gates over
+     * the previous cluster's output and two switches, so the natural cut
+     * is one net between neighbouring clusters.
+     */
+    private static Circuit clusterChain(
+        int clusters,
+        List<Switch> switches,
+        List<Bulb> bulbs
+    ) {
+        Circuit circuit = new Circuit();
+        Component carry = null;
+        for (int c = 0; c < clusters; c++) {
+            Switch a = new Switch();
+            Switch b = new Switch();
+            switches.add(a);
+            switches.add(b);
+            circuit.addComponent(a);
+            circuit.addComponent(b);
+            And and = new And();
+            Or or = new Or();
+            Not not = new Not();
+            And out = new And();
+            circuit.addComponent(and);
+            circuit.addComponent(or);
+            circuit.addComponent(not);
+            circuit.addComponent(out);
+            circuit.addConnection(0, a, 0, and);
+            circuit.addConnection(0, b, 1, and);
+            circuit.addConnection(0, and, 0, or);
+            circuit.addConnection(0, carry == null ? b : carry, 1, or);
+            circuit.addConnection(0, and, 0, not);
+            circuit.addConnection(0, or, 0, out);
+            circuit.addConnection(0, not, 1, out);
+            Bulb bulb = new Bulb();
+            bulbs.add(bulb);
+            circuit.addComponent(bulb);
+            circuit.addConnection(0, out, 0, bulb);
+            carry = or;
+        }
+        return circuit;
+    }
+
+    @Test
+    void partitionerCutsBetweenClusters() {
+        Circuit circuit = clusterChain(8, new ArrayList<>(), new ArrayList<>());
+        Partitioning partitioning = circuit.partition(4);
+
+        assertEquals(4, partitioning.getPartitionCount());
+        int total = 0;
+        for (int p = 0; p < 4; p++) {
+            assertTrue(partitioning.getSize(p) >= 7, "Partition " + p + " is balanced");
+            total += partitioning.getSize(p);
+        }
+        assertEquals(32, total);
+        assertTrue(
+            partitioning.getCutNetCount() <= 3,
+            "Expected at most 3 cut nets but got " + partitioning.getCutNetCount()
+        );
+        assertThrows(IllegalArgumentException.class, () -> circuit.partition(0));
+        assertThrows(IllegalArgumentException.class, () -> circuit.partition(33));
+    }
+
+    @Test
+    void workerProcessesMatchLocalSimulation() throws Exception {
+        List<Switch> switches = new ArrayList<>();
+        List<Bulb> bulbs = new ArrayList<>();
+        Circuit circuit = clusterChain(12, switches, bulbs);
+
+        try (DistributedSimulator distributed = circuit.startDistributedSimulation(3)) {
+            assertTrue(distributed.getBoundaryNetCount() > 0);
+            Random random = new Random(7);
+            for (int trial = 0; trial < 20; trial++) {
+                for (Switch sw : switches) {
+                    sw.setState(random.nextBoolean());
+                }
+                circuit.settle();
+                boolean[] expected = new boolean[bulbs.size()];
+                for (int i = 0; i < bulbs.size(); i++) {
+                    expected[i] = bulbs.get(i).isOn();
+                }
+
+                SimulationResult result = distributed.run();
+                assertTrue(result.isConverged());
+                distributed.writeBackBulbs();
+                for (int i = 0; i < bulbs.size(); i++) {
+                    assertEquals(expected[i], bulbs.get(i).isOn(), "Bulb " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void latchSplitAcrossWorkersHoldsItsState() throws Exception {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Switch reset = new Switch();
+        Or or1 = new Or();
+        Not not1 = new Not();
+        Or or2 = new Or();
+        Not not2 = new Not();
+        Bulb q = new Bulb();
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addComponent(or1);
+        circuit.addComponent(not1);
+        circuit.addComponent(or2);
+        circuit.addComponent(not2);
+        circuit.addComponent(q);
+        circuit.addConnection(0, reset, 0, or1);
+        circuit.addConnection(0, or1, 0, not1);
+        circuit.addConnection(0, not1, 1, or2);
+        circuit.addConnection(0, set, 0, or2);
+        circuit.addConnection(0, or2, 0, not2);
+        circuit.addConnection(0, not2, 1, or1);
+        circuit.addConnection(0, not1, 0, q);
+
+        try (DistributedSimulator distributed = circuit.startDistributedSimulation(2)) {
+            set.setState(true);
+            assertTrue(distributed.run().isConverged());
+            distributed.writeBackBulbs();
+            assertTrue(q.isOn());
+
+            set.setState(false);
+            assertTrue(distributed.run().isConverged());
+            distributed.writeBackBulbs();
+            assertTrue(q.isOn(), "The latch holds");
+
+            reset.setState(true);
+            assertTrue(distributed.run().isConverged());
+            distributed.writeBackBulbs();
+            assertFalse(q.isOn());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.sat.EquivalenceResult;
+import com.logisim.domain.sat.SatSolver;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class EquivalenceCheckerTest {
+
+    /**
+     * Simulates a circuit on one input vector and returns its bulbs.
+     */
+    private static List<Boolean> outputs(Circuit circuit, boolean[] inputs) {
+        int i = 0;
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch) {
+                ((Switch) comp).setState(inputs[i++]);
+            }
+        }
+        circuit.settle();
+        List<Boolean> outputs = new ArrayList<>();
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Bulb) {
+                outputs.add(((Bulb) comp).isOn());
+            }
+        }
+        return outputs;
+    }
+
+    private static boolean satisfies(List<int[]> clauses, boolean[] assignment) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            for (int lit : clause) {
+                if (assignment[Math.abs(lit) - 1] == lit > 0) satisfied = true;
+            }
+            if (!satisfied) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void solverMatchesBruteForceOnRandomFormulas() {
+        Random random = new Random(17);
+        int n = 12;
+        for (int trial = 0; trial < 60; trial++) {
+            // Around the 3-SAT threshold, so both outcomes occur.
+            int clauseCount = 45 + random.nextInt(16);
+            List<int[]> clauses = new ArrayList<>();
+            SatSolver solver = new SatSolver();
+            for (int v = 0; v < n; v++) {
+                solver.newVariable();
+            }
+            for (int c = 0; c < clauseCount; c++) {
+                int[] clause = new int[3];
+                for (int k = 0; k < 3; k++) {
+                    clause[k] = (random.nextInt(n) + 1) * (random.nextBoolean() ? 1 : -1);
+                }
+                clauses.add(clause);
+                solver.addClause(clause);
+            }
+
+            boolean expected = false;
+            for (int row = 0; row < 1 << n && !expected; row++) {
+                boolean[] assignment = new boolean[n];
+                for (int v = 0; v < n; v++) {
+                    assignment[v] = ((row >>> v) & 1) == 1;
+                }
+                expected = satisfies(clauses, assignment);
+            }
+            assertEquals(expected, solver.solve(), "Trial " + trial);
+            if (expected) {
+                boolean[] model = new boolean[n];
+                for (int v = 0; v < n; v++) {
+                    model[v] = solver.getValue(v + 1);
+                }
+                assertTrue(satisfies(clauses, model));
+            }
+        }
+    }
+
+    @Test
+    void pigeonholeFormulaIsRefuted() {
+        // Six pigeons, five holes: p(i, h) means pigeon i sits in hole h.
+        int pigeons = 6;
+        int holes = 5;
+        SatSolver solver = new SatSolver();
+        int[][] p = new int[pigeons][holes];
+        for (int i = 0; i < pigeons; i++) {
+            for (int h = 0; h < holes; h++) {
+                p[i][h] = solver.newVariable();
+            }
+            solver.addClause(p[i]);
+        }
+        for (int h = 0; h < holes; h++) {
+            for (int i = 0; i < pigeons; i++) {
+                for (int j = i + 1; j < pigeons; j++) {
+                    solver.addClause(-p[i][h], -p[j][h]);
+                }
+            }
+        }
+        assertFalse(solver.solve());
+        assertTrue(solver.getConflictCount() > 0);
+        assertThrows(IllegalStateException.class, () -> solver.getValue(1));
+    }
+
+    @Test
+    void differentAdderDesignsAreEquivalent() {
+        int bits = 16;
+        Circuit ripple = CircuitGenerator.rippleCarryAdder(bits);
+
+        // The same gates behind sub-circuit pins: solved by structural hashing alone.
+        Circuit modular = CircuitGenerator.rippleCarryAdder(
+            bits,
+            new SubCircuitDefinition(CircuitGenerator.fullAdder())
+        );
+        EquivalenceResult same = ripple.checkEquivalence(modular);
+        assertTrue(same.isEquivalent());
+        assertNull(same.getCounterexample());
+        assertEquals(0, same.getDifferingOutputs().length);
+
+        // A different carry network over 33 inputs.
+        EquivalenceResult lookahead = ripple.checkEquivalence(
+            CircuitGenerator.carryLookaheadAdder(bits)
+        );
+        assertTrue(lookahead.isEquivalent());
+
+        // Addition is commutative: swapping the operands keeps it equivalent.
+        int[] swapped = new int[2 * bits + 1];
+        for (int i = 0; i < bits; i++) {
+            swapped[i] = bits + i;
+            swapped[bits + i] = i;
+        }
+        swapped[2 * bits] = 2 * bits;
+        int[] identity = new int[bits + 1];
+        for (int k = 0; k <= bits; k++) {
+            identity[k] = k;
+        }
+        assertTrue(
+            ripple.checkEquivalence(CircuitGenerator.carryLookaheadAdder(bits), swapped, identity)
+                .isEquivalent()
+        );
+    }
+
+    @Test
+    void differencesComeWithACounterexample() {
+        int bits = 8;
+        Circuit ripple = CircuitGenerator.rippleCarryAdder(bits);
+        Circuit lookahead = CircuitGenerator.carryLookaheadAdder(bits);
+        int[] inputs = new int[2 * bits + 1];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = i;
+        }
+        // Pair S1 with S2 and S2 with S1.
+        int[] outputs = new int[bits + 1];
+        for (int k = 0; k <= bits; k++) {
+            outputs[k] = k;
+        }
+        outputs[1] = 2;
+        outputs[2] = 1;
+
+        EquivalenceResult result = ripple.checkEquivalence(lookahead, inputs, outputs);
+        assertFalse(result.isEquivalent());
+        boolean[] counterexample = result.getCounterexample();
+        List<Boolean> first = outputs(ripple, counterexample);
+        List<Boolean> second = outputs(lookahead, counterexample);
+        assertTrue(!first.get(1).equals(second.get(2)) || !first.get(2).equals(second.get(1)));
+        for (int k : result.getDifferingOutputs()) {
+            assertTrue(k == 1 || k == 2);
+            assertNotEquals(first.get(k), second.get(outputs[k]));
+        }
+        assertTrue(result.getDifferingOutputs().length > 0);
+    }
+
+    @Test
+    void rejectsUnsupportedComparisons() {
+        Circuit adder = CircuitGenerator.rippleCarryAdder(2);
+        assertThrows(IllegalArgumentException.class, () ->
+            adder.checkEquivalence(CircuitGenerator.rippleCarryAdder(3))
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            adder.checkEquivalence(CircuitGenerator.srLatchArray(1))
+        );
+        assertThrows(IllegalArgumentException.class, () -> adder.checkEquivalence(null));
+        assertThrows(IllegalArgumentException.class, () ->
+            adder.checkEquivalence(adder, new int[] { 0, 0, 1, 2, 3 }, new int[] { 0, 1, 2 })
+        );
+        assertThrows(IllegalArgumentException.class, () -> new SatSolver().addClause(1));
+    }
+}
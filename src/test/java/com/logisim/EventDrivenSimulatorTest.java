@@ -0,0 +1,162 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.EventDrivenSimulator;
+import com.logisim.domain.simulation.SimulationMode;
+import org.junit.jupiter.api.Test;
+
+class EventDrivenSimulatorTest {
+
+    @Test
+    void settlesReverseOrderedChainInOneCall() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.EVENT_DRIVEN);
+
+        Bulb bulb = new Bulb();
+        Not[] chain = new Not[5];
+        circuit.addComponent(bulb);
+        for (int i = chain.length - 1; i >= 0; i--) {
+            chain[i] = new Not();
+            circuit.addComponent(chain[i]);
+        }
+        Switch sw = new Switch();
+        circuit.addComponent(sw);
+
+        circuit.addConnection(0, sw, 0, chain[0]);
+        for (int i = 1; i < chain.length; i++) {
+            circuit.addConnection(0, chain[i - 1], 0, chain[i]);
+        }
+        circuit.addConnection(0, chain[chain.length - 1], 0, bulb);
+
+        sw.setState(false);
+        circuit.simulate();
+        assertTrue(bulb.isOn(), "Odd number of inverters should invert OFF");
+
+        sw.setState(true);
+        circuit.simulate();
+        assertFalse(bulb.isOn(), "Odd number of inverters should invert ON");
+    }
+
+    @Test
+    void matchesSweepTruthTable() {
+        Circuit sweep = buildMajority();
+        sweep.setSimulationMode(SimulationMode.SWEEP);
+        Circuit event = buildMajority();
+        event.setSimulationMode(SimulationMode.EVENT_DRIVEN);
+
+        boolean[][] expected = sweep.analyze();
+        boolean[][] actual = event.analyze();
+
+        assertEquals(expected.length, actual.length);
+        for (int row = 0; row < expected.length; row++) {
+            assertArrayEquals(expected[row], actual[row], "Row " + row);
+        }
+    }
+
+    @Test
+    void onlyReevaluatesChangedFanout() {
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Not notA = new Not();
+        Not notB = new Not();
+        Bulb bulbA = new Bulb();
+        Bulb bulbB = new Bulb();
+
+        Circuit circuit = new Circuit();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(notA);
+        circuit.addComponent(notB);
+        circuit.addComponent(bulbA);
+        circuit.addComponent(bulbB);
+        circuit.addConnection(0, a, 0, notA);
+        circuit.addConnection(0, b, 0, notB);
+        circuit.addConnection(0, notA, 0, bulbA);
+        circuit.addConnection(0, notB, 0, bulbB);
+
+        EventDrivenSimulator sim = new EventDrivenSimulator(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        assertTrue(sim.run());
+        assertEquals(6, sim.getLastEvaluations());
+
+        assertTrue(sim.run());
+        assertEquals(2, sim.getLastEvaluations(), "Only switches re-checked");
+
+        a.setState(true);
+        assertTrue(sim.run());
+        assertEquals(4, sim.getLastEvaluations());
+        assertFalse(bulbA.isOn());
+        assertTrue(bulbB.isOn());
+    }
+
+    @Test
+    void reportsOscillation() {
+        Circuit circuit = new Circuit();
+        Not loop = new Not();
+        circuit.addComponent(loop);
+        circuit.addConnection(0, loop, 0, loop);
+
+        EventDrivenSimulator sim = new EventDrivenSimulator(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        assertFalse(sim.run());
+    }
+
+    @Test
+    void oscillationIsReportedOnEverySettle() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.EVENT_DRIVEN);
+        Not loop = new Not();
+        circuit.addComponent(loop);
+        circuit.addConnection(0, loop, 0, loop);
+
+        assertFalse(circuit.settle().isConverged(), "First settle");
+        assertFalse(circuit.settle().isConverged(), "Second settle");
+    }
+
+    private Circuit buildMajority() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Switch c = new Switch();
+        And ab = new And();
+        And bc = new And();
+        And ac = new And();
+        Or first = new Or();
+        Or second = new Or();
+        Bulb bulb = new Bulb();
+
+        circuit.addComponent(bulb);
+        circuit.addComponent(second);
+        circuit.addComponent(first);
+        circuit.addComponent(ac);
+        circuit.addComponent(bc);
+        circuit.addComponent(ab);
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(c);
+
+        circuit.addConnection(0, a, 0, ab);
+        circuit.addConnection(0, b, 1, ab);
+        circuit.addConnection(0, b, 0, bc);
+        circuit.addConnection(0, c, 1, bc);
+        circuit.addConnection(0, a, 0, ac);
+        circuit.addConnection(0, c, 1, ac);
+        circuit.addConnection(0, ab, 0, first);
+        circuit.addConnection(0, bc, 1, first);
+        circuit.addConnection(0, first, 0, second);
+        circuit.addConnection(0, ac, 1, second);
+        circuit.addConnection(0, second, 0, bulb);
+        return circuit;
+    }
+}
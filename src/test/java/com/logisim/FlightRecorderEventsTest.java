@@ -0,0 +1,142 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.jfr.DatabaseEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class FlightRecorderEventsTest {
+
+    private static Circuit andCircuit() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(and);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, bulb);
+        return circuit;
+    }
+
+    /**
+     * Runs an action inside a recording of every LogiSim event with no
+     * threshold, and returns the events recorded.
+     */
+    private static List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = Files.createTempFile("logisim", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(
+                "com.logisim.Simulation",
+                "com.logisim.Analysis",
+                "com.logisim.SubCircuitExecution",
+                "com.logisim.Database"
+            )) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events
+            .stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void settleAndAnalyzeEmitEvents() throws Exception {
+        Circuit circuit = andCircuit();
+        circuit.setId(42);
+        List<RecordedEvent> events = record(() -> {
+            circuit.settle();
+            circuit.analyze();
+        });
+
+        List<RecordedEvent> settles = named(events, "com.logisim.Simulation");
+        assertEquals(1, settles.size());
+        RecordedEvent settle = settles.get(0);
+        assertEquals("settle", settle.getString("operation"));
+        assertEquals(42, settle.getLong("circuitId"));
+        assertEquals(4, settle.getInt("components"));
+        assertEquals(3, settle.getInt("connectors"));
+        assertTrue(settle.getBoolean("converged"));
+
+        List<RecordedEvent> analyses = named(events, "com.logisim.Analysis");
+        assertEquals(1, analyses.size());
+        RecordedEvent analysis = analyses.get(0);
+        assertEquals("analyze", analysis.getString("operation"));
+        assertEquals(4, analysis.getLong("rows"));
+        assertEquals(2, analysis.getInt("inputs"));
+        assertEquals(1, analysis.getInt("outputs"));
+        assertTrue(analysis.getBoolean("bitParallel"));
+        assertFalse(analysis.getDuration().isNegative());
+    }
+
+    @Test
+    void subCircuitExecutionsReportCacheHits() throws Exception {
+        Circuit outer = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(andCircuit());
+        Bulb bulb = new Bulb();
+        outer.addComponent(a);
+        outer.addComponent(b);
+        outer.addComponent(sub);
+        outer.addComponent(bulb);
+        outer.addConnection(0, a, 0, sub);
+        outer.addConnection(0, b, 1, sub);
+        outer.addConnection(0, sub, 0, bulb);
+
+        List<RecordedEvent> events = record(() -> {
+            a.setState(true);
+            outer.settle();
+            outer.settle();
+        });
+
+        List<RecordedEvent> executions = named(events, "com.logisim.SubCircuitExecution");
+        assertEquals(2, executions.size());
+        assertFalse(executions.get(0).getBoolean("cacheHit"));
+        assertTrue(executions.get(1).getBoolean("cacheHit"));
+        assertEquals(4, executions.get(0).getInt("components"));
+    }
+
+    @Test
+    void databaseEventsCarryTheirFields() throws Exception {
+        List<RecordedEvent> events = record(() ->
+            DatabaseEvent.start("CircuitDAO", "loadComponents").finish(0, 7, 12, true)
+        );
+
+        List<RecordedEvent> calls = named(events, "com.logisim.Database");
+        assertEquals(1, calls.size());
+        assertEquals("CircuitDAO", calls.get(0).getString("dao"));
+        assertEquals("loadComponents", calls.get(0).getString("operation"));
+        assertEquals(7, calls.get(0).getLong("circuitId"));
+        assertEquals(12, calls.get(0).getLong("rows"));
+        assertTrue(calls.get(0).getBoolean("succeeded"));
+    }
+}
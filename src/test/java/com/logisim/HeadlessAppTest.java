@@ -0,0 +1,43 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.jupiter.api.Test;
+
+class HeadlessAppTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return HeadlessApp.run(args, new PrintStream(out), new PrintStream(err));
+    }
+
+    @Test
+    void helpPrintsUsage() {
+        assertEquals(HeadlessApp.EXIT_OK, run("--help"));
+        assertTrue(out.toString().contains("simulate"));
+    }
+
+    @Test
+    void malformedCommandLinesAreRejectedBeforeOpeningTheDatabase() {
+        assertEquals(HeadlessApp.EXIT_USAGE, run());
+        assertEquals(HeadlessApp.EXIT_USAGE, run("frobnicate"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "1"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "one", "2"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("list", "1", "2"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "1", "2", "--inputs", "10x"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "1", "2", "--mode", "warp"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("analyze", "1", "2", "--inputs", "10"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "1", "2", "--expression"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("list", "--db"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("list", "--verbose"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("generate", "1", "spiral", "8"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("generate", "1", "decoder", "-3"));
+        assertEquals(HeadlessApp.EXIT_USAGE, run("simulate", "1", "2", "--seed", "4"));
+        assertTrue(err.toString().contains("Unknown simulation mode warp"));
+        assertEquals("", out.toString());
+    }
+}
@@ -0,0 +1,215 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.CompiledSimulator;
+import com.logisim.domain.simulation.KernelGenerator;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.SimulationMode;
+import org.junit.jupiter.api.Test;
+
+class KernelGeneratorTest {
+
+    @Test
+    void compiledModeMatchesExpectedTruthTable() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Switch c = new Switch();
+        Or or = new Or();
+        And and = new And();
+        Not not = new Not();
+        Bulb y1 = new Bulb();
+        Bulb y2 = new Bulb();
+        circuit.addComponent(y2);
+        circuit.addComponent(not);
+        circuit.addComponent(y1);
+        circuit.addComponent(and);
+        circuit.addComponent(or);
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(c);
+        circuit.addConnection(0, a, 0, or);
+        circuit.addConnection(0, b, 1, or);
+        circuit.addConnection(0, or, 0, and);
+        circuit.addConnection(0, c, 1, and);
+        circuit.addConnection(0, and, 0, y1);
+        circuit.addConnection(0, and, 0, not);
+        circuit.addConnection(0, not, 0, y2);
+
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+        for (int row = 0; row < 8; row++) {
+            a.setState((row & 4) != 0);
+            b.setState((row & 2) != 0);
+            c.setState((row & 1) != 0);
+            circuit.simulate();
+
+            boolean expected = ((row & 4) != 0 || (row & 2) != 0) &&
+            (row & 1) != 0;
+            assertEquals(expected, y1.isOn(), "Row " + row);
+            assertEquals(!expected, y2.isOn(), "Row " + row);
+        }
+    }
+
+    @Test
+    void evaluatesSixtyFourVectorsPerCall() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(and);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, bulb);
+
+        Netlist netlist = new Netlist(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        CompiledSimulator simulator = new CompiledSimulator(netlist);
+        long[] nets = new long[netlist.getNetCount()];
+        long wordA = 0x0123456789ABCDEFL;
+        long wordB = 0xF0F0F0F0F0F0F0F0L;
+        nets[netlist.getOutputNet(0, 0)] = wordA;
+        nets[netlist.getOutputNet(1, 0)] = wordB;
+        simulator.evaluate(nets);
+
+        assertEquals(wordA & wordB, nets[netlist.getOutputNet(2, 0)]);
+    }
+
+    @Test
+    void largeChainsAreSplitAcrossMethods() {
+        Circuit circuit = new Circuit();
+        Switch sw = new Switch();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(sw);
+        Not previous = null;
+        int length = 40_001;
+        for (int i = 0; i < length; i++) {
+            Not not = new Not();
+            circuit.addComponent(not);
+            if (previous == null) {
+                circuit.addConnection(0, sw, 0, not);
+            } else {
+                circuit.addConnection(0, previous, 0, not);
+            }
+            previous = not;
+        }
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, previous, 0, bulb);
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+
+        sw.setState(false);
+        circuit.simulate();
+        assertTrue(bulb.isOn(), "An odd number of inverters");
+
+        sw.setState(true);
+        circuit.simulate();
+        assertFalse(bulb.isOn());
+    }
+
+    @Test
+    void kernelIsRegeneratedWhenTheStructureChanges() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+        Switch sw = new Switch();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(sw);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, sw, 0, bulb);
+
+        sw.setState(true);
+        circuit.simulate();
+        assertTrue(bulb.isOn());
+
+        circuit.removeComponent(bulb);
+        Not not = new Not();
+        circuit.addComponent(not);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, sw, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+        circuit.simulate();
+        assertFalse(bulb.isOn());
+    }
+
+    @Test
+    void feedbackFallsBackToTheNetlistEngine() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Or latch = new Or();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(bulb);
+        circuit.addComponent(latch);
+        circuit.addComponent(set);
+        circuit.addConnection(0, set, 0, latch);
+        circuit.addConnection(0, latch, 1, latch);
+        circuit.addConnection(0, latch, 0, bulb);
+        circuit.setSimulationMode(SimulationMode.COMPILED);
+
+        assertFalse(
+            KernelGenerator.supports(
+                new Netlist(circuit.getComponents(), circuit.getConnectors())
+            )
+        );
+        set.setState(true);
+        assertTrue(circuit.settle().isConverged());
+        assertTrue(bulb.isOn());
+
+        set.setState(false);
+        circuit.settle();
+        assertTrue(bulb.isOn(), "Latch should hold");
+    }
+
+    @Test
+    void flattenedSubCircuitsAreCompiled() {
+        Circuit inner = new Circuit();
+        Switch in = new Switch();
+        Not not = new Not();
+        Bulb out = new Bulb();
+        inner.addComponent(in);
+        inner.addComponent(not);
+        inner.addComponent(out);
+        inner.addConnection(0, in, 0, not);
+        inner.addConnection(0, not, 0, out);
+
+        Circuit outer = new Circuit();
+        Switch sw = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        Bulb bulb = new Bulb();
+        outer.addComponent(sw);
+        outer.addComponent(sub);
+        outer.addComponent(bulb);
+        outer.addConnection(0, sw, 0, sub);
+        outer.addConnection(0, sub, 0, bulb);
+        outer.setSimulationMode(SimulationMode.COMPILED);
+
+        assertFalse(
+            KernelGenerator.supports(
+                new Netlist(outer.getComponents(), outer.getConnectors())
+            )
+        );
+        assertTrue(
+            KernelGenerator.supports(
+                Netlist.flatten(outer.getComponents(), outer.getConnectors())
+            )
+        );
+        sw.setState(true);
+        outer.simulate();
+        assertFalse(bulb.isOn());
+
+        sw.setState(false);
+        outer.simulate();
+        assertTrue(bulb.isOn());
+    }
+}
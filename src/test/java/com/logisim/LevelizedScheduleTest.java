@@ -0,0 +1,118 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.LevelizedSchedule;
+import com.logisim.domain.simulation.SimulationMode;
+import org.junit.jupiter.api.Test;
+
+class LevelizedScheduleTest {
+
+    @Test
+    void levelsFollowLogicDepth() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+
+        circuit.addComponent(bulb);
+        circuit.addComponent(not);
+        circuit.addComponent(and);
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+
+        LevelizedSchedule schedule = new LevelizedSchedule(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+
+        assertTrue(schedule.isAcyclic());
+        assertEquals(4, schedule.getLevelCount());
+        assertEquals(2, schedule.getLevel(0).size());
+        assertSame(and, schedule.getLevel(1).get(0));
+        assertSame(not, schedule.getLevel(2).get(0));
+        assertSame(bulb, schedule.getLevel(3).get(0));
+    }
+
+    @Test
+    void singleSimulateSettlesReverseOrderedCircuit() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.LEVELIZED);
+        Bulb bulb = new Bulb();
+        Not second = new Not();
+        Not first = new Not();
+        Switch sw = new Switch();
+
+        circuit.addComponent(bulb);
+        circuit.addComponent(second);
+        circuit.addComponent(first);
+        circuit.addComponent(sw);
+        circuit.addConnection(0, sw, 0, first);
+        circuit.addConnection(0, first, 0, second);
+        circuit.addConnection(0, second, 0, bulb);
+
+        sw.setState(true);
+        circuit.simulate();
+        assertTrue(bulb.isOn(), "Double inversion should pass ON through");
+
+        sw.setState(false);
+        circuit.simulate();
+        assertFalse(bulb.isOn(), "Double inversion should pass OFF through");
+    }
+
+    @Test
+    void detectsFeedbackAndInvalidatesOnChange() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Or or = new Or();
+        Bulb bulb = new Bulb();
+
+        circuit.addComponent(set);
+        circuit.addComponent(or);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, set, 0, or);
+        circuit.addConnection(0, or, 0, bulb);
+        assertTrue(circuit.isAcyclic());
+
+        circuit.addConnection(0, or, 1, or);
+        assertFalse(circuit.isAcyclic(), "Self-feeding OR is a latch");
+
+        set.setState(true);
+        circuit.settle();
+        assertTrue(bulb.isOn());
+
+        set.setState(false);
+        circuit.settle();
+        assertTrue(bulb.isOn(), "Latch should hold its value");
+
+        circuit.removeComponent(or);
+        assertTrue(circuit.isAcyclic());
+    }
+
+    @Test
+    void cyclicScheduleRefusesSinglePass() {
+        Circuit circuit = new Circuit();
+        Not loop = new Not();
+        circuit.addComponent(loop);
+        circuit.addConnection(0, loop, 0, loop);
+
+        LevelizedSchedule schedule = new LevelizedSchedule(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        assertFalse(schedule.isAcyclic());
+        assertThrows(IllegalStateException.class, schedule::evaluate);
+    }
+}
@@ -0,0 +1,200 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.minimization.Cover;
+import com.logisim.domain.minimization.ExpressionForm;
+import com.logisim.domain.minimization.LogicMinimizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.Test;
+
+class LogicMinimizerTest {
+
+    private static long[] column(int n, IntPredicate function) {
+        int rows = 1 << n;
+        long[] column = new long[Math.max(1, rows >>> 6)];
+        for (int row = 0; row < rows; row++) {
+            if (function.test(row)) column[row >>> 6] |= 1L << (row & 63);
+        }
+        return column;
+    }
+
+    private static boolean get(long[] column, int row) {
+        return ((column[row >>> 6] >>> (row & 63)) & 1L) != 0;
+    }
+
+    private static List<String> names(int n) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            names.add(String.valueOf((char) ('A' + i)));
+        }
+        return names;
+    }
+
+    private static void assertCovers(long[] column, int n, Cover cover) {
+        for (int row = 0; row < 1 << n; row++) {
+            assertEquals(get(column, row), cover.evaluate(row), "Row " + row);
+        }
+    }
+
+    @Test
+    void smallFunctionsMinimizeExactly() {
+        List<String> names = names(2);
+        assertEquals(
+            "(A & B)",
+            LogicMinimizer.minimize(column(2, r -> r == 3), 2, ExpressionForm.SUM_OF_PRODUCTS)
+                .format(names)
+        );
+        assertEquals(
+            "(!A & B) + (A & !B)",
+            LogicMinimizer.minimize(column(2, r -> r == 1 || r == 2), 2, ExpressionForm.SUM_OF_PRODUCTS)
+                .format(names)
+        );
+        assertEquals(
+            "(A) & (B)",
+            LogicMinimizer.minimize(column(2, r -> r == 3), 2, ExpressionForm.PRODUCT_OF_SUMS)
+                .format(names)
+        );
+        assertEquals(
+            "0",
+            LogicMinimizer.minimize(column(2, r -> false), 2, ExpressionForm.SUM_OF_PRODUCTS)
+                .format(names)
+        );
+        assertEquals(
+            "1",
+            LogicMinimizer.minimize(column(2, r -> true), 2, ExpressionForm.SUM_OF_PRODUCTS)
+                .format(names)
+        );
+        assertEquals(
+            "1",
+            LogicMinimizer.minimize(column(2, r -> true), 2, ExpressionForm.PRODUCT_OF_SUMS)
+                .format(names)
+        );
+    }
+
+    @Test
+    void cyclicCoreIsResolvedByPetrick() {
+        // m(0, 1, 2, 5, 6, 7) has no essential primes; the minimum needs 3 terms.
+        long[] f = column(3, r -> r == 0 || r == 1 || r == 2 || r == 5 || r == 6 || r == 7);
+        Cover cover = LogicMinimizer.minimize(f, 3, ExpressionForm.SUM_OF_PRODUCTS);
+        assertEquals(3, cover.getCubes().size());
+        assertEquals(6, cover.getLiteralCount());
+        assertCovers(f, 3, cover);
+    }
+
+    @Test
+    void randomFunctionsAreCoveredExactly() {
+        Random random = new Random(7);
+        for (int n = 0; n <= 9; n++) {
+            for (int trial = 0; trial < 20; trial++) {
+                int density = random.nextInt(5);
+                long[] f = column(n, r -> random.nextInt(4) < density);
+                for (ExpressionForm form : ExpressionForm.values()) {
+                    assertCovers(f, n, LogicMinimizer.minimize(f, n, form));
+                }
+            }
+        }
+    }
+
+    @Test
+    void heuristicMinimizerHandlesWideFunctions() {
+        int n = 16;
+        // A + (B & C): every other input is irrelevant.
+        long[] f = column(n, r -> (r >>> 15 & 1) == 1 || ((r >>> 14) & (r >>> 13) & 1) == 1);
+        Cover cover = LogicMinimizer.minimize(f, n, ExpressionForm.SUM_OF_PRODUCTS);
+        assertEquals("(A) + (B & C)", cover.format(names(n)));
+        assertEquals(
+            "(A + B) & (A + C)",
+            LogicMinimizer.minimize(f, n, ExpressionForm.PRODUCT_OF_SUMS).format(names(n))
+        );
+
+        Random random = new Random(3);
+        long[] noisy = column(14, r -> Integer.bitCount(r) % 3 == 0 || random.nextInt(8) == 0);
+        for (ExpressionForm form : ExpressionForm.values()) {
+            assertCovers(noisy, 14, LogicMinimizer.minimize(noisy, 14, form));
+        }
+    }
+
+    @Test
+    void everyOutputOfAnAdderIsMinimized() {
+        Circuit adder = CircuitGenerator.rippleCarryAdder(4);
+        long[][] columns = adder.analyzePacked();
+        assertEquals(5, columns.length);
+        List<String> inputs = names(9);
+        List<String> sop = adder.generateBooleanExpressions(
+            columns,
+            inputs,
+            ExpressionForm.SUM_OF_PRODUCTS
+        );
+        assertEquals(5, sop.size());
+        // The raw sum of minterms for the sum bits would have 256 terms.
+        for (String expression : sop) {
+            assertTrue(expression.length() < 3000, expression);
+        }
+        for (long[] column : columns) {
+            for (ExpressionForm form : ExpressionForm.values()) {
+                assertCovers(column, 9, LogicMinimizer.minimize(column, 9, form));
+            }
+        }
+    }
+
+    @Test
+    void circuitExpressionUsesTheFirstOutput() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Switch c = new Switch();
+        And and = new And();
+        Or or = new Or();
+        Not not = new Not();
+        Bulb y1 = new Bulb();
+        Bulb y2 = new Bulb();
+        for (var comp : List.of(a, b, c, and, or, not, y1, y2)) {
+            circuit.addComponent(comp);
+        }
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, or);
+        circuit.addConnection(0, c, 1, or);
+        circuit.addConnection(0, or, 0, y1);
+        circuit.addConnection(0, c, 0, not);
+        circuit.addConnection(0, not, 0, y2);
+
+        boolean[][] table = circuit.analyze();
+        assertEquals("(C) + (A & B)", circuit.generateBooleanExpression(table, names(3)));
+        assertEquals(
+            List.of("(A + C) & (B + C)", "(!C)"),
+            circuit.generateBooleanExpressions(table, names(3), ExpressionForm.PRODUCT_OF_SUMS)
+        );
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () ->
+            LogicMinimizer.minimize(null, 2, ExpressionForm.SUM_OF_PRODUCTS)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            LogicMinimizer.minimize(new long[1], 8, ExpressionForm.SUM_OF_PRODUCTS)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            LogicMinimizer.minimize(new long[1], 2, null)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            LogicMinimizer.minimize(
+                new long[1 << (LogicMinimizer.MAX_INPUTS - 5)],
+                LogicMinimizer.MAX_INPUTS + 1,
+                ExpressionForm.SUM_OF_PRODUCTS
+            )
+        );
+    }
+}
@@ -0,0 +1,299 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.NetlistSimulator;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import org.junit.jupiter.api.Test;
+
+class NetlistSimulatorTest {
+
+    @Test
+    void compilesPinsIntoNets() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(bulb);
+        circuit.addComponent(and);
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, bulb);
+
+        Netlist netlist = new Netlist(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+
+        assertEquals(4, netlist.getGateCount());
+        assertEquals(4, netlist.getNetCount(), "Three outputs plus net 0");
+        assertEquals(Netlist.TYPE_AND, netlist.getGateType(1));
+        assertEquals(netlist.getOutputNet(2, 0), netlist.getInputNet(1, 0));
+        assertEquals(netlist.getOutputNet(3, 0), netlist.getInputNet(1, 1));
+        assertEquals(netlist.getOutputNet(1, 0), netlist.getInputNet(0, 0));
+        assertTrue(netlist.isAcyclic());
+        assertEquals(3, netlist.getLevelStarts().length - 1);
+        assertArrayEquals(new int[] { 2, 3 }, netlist.getSwitchGates());
+        assertArrayEquals(new int[] { 0 }, netlist.getBulbGates());
+    }
+
+    @Test
+    void netlistModeMatchesLevelizedTruthTable() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Switch c = new Switch();
+        Or or = new Or();
+        And and = new And();
+        Not not = new Not();
+        Bulb y1 = new Bulb();
+        Bulb y2 = new Bulb();
+        circuit.addComponent(y2);
+        circuit.addComponent(not);
+        circuit.addComponent(y1);
+        circuit.addComponent(and);
+        circuit.addComponent(or);
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(c);
+        circuit.addConnection(0, a, 0, or);
+        circuit.addConnection(0, b, 1, or);
+        circuit.addConnection(0, or, 0, and);
+        circuit.addConnection(0, c, 1, and);
+        circuit.addConnection(0, and, 0, y1);
+        circuit.addConnection(0, and, 0, not);
+        circuit.addConnection(0, not, 0, y2);
+
+        circuit.setSimulationMode(SimulationMode.NETLIST);
+        for (int row = 0; row < 8; row++) {
+            a.setState((row & 4) != 0);
+            b.setState((row & 2) != 0);
+            c.setState((row & 1) != 0);
+            circuit.simulate();
+
+            boolean expected = ((row & 4) != 0 || (row & 2) != 0) &&
+            (row & 1) != 0;
+            assertEquals(expected, y1.isOn(), "Row " + row);
+            assertEquals(!expected, y2.isOn(), "Row " + row);
+        }
+    }
+
+    @Test
+    void writeBackIsDeferredUntilRequested() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.NETLIST);
+        Switch sw = new Switch();
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(sw);
+        circuit.addComponent(not);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, sw, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+
+        sw.setState(true);
+        circuit.simulate();
+
+        assertFalse(bulb.isOn());
+        assertFalse(not.getInputs()[0], "Gate pins untouched before sync");
+        assertTrue(not.getOutput(), "Gate pins untouched before sync");
+
+        circuit.syncComponents();
+
+        assertTrue(not.getInputs()[0]);
+        assertFalse(not.getOutput());
+    }
+
+    @Test
+    void feedbackIteratesToConvergence() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.NETLIST);
+        Switch set = new Switch();
+        Or latch = new Or();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(bulb);
+        circuit.addComponent(latch);
+        circuit.addComponent(set);
+        circuit.addConnection(0, set, 0, latch);
+        circuit.addConnection(0, latch, 1, latch);
+        circuit.addConnection(0, latch, 0, bulb);
+
+        set.setState(true);
+        SimulationResult result = circuit.settle();
+        assertTrue(result.isConverged());
+        assertTrue(bulb.isOn());
+
+        set.setState(false);
+        circuit.settle();
+        assertTrue(bulb.isOn(), "Latch should hold");
+    }
+
+    @Test
+    void ringOscillatorIsReportedEarly() {
+        Circuit circuit = new Circuit();
+        circuit.setSimulationMode(SimulationMode.NETLIST);
+        for (int i = 0; i < 50; i++) {
+            circuit.addComponent(new And());
+        }
+        Not ring = new Not();
+        circuit.addComponent(ring);
+        circuit.addConnection(0, ring, 0, ring);
+
+        SimulationResult result = circuit.settle();
+        assertFalse(result.isConverged());
+        assertTrue(result.isOscillating());
+        assertTrue(result.getPasses() <= 2, "Passes: " + result.getPasses());
+    }
+
+    @Test
+    void subCircuitsAreEvaluatedThroughTheirComponent() {
+        Circuit inner = new Circuit();
+        Switch in = new Switch();
+        Not not = new Not();
+        Bulb out = new Bulb();
+        inner.addComponent(in);
+        inner.addComponent(not);
+        inner.addComponent(out);
+        inner.addConnection(0, in, 0, not);
+        inner.addConnection(0, not, 0, out);
+
+        Circuit outer = new Circuit();
+        Switch sw = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        Bulb bulb = new Bulb();
+        outer.addComponent(sw);
+        outer.addComponent(sub);
+        outer.addComponent(bulb);
+        outer.addConnection(0, sw, 0, sub);
+        outer.addConnection(0, sub, 0, bulb);
+
+        NetlistSimulator simulator = new NetlistSimulator(
+            new Netlist(outer.getComponents(), outer.getConnectors())
+        );
+        sw.setState(false);
+        simulator.run();
+        simulator.writeBackBulbs();
+        assertTrue(bulb.isOn());
+
+        sw.setState(true);
+        simulator.run();
+        simulator.writeBackBulbs();
+        assertFalse(bulb.isOn());
+    }
+
+    @Test
+    void flattenInlinesNestedSubCircuits() {
+        Circuit half = new Circuit();
+        half.setName("half");
+        Switch ha = new Switch();
+        Switch hb = new Switch();
+        And carry = new And();
+        Bulb hc = new Bulb();
+        half.addComponent(ha);
+        half.addComponent(hb);
+        half.addComponent(carry);
+        half.addComponent(hc);
+        half.addConnection(0, ha, 0, carry);
+        half.addConnection(0, hb, 1, carry);
+        half.addConnection(0, carry, 0, hc);
+
+        Circuit wrapper = new Circuit();
+        wrapper.setName("wrapper");
+        Switch wa = new Switch();
+        Switch wb = new Switch();
+        SubCircuitComponent innerSub = new SubCircuitComponent(half);
+        Not not = new Not();
+        Bulb wy = new Bulb();
+        wrapper.addComponent(wa);
+        wrapper.addComponent(wb);
+        wrapper.addComponent(innerSub);
+        wrapper.addComponent(not);
+        wrapper.addComponent(wy);
+        wrapper.addConnection(0, wa, 0, innerSub);
+        wrapper.addConnection(0, wb, 1, innerSub);
+        wrapper.addConnection(0, innerSub, 0, not);
+        wrapper.addConnection(0, not, 0, wy);
+
+        Circuit top = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(wrapper);
+        Bulb y = new Bulb();
+        top.addComponent(a);
+        top.addComponent(b);
+        top.addComponent(sub);
+        top.addComponent(y);
+        top.addConnection(0, a, 0, sub);
+        top.addConnection(0, b, 1, sub);
+        top.addConnection(0, sub, 0, y);
+
+        Netlist netlist = Netlist.flatten(
+            top.getComponents(),
+            top.getConnectors()
+        );
+
+        assertEquals(5, netlist.getGateCount(), "2 switches, bulb, and, not");
+        assertTrue(netlist.isAcyclic());
+        int andGate = netlist.findGate("wrapper#2/half#2/and#2");
+        assertTrue(andGate >= 0);
+        assertEquals(Netlist.TYPE_AND, netlist.getGateType(andGate));
+        assertEquals(netlist.getOutputNet(0, 0), netlist.getInputNet(andGate, 0));
+        assertEquals(
+            netlist.getOutputNet(andGate, 0),
+            netlist.findNet("wrapper#2/half#2/bulb#3")
+        );
+        assertEquals(netlist.getOutputNet(1, 0), netlist.findNet("wrapper#2/switch#1"));
+
+        top.setSimulationMode(SimulationMode.NETLIST);
+        for (int row = 0; row < 4; row++) {
+            a.setState((row & 2) != 0);
+            b.setState((row & 1) != 0);
+            top.simulate();
+            assertEquals(row != 3, y.isOn(), "Row " + row);
+        }
+
+        top.syncComponents();
+        assertTrue(hc.isOn(), "Inner bulb written back");
+        assertTrue(ha.isOn(), "Inner switch written back");
+        assertFalse(wy.isOn());
+        assertFalse(sub.getOutput(0));
+    }
+
+    @Test
+    void passThroughLoopsResolveToTheZeroNet() {
+        Circuit inner = new Circuit();
+        Switch in = new Switch();
+        Bulb out = new Bulb();
+        inner.addComponent(in);
+        inner.addComponent(out);
+        inner.addConnection(0, in, 0, out);
+
+        Circuit outer = new Circuit();
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        Bulb bulb = new Bulb();
+        outer.addComponent(sub);
+        outer.addComponent(bulb);
+        outer.addConnection(0, sub, 0, sub);
+        outer.addConnection(0, sub, 0, bulb);
+
+        Netlist netlist = Netlist.flatten(
+            outer.getComponents(),
+            outer.getConnectors()
+        );
+
+        assertEquals(1, netlist.getGateCount());
+        assertEquals(Netlist.ZERO_NET, netlist.getInputNet(0, 0));
+    }
+}
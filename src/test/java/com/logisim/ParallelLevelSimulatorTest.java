@@ -0,0 +1,144 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.NetlistSimulator;
+import com.logisim.domain.simulation.ParallelLevelSimulator;
+import com.logisim.domain.simulation.SimulationMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelLevelSimulatorTest {
+
+    /**
+     * Builds a circuit with three wide levels of mixed gates over a few
+     * switches, and one bulb per gate of the last level.
+     */
+    private static Circuit wideCircuit(List<Switch> switches, int width) {
+        Circuit circuit = new Circuit();
+        List<Component> previous = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Switch sw = new Switch();
+            switches.add(sw);
+            circuit.addComponent(sw);
+            previous.add(sw);
+        }
+        for (int level = 0; level < 3; level++) {
+            List<Component> current = new ArrayList<>();
+            for (int i = 0; i < width; i++) {
+                Component gate = switch ((i + level) % 3) {
+                    case 0 -> new And();
+                    case 1 -> new Or();
+                    default -> new Not();
+                };
+                circuit.addComponent(gate);
+                circuit.addConnection(0, previous.get(i % previous.size()), 0, gate);
+                if (!(gate instanceof Not)) {
+                    circuit.addConnection(
+                        0,
+                        previous.get((i * 7 + 1) % previous.size()),
+                        1,
+                        gate
+                    );
+                }
+                current.add(gate);
+            }
+            previous = current;
+        }
+        for (Component gate : previous) {
+            Bulb bulb = new Bulb();
+            circuit.addComponent(bulb);
+            circuit.addConnection(0, gate, 0, bulb);
+        }
+        return circuit;
+    }
+
+    @Test
+    void wideLevelsMatchTheSequentialNetlistEngine() {
+        List<Switch> switches = new ArrayList<>();
+        Circuit circuit = wideCircuit(switches, 3 * ParallelLevelSimulator.PARALLEL_LEVEL_GATES);
+        Netlist netlist = Netlist.flatten(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelLevelSimulator parallel = new ParallelLevelSimulator(netlist, pool);
+            NetlistSimulator sequential = new NetlistSimulator(netlist);
+            assertEquals(3, parallel.getParallelLevelCount());
+
+            for (int pattern = 0; pattern < 16; pattern++) {
+                for (int i = 0; i < switches.size(); i++) {
+                    switches.get(i).setState(((pattern >> i) & 1) != 0);
+                }
+                assertTrue(parallel.run().isConverged());
+                sequential.run();
+                for (int net = 0; net < netlist.getNetCount(); net++) {
+                    assertEquals(
+                        sequential.get(net),
+                        parallel.get(net),
+                        "Net " + net + " for pattern " + pattern
+                    );
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelModeDrivesBulbsThroughTheCircuitApi() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Or or = new Or();
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(or);
+        circuit.addComponent(not);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, a, 0, or);
+        circuit.addConnection(0, b, 1, or);
+        circuit.addConnection(0, or, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+        circuit.setSimulationMode(SimulationMode.PARALLEL);
+
+        circuit.simulate();
+        assertTrue(bulb.isOn());
+        b.setState(true);
+        assertTrue(circuit.settle().isConverged());
+        assertFalse(bulb.isOn());
+        circuit.syncComponents();
+        assertTrue(or.getOutput(0));
+    }
+
+    @Test
+    void feedbackFallsBackToTheNetlistEngine() {
+        Circuit circuit = new Circuit();
+        Not not = new Not();
+        circuit.addComponent(not);
+        circuit.addConnection(0, not, 0, not);
+        Netlist netlist = Netlist.flatten(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            new ParallelLevelSimulator(netlist, ForkJoinPool.commonPool())
+        );
+
+        circuit.setSimulationMode(SimulationMode.PARALLEL);
+        assertFalse(circuit.settle().isConverged());
+    }
+}
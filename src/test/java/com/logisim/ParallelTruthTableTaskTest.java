@@ -0,0 +1,111 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelTruthTableTaskTest {
+
+    @Test
+    void parallelAnalysisMatchesSequential() {
+        Circuit circuit = buildComparator(9);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            long[][] sequential = circuit.analyzePacked();
+            long[][] parallel = circuit.analyzePacked(pool);
+
+            assertEquals(sequential.length, parallel.length);
+            assertEquals(1 << 12, parallel[0].length, "18 inputs = 4096 words");
+            for (int col = 0; col < sequential.length; col++) {
+                assertArrayEquals(sequential[col], parallel[col]);
+            }
+
+            long matches = 0;
+            for (long word : parallel[0]) {
+                matches += Long.bitCount(word);
+            }
+            assertEquals(1 << 9, matches, "One equal b for every a");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelAnalysisLeavesSwitchesUntouched() {
+        Circuit circuit = buildComparator(9);
+        Switch first = null;
+        for (Component comp : circuit.getComponents()) {
+            if (comp instanceof Switch) {
+                first = (Switch) comp;
+                break;
+            }
+        }
+        first.setState(true);
+
+        circuit.analyze(ForkJoinPool.commonPool());
+
+        assertTrue(first.isOn());
+    }
+
+    /**
+     * Builds an equality comparator of two {@code bits}-wide words, with the
+     * inputs ordered a0..an, b0..bn.
+     */
+    private Circuit buildComparator(int bits) {
+        Circuit circuit = new Circuit();
+        Switch[] a = new Switch[bits];
+        Switch[] b = new Switch[bits];
+        for (int i = 0; i < bits; i++) {
+            a[i] = new Switch();
+            circuit.addComponent(a[i]);
+        }
+        for (int i = 0; i < bits; i++) {
+            b[i] = new Switch();
+            circuit.addComponent(b[i]);
+        }
+
+        Component equal = null;
+        for (int i = 0; i < bits; i++) {
+            // xnor = (a & b) | (!a & !b)
+            And both = new And();
+            Not notA = new Not();
+            Not notB = new Not();
+            And neither = new And();
+            Or xnor = new Or();
+            circuit.addComponent(both);
+            circuit.addComponent(notA);
+            circuit.addComponent(notB);
+            circuit.addComponent(neither);
+            circuit.addComponent(xnor);
+            circuit.addConnection(0, a[i], 0, both);
+            circuit.addConnection(0, b[i], 1, both);
+            circuit.addConnection(0, a[i], 0, notA);
+            circuit.addConnection(0, b[i], 0, notB);
+            circuit.addConnection(0, notA, 0, neither);
+            circuit.addConnection(0, notB, 1, neither);
+            circuit.addConnection(0, both, 0, xnor);
+            circuit.addConnection(0, neither, 1, xnor);
+            if (equal == null) {
+                equal = xnor;
+            } else {
+                And all = new And();
+                circuit.addComponent(all);
+                circuit.addConnection(0, equal, 0, all);
+                circuit.addConnection(0, xnor, 1, all);
+                equal = all;
+            }
+        }
+        Bulb bulb = new Bulb();
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, equal, 0, bulb);
+        return circuit;
+    }
+}
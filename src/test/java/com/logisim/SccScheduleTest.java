@@ -0,0 +1,161 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SccSchedule;
+import com.logisim.domain.simulation.SimulationResult;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SccScheduleTest {
+
+    @Test
+    void groupsFeedbackLoopsIntoOneComponent() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Switch reset = new Switch();
+        Or or1 = new Or();
+        Not not1 = new Not();
+        Or or2 = new Or();
+        Not not2 = new Not();
+        Bulb q = new Bulb();
+        circuit.addComponent(q);
+        circuit.addComponent(or1);
+        circuit.addComponent(not1);
+        circuit.addComponent(or2);
+        circuit.addComponent(not2);
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addConnection(0, reset, 0, or1);
+        circuit.addConnection(0, or1, 0, not1);
+        circuit.addConnection(0, not1, 1, or2);
+        circuit.addConnection(0, set, 0, or2);
+        circuit.addConnection(0, or2, 0, not2);
+        circuit.addConnection(0, not2, 1, or1);
+        circuit.addConnection(0, not1, 0, q);
+
+        SccSchedule schedule = new SccSchedule(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+
+        assertEquals(4, schedule.getGroupCount(), "set, reset, latch, bulb");
+        int loops = 0;
+        for (int g = 0; g < schedule.getGroupCount(); g++) {
+            if (schedule.isCyclic(g)) {
+                loops++;
+                assertEquals(4, schedule.getGroup(g).size());
+            }
+        }
+        assertEquals(1, loops);
+        assertSame(
+            q,
+            schedule.getGroup(schedule.getGroupCount() - 1).get(0),
+            "The bulb is scheduled after the latch"
+        );
+    }
+
+    @Test
+    void srLatchSetsResetsAndHolds() {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Switch reset = new Switch();
+        Or or1 = new Or();
+        Not not1 = new Not();
+        Or or2 = new Or();
+        Not not2 = new Not();
+        Bulb q = new Bulb();
+        circuit.addComponent(q);
+        circuit.addComponent(or1);
+        circuit.addComponent(not1);
+        circuit.addComponent(or2);
+        circuit.addComponent(not2);
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addConnection(0, reset, 0, or1);
+        circuit.addConnection(0, or1, 0, not1);
+        circuit.addConnection(0, not1, 1, or2);
+        circuit.addConnection(0, set, 0, or2);
+        circuit.addConnection(0, or2, 0, not2);
+        circuit.addConnection(0, not2, 1, or1);
+        circuit.addConnection(0, not1, 0, q);
+
+        set.setState(true);
+        assertTrue(circuit.settle().isConverged());
+        assertTrue(q.isOn(), "Set");
+
+        set.setState(false);
+        assertTrue(circuit.settle().isConverged());
+        assertTrue(q.isOn(), "Hold after set");
+
+        reset.setState(true);
+        assertTrue(circuit.settle().isConverged());
+        assertFalse(q.isOn(), "Reset");
+
+        reset.setState(false);
+        assertTrue(circuit.settle().isConverged());
+        assertFalse(q.isOn(), "Hold after reset");
+    }
+
+    @Test
+    void loopCostDoesNotDependOnTheRestOfTheCircuit() {
+        Circuit circuit = new Circuit();
+        Switch sw = new Switch();
+        Or latch = new Or();
+        circuit.addComponent(sw);
+        circuit.addComponent(latch);
+        circuit.addConnection(0, sw, 0, latch);
+        circuit.addConnection(0, latch, 1, latch);
+        Bulb bulb = new Bulb();
+        Not previous = null;
+        for (int i = 0; i < 200; i++) {
+            Not not = new Not();
+            circuit.addComponent(not);
+            circuit.addConnection(0, previous == null ? latch : previous, 0, not);
+            previous = not;
+        }
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, previous, 0, bulb);
+
+        sw.setState(true);
+        SimulationResult result = circuit.settle();
+
+        assertTrue(result.isConverged());
+        assertTrue(result.getPasses() <= 3, "Used " + result.getPasses());
+        assertTrue(bulb.isOn());
+    }
+
+    @Test
+    void oscillatingLoopsAreReportedWithTheirComponents() {
+        Circuit circuit = new Circuit();
+        Switch sw = new Switch();
+        And and = new And();
+        Bulb stable = new Bulb();
+        Not ring = new Not();
+        Bulb flicker = new Bulb();
+        circuit.addComponent(sw);
+        circuit.addComponent(and);
+        circuit.addComponent(stable);
+        circuit.addComponent(ring);
+        circuit.addComponent(flicker);
+        circuit.addConnection(0, sw, 0, and);
+        circuit.addConnection(0, sw, 1, and);
+        circuit.addConnection(0, and, 0, stable);
+        circuit.addConnection(0, ring, 0, ring);
+        circuit.addConnection(0, ring, 0, flicker);
+
+        sw.setState(true);
+        SimulationResult result = circuit.settle();
+
+        assertFalse(result.isConverged());
+        assertTrue(result.isOscillating());
+        assertEquals(List.of(List.of(ring)), result.getOscillatingComponents());
+        assertTrue(stable.isOn(), "The acyclic part is still evaluated");
+    }
+}
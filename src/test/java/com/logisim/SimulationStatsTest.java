@@ -0,0 +1,139 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationStats;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SimulationStatsTest {
+
+    /**
+     * Builds Switch -> Not -> And(both pins) -> Bulb: 4 components, 4 wires.
+     */
+    private static Circuit smallCircuit() {
+        Circuit circuit = new Circuit();
+        Switch sw = new Switch();
+        Not not = new Not();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(sw);
+        circuit.addComponent(not);
+        circuit.addComponent(and);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, sw, 0, not);
+        circuit.addConnection(0, not, 0, and);
+        circuit.addConnection(0, not, 1, and);
+        circuit.addConnection(0, and, 0, bulb);
+        return circuit;
+    }
+
+    @Test
+    void countersAreOffByDefault() {
+        Circuit circuit = smallCircuit();
+        circuit.settle();
+        assertFalse(circuit.isStatsEnabled());
+        assertNull(circuit.getStats());
+    }
+
+    @Test
+    void levelizedCountsEveryComponentAndWire() {
+        Circuit circuit = smallCircuit();
+        circuit.setStatsEnabled(true);
+        circuit.settle();
+        circuit.settle();
+
+        SimulationStats stats = circuit.getStats();
+        assertEquals(2, stats.getRuns());
+        assertEquals(2, stats.getPasses());
+        assertEquals(1, stats.getLastPasses());
+        assertEquals(8, stats.getEvaluations());
+        assertEquals(
+            Map.of("And", 2L, "Bulb", 2L, "Not", 2L, "Switch", 2L),
+            stats.getEvaluationsByType()
+        );
+        assertEquals(8, stats.getPropagations());
+        assertTrue(stats.getTotalNanos() > 0);
+        assertTrue(stats.getMaxPassNanos() >= stats.getLastPassNanos());
+    }
+
+    @Test
+    void netlistCountsGatesPerPass() {
+        Circuit circuit = smallCircuit();
+        circuit.setSimulationMode(SimulationMode.NETLIST);
+        circuit.setStatsEnabled(true);
+        circuit.settle();
+
+        SimulationStats stats = circuit.getStats();
+        assertEquals(1, stats.getPasses());
+        assertEquals(1, (long) stats.getEvaluationsByType().get("And"));
+        assertEquals(4, stats.getPropagations());
+    }
+
+    @Test
+    void sweepReportsPassesUntilConvergence() {
+        Circuit circuit = smallCircuit();
+        circuit.setSimulationMode(SimulationMode.SWEEP);
+        circuit.setStatsEnabled(true);
+        int passes = circuit.settle().getPasses();
+
+        SimulationStats stats = circuit.getStats();
+        assertEquals(passes, stats.getLastPasses());
+        assertEquals(4L * passes, stats.getEvaluations());
+    }
+
+    @Test
+    void hottestSubCircuitsAreTimed() {
+        Circuit outer = new Circuit();
+        Switch sw = new Switch();
+        SubCircuitComponent first = new SubCircuitComponent(smallCircuit());
+        SubCircuitComponent second = new SubCircuitComponent(smallCircuit());
+        Bulb bulb = new Bulb();
+        outer.addComponent(sw);
+        outer.addComponent(first);
+        outer.addComponent(second);
+        outer.addComponent(bulb);
+        outer.addConnection(0, sw, 0, first);
+        outer.addConnection(0, first, 0, second);
+        outer.addConnection(0, second, 0, bulb);
+        outer.setStatsEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            sw.setState(i % 2 == 0);
+            outer.settle();
+        }
+
+        List<SimulationStats.SubCircuitStats> hottest =
+            outer.getStats().getHottestSubCircuits(1);
+        assertEquals(1, hottest.size());
+        assertEquals(3, hottest.get(0).executions());
+        assertEquals(2, outer.getStats().getHottestSubCircuits(5).size());
+        assertEquals(
+            6,
+            (long) outer.getStats().getEvaluationsByType().get("SubCircuitComponent")
+        );
+    }
+
+    @Test
+    void resetAndDisableDiscardCounters() {
+        Circuit circuit = smallCircuit();
+        circuit.setStatsEnabled(true);
+        circuit.settle();
+        circuit.getStats().reset();
+        assertEquals(0, circuit.getStats().getRuns());
+        assertTrue(circuit.getStats().getEvaluationsByType().isEmpty());
+
+        circuit.settle();
+        circuit.setStatsEnabled(true);
+        assertEquals(1, circuit.getStats().getRuns());
+        circuit.setStatsEnabled(false);
+        assertNull(circuit.getStats());
+    }
+}
@@ -0,0 +1,148 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.StimulusRunner;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class StimulusRunnerTest {
+
+    @Test
+    void combinationalVectorsMatchSingleStepSimulation() throws IOException {
+        // out0 = a AND b, out1 = (a OR b) AND NOT c
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        Switch c = new Switch();
+        And and = new And();
+        Or or = new Or();
+        Not not = new Not();
+        And gated = new And();
+        Bulb out0 = new Bulb();
+        Bulb out1 = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(c);
+        circuit.addComponent(and);
+        circuit.addComponent(or);
+        circuit.addComponent(not);
+        circuit.addComponent(gated);
+        circuit.addComponent(out0);
+        circuit.addComponent(out1);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, a, 0, or);
+        circuit.addConnection(0, b, 1, or);
+        circuit.addConnection(0, c, 0, not);
+        circuit.addConnection(0, or, 0, gated);
+        circuit.addConnection(0, not, 1, gated);
+        circuit.addConnection(0, and, 0, out0);
+        circuit.addConnection(0, gated, 0, out1);
+
+        Random random = new Random(42);
+        List<boolean[]> vectors = new ArrayList<>();
+        for (int v = 0; v < 2 * StimulusRunner.BATCH_VECTORS + 77; v++) {
+            vectors.add(new boolean[] {
+                random.nextBoolean(),
+                random.nextBoolean(),
+                random.nextBoolean(),
+            });
+        }
+        Path input = Files.createTempFile("vectors", ".in");
+        Path output = Files.createTempFile("vectors", ".out");
+        try {
+            StimulusRunner.writeInputs(input, 3, vectors);
+            assertEquals(vectors.size(), circuit.runStimulus(input, output));
+            List<boolean[]> results = StimulusRunner.readOutputs(output);
+            assertEquals(vectors.size(), results.size());
+            for (int v = 0; v < vectors.size(); v++) {
+                boolean[] in = vectors.get(v);
+                assertEquals(in[0] && in[1], results.get(v)[0], "Vector " + v);
+                assertEquals((in[0] || in[1]) && !in[2], results.get(v)[1], "Vector " + v);
+            }
+            assertFalse(a.isOn(), "Switch states are restored");
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void latchKeepsStateBetweenVectors() throws IOException {
+        Circuit circuit = new Circuit();
+        Switch set = new Switch();
+        Switch reset = new Switch();
+        Or or1 = new Or();
+        Not not1 = new Not();
+        Or or2 = new Or();
+        Not not2 = new Not();
+        Bulb q = new Bulb();
+        circuit.addComponent(set);
+        circuit.addComponent(reset);
+        circuit.addComponent(or1);
+        circuit.addComponent(not1);
+        circuit.addComponent(or2);
+        circuit.addComponent(not2);
+        circuit.addComponent(q);
+        circuit.addConnection(0, reset, 0, or1);
+        circuit.addConnection(0, or1, 0, not1);
+        circuit.addConnection(0, not1, 1, or2);
+        circuit.addConnection(0, set, 0, or2);
+        circuit.addConnection(0, or2, 0, not2);
+        circuit.addConnection(0, not2, 1, or1);
+        circuit.addConnection(0, not1, 0, q);
+
+        List<boolean[]> vectors = List.of(
+            new boolean[] { true, false },
+            new boolean[] { false, false },
+            new boolean[] { false, true },
+            new boolean[] { false, false }
+        );
+        Path input = Files.createTempFile("latch", ".in");
+        Path output = Files.createTempFile("latch", ".out");
+        try {
+            StimulusRunner.writeInputs(input, 2, vectors);
+            circuit.runStimulus(input, output);
+            List<boolean[]> results = StimulusRunner.readOutputs(output);
+            assertTrue(results.get(0)[0]);
+            assertTrue(results.get(1)[0], "Held after set is released");
+            assertFalse(results.get(2)[0]);
+            assertFalse(results.get(3)[0], "Held after reset is released");
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatDoNotMatchTheCircuit() throws IOException {
+        Circuit circuit = new Circuit();
+        circuit.addComponent(new Switch());
+        Path input = Files.createTempFile("bad", ".in");
+        Path output = Files.createTempFile("bad", ".out");
+        try {
+            Files.write(input, new byte[] { 1, 2, 3 });
+            assertThrows(IOException.class, () -> circuit.runStimulus(input, output));
+
+            StimulusRunner.writeInputs(input, 2, List.of(new boolean[2]));
+            assertThrows(IllegalArgumentException.class, () ->
+                circuit.runStimulus(input, output)
+            );
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SubCircuitCache;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import org.junit.jupiter.api.Test;
+
+class SubCircuitCacheTest {
+
+    private static Circuit andCircuit(long id) {
+        Circuit inner = new Circuit();
+        inner.setId(id);
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        inner.addComponent(a);
+        inner.addComponent(b);
+        inner.addComponent(and);
+        inner.addComponent(bulb);
+        inner.addConnection(0, a, 0, and);
+        inner.addConnection(0, b, 1, and);
+        inner.addConnection(0, and, 0, bulb);
+        return inner;
+    }
+
+    @Test
+    void repeatedInputsAreServedFromTheCache() {
+        SubCircuitComponent sub = new SubCircuitComponent(andCircuit(0));
+        SubCircuitCache cache = sub.getCache();
+        assertTrue(cache.isMemoizable());
+
+        for (int round = 0; round < 3; round++) {
+            for (int row = 0; row < 4; row++) {
+                sub.setInput(0, (row & 1) != 0);
+                sub.setInput(1, (row & 2) != 0);
+                sub.execute();
+                assertEquals(row == 3, sub.getOutput(0), "Row " + row);
+            }
+        }
+
+        assertEquals(4, cache.getMisses());
+        assertEquals(8, cache.getHits());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void instancesOfTheSameDefinitionShareOneCache() {
+        SubCircuitDefinition definition = new SubCircuitDefinition(
+            andCircuit(9001)
+        );
+        SubCircuitComponent first = new SubCircuitComponent(definition);
+        SubCircuitComponent second = new SubCircuitComponent(definition);
+        assertSame(first.getCache(), second.getCache());
+
+        first.setInput(0, true);
+        first.setInput(1, true);
+        first.execute();
+        second.setInput(0, true);
+        second.setInput(1, true);
+        second.execute();
+
+        assertTrue(second.getOutput(0));
+        assertEquals(1, second.getCache().getHits());
+    }
+
+    @Test
+    void instancesOwningTheirCircuitDoNotShareACache() {
+        SubCircuitComponent first = new SubCircuitComponent(andCircuit(9002));
+        SubCircuitComponent second = new SubCircuitComponent(andCircuit(9002));
+        assertNotSame(first.getCache(), second.getCache());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        SubCircuitCache cache = new SubCircuitCache(andCircuit(0), 2);
+        cache.store(1, 0);
+        cache.store(2, 0);
+        assertNotNull(cache.lookup(1));
+        cache.store(3, 1);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.lookup(2), "Least recently used entry evicted");
+        assertNotNull(cache.lookup(1));
+        assertNotNull(cache.lookup(3));
+    }
+
+    @Test
+    void circuitsWithFeedbackAreNotMemoized() {
+        Circuit inner = new Circuit();
+        Switch set = new Switch();
+        Or latch = new Or();
+        Bulb bulb = new Bulb();
+        inner.addComponent(set);
+        inner.addComponent(latch);
+        inner.addComponent(bulb);
+        inner.addConnection(0, set, 0, latch);
+        inner.addConnection(0, latch, 1, latch);
+        inner.addConnection(0, latch, 0, bulb);
+
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        assertFalse(sub.getCache().isMemoizable());
+
+        sub.setInput(0, true);
+        sub.execute();
+        sub.setInput(0, false);
+        sub.execute();
+        assertTrue(sub.getOutput(0), "Latch should hold");
+        assertEquals(0, sub.getCache().getMisses());
+    }
+
+    @Test
+    void editingTheInnerCircuitResetsTheCache() {
+        Circuit inner = andCircuit(0);
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        sub.setInput(0, true);
+        sub.setInput(1, false);
+        sub.execute();
+        assertEquals(1, sub.getCache().size());
+
+        inner.addComponent(new Bulb());
+
+        assertEquals(0, sub.getCache().size());
+    }
+
+    @Test
+    void replacingAGateWithTheSameCountsResetsTheCache() {
+        Circuit inner = andCircuit(0);
+        SubCircuitComponent sub = new SubCircuitComponent(inner);
+        sub.setInput(0, true);
+        sub.setInput(1, false);
+        sub.execute();
+        assertFalse(sub.getOutput(0));
+
+        Component and = inner.getComponents().get(2);
+        Or or = new Or();
+        inner.removeComponent(and);
+        inner.addComponent(or);
+        inner.addConnection(0, inner.getComponents().get(0), 0, or);
+        inner.addConnection(0, inner.getComponents().get(1), 1, or);
+        inner.addConnection(0, or, 0, inner.getComponents().get(2));
+
+        sub.execute();
+        assertTrue(sub.getOutput(0), "Result of the Or, not the cached And");
+    }
+}
@@ -0,0 +1,221 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Or;
+import com.logisim.domain.components.SubCircuitComponent;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SubCircuitDefinition;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SubCircuitDefinitionTest {
+
+    private static Circuit latchCircuit() {
+        Circuit inner = new Circuit();
+        Switch set = new Switch();
+        Or latch = new Or();
+        Bulb bulb = new Bulb();
+        inner.addComponent(set);
+        inner.addComponent(latch);
+        inner.addComponent(bulb);
+        inner.addConnection(0, set, 0, latch);
+        inner.addConnection(0, latch, 1, latch);
+        inner.addConnection(0, latch, 0, bulb);
+        return inner;
+    }
+
+    @Test
+    void instancesShareTheCircuitButNotTheirState() {
+        SubCircuitDefinition definition = new SubCircuitDefinition(
+            latchCircuit()
+        );
+        SubCircuitComponent first = new SubCircuitComponent(definition);
+        SubCircuitComponent second = new SubCircuitComponent(definition);
+
+        assertTrue(first.isShared());
+        assertSame(first.getInnerCircuit(), second.getInnerCircuit());
+        assertEquals(1, first.getInputs().length);
+        assertEquals(1, first.getOutputs().length);
+
+        first.setInput(0, true);
+        first.execute();
+        first.setInput(0, false);
+        first.execute();
+        second.execute();
+
+        assertTrue(first.getOutput(0), "First latch holds");
+        assertFalse(second.getOutput(0), "Second latch was never set");
+    }
+
+    @Test
+    void sharedInstancesAreInlinedPerInstance() {
+        Circuit inner = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb y = new Bulb();
+        inner.setName("and2");
+        inner.addComponent(a);
+        inner.addComponent(b);
+        inner.addComponent(and);
+        inner.addComponent(y);
+        inner.addConnection(0, a, 0, and);
+        inner.addConnection(0, b, 1, and);
+        inner.addConnection(0, and, 0, y);
+        SubCircuitDefinition definition = new SubCircuitDefinition(inner);
+
+        Circuit top = new Circuit();
+        Switch x0 = new Switch();
+        Switch x1 = new Switch();
+        Switch x2 = new Switch();
+        SubCircuitComponent first = new SubCircuitComponent(definition);
+        SubCircuitComponent second = new SubCircuitComponent(definition);
+        Bulb out = new Bulb();
+        top.addComponent(x0);
+        top.addComponent(x1);
+        top.addComponent(x2);
+        top.addComponent(first);
+        top.addComponent(second);
+        top.addComponent(out);
+        top.addConnection(0, x0, 0, first);
+        top.addConnection(0, x1, 1, first);
+        top.addConnection(0, first, 0, second);
+        top.addConnection(0, x2, 1, second);
+        top.addConnection(0, second, 0, out);
+
+        for (SimulationMode mode : SimulationMode.values()) {
+            top.setSimulationMode(mode);
+            for (int row = 0; row < 8; row++) {
+                x0.setState((row & 1) != 0);
+                x1.setState((row & 2) != 0);
+                x2.setState((row & 4) != 0);
+                top.settle();
+                assertEquals(row == 7, out.isOn(), mode + " row " + row);
+            }
+        }
+    }
+
+    @Test
+    void syncLeavesTheSharedTemplateUntouched() {
+        Circuit inner = new Circuit();
+        Switch a = new Switch();
+        Not not = new Not();
+        Bulb y = new Bulb();
+        inner.addComponent(a);
+        inner.addComponent(not);
+        inner.addComponent(y);
+        inner.addConnection(0, a, 0, not);
+        inner.addConnection(0, not, 0, y);
+        SubCircuitDefinition definition = new SubCircuitDefinition(inner);
+
+        Circuit top = new Circuit();
+        top.setSimulationMode(SimulationMode.NETLIST);
+        Switch x = new Switch();
+        SubCircuitComponent sub = new SubCircuitComponent(definition);
+        Bulb out = new Bulb();
+        top.addComponent(x);
+        top.addComponent(sub);
+        top.addComponent(out);
+        top.addConnection(0, x, 0, sub);
+        top.addConnection(0, sub, 0, out);
+
+        x.setState(true);
+        top.settle();
+        top.syncComponents();
+
+        assertFalse(out.isOn());
+        assertTrue(sub.getInputs()[0], "Instance pins are written");
+        assertFalse(a.isOn(), "Template switch untouched");
+        assertFalse(not.getInputs()[0], "Template gate untouched");
+        assertFalse(y.isOn(), "Template bulb untouched");
+    }
+
+    @Test
+    void theSharedTemplateIsReadOnly() {
+        Circuit inner = latchCircuit();
+        SubCircuitDefinition definition = new SubCircuitDefinition(inner);
+        SubCircuitComponent sub = new SubCircuitComponent(definition);
+        Circuit template = sub.getInnerCircuit();
+
+        assertTrue(template.isFrozen());
+        assertThrows(IllegalStateException.class, () ->
+            template.addComponent(new Not())
+        );
+        assertThrows(IllegalStateException.class, () ->
+            template.addConnection(0, 1, 0, 2)
+        );
+        assertThrows(IllegalStateException.class, () ->
+            template.removeComponent(template.getComponents().get(0))
+        );
+        assertThrows(UnsupportedOperationException.class, () ->
+            template.getConnectors().clear()
+        );
+        assertEquals(3, template.getComponents().size());
+        assertEquals(3, template.getConnectors().size());
+    }
+
+    @Test
+    void definitionsAreLoadedOncePerSource() {
+        SubCircuitDefinition.invalidate(7001);
+        int[] loads = { 0 };
+        SubCircuitDefinition first = SubCircuitDefinition.forSource(7001, () -> {
+            loads[0]++;
+            return latchCircuit();
+        });
+        SubCircuitDefinition second = SubCircuitDefinition.forSource(7001, () -> {
+            loads[0]++;
+            return latchCircuit();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads[0]);
+        SubCircuitDefinition.invalidate(7001);
+    }
+
+    @Test
+    void concurrentFirstLoadsShareOneDefinition() throws Exception {
+        SubCircuitDefinition.invalidate(7003);
+        CountDownLatch bothLoading = new CountDownLatch(2);
+        Callable<SubCircuitDefinition> load = () ->
+            SubCircuitDefinition.forSource(7003, () -> {
+                bothLoading.countDown();
+                try {
+                    bothLoading.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return latchCircuit();
+            });
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<SubCircuitDefinition> first = pool.submit(load);
+            Future<SubCircuitDefinition> second = pool.submit(load);
+            assertSame(first.get(), second.get());
+        } finally {
+            pool.shutdown();
+            SubCircuitDefinition.invalidate(7003);
+        }
+    }
+
+    @Test
+    void circuitsContainingThemselvesAreRejected() {
+        SubCircuitDefinition.invalidate(7002);
+        assertThrows(IllegalStateException.class, () ->
+            SubCircuitDefinition.forSource(7002, () -> {
+                SubCircuitDefinition.forSource(7002, Circuit::new);
+                return new Circuit();
+            })
+        );
+    }
+}
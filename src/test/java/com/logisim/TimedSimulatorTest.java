@@ -0,0 +1,144 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.components.And;
+import com.logisim.domain.components.Bulb;
+import com.logisim.domain.components.Component;
+import com.logisim.domain.components.Not;
+import com.logisim.domain.components.Switch;
+import com.logisim.domain.simulation.DelayModel;
+import com.logisim.domain.simulation.Netlist;
+import com.logisim.domain.simulation.SimulationMode;
+import com.logisim.domain.simulation.SimulationResult;
+import com.logisim.domain.simulation.TimedSimulator;
+import com.logisim.domain.simulation.TimingTrace;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimedSimulatorTest {
+
+    private static Netlist compile(Circuit circuit) {
+        return Netlist.flatten(circuit.getComponents(), circuit.getConnectors());
+    }
+
+    @Test
+    void staticHazardProducesAGlitch() {
+        // a AND NOT a is always 0, but the inverter delay lets a pulse through.
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Not not = new Not();
+        And and = new And();
+        circuit.addComponent(a);
+        circuit.addComponent(not);
+        circuit.addComponent(and);
+        circuit.addConnection(0, a, 0, not);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, not, 1, and);
+
+        Netlist netlist = compile(circuit);
+        TimedSimulator simulator = new TimedSimulator(netlist, new DelayModel());
+        assertTrue(simulator.run(100).isQuiescent());
+
+        a.setState(true);
+        long start = simulator.getTime();
+        TimingTrace trace = simulator.run(100);
+        int andNet = netlist.getOutputNet(2, 0);
+        List<TimingTrace.NetChange> glitch = trace.getChanges(andNet);
+        assertEquals(2, glitch.size(), "The And output rises and falls");
+        assertEquals(new TimingTrace.NetChange(start + 1, andNet, true), glitch.get(0));
+        assertEquals(new TimingTrace.NetChange(start + 2, andNet, false), glitch.get(1));
+        assertFalse(simulator.get(andNet));
+    }
+
+    @Test
+    void chainDelayIsTheSumOfGateDelays() {
+        Circuit circuit = new Circuit();
+        Switch in = new Switch();
+        circuit.addComponent(in);
+        Component previous = in;
+        for (int i = 0; i < 10; i++) {
+            Not not = new Not();
+            circuit.addComponent(not);
+            circuit.addConnection(0, previous, 0, not);
+            previous = not;
+        }
+        Bulb out = new Bulb();
+        circuit.addComponent(out);
+        circuit.addConnection(0, previous, 0, out);
+
+        DelayModel model = new DelayModel();
+        model.setDelay(Not.class, 3);
+        Netlist netlist = compile(circuit);
+        TimedSimulator simulator = new TimedSimulator(netlist, model);
+        simulator.run(1000);
+
+        in.setState(true);
+        TimingTrace trace = simulator.run(1000);
+        int outNet = netlist.getInputNet(11, 0);
+        assertEquals(30, trace.getLastChangeTime(outNet) - trace.get(0).time());
+        assertTrue(trace.isQuiescent());
+        simulator.writeBackBulbs();
+        assertTrue(out.isOn());
+    }
+
+    @Test
+    void delayModelResolvesSuperclassesAndRejectsNonPositiveDelays() {
+        DelayModel model = new DelayModel();
+        assertEquals(1, model.getDelay(And.class));
+        model.setDelay(Component.class, 4);
+        assertEquals(4, model.getDelay(Switch.class));
+        assertEquals(1, model.getDelay(Not.class), "Own delay wins");
+        model.setDelay(And.class, 7);
+        assertEquals(7, model.getMaxDelay());
+        assertThrows(IllegalArgumentException.class, () ->
+            model.setDelay(Not.class, 0)
+        );
+    }
+
+    @Test
+    void ringOscillatorNeverBecomesQuiescent() {
+        Circuit circuit = new Circuit();
+        Not not = new Not();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(not);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, not, 0, not);
+        circuit.addConnection(0, not, 0, bulb);
+        circuit.setSimulationMode(SimulationMode.TIMED);
+
+        TimingTrace trace = circuit.simulateTimed(20);
+        assertFalse(trace.isQuiescent());
+        assertTrue(trace.size() >= 20, "The net toggles every time unit");
+
+        SimulationResult result = circuit.settle();
+        assertFalse(result.isConverged());
+        assertTrue(result.isOscillating());
+    }
+
+    @Test
+    void timedModeSettlesCombinationalCircuits() {
+        Circuit circuit = new Circuit();
+        Switch a = new Switch();
+        Switch b = new Switch();
+        And and = new And();
+        Bulb bulb = new Bulb();
+        circuit.addComponent(a);
+        circuit.addComponent(b);
+        circuit.addComponent(and);
+        circuit.addComponent(bulb);
+        circuit.addConnection(0, a, 0, and);
+        circuit.addConnection(0, b, 1, and);
+        circuit.addConnection(0, and, 0, bulb);
+        circuit.setSimulationMode(SimulationMode.TIMED);
+
+        a.setState(true);
+        b.setState(true);
+        assertTrue(circuit.settle().isConverged());
+        assertTrue(bulb.isOn());
+        b.setState(false);
+        circuit.simulate();
+        assertFalse(bulb.isOn());
+    }
+}
@@ -0,0 +1,100 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.simulation.BitParallelEvaluator;
+import com.logisim.domain.simulation.TruthTableRow;
+import com.logisim.domain.simulation.TruthTableSpliterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class TruthTableStreamTest {
+
+    private static void assertSameRows(boolean[][] table, List<TruthTableRow> rows) {
+        assertEquals(table.length, rows.size());
+        for (int row = 0; row < table.length; row++) {
+            assertEquals((long) row, rows.get(row).getIndex());
+            assertArrayEquals(table[row], rows.get(row).toArray(), "Row " + row);
+        }
+    }
+
+    @Test
+    void streamedRowsMatchTheMaterializedTable() {
+        Circuit circuit = CircuitGenerator.randomDag(10, 80, 6, 3, 4);
+        List<TruthTableRow> rows = circuit.streamTruthTable().collect(Collectors.toList());
+        assertSameRows(circuit.analyze(), rows);
+
+        long[][] columns = circuit.analyzePacked();
+        for (TruthTableRow row : rows) {
+            assertArrayEquals(
+                row.toArray(),
+                TruthTableRow.fromColumns(columns, 10, row.getIndex()).toArray()
+            );
+        }
+
+        // Fewer than 64 rows: a single, partly used word.
+        Circuit adder = CircuitGenerator.fullAdder();
+        assertSameRows(adder.analyze(), adder.streamTruthTable().collect(Collectors.toList()));
+    }
+
+    @Test
+    void circuitsWithFeedbackAreSimulatedRowByRow() {
+        boolean[][] table = CircuitGenerator.srLatchArray(2).analyze();
+        List<TruthTableRow> rows = CircuitGenerator
+            .srLatchArray(2)
+            .streamTruthTable()
+            .collect(Collectors.toList());
+        assertSameRows(table, rows);
+    }
+
+    @Test
+    void parallelStreamsSplitAtWordBoundaries() {
+        Circuit circuit = CircuitGenerator.randomDag(20, 300, 10, 3, 9);
+        long[] column = circuit.analyzePacked()[0];
+        long ones = 0;
+        for (long word : column) {
+            ones += Long.bitCount(word);
+        }
+        assertEquals(
+            ones,
+            circuit.streamTruthTable().parallel().filter(row -> row.getOutput(0)).count()
+        );
+
+        BitParallelEvaluator evaluator = new BitParallelEvaluator(
+            circuit.getComponents(),
+            circuit.getConnectors()
+        );
+        TruthTableSpliterator rest = new TruthTableSpliterator(evaluator, 0, 1L << 20);
+        Spliterator<TruthTableRow> prefix = rest.trySplit();
+        assertNotNull(prefix);
+        assertEquals(0L, prefix.estimateSize() % 64);
+        assertEquals(1L << 20, prefix.estimateSize() + rest.estimateSize());
+        assertNull(new TruthTableSpliterator(evaluator, 0, 64).trySplit());
+    }
+
+    @Test
+    void wideCircuitsStreamWithoutATable() {
+        // 20-bit adder: 41 inputs, 2^41 rows.
+        int bits = 20;
+        Circuit adder = CircuitGenerator.rippleCarryAdder(bits);
+        assertThrows(IllegalStateException.class, adder::analyze);
+        assertThrows(IllegalStateException.class, adder::analyzePacked);
+
+        List<TruthTableRow> rows = adder
+            .streamTruthTable()
+            .limit(5000)
+            .collect(Collectors.toList());
+        assertEquals(5000, rows.size());
+        for (TruthTableRow row : rows) {
+            assertEquals(2 * bits + 1, row.getInputCount());
+            // S0 = A0 ^ B0 ^ Cin.
+            boolean expected = row.getInput(0) ^ row.getInput(bits) ^ row.getInput(2 * bits);
+            assertEquals(expected, row.getOutput(0));
+        }
+        assertEquals(1L << (2 * bits + 1), adder.streamTruthTable().spliterator().estimateSize());
+    }
+}
@@ -0,0 +1,174 @@
+package com.logisim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.logisim.domain.Circuit;
+import com.logisim.domain.generator.CircuitGenerator;
+import com.logisim.domain.minimization.ExpressionForm;
+import com.logisim.domain.simulation.TruthTable;
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class TruthTableTest {
+
+    private static void assertSameColumns(long[][] columns, TruthTable table) {
+        assertEquals(columns.length, table.getOutputCount());
+        for (int col = 0; col < columns.length; col++) {
+            assertArrayEquals(columns[col], table.toColumn(col), "Column " + col);
+        }
+    }
+
+    @Test
+    void tableMatchesTheOtherAnalyses() {
+        Circuit circuit = CircuitGenerator.randomDag(12, 120, 5, 3, 21);
+        long[][] columns = circuit.analyzePacked();
+        TruthTable table = circuit.analyzeTable(ForkJoinPool.commonPool());
+        assertEquals(TruthTable.Storage.HEAP, table.getStorage());
+        assertEquals(1L << 12, table.getRowCount());
+        assertSameColumns(columns, table);
+
+        boolean[][] rows = circuit.analyze();
+        for (int row = 0; row < rows.length; row += 37) {
+            assertArrayEquals(rows[row], table.getRow(row).toArray(), "Row " + row);
+        }
+        for (int col = 0; col < columns.length; col++) {
+            long ones = 0;
+            for (boolean[] row : rows) {
+                if (row[12 + col]) ones++;
+            }
+            assertEquals(ones, table.popCount(col));
+        }
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            names.add("I" + i);
+        }
+        assertEquals(
+            circuit.generateBooleanExpressions(columns, names, ExpressionForm.SUM_OF_PRODUCTS),
+            circuit.generateBooleanExpressions(table, names, ExpressionForm.SUM_OF_PRODUCTS)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+            circuit.generateBooleanExpressions(
+                table,
+                names.subList(0, 3),
+                ExpressionForm.SUM_OF_PRODUCTS
+            )
+        );
+
+        // Feedback: rows are simulated one by one, then packed.
+        Circuit latches = CircuitGenerator.srLatchArray(2);
+        assertSameColumns(latches.analyzePacked(), latches.analyzeTable());
+    }
+
+    @Test
+    void largeTablesLeaveTheHeap() throws IOException {
+        Circuit circuit = CircuitGenerator.randomDag(16, 200, 6, 3, 5);
+        TruthTable heap = circuit.analyzeTable();
+        Path directory = Files.createTempDirectory("spill");
+        try {
+            try (
+                TruthTable mapped = circuit.analyzeTable(
+                    ForkJoinPool.commonPool(),
+                    0,
+                    directory
+                )
+            ) {
+                assertEquals(TruthTable.Storage.MAPPED, mapped.getStorage());
+                for (int col = 0; col < heap.getOutputCount(); col++) {
+                    assertTrue(heap.columnEquals(col, mapped, col));
+                    assertEquals(-1L, mapped.firstDifference(col, heap, col));
+                }
+                assertSameColumns(circuit.analyzePacked(), mapped);
+            }
+            // The spill file is gone once the table is closed.
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0L, files.count());
+            }
+
+            // Small tables stay on the heap even with a spill directory.
+            TruthTable small = CircuitGenerator
+                .fullAdder()
+                .analyzeTable(null, 1 << 20, directory);
+            assertEquals(TruthTable.Storage.HEAP, small.getStorage());
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+
+        TruthTable direct = TruthTable.allocate(16, 3, 0);
+        assertEquals(TruthTable.Storage.OFF_HEAP, direct.getStorage());
+        direct.setWord(2, 1023, -1L);
+        assertEquals(64L, direct.popCount(2));
+        assertTrue(direct.getOutput(2, 1023 * 64 + 5));
+        assertFalse(direct.getOutput(1, 1023 * 64 + 5));
+    }
+
+    @Test
+    void tablesRoundTripThroughAFile() throws IOException {
+        TruthTable table = CircuitGenerator.rippleCarryAdder(4).analyzeTable();
+        Path file = Files.createTempFile("table", ".lstt");
+        try {
+            table.save(file);
+            assertEquals(
+                TruthTable.HEADER_BYTES + 5L * table.getWordCount() * Long.BYTES,
+                Files.size(file)
+            );
+            try (TruthTable loaded = TruthTable.open(file)) {
+                assertEquals(TruthTable.Storage.MAPPED, loaded.getStorage());
+                assertEquals(9, loaded.getInputCount());
+                assertEquals(5, loaded.getOutputCount());
+                for (int col = 0; col < 5; col++) {
+                    assertTrue(table.columnEquals(col, loaded, col));
+                }
+                assertThrows(ReadOnlyBufferException.class, () -> loaded.setWord(0, 0, 1L));
+            }
+
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+            assertThrows(IOException.class, () -> TruthTable.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void columnsOfDifferentDesignsCanBeDiffed() {
+        int bits = 6;
+        TruthTable ripple = CircuitGenerator.rippleCarryAdder(bits).analyzeTable();
+        TruthTable lookahead = CircuitGenerator.carryLookaheadAdder(bits).analyzeTable();
+        for (int col = 0; col <= bits; col++) {
+            assertTrue(ripple.columnEquals(col, lookahead, col));
+            assertEquals(0L, ripple.differenceCount(col, lookahead, col));
+        }
+
+        // Pair S0 with S1, which differ in some rows.
+        long first = ripple.firstDifference(0, lookahead, 1);
+        assertTrue(first >= 0);
+        assertNotEquals(ripple.getOutput(0, first), lookahead.getOutput(1, first));
+        for (long row = 0; row < first; row++) {
+            assertEquals(ripple.getOutput(0, row), lookahead.getOutput(1, row));
+        }
+        assertFalse(ripple.columnEquals(0, lookahead, 1));
+
+        TruthTable diff = ripple.xor(lookahead);
+        for (int col = 0; col <= bits; col++) {
+            assertEquals(0L, diff.popCount(col));
+        }
+        long differences = ripple.differenceCount(0, lookahead, 1);
+        long ones = 0;
+        for (long row = 0; row < ripple.getRowCount(); row++) {
+            if (ripple.getOutput(0, row) != lookahead.getOutput(1, row)) ones++;
+        }
+        assertEquals(ones, differences);
+
+        TruthTable other = CircuitGenerator.rippleCarryAdder(bits - 1).analyzeTable();
+        assertThrows(IllegalArgumentException.class, () -> ripple.columnEquals(0, other, 0));
+        assertThrows(IllegalArgumentException.class, () -> ripple.xor(null));
+        assertThrows(IllegalArgumentException.class, () -> TruthTable.allocate(31, 1));
+    }
+}